@@ -0,0 +1,35 @@
+package com.tradebyte.todo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Adds CBOR ({@code application/cbor}) next to JSON for request and response bodies.
+ * Clients opt in through the Accept and Content-Type headers; timestamps are sent as
+ * epoch milliseconds instead of ISO strings.
+ */
+@Configuration
+public class BinaryContentConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Spring MVC registers a default CBOR converter when the format is on the classpath
+        converters.removeIf(MappingJackson2CborHttpMessageConverter.class::isInstance);
+        converters.add(new MappingJackson2CborHttpMessageConverter(cborObjectMapper()));
+    }
+
+    public static ObjectMapper cborObjectMapper() {
+        return Jackson2ObjectMapperBuilder.cbor()
+                // registered last so it takes precedence over the ISO handling of JavaTimeModule
+                .modules(new JavaTimeModule(), new EpochMillisTimestampModule(ZoneId.systemDefault()))
+                .build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.tradebyte.todo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo.filter.AimdConcurrencyLimiter;
+import com.tradebyte.todo.filter.ConcurrencyLimitFilter;
+import com.tradebyte.todo.filter.ConcurrencyLimitFilter.RequestClass;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(name = "todo.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Value("${todo.concurrency-limit.min-limit:4}")
+    private int minLimit;
+
+    @Value("${todo.concurrency-limit.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${todo.concurrency-limit.read.max-limit:200}")
+    private int readMaxLimit;
+
+    @Value("${todo.concurrency-limit.read.latency-threshold-ms:100}")
+    private long readLatencyThresholdMillis;
+
+    @Value("${todo.concurrency-limit.write.max-limit:50}")
+    private int writeMaxLimit;
+
+    @Value("${todo.concurrency-limit.write.latency-threshold-ms:200}")
+    private long writeLatencyThresholdMillis;
+
+    @Value("${todo.concurrency-limit.bulk.max-limit:10}")
+    private int bulkMaxLimit;
+
+    @Value("${todo.concurrency-limit.bulk.latency-threshold-ms:1000}")
+    private long bulkLatencyThresholdMillis;
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(ObjectMapper objectMapper,
+                                                                                 MeterRegistry meterRegistry) {
+        Map<RequestClass, AimdConcurrencyLimiter> limiters = Map.of(
+                RequestClass.READ, new AimdConcurrencyLimiter(
+                        minLimit, readMaxLimit, readLatencyThresholdMillis, backoffRatio),
+                RequestClass.WRITE, new AimdConcurrencyLimiter(
+                        minLimit, writeMaxLimit, writeLatencyThresholdMillis, backoffRatio),
+                RequestClass.BULK, new AimdConcurrencyLimiter(
+                        Math.min(minLimit, bulkMaxLimit), bulkMaxLimit, bulkLatencyThresholdMillis, backoffRatio)
+        );
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(limiters, objectMapper, meterRegistry));
+        registration.addUrlPatterns("/v1/todos", "/v1/todos/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,61 @@
+package com.tradebyte.todo.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Encodes {@link LocalDateTime} values as epoch milliseconds in the service time zone.
+ * Used for binary payloads, where a single integer is far smaller and cheaper to
+ * produce than an ISO-8601 string. ISO strings are still accepted on input.
+ */
+public class EpochMillisTimestampModule extends SimpleModule {
+
+    public EpochMillisTimestampModule(ZoneId zoneId) {
+        super("EpochMillisTimestampModule");
+        addSerializer(LocalDateTime.class, new Serializer(zoneId));
+        addDeserializer(LocalDateTime.class, new Deserializer(zoneId));
+    }
+
+    private static final class Serializer extends JsonSerializer<LocalDateTime> {
+
+        private final ZoneId zoneId;
+
+        private Serializer(ZoneId zoneId) {
+            this.zoneId = zoneId;
+        }
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeNumber(value.atZone(zoneId).toInstant().toEpochMilli());
+        }
+    }
+
+    private static final class Deserializer extends JsonDeserializer<LocalDateTime> {
+
+        private final ZoneId zoneId;
+
+        private Deserializer(ZoneId zoneId) {
+            this.zoneId = zoneId;
+        }
+
+        @Override
+        public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return LocalDateTime.ofInstant(Instant.ofEpochMilli(parser.getLongValue()), zoneId);
+            }
+            return LocalDateTime.parse(parser.getValueAsString());
+        }
+    }
+}
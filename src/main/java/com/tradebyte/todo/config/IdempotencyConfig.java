@@ -0,0 +1,63 @@
+package com.tradebyte.todo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo.filter.IdempotencyFilter;
+import com.tradebyte.todo.filter.IdempotencyStore;
+import com.tradebyte.todo.filter.InMemoryIdempotencyStore;
+import com.tradebyte.todo.filter.JdbcIdempotencyStore;
+import com.tradebyte.todo.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Registers the {@link IdempotencyFilter}. Responses are remembered in memory by
+ * default; with {@code todo.idempotency.store=jdbc} they are kept in the database, so
+ * they survive restarts and are shared by all instances. The filter runs before the
+ * concurrency limiter, so replays and waiting duplicates do not take a slot.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todo.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    @Value("${todo.idempotency.ttl-ms:86400000}")
+    private long ttlMillis;
+
+    @Value("${todo.idempotency.lock-timeout-ms:30000}")
+    private long lockTimeoutMillis;
+
+    @Value("${todo.idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMillis;
+
+    @Value("${todo.idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Bean
+    @ConditionalOnProperty(name = "todo.idempotency.store", havingValue = "memory", matchIfMissing = true)
+    public IdempotencyStore inMemoryIdempotencyStore(MeterRegistry meterRegistry) {
+        return new InMemoryIdempotencyStore(ttlMillis, lockTimeoutMillis, maxEntries, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "todo.idempotency.store", havingValue = "jdbc")
+    public IdempotencyStore jdbcIdempotencyStore(IdempotencyRecordRepository repository) {
+        return new JdbcIdempotencyStore(repository, Duration.ofMillis(ttlMillis), Duration.ofMillis(lockTimeoutMillis));
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore idempotencyStore,
+                                                                       ObjectMapper objectMapper,
+                                                                       MeterRegistry meterRegistry) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                new IdempotencyFilter(idempotencyStore, waitTimeoutMillis, objectMapper, meterRegistry));
+        registration.addUrlPatterns("/v1/todos", "/v1/todos/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 7);
+        return registration;
+    }
+}
@@ -0,0 +1,74 @@
+package com.tradebyte.todo.config;
+
+import com.tradebyte.todo.profiling.JfrEndpoint;
+import com.tradebyte.todo.profiling.JfrRecordings;
+import com.tradebyte.todo.profiling.TodoServiceEventPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Java Flight Recorder support: custom events around {@code TodoService} methods and the
+ * past due sweep, the {@code jfr} actuator endpoint, and the continuous recording that is
+ * started with the application if {@code todo.jfr.continuous.enabled=true}.
+ * <p>
+ * The endpoint is only reachable once {@code jfr} is added to
+ * {@code management.endpoints.web.exposure.include}. Recordings contain environment
+ * variables and system properties, so expose it on a separate, internal
+ * {@code management.server.port}.
+ */
+@Configuration
+public class JfrConfig {
+
+    @Value("${todo.jfr.max-duration-ms:600000}")
+    private long maxDurationMillis;
+
+    @Value("${todo.jfr.default-duration-ms:60000}")
+    private long defaultDurationMillis;
+
+    @Value("${todo.jfr.max-recordings:4}")
+    private int maxRecordings;
+
+    @Value("${todo.jfr.continuous.enabled:false}")
+    private boolean continuousEnabled;
+
+    @Value("${todo.jfr.continuous.settings:default}")
+    private String continuousSettings;
+
+    @Value("${todo.jfr.continuous.max-age-ms:900000}")
+    private long continuousMaxAgeMillis;
+
+    @Value("${todo.jfr.continuous.max-size-mb:100}")
+    private long continuousMaxSizeMb;
+
+    @Bean
+    public static TodoServiceEventPostProcessor todoServiceEventPostProcessor() {
+        return new TodoServiceEventPostProcessor();
+    }
+
+    @Bean
+    public JfrRecordings jfrRecordings() {
+        return new JfrRecordings(Duration.ofMillis(maxDurationMillis), maxRecordings);
+    }
+
+    @Bean
+    public ApplicationListener<ApplicationStartedEvent> continuousJfrRecording(JfrRecordings jfrRecordings) {
+        return event -> {
+            if (continuousEnabled) {
+                jfrRecordings.startContinuous(continuousSettings, Duration.ofMillis(continuousMaxAgeMillis),
+                        continuousMaxSizeMb * 1024 * 1024);
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnAvailableEndpoint(endpoint = JfrEndpoint.class)
+    public JfrEndpoint jfrEndpoint(JfrRecordings jfrRecordings) {
+        return new JfrEndpoint(jfrRecordings, Duration.ofMillis(defaultDurationMillis).toSeconds());
+    }
+}
@@ -0,0 +1,47 @@
+package com.tradebyte.todo.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import com.tradebyte.todo.logging.RateLimitingTurboFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Publishes what the logging setup of {@code logback-spring.xml} throws away: messages
+ * suppressed by each {@link RateLimitingTurboFilter}, and the fill level of the
+ * asynchronous console queues, which drop events once full.
+ */
+@Configuration
+public class LoggingMetricsConfig {
+
+    @Bean
+    public MeterBinder loggingMetrics() {
+        return registry -> {
+            if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+                return;
+            }
+            context.getTurboFilterList().forEach(turboFilter -> {
+                if (turboFilter instanceof RateLimitingTurboFilter rateLimiter) {
+                    FunctionCounter.builder("todo.logging.suppressed", rateLimiter,
+                                    RateLimitingTurboFilter::getSuppressedCount)
+                            .description("Log messages dropped by rate limiting")
+                            .tag("category", String.valueOf(rateLimiter.getName()))
+                            .register(registry);
+                }
+            });
+            context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders().forEachRemaining(appender -> {
+                if (appender instanceof AsyncAppender asyncAppender) {
+                    Gauge.builder("todo.logging.async.queued", asyncAppender, AsyncAppender::getNumberOfElementsInQueue)
+                            .description("Log events waiting in the asynchronous appender queue")
+                            .tag("appender", asyncAppender.getName())
+                            .register(registry);
+                }
+            });
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package com.tradebyte.todo.config;
+
+import com.tradebyte.todo.datasource.ReadWriteRoutingDataSource;
+import com.tradebyte.todo.filter.ReadYourWritesFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Replaces the single data source with a primary pool plus one pool per read replica.
+ * Read-only transactions go to the replicas, everything else to the primary, see
+ * {@link ReadWriteRoutingDataSource}. Replication itself is not part of this service;
+ * the replicas only have to be reachable with the primary's credentials.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todo.datasource.routing.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Value("${todo.datasource.routing.replica-urls:}")
+    private String[] replicaUrls;
+
+    @Value("${todo.datasource.routing.replica-pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${todo.datasource.routing.replica-connection-timeout-ms:1000}")
+    private long replicaConnectionTimeoutMillis;
+
+    @Value("${todo.datasource.routing.health-check-interval-ms:5000}")
+    private long healthCheckIntervalMillis;
+
+    @Value("${todo.datasource.routing.health-check-timeout-seconds:1}")
+    private int healthCheckTimeoutSeconds;
+
+    @Value("${todo.datasource.routing.read-your-writes-ms:2000}")
+    private long readYourWritesMillis;
+
+    @Bean(destroyMethod = "close")
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSourceProperties properties,
+                                                                 MeterRegistry meterRegistry) {
+        MicrometerMetricsTrackerFactory metricsTrackerFactory = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(metricsTrackerFactory);
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        List<String> urls = Arrays.stream(replicaUrls).map(String::trim).filter(url -> !url.isEmpty()).toList();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(urls.get(i));
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setUsername(properties.determineUsername());
+            replica.setPassword(properties.determinePassword());
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setConnectionTimeout(replicaConnectionTimeoutMillis);
+            replica.setMetricsTrackerFactory(metricsTrackerFactory);
+            replicas.add(replica);
+        }
+
+        return new ReadWriteRoutingDataSource(primary, replicas,
+                healthCheckIntervalMillis, healthCheckTimeoutSeconds, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(
+                new ReadYourWritesFilter(readYourWritesMillis, meterRegistry));
+        registration.addUrlPatterns("/v1/todos", "/v1/todos/*");
+        // Ahead of the response cache, which must know whether the request is pinned
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 3);
+        return registration;
+    }
+}
@@ -0,0 +1,47 @@
+package com.tradebyte.todo.config;
+
+import com.tradebyte.todo.filter.ResponseBytesCache;
+import com.tradebyte.todo.filter.ResponseCacheFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers the serialized response cache. It is local to each instance and only
+ * invalidated by mutations that go through this instance, so it is disabled by default.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todo.response-cache.enabled", havingValue = "true")
+public class ResponseCacheConfig {
+
+    @Value("${todo.response-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${todo.response-cache.first-pages:3}")
+    private int firstPages;
+
+    @Value("${todo.response-cache.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    @Value("${todo.datasource.routing.enabled:false}")
+    private boolean routingEnabled;
+
+    @Bean
+    public ResponseBytesCache responseBytesCache(MeterRegistry meterRegistry) {
+        return new ResponseBytesCache(maxEntries, gzipMinBytes, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ResponseCacheFilter> responseCacheFilter(ResponseBytesCache responseBytesCache,
+                                                                           MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ResponseCacheFilter> registration = new FilterRegistrationBean<>(
+                new ResponseCacheFilter(responseBytesCache, firstPages, routingEnabled, meterRegistry));
+        registration.addUrlPatterns("/v1/todos", "/v1/todos/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+}
@@ -0,0 +1,68 @@
+package com.tradebyte.todo.controller;
+
+import com.tradebyte.todo.dto.RecurringTodoRequest;
+import com.tradebyte.todo.dto.RecurringTodoResponse;
+import com.tradebyte.todo.service.RecurringTodoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/v1/recurring-todos")
+@Tag(name = "Recurring Todo Items", description = "Templates for todo items that repeat on a schedule")
+@AllArgsConstructor
+@ConditionalOnProperty(name = "todo.recurring.enabled", havingValue = "true")
+public class RecurringTodoController {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecurringTodoController.class);
+
+    private final RecurringTodoService recurringTodoService;
+
+    @PostMapping
+    @Operation(summary = "Create a recurring todo template")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Template created, occurrences follow with the next materializer run"),
+            @ApiResponse(responseCode = "400", description = "Invalid input or cron expression")
+    })
+    public ResponseEntity<RecurringTodoResponse> createTemplate(@Valid @RequestBody RecurringTodoRequest request) {
+        logger.debug("Received request to create recurring template");
+        RecurringTodoResponse response = recurringTodoService.createTemplate(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get a recurring todo template by ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Template found"),
+            @ApiResponse(responseCode = "404", description = "Template not found")
+    })
+    public ResponseEntity<RecurringTodoResponse> getTemplate(
+            @Parameter(description = "ID of the template to retrieve")
+            @PathVariable Long id) {
+        return ResponseEntity.ok(recurringTodoService.getTemplate(id));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete a recurring todo template, keeping the items already generated")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Template deleted"),
+            @ApiResponse(responseCode = "404", description = "Template not found")
+    })
+    public ResponseEntity<Void> deleteTemplate(
+            @Parameter(description = "ID of the template to delete")
+            @PathVariable Long id) {
+        logger.debug("Received request to delete recurring template with id: {}", id);
+        recurringTodoService.deleteTemplate(id);
+        return ResponseEntity.noContent().build();
+    }
+}
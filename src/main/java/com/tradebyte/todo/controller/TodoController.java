@@ -1,9 +1,19 @@
 package com.tradebyte.todo.controller;
 
+import com.tradebyte.todo.dto.TodoBulkDeleteRequest;
+import com.tradebyte.todo.dto.TodoBulkDeleteResponse;
+import com.tradebyte.todo.dto.TodoLookupRequest;
+import com.tradebyte.todo.dto.TodoLookupResponse;
 import com.tradebyte.todo.dto.TodoRequest;
 import com.tradebyte.todo.dto.TodoResponse;
 import com.tradebyte.todo.dto.TodoSliceResponse;
 import com.tradebyte.todo.dto.UpdateDescriptionRequest;
+import com.tradebyte.todo.dto.UpdateTagsRequest;
+import com.tradebyte.todo.entity.TodoItem;
+import com.tradebyte.todo.exception.ValidationException;
+import com.tradebyte.todo.service.DescriptionWriteBehind;
+import com.tradebyte.todo.service.GroupCommitTodoWriter;
+import com.tradebyte.todo.service.TodoReadCoalescer;
 import com.tradebyte.todo.service.TodoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,11 +23,18 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+
 @RestController
 @RequestMapping("/v1/todos")
 @Tag(name = "Todo Items", description = "Todo Items Management API")
@@ -25,24 +42,75 @@ public class TodoController {
 
     private static final Logger logger = LoggerFactory.getLogger(TodoController.class);
 
+    private static final long MAX_COMMIT_WAIT_MILLIS = 10_000;
+
     private final TodoService todoService;
 
-    public TodoController(TodoService todoService) {
+    private final TodoReadCoalescer todoReadCoalescer;
+
+    private final GroupCommitTodoWriter groupCommitWriter;
+
+    private final DescriptionWriteBehind descriptionWriteBehind;
+
+    /**
+     * Tags and the archive tier live in tables only the JPA engine uses.
+     */
+    private final boolean jpaStorage;
+
+    public TodoController(TodoService todoService,
+                          TodoReadCoalescer todoReadCoalescer,
+                          ObjectProvider<GroupCommitTodoWriter> groupCommitWriter,
+                          ObjectProvider<DescriptionWriteBehind> descriptionWriteBehind,
+                          @Value("${todo.storage.engine:jpa}") String storageEngine) {
         this.todoService = todoService;
+        this.todoReadCoalescer = todoReadCoalescer;
+        this.groupCommitWriter = groupCommitWriter.getIfAvailable();
+        this.descriptionWriteBehind = descriptionWriteBehind.getIfAvailable();
+        this.jpaStorage = "jpa".equals(storageEngine);
     }
 
     @PostMapping
     @Operation(summary = "Create a new todo item")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Todo item created successfully"),
-            @ApiResponse(responseCode = "400", description = "Invalid input")
+            @ApiResponse(responseCode = "202", description = "Todo item accepted for asynchronous commit"),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "503", description = "Too many pending creates")
     })
     public ResponseEntity<TodoResponse> createTodoItem(@Valid @RequestBody TodoRequest request) {
-        logger.info("Received request to create todo item");
+        logger.debug("Received request to create todo item");
+        if (groupCommitWriter != null) {
+            TodoResponse response = groupCommitWriter.enqueue(request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        }
         TodoResponse response = todoService.createTodoItem(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @GetMapping("/{id}/committed")
+    @Operation(summary = "Wait until a todo item accepted for asynchronous commit is durable")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Todo item is committed"),
+            @ApiResponse(responseCode = "202", description = "Todo item is still pending"),
+            @ApiResponse(responseCode = "404", description = "Todo item not found")
+    })
+    public ResponseEntity<TodoResponse> awaitCommitted(
+            @Parameter(description = "ID returned by the create request")
+            @PathVariable Long id,
+
+            @Parameter(description = "Maximum time to wait in milliseconds (max: 10000)")
+            @RequestParam(defaultValue = "1000") long timeoutMs) {
+        if (groupCommitWriter == null) {
+            return ResponseEntity.ok(todoService.getTodoItem(id));
+        }
+
+        Duration timeout = Duration.ofMillis(Math.min(Math.max(timeoutMs, 0), MAX_COMMIT_WAIT_MILLIS));
+        Optional<TodoResponse> committed = groupCommitWriter.awaitCommitted(id, timeout);
+        return committed
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.ACCEPTED).build());
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get a todo item by ID")
     @ApiResponses(value = {
@@ -53,20 +121,29 @@ public class TodoController {
             @Parameter(description = "ID of the todo item to retrieve")
             @PathVariable Long id) {
         logger.debug("Received request to get todo item with id: {}", id);
-        TodoResponse response = todoService.getTodoItem(id);
-        return ResponseEntity.ok(response);
+        TodoResponse response = todoReadCoalescer.getTodoItem(id);
+        return ResponseEntity.ok(withBufferedDescription(response));
     }
 
     @GetMapping
     @Operation(summary = "Get todo items")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Todo items retrieved successfully"),
-            @ApiResponse(responseCode = "400", description = "Invalid pagination parameters")
+            @ApiResponse(responseCode = "400", description = "Invalid pagination or filter parameters")
     })
     public ResponseEntity<TodoSliceResponse<TodoResponse>> getTodoItems(
             @Parameter(description = "Include all items regardless of status")
             @RequestParam(defaultValue = "false") boolean includeAll,
 
+            @Parameter(description = "Only items carrying all of these tags, in any status unless status is given")
+            @RequestParam(required = false) Set<String> tag,
+
+            @Parameter(description = "With tag, only items in this status: NOT_DONE, DONE or PAST_DUE")
+            @RequestParam(required = false) String status,
+
+            @Parameter(description = "With includeAll, also include archived items")
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+
             @Parameter(description = "Page number (0-indexed)")
             @RequestParam(defaultValue = "0") int page,
 
@@ -75,10 +152,31 @@ public class TodoController {
     ) {
         int validatedSize = Math.min(Math.max(size, 1), 100);
 
-        Slice<TodoResponse> slice = todoService.getAllNotDoneItems(includeAll, page, validatedSize);
+        Slice<TodoResponse> slice;
+        if (!jpaStorage && tag != null && !tag.isEmpty()) {
+            throw new ValidationException("Tag filters require todo.storage.engine=jpa");
+        }
+        if (!jpaStorage && includeAll && includeArchived) {
+            throw new ValidationException("Archived items require todo.storage.engine=jpa");
+        }
+        if (tag != null && !tag.isEmpty()) {
+            if (includeArchived) {
+                throw new ValidationException("Archived items have no tags");
+            }
+            if (tag.size() > TodoItem.MAX_TAGS) {
+                throw new ValidationException("At most " + TodoItem.MAX_TAGS + " tags can be filtered on");
+            }
+            slice = todoService.getItemsByTags(tag, parseStatus(status), page, validatedSize);
+        } else if (status != null) {
+            throw new ValidationException("The status filter requires at least one tag");
+        } else if (includeAll && includeArchived) {
+            slice = todoService.getAllItemsIncludingArchived(page, validatedSize);
+        } else {
+            slice = todoReadCoalescer.getAllNotDoneItems(includeAll, page, validatedSize);
+        }
 
         TodoSliceResponse<TodoResponse> response = new TodoSliceResponse<>(
-                slice.getContent(),
+                slice.getContent().stream().map(this::withBufferedDescription).toList(),
                 page,
                 validatedSize,
                 slice.hasNext()
@@ -87,6 +185,23 @@ public class TodoController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/lookup")
+    @Operation(summary = "Get many todo items by ID in one request")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lookup completed, unknown ids are listed in notFound"),
+            @ApiResponse(responseCode = "400", description = "Invalid list of ids")
+    })
+    public ResponseEntity<TodoLookupResponse> lookupTodoItems(@Valid @RequestBody TodoLookupRequest request) {
+        logger.debug("Received request to look up {} todo items", request.ids().size());
+        TodoLookupResponse response = todoService.getTodoItems(request.ids());
+        if (descriptionWriteBehind != null) {
+            response = new TodoLookupResponse(
+                    response.items().stream().map(this::withBufferedDescription).toList(),
+                    response.notFound()
+            );
+        }
+        return ResponseEntity.ok(response);
+    }
 
     @PatchMapping("/{id}/description")
     @Operation(summary = "Update a todo item's description")
@@ -99,8 +214,27 @@ public class TodoController {
             @Parameter(description = "ID of the todo item to update")
             @PathVariable Long id,
             @Valid @RequestBody UpdateDescriptionRequest request) {
-        logger.info("Received request to update description for todo item id: {}", id);
-        TodoResponse response = todoService.updateDescription(id, request);
+        logger.debug("Received request to update description for todo item id: {}", id);
+        TodoResponse response = descriptionWriteBehind != null
+                ? descriptionWriteBehind.updateDescription(id, request)
+                : todoService.updateDescription(id, request);
+        return ResponseEntity.ok(response);
+    }
+
+    @PutMapping("/{id}/tags")
+    @Operation(summary = "Replace a todo item's tags")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tags updated successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid tags or item is past due"),
+            @ApiResponse(responseCode = "404", description = "Todo item not found")
+    })
+    public ResponseEntity<TodoResponse> updateTags(
+            @Parameter(description = "ID of the todo item to update")
+            @PathVariable Long id,
+            @Valid @RequestBody UpdateTagsRequest request) {
+        logger.debug("Received request to update tags for todo item id: {}", id);
+        flushBufferedDescription(id);
+        TodoResponse response = todoService.updateTags(id, request);
         return ResponseEntity.ok(response);
     }
 
@@ -114,7 +248,8 @@ public class TodoController {
     public ResponseEntity<TodoResponse> markAsDone(
             @Parameter(description = "ID of the todo item to mark as done")
             @PathVariable Long id) {
-        logger.info("Received request to mark todo item as done, id: {}", id);
+        logger.debug("Received request to mark todo item as done, id: {}", id);
+        flushBufferedDescription(id);
         TodoResponse response = todoService.markAsDone(id);
         return ResponseEntity.ok(response);
     }
@@ -129,8 +264,64 @@ public class TodoController {
     public ResponseEntity<TodoResponse> markAsNotDone(
             @Parameter(description = "ID of the todo item to mark as not done")
             @PathVariable Long id) {
-        logger.info("Received request to mark todo item as not done, id: {}", id);
+        logger.debug("Received request to mark todo item as not done, id: {}", id);
+        flushBufferedDescription(id);
         TodoResponse response = todoService.markAsNotDone(id);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete a todo item")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Todo item deleted"),
+            @ApiResponse(responseCode = "404", description = "Todo item not found")
+    })
+    public ResponseEntity<Void> deleteTodoItem(
+            @Parameter(description = "ID of the todo item to delete")
+            @PathVariable Long id) {
+        logger.debug("Received request to delete todo item with id: {}", id);
+        discardBufferedDescription(id);
+        todoService.deleteTodoItem(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/bulk-delete")
+    @Operation(summary = "Delete many todo items by ID in one request")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Delete completed, unknown ids are listed in notFound"),
+            @ApiResponse(responseCode = "400", description = "Invalid list of ids")
+    })
+    public ResponseEntity<TodoBulkDeleteResponse> deleteTodoItems(@Valid @RequestBody TodoBulkDeleteRequest request) {
+        logger.debug("Received request to delete {} todo items", request.ids().size());
+        request.ids().forEach(this::discardBufferedDescription);
+        return ResponseEntity.ok(todoService.deleteTodoItems(request.ids()));
+    }
+
+    private static TodoItem.Status parseStatus(String status) {
+        if (status == null) {
+            return null;
+        }
+        try {
+            return TodoItem.Status.valueOf(status);
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException("Unknown status '" + status + "', expected one of "
+                    + Arrays.toString(TodoItem.Status.values()));
+        }
+    }
+
+    private TodoResponse withBufferedDescription(TodoResponse response) {
+        return descriptionWriteBehind != null ? descriptionWriteBehind.overlay(response) : response;
+    }
+
+    private void flushBufferedDescription(Long id) {
+        if (descriptionWriteBehind != null) {
+            descriptionWriteBehind.flush(id);
+        }
+    }
+
+    private void discardBufferedDescription(Long id) {
+        if (descriptionWriteBehind != null) {
+            descriptionWriteBehind.discard(id);
+        }
+    }
+}
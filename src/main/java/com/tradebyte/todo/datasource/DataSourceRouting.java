@@ -0,0 +1,41 @@
+package com.tradebyte.todo.datasource;
+
+/**
+ * Per-thread override of the routing done by {@link ReadWriteRoutingDataSource}: while
+ * a thread is pinned, its read-only transactions also go to the primary. Used where a
+ * read must see the latest committed state, such as right after the same client wrote.
+ */
+public final class DataSourceRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private DataSourceRouting() {
+    }
+
+    /**
+     * Pins the current thread to the primary until the returned pin is closed. Pins
+     * nest; closing one restores the state from before it was taken.
+     */
+    public static Pin pinToPrimary() {
+        Boolean previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        return () -> {
+            if (previous == null) {
+                PRIMARY_REQUIRED.remove();
+            } else {
+                PRIMARY_REQUIRED.set(previous);
+            }
+        };
+    }
+
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    @FunctionalInterface
+    public interface Pin extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
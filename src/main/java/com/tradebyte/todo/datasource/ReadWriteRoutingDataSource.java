@@ -0,0 +1,174 @@
+package com.tradebyte.todo.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to a healthy replica, round robin, and
+ * everything else to the primary. Reads fall back to the primary while no replica is
+ * healthy, and while the thread is pinned through {@link DataSourceRouting}.
+ * <p>
+ * The routing decision is made when a connection is fetched, so this data source has
+ * to be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the transaction manager fetches the connection before it marks the transaction as
+ * read-only, and the proxy defers the fetch to the first statement.
+ * <p>
+ * Replicas are checked in the background and taken out of rotation while they do not
+ * hand out a valid connection.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final int validationTimeoutSeconds;
+    private final ScheduledExecutorService healthChecker;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<String, Counter> routedCounters = new HashMap<>();
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary,
+                                      List<HikariDataSource> replicas,
+                                      long healthCheckIntervalMillis,
+                                      int validationTimeoutSeconds,
+                                      MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        targets.put(primary.getPoolName(), primary);
+        replicas.forEach(replica -> targets.put(replica.getPoolName(), replica));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+
+        for (Object pool : targets.keySet()) {
+            routedCounters.put((String) pool, Counter.builder("todo.datasource.routed")
+                    .description("Connections handed out, by pool")
+                    .tag("pool", (String) pool)
+                    .register(meterRegistry));
+        }
+        for (Replica replica : this.replicas) {
+            Gauge.builder("todo.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("Whether the replica is in the read rotation")
+                    .tag("pool", replica.name())
+                    .register(meterRegistry);
+        }
+
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "todo-replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!this.replicas.isEmpty()) {
+            healthChecker.scheduleWithFixedDelay(this::checkReplicas,
+                    0, healthCheckIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String pool = primary.getPoolName();
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !DataSourceRouting.isPrimaryRequired()) {
+            Replica replica = nextHealthyReplica();
+            if (replica != null) {
+                pool = replica.name();
+            }
+        }
+        routedCounters.get(pool).increment();
+        return pool;
+    }
+
+    /**
+     * Validates a connection of every replica and updates the rotation accordingly.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource().getConnection()) {
+                healthy = connection.isValid(validationTimeoutSeconds);
+            } catch (SQLException | RuntimeException ex) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                if (healthy) {
+                    logger.info("Replica {} is healthy again, adding it to the read rotation", replica.name());
+                } else {
+                    logger.warn("Replica {} failed its health check, removing it from the read rotation", replica.name());
+                }
+                replica.healthy = healthy;
+            }
+        }
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public List<DataSource> getReplicas() {
+        return replicas.stream().<DataSource>map(Replica::dataSource).toList();
+    }
+
+    public boolean isHealthy(String pool) {
+        return replicas.stream().anyMatch(replica -> replica.name().equals(pool) && replica.healthy);
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+        replicas.forEach(replica -> replica.dataSource().close());
+        primary.close();
+    }
+
+    private Replica nextHealthyReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private String name() {
+            return dataSource.getPoolName();
+        }
+
+        private HikariDataSource dataSource() {
+            return dataSource;
+        }
+    }
+}
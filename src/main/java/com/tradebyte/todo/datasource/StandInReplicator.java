@@ -0,0 +1,192 @@
+package com.tradebyte.todo.datasource;
+
+import com.tradebyte.todo.service.TodoItemsChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the replicas of {@link ReadWriteRoutingDataSource} in sync with the primary
+ * when they are plain databases without replication of their own, such as a second
+ * in-memory H2 database during local development and tests.
+ * <p>
+ * On startup, the schema and all rows of the primary are copied to every replica.
+ * After that, every committed {@link TodoItemsChangedEvent} is applied asynchronously
+ * and in commit order: the current rows of the changed ids are copied over, and past
+ * due sweeps are replayed. An optional delay simulates replication lag.
+ * <p>
+ * Enabled with {@code todo.datasource.routing.stand-in-replicator.enabled=true}.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@ConditionalOnProperty(name = "todo.datasource.routing.stand-in-replicator.enabled", havingValue = "true")
+public class StandInReplicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(StandInReplicator.class);
+
+    /**
+     * Replicated tables with the column holding the item id, parents before children.
+     */
+    private static final List<Table> TABLES = List.of(
+            new Table("todo_items", "id"),
+            new Table("todo_item_tags", "todo_item_id"),
+            new Table("todo_items_archive", "id"));
+    private static final String SWEEP_SQL = """
+            UPDATE todo_items SET status = 'PAST_DUE'
+            WHERE status = 'NOT_DONE' AND due_datetime < ? AND MOD(id, ?) = ?
+            """;
+
+    private final JdbcTemplate primary;
+    private final List<Replica> replicas;
+    private final long delayMillis;
+    private final ScheduledExecutorService applier;
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Timer lagTimer;
+
+    public StandInReplicator(ReadWriteRoutingDataSource routingDataSource,
+                             MeterRegistry meterRegistry,
+                             @Value("${todo.datasource.routing.stand-in-replicator.delay-ms:0}") long delayMillis) {
+        this.primary = new JdbcTemplate(routingDataSource.getPrimary());
+        this.replicas = routingDataSource.getReplicas().stream().map(Replica::new).toList();
+        this.delayMillis = delayMillis;
+        this.applier = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "todo-stand-in-replicator");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.lagTimer = Timer.builder("todo.datasource.replication.lag")
+                .description("Time from commit on the primary until the change is applied to the replicas")
+                .register(meterRegistry);
+        Gauge.builder("todo.datasource.replication.pending", pending, AtomicInteger::get)
+                .description("Committed changes not yet applied to the replicas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Copies the schema and the current rows of the primary to every replica.
+     */
+    @PostConstruct
+    public void initialize() {
+        List<String> schema = primary.queryForList("SCRIPT NODATA NOPASSWORDS NOSETTINGS", String.class).stream()
+                .filter(statement -> !statement.startsWith("--"))
+                .toList();
+        for (Replica replica : replicas) {
+            schema.forEach(replica.jdbcTemplate()::execute);
+            replica.transactionTemplate().executeWithoutResult(status -> {
+                for (Table table : TABLES) {
+                    copyRows(table.name(), "", List.of(), replica);
+                }
+            });
+        }
+        logger.info("Stand-in replicator copied the primary to {} replica(s)", replicas.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoItemsChanged(TodoItemsChangedEvent event) {
+        if (event.pastDueSweep() == null && event.ids().isEmpty()) {
+            return;
+        }
+        long committedAt = System.nanoTime();
+        pending.incrementAndGet();
+        applier.schedule(() -> {
+            try {
+                replicas.forEach(replica -> apply(event, replica));
+            } catch (RuntimeException ex) {
+                logger.error("Could not apply {} to the replicas, they may have diverged", event, ex);
+            } finally {
+                pending.decrementAndGet();
+                lagTimer.record(System.nanoTime() - committedAt, TimeUnit.NANOSECONDS);
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return committed changes not yet applied to the replicas
+     */
+    public int getPending() {
+        return pending.get();
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        applier.shutdown();
+        applier.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void apply(TodoItemsChangedEvent event, Replica replica) {
+        replica.transactionTemplate().executeWithoutResult(status -> {
+            TodoItemsChangedEvent.PastDueSweep sweep = event.pastDueSweep();
+            if (sweep != null) {
+                replica.jdbcTemplate().update(SWEEP_SQL,
+                        Timestamp.valueOf(sweep.now()), sweep.partitions(), sweep.partition());
+            }
+            if (event.ids().isEmpty()) {
+                return;
+            }
+
+            String placeholders = String.join(", ", Collections.nCopies(event.ids().size(), "?"));
+            for (int i = TABLES.size() - 1; i >= 0; i--) {
+                replica.jdbcTemplate().update("DELETE FROM " + TABLES.get(i).name() + TABLES.get(i).idFilter(placeholders),
+                        event.ids().toArray());
+            }
+            for (Table table : TABLES) {
+                copyRows(table.name(), table.idFilter(placeholders), event.ids(), replica);
+            }
+        });
+    }
+
+    private void copyRows(String table, String filter, List<Long> ids, Replica replica) {
+        List<Map<String, Object>> rows = primary.queryForList("SELECT * FROM " + table + filter, ids.toArray());
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        String insertSql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + columns.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")";
+        List<Object[]> values = rows.stream()
+                .map(row -> columns.stream().map(row::get).toArray())
+                .toList();
+        replica.jdbcTemplate().batchUpdate(insertSql, values);
+    }
+
+    private record Table(String name, String idColumn) {
+
+        String idFilter(String placeholders) {
+            return " WHERE " + idColumn + " IN (" + placeholders + ")";
+        }
+    }
+
+    private record Replica(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+
+        private Replica(DataSource dataSource) {
+            this(new JdbcTemplate(dataSource), new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        }
+    }
+}
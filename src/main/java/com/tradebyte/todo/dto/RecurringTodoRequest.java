@@ -0,0 +1,32 @@
+package com.tradebyte.todo.dto;
+
+import com.tradebyte.todo.entity.TodoItem;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Builder;
+
+import java.util.Set;
+
+@Builder
+public record RecurringTodoRequest(
+
+        @NotBlank(message = "Description is required")
+        @Size(min = 1, max = 500, message = "Description must be between 1 and 500 characters")
+        String description,
+
+        @NotBlank(message = "Cron expression is required")
+        @Size(max = 100, message = "Cron expression must be at most 100 characters")
+        String cron,
+
+        @Size(max = TodoItem.MAX_TAGS, message = "At most 20 tags are allowed")
+        Set<@NotNull(message = "Tags must not be null")
+            @Pattern(regexp = TodoItem.TAG_PATTERN,
+                    message = "Tags must be 1 to 50 lowercase letters, digits, '-' or '_'") String> tags
+) {
+
+    public Set<String> tagsOrEmpty() {
+        return tags != null ? tags : Set.of();
+    }
+}
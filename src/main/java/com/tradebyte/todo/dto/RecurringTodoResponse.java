@@ -0,0 +1,33 @@
+package com.tradebyte.todo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.tradebyte.todo.entity.RecurringTodoTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * @param nextOccurrence first occurrence not generated as a todo item yet, {@code null}
+ *                       once the cron expression yields no more times
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RecurringTodoResponse(
+        Long id,
+        String description,
+        String cron,
+        List<String> tags,
+        LocalDateTime creationDateTime,
+        LocalDateTime nextOccurrence
+) {
+
+    public RecurringTodoResponse(RecurringTodoTemplate template) {
+        this(
+                template.getId(),
+                template.getDescription(),
+                template.getCron(),
+                template.getTags().isEmpty() ? null : template.getTags().stream().sorted().toList(),
+                template.getCreationDateTime(),
+                template.getNextOccurrence()
+        );
+    }
+}
@@ -0,0 +1,8 @@
+package com.tradebyte.todo.dto;
+
+import java.util.List;
+
+public record TodoBulkDeleteResponse(
+        List<Long> deleted,
+        List<Long> notFound
+) {}
@@ -0,0 +1,16 @@
+package com.tradebyte.todo.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record TodoLookupRequest(
+
+        @NotEmpty(message = "At least one id is required")
+        @Size(max = 1000, message = "At most 1000 ids can be looked up at once")
+        List<@NotNull(message = "Ids must not be null") Long> ids
+) {}
@@ -0,0 +1,8 @@
+package com.tradebyte.todo.dto;
+
+import java.util.List;
+
+public record TodoLookupResponse(
+        List<TodoResponse> items,
+        List<Long> notFound
+) {}
@@ -1,12 +1,15 @@
 package com.tradebyte.todo.dto;
 
+import com.tradebyte.todo.entity.TodoItem;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.Builder;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 @Builder
 public record TodoRequest(
@@ -17,5 +20,19 @@ public record TodoRequest(
 
         @NotNull(message = "Due date time is required")
         @Future(message = "Due date time must be in the future")
-        LocalDateTime dueDateTime
-) {}
+        LocalDateTime dueDateTime,
+
+        @Size(max = TodoItem.MAX_TAGS, message = "At most 20 tags are allowed")
+        Set<@NotNull(message = "Tags must not be null")
+            @Pattern(regexp = TodoItem.TAG_PATTERN,
+                    message = "Tags must be 1 to 50 lowercase letters, digits, '-' or '_'") String> tags
+) {
+
+    public TodoRequest(String description, LocalDateTime dueDateTime) {
+        this(description, dueDateTime, null);
+    }
+
+    public Set<String> tagsOrEmpty() {
+        return tags != null ? tags : Set.of();
+    }
+}
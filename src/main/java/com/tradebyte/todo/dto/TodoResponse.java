@@ -1,11 +1,17 @@
 package com.tradebyte.todo.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.tradebyte.todo.entity.ArchivedTodoItem;
 import com.tradebyte.todo.entity.TodoItem;
 import lombok.Builder;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
+/**
+ * @param tags sorted, {@code null} for items without tags and for archived items
+ */
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Builder
 public record TodoResponse(
@@ -14,17 +20,51 @@ public record TodoResponse(
         String status,
         LocalDateTime creationDateTime,
         LocalDateTime dueDateTime,
-        LocalDateTime doneDateTime
+        LocalDateTime doneDateTime,
+        List<String> tags
 ) {
 
+    public TodoResponse(Long id,
+                        String description,
+                        String status,
+                        LocalDateTime creationDateTime,
+                        LocalDateTime dueDateTime,
+                        LocalDateTime doneDateTime) {
+        this(id, description, status, creationDateTime, dueDateTime, doneDateTime, null);
+    }
+
     public TodoResponse(TodoItem todoItem) {
+        this(todoItem, todoItem.getStatus());
+    }
+
+    public TodoResponse(TodoItem todoItem, TodoItem.Status status) {
         this(
                 todoItem.getId(),
                 todoItem.getDescription(),
-                todoItem.getStatus().getValue(),
+                status.getValue(),
                 todoItem.getCreationDateTime(),
                 todoItem.getDueDateTime(),
-                todoItem.getDoneDateTime()
+                todoItem.getDoneDateTime(),
+                sorted(todoItem.getTags())
+        );
+    }
+
+    public TodoResponse(ArchivedTodoItem archivedTodoItem) {
+        this(
+                archivedTodoItem.getId(),
+                archivedTodoItem.getDescription(),
+                archivedTodoItem.getStatus().getValue(),
+                archivedTodoItem.getCreationDateTime(),
+                archivedTodoItem.getDueDateTime(),
+                archivedTodoItem.getDoneDateTime()
         );
     }
+
+    public TodoResponse withDescription(String newDescription) {
+        return new TodoResponse(id, newDescription, status, creationDateTime, dueDateTime, doneDateTime, tags);
+    }
+
+    private static List<String> sorted(Collection<String> tags) {
+        return tags == null || tags.isEmpty() ? null : tags.stream().sorted().toList();
+    }
 }
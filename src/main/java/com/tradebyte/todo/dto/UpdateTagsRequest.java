@@ -0,0 +1,19 @@
+package com.tradebyte.todo.dto;
+
+import com.tradebyte.todo.entity.TodoItem;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Builder;
+
+import java.util.Set;
+
+@Builder
+public record UpdateTagsRequest(
+
+        @NotNull(message = "Tags are required, use an empty list to remove all")
+        @Size(max = TodoItem.MAX_TAGS, message = "At most 20 tags are allowed")
+        Set<@NotNull(message = "Tags must not be null")
+            @Pattern(regexp = TodoItem.TAG_PATTERN,
+                    message = "Tags must be 1 to 50 lowercase letters, digits, '-' or '_'") String> tags
+) {}
@@ -0,0 +1,76 @@
+package com.tradebyte.todo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * A finished todo item moved out of {@code todo_items}. Archived items keep their id
+ * and are read-only.
+ */
+@Data
+@Entity
+@Table(name = "todo_items_archive")
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedTodoItem implements Persistable<Long> {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TodoItem.Status status;
+
+    @Column(name = "creation_datetime", nullable = false)
+    private LocalDateTime creationDateTime;
+
+    @Column(name = "due_datetime", nullable = false)
+    private LocalDateTime dueDateTime;
+
+    @Column(name = "done_datetime")
+    private LocalDateTime doneDateTime;
+
+    @Column(name = "archived_datetime", nullable = false)
+    private LocalDateTime archivedDateTime;
+
+    /**
+     * Archived rows are only ever inserted, so new instances are persisted without the
+     * select that a merge of an entity with an assigned id would need.
+     */
+    @Transient
+    @Builder.Default
+    private boolean isNew = true;
+
+    public static ArchivedTodoItem of(TodoItem todoItem, TodoItem.Status status, LocalDateTime archivedDateTime) {
+        return ArchivedTodoItem.builder()
+                .id(todoItem.getId())
+                .description(todoItem.getDescription())
+                .status(status)
+                .creationDateTime(todoItem.getCreationDateTime())
+                .dueDateTime(todoItem.getDueDateTime())
+                .doneDateTime(todoItem.getDoneDateTime())
+                .archivedDateTime(archivedDateTime)
+                .build();
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -0,0 +1,46 @@
+package com.tradebyte.todo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * First response to a request carrying an {@code Idempotency-Key}, shared by all
+ * instances through the database. The response columns are empty while the request
+ * is still executing; {@code writtenAt} is the time of the claim or of the response.
+ */
+@Data
+@Entity
+@Table(name = "idempotency_keys")
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idempotency_key", length = 400)
+    private String key;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    private Integer status;
+
+    @Column(name = "content_type", length = 200)
+    private String contentType;
+
+    @Column(length = 500)
+    private String location;
+
+    @Lob
+    private byte[] body;
+
+    @Column(name = "written_at", nullable = false)
+    private LocalDateTime writtenAt;
+}
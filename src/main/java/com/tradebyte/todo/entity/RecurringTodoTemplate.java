@@ -0,0 +1,68 @@
+package com.tradebyte.todo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Rule for a recurring todo item. Occurrences are generated as ordinary {@link TodoItem}s
+ * ahead of time, due at the times the cron expression yields.
+ * <p>
+ * {@link #nextOccurrence} is the first occurrence not generated yet, {@code null} once
+ * the expression yields no more times. It is indexed, so finding the templates with
+ * occurrences to generate does not read the others.
+ */
+@Data
+@Entity
+@Table(name = "todo_recurring_templates",
+        indexes = @Index(name = "todo_recurring_templates_next", columnList = "next_occurrence"))
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringTodoTemplate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    @Column(nullable = false)
+    private String description;
+
+    /**
+     * Spring cron expression with seconds, or a macro such as {@code @daily} or {@code @weekly}.
+     */
+    @Column(nullable = false, length = 100)
+    private String cron;
+
+    @Column(name = "next_occurrence")
+    private LocalDateTime nextOccurrence;
+
+    @Column(name = "creation_datetime", nullable = false)
+    private LocalDateTime creationDateTime;
+
+    /**
+     * Copied to every generated item.
+     */
+    @ElementCollection
+    @CollectionTable(name = "todo_recurring_template_tags", joinColumns = @JoinColumn(name = "template_id"))
+    @Column(name = "tag", nullable = false, length = TodoItem.MAX_TAG_LENGTH)
+    @BatchSize(size = 100)
+    @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Set<String> tags = new HashSet<>();
+
+    public CronExpression cronExpression() {
+        return CronExpression.parse(cron);
+    }
+}
@@ -5,16 +5,36 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
 @Data
 @Entity
-@Table(name = "todo_items")
+@Table(name = "todo_items", indexes = @Index(
+        name = "todo_items_occurrence", columnList = "recurring_template_id, due_datetime"))
 @Builder
 @AllArgsConstructor
 public class TodoItem {
 
+    /**
+     * Number of ids reserved per round trip to {@code todo_items_seq}. Each sequence
+     * value is the first id of its block (pooled-lo), so code that reserves blocks
+     * directly never collides with ids handed out by Hibernate.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    public static final int MAX_TAGS = 20;
+    public static final int MAX_TAG_LENGTH = 50;
+    public static final String TAG_PATTERN = "[a-z0-9][a-z0-9_-]{0," + (MAX_TAG_LENGTH - 1) + "}";
+
     public enum Status {
         NOT_DONE("not done"),
         DONE("done"),
@@ -33,7 +53,16 @@ public class TodoItem {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "todo_item_id")
+    @GenericGenerator(
+            name = "todo_item_id",
+            type = SequenceStyleGenerator.class,
+            parameters = {
+                    @Parameter(name = "sequence_name", value = "todo_items_seq"),
+                    @Parameter(name = "increment_size", value = "" + ID_ALLOCATION_SIZE),
+                    @Parameter(name = "optimizer", value = "pooled-lo")
+            }
+    )
     private Long id;
 
     @Column(nullable = false)
@@ -55,9 +84,30 @@ public class TodoItem {
     @Version
     private Long version;
 
+    /**
+     * {@link RecurringTodoTemplate} this item is an occurrence of, {@code null} for items
+     * created directly. The due date identifies the occurrence.
+     */
+    @Column(name = "recurring_template_id")
+    private Long recurringTemplateId;
+
+    /**
+     * Labels in {@code todo_item_tags}. Pages of items load them with one batched query,
+     * single items and id lookups fetch them with the item.
+     */
+    @ElementCollection
+    @CollectionTable(name = "todo_item_tags", joinColumns = @JoinColumn(name = "todo_item_id"))
+    @Column(name = "tag", nullable = false, length = MAX_TAG_LENGTH)
+    @BatchSize(size = 100)
+    @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Set<String> tags = new HashSet<>();
+
     public TodoItem() {
         this.creationDateTime = LocalDateTime.now();
         this.status = Status.NOT_DONE;
+        this.tags = new HashSet<>();
     }
 
     public TodoItem(String description, LocalDateTime dueDateTime) {
@@ -73,4 +123,12 @@ public class TodoItem {
     public boolean isImmutable() {
         return isPastDue();
     }
+
+    /**
+     * Status at {@code now}: a not done item whose due date has passed is past due even
+     * if that has not been persisted yet.
+     */
+    public Status effectiveStatus(LocalDateTime now) {
+        return status == Status.NOT_DONE && dueDateTime.isBefore(now) ? Status.PAST_DUE : status;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.tradebyte.todo.filter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrency limit that adapts to observed latency with additive increase /
+ * multiplicative decrease (AIMD).
+ * <p>
+ * Every request that completes slower than the latency threshold shrinks the limit by
+ * the backoff ratio; every fast request grows it by one while the limiter is at least
+ * half utilised. Requests beyond the current limit are rejected instead of queued, so
+ * latency stays bounded when the database or its pool saturates.
+ */
+public class AimdConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+
+    public AimdConcurrencyLimiter(int minLimit, int maxLimit, long latencyThresholdMillis, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= minLimit <= maxLimit");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, maxLimit / 2.0);
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    public synchronized void release(long latencyNanos) {
+        inFlight--;
+        if (latencyNanos > latencyThresholdNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
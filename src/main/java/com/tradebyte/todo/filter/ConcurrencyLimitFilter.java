@@ -0,0 +1,130 @@
+package com.tradebyte.todo.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo.exception.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sheds load in front of the todo endpoints once the adaptive concurrency limit of the
+ * request class (read, write or bulk) is reached. Rejected requests get 503 with a
+ * Retry-After header right away instead of waiting in the servlet container queue.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    /**
+     * Endpoints that work on many items per request.
+     */
+    private static final List<String> BULK_PATH_SUFFIXES = List.of("/lookup", "/bulk-delete");
+
+    /**
+     * Long-polling endpoints whose latency says nothing about load.
+     */
+    private static final List<String> UNLIMITED_PATH_SUFFIXES = List.of("/committed");
+
+    public enum RequestClass {
+        READ, WRITE, BULK
+    }
+
+    private final Map<RequestClass, AimdConcurrencyLimiter> limiters;
+    private final Map<RequestClass, Counter> rejectedCounters = new EnumMap<>(RequestClass.class);
+    private final ObjectMapper objectMapper;
+
+    public ConcurrencyLimitFilter(Map<RequestClass, AimdConcurrencyLimiter> limiters,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.limiters = new EnumMap<>(limiters);
+        this.objectMapper = objectMapper;
+
+        this.limiters.forEach((requestClass, limiter) -> {
+            String tag = requestClass.name().toLowerCase();
+            Gauge.builder("todo.concurrency.limit", limiter, AimdConcurrencyLimiter::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("todo.concurrency.in-flight", limiter, AimdConcurrencyLimiter::getInFlight)
+                    .description("Requests currently admitted by the concurrency limiter")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            rejectedCounters.put(requestClass, Counter.builder("todo.concurrency.rejected")
+                    .description("Requests rejected by the concurrency limiter")
+                    .tag("class", tag)
+                    .register(meterRegistry));
+        });
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (UNLIMITED_PATH_SUFFIXES.stream().anyMatch(path::endsWith)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RequestClass requestClass = classify(request.getMethod(), path);
+        AimdConcurrencyLimiter limiter = limiters.get(requestClass);
+
+        if (!limiter.tryAcquire()) {
+            rejectedCounters.get(requestClass).increment();
+            logger.warn("Concurrency limit of {} reached for {} requests, rejecting {} {}",
+                    limiter.getLimit(), requestClass, request.getMethod(), path);
+            reject(request, response);
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - startedAt);
+        }
+    }
+
+    static RequestClass classify(String method, String path) {
+        if (BULK_PATH_SUFFIXES.stream().anyMatch(path::endsWith)) {
+            return RequestClass.BULK;
+        }
+        if (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)) {
+            return RequestClass.READ;
+        }
+        return RequestClass.WRITE;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                "Service is overloaded, please retry later",
+                "uri=" + request.getRequestURI()
+        );
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_SECONDS));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
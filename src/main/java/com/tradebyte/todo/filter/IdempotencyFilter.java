@@ -0,0 +1,346 @@
+package com.tradebyte.todo.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo.exception.ErrorResponse;
+import com.tradebyte.todo.filter.IdempotencyStore.Entry;
+import com.tradebyte.todo.filter.IdempotencyStore.StoredResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes creates and PATCH updates safe to retry. The first response to a request with
+ * an {@code Idempotency-Key} header is stored in an {@link IdempotencyStore}; later
+ * requests with the same key, method and path get that response replayed, marked with
+ * {@code Idempotent-Replayed: true}, without executing again.
+ * <p>
+ * Keys are scoped by client, told apart like in {@link ReadYourWritesFilter}, so two
+ * clients picking the same key do not see each other's responses. The {@code Accept}
+ * header is part of the scope as well, so a retry never gets a body in a representation
+ * it did not ask for.
+ * <p>
+ * A duplicate arriving while the first request is still executing waits for it, up to
+ * the wait timeout, instead of running in parallel. Duplicates on this instance wait on
+ * the local in-flight request; the one holding the local slot polls the store, which
+ * covers requests in flight on other instances. Reusing a key with a different body is
+ * rejected with {@code 422}. Server errors and {@code 429} are not stored, so the
+ * client's next retry executes again.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private static final String CREATE_PATH = "/v1/todos";
+    private static final long POLL_INTERVAL_MILLIS = 50;
+    private static final int RETRY_AFTER_SECONDS = 1;
+
+    private final IdempotencyStore store;
+    private final long waitTimeoutNanos;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter executedCounter;
+    private final Counter replayedCounter;
+    private final Counter conflictCounter;
+    private final Counter mismatchCounter;
+
+    public IdempotencyFilter(IdempotencyStore store, long waitTimeoutMillis,
+                             ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.waitTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(waitTimeoutMillis);
+        this.objectMapper = objectMapper;
+
+        this.executedCounter = requestCounter("executed", meterRegistry);
+        this.replayedCounter = requestCounter("replayed", meterRegistry);
+        this.conflictCounter = requestCounter("conflict", meterRegistry);
+        this.mismatchCounter = requestCounter("mismatch", meterRegistry);
+    }
+
+    private static Counter requestCounter(String result, MeterRegistry meterRegistry) {
+        return Counter.builder("todo.idempotency.requests")
+                .description("Requests with an idempotency key by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (idempotencyKey == null || !isIdempotent(request.getMethod(), path)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            reject(request, response, HttpStatus.BAD_REQUEST,
+                    IDEMPOTENCY_KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        BufferedBodyRequest bufferedRequest = new BufferedBodyRequest(request);
+        String key = storeKey(request, path, idempotencyKey);
+        String fingerprint = fingerprint(bufferedRequest.body);
+        long deadline = System.nanoTime() + waitTimeoutNanos;
+
+        while (true) {
+            CompletableFuture<Void> slot = new CompletableFuture<>();
+            CompletableFuture<Void> existing = inFlight.putIfAbsent(key, slot);
+            if (existing == null) {
+                try {
+                    handle(key, fingerprint, deadline, bufferedRequest, response, filterChain);
+                    return;
+                } finally {
+                    inFlight.remove(key, slot);
+                    slot.complete(null);
+                }
+            }
+            if (!awaitLocal(existing, deadline)) {
+                rejectInProgress(request, response);
+                return;
+            }
+        }
+    }
+
+    static boolean isIdempotent(String method, String path) {
+        return (HttpMethod.POST.matches(method) && CREATE_PATH.equals(path))
+                || (HttpMethod.PATCH.matches(method) && path.startsWith(CREATE_PATH + "/"));
+    }
+
+    /**
+     * The client and the {@code Accept} header are hashed, so the key stays within the
+     * size of the store's key column however long they are.
+     */
+    static String storeKey(HttpServletRequest request, String path, String idempotencyKey) {
+        String clientId = request.getHeader(ReadYourWritesFilter.CLIENT_ID_HEADER);
+        String client = clientId != null && !clientId.isBlank() ? clientId : request.getRemoteAddr();
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        String scope = client + '\n' + (accept != null && !accept.isBlank() ? accept : MediaType.ALL_VALUE);
+        return request.getMethod() + ' ' + path + ' '
+                + fingerprint(scope.getBytes(StandardCharsets.UTF_8)) + ' ' + idempotencyKey;
+    }
+
+    private void handle(String key, String fingerprint, long deadline, BufferedBodyRequest request,
+                        HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        while (true) {
+            Entry entry = store.claim(key, fingerprint);
+            if (entry == null) {
+                execute(key, request, response, filterChain);
+                return;
+            }
+            if (!entry.fingerprint().equals(fingerprint)) {
+                mismatchCounter.increment();
+                reject(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        IDEMPOTENCY_KEY_HEADER + " was already used for a request with a different body");
+                return;
+            }
+            if (!entry.isInFlight()) {
+                replayedCounter.increment();
+                replay(entry.response(), response);
+                return;
+            }
+            if (!sleepUntilNextPoll(deadline)) {
+                rejectInProgress(request, response);
+                return;
+            }
+        }
+    }
+
+    private void execute(String key, HttpServletRequest request, HttpServletResponse response,
+                         FilterChain filterChain) throws ServletException, IOException {
+        executedCounter.increment();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            completed = storeResponse(key, wrapper);
+        } finally {
+            try {
+                if (!completed) {
+                    store.release(key);
+                }
+            } finally {
+                wrapper.copyBodyToResponse();
+            }
+        }
+    }
+
+    /**
+     * @return whether the response was stored; if not, the claim has to be released
+     */
+    private boolean storeResponse(String key, ContentCachingResponseWrapper wrapper) {
+        int status = wrapper.getStatus();
+        if (status >= 500 || status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            return false;
+        }
+        try {
+            store.complete(key, new StoredResponse(status, wrapper.getContentType(),
+                    wrapper.getHeader(HttpHeaders.LOCATION), wrapper.getContentAsByteArray()));
+            return true;
+        } catch (RuntimeException ex) {
+            logger.warn("Could not store the response for idempotency key {}, a retry will execute again", key, ex);
+            return false;
+        }
+    }
+
+    private static boolean awaitLocal(CompletableFuture<Void> existing, long deadline) {
+        try {
+            existing.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (TimeoutException ex) {
+            return false;
+        } catch (ExecutionException ex) {
+            return true;
+        }
+    }
+
+    private static boolean sleepUntilNextPoll(long deadline) {
+        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remainingMillis <= 0) {
+            return false;
+        }
+        try {
+            Thread.sleep(Math.min(POLL_INTERVAL_MILLIS, remainingMillis));
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String fingerprint(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private static void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void rejectInProgress(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        conflictCounter.increment();
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_SECONDS));
+        reject(request, response, HttpStatus.CONFLICT,
+                "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still in progress, please retry later");
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String message)
+            throws IOException {
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                status.value(),
+                status.getReasonPhrase(),
+                message,
+                "uri=" + request.getRequestURI()
+        );
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    /**
+     * Reads the whole body up front, so it can be fingerprinted before the request is
+     * executed and still be read by the controller.
+     */
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private BufferedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = StreamUtils.copyToByteArray(request.getInputStream());
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Buffered request bodies are read synchronously");
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
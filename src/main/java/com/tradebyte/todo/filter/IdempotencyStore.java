@@ -0,0 +1,40 @@
+package com.tradebyte.todo.filter;
+
+/**
+ * Remembers the first response for each idempotency key, see {@link IdempotencyFilter}.
+ * <p>
+ * A key is claimed before the request executes and completed with its response
+ * afterwards. While it is claimed, other requests with the same key see an entry
+ * without a response and have to wait; a claim that is neither completed nor released
+ * within the lock timeout is considered abandoned and can be claimed again.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Claims {@code key} for a request with the given body fingerprint.
+     *
+     * @return {@code null} if the caller now holds the claim and must execute the request,
+     * otherwise the current entry for the key
+     */
+    Entry claim(String key, String fingerprint);
+
+    /**
+     * Stores the response of a claimed key, to be replayed until the entry expires.
+     */
+    void complete(String key, StoredResponse response);
+
+    /**
+     * Drops the claim on {@code key} without a response, so the next request executes again.
+     */
+    void release(String key);
+
+    record Entry(String fingerprint, StoredResponse response) {
+
+        public boolean isInFlight() {
+            return response == null;
+        }
+    }
+
+    record StoredResponse(int status, String contentType, String location, byte[] body) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.tradebyte.todo.filter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link IdempotencyStore} local to this instance. Entries are kept in the order they
+ * were last written, so expired entries are always at the head and are dropped on the
+ * next write. Once {@code maxEntries} is reached, the oldest entry is evicted early.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final long ttlMillis;
+    private final long lockTimeoutMillis;
+    private final int maxEntries;
+
+    private final LinkedHashMap<String, Slot> entries = new LinkedHashMap<>();
+
+    public InMemoryIdempotencyStore(long ttlMillis, long lockTimeoutMillis, int maxEntries, MeterRegistry meterRegistry) {
+        this.ttlMillis = ttlMillis;
+        this.lockTimeoutMillis = lockTimeoutMillis;
+        this.maxEntries = maxEntries;
+
+        Gauge.builder("todo.idempotency.entries", this, InMemoryIdempotencyStore::size)
+                .description("Idempotency keys currently remembered by this instance")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized Entry claim(String key, String fingerprint) {
+        long now = System.currentTimeMillis();
+        evictExpired(now);
+
+        Slot slot = entries.get(key);
+        if (slot == null || (slot.response() == null && now - slot.writtenAt() >= lockTimeoutMillis)) {
+            put(key, new Slot(fingerprint, null, now));
+            return null;
+        }
+        return new Entry(slot.fingerprint(), slot.response());
+    }
+
+    @Override
+    public synchronized void complete(String key, StoredResponse response) {
+        Slot slot = entries.get(key);
+        if (slot != null && slot.response() == null) {
+            put(key, new Slot(slot.fingerprint(), response, System.currentTimeMillis()));
+        }
+    }
+
+    @Override
+    public synchronized void release(String key) {
+        Slot slot = entries.get(key);
+        if (slot != null && slot.response() == null) {
+            entries.remove(key);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void put(String key, Slot slot) {
+        entries.remove(key);
+        entries.put(key, slot);
+        if (entries.size() > maxEntries) {
+            Iterator<String> eldest = entries.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Map.Entry<String, Slot>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext() && now - iterator.next().getValue().writtenAt() >= ttlMillis) {
+            iterator.remove();
+        }
+    }
+
+    private record Slot(String fingerprint, StoredResponse response, long writtenAt) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.tradebyte.todo.filter;
+
+import com.tradebyte.todo.datasource.DataSourceRouting;
+import com.tradebyte.todo.entity.IdempotencyRecord;
+import com.tradebyte.todo.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * {@link IdempotencyStore} backed by the {@code idempotency_keys} table, so remembered
+ * responses survive restarts and a retry is recognized by whichever instance receives
+ * it. Claims rely on the primary key: of two instances creating the same key, one
+ * fails with a constraint violation and sees the other's claim. Every access goes to
+ * the primary, and expired rows are purged in the background.
+ */
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcIdempotencyStore.class);
+
+    private final IdempotencyRecordRepository repository;
+    private final Duration ttl;
+    private final Duration lockTimeout;
+
+    public JdbcIdempotencyStore(IdempotencyRecordRepository repository, Duration ttl, Duration lockTimeout) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+    }
+
+    @Override
+    public Entry claim(String key, String fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+
+        try (DataSourceRouting.Pin ignored = DataSourceRouting.pinToPrimary()) {
+            if (repository.takeOver(key, fingerprint, now, now.minus(ttl), now.minus(lockTimeout)) > 0) {
+                return null;
+            }
+            Optional<IdempotencyRecord> existing = repository.findById(key);
+            if (existing.isPresent()) {
+                return toEntry(existing.get());
+            }
+            try {
+                repository.create(key, fingerprint, now);
+                return null;
+            } catch (DataIntegrityViolationException ex) {
+                logger.debug("Idempotency key {} was claimed concurrently", key);
+                return repository.findById(key)
+                        .map(JdbcIdempotencyStore::toEntry)
+                        .orElseGet(() -> new Entry(fingerprint, null));
+            }
+        }
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        try (DataSourceRouting.Pin ignored = DataSourceRouting.pinToPrimary()) {
+            repository.complete(key, response.status(), response.contentType(), response.location(),
+                    response.body(), LocalDateTime.now());
+        }
+    }
+
+    @Override
+    public void release(String key) {
+        try (DataSourceRouting.Pin ignored = DataSourceRouting.pinToPrimary()) {
+            repository.release(key);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${todo.idempotency.purge-interval-ms:600000}",
+            fixedDelayString = "${todo.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        try (DataSourceRouting.Pin ignored = DataSourceRouting.pinToPrimary()) {
+            int purged = repository.deleteWrittenBefore(LocalDateTime.now().minus(ttl));
+            if (purged > 0) {
+                logger.info("Purged {} expired idempotency key(s)", purged);
+            }
+        }
+    }
+
+    private static Entry toEntry(IdempotencyRecord record) {
+        if (record.getStatus() == null) {
+            return new Entry(record.getFingerprint(), null);
+        }
+        byte[] body = record.getBody() == null ? new byte[0] : record.getBody();
+        return new Entry(record.getFingerprint(),
+                new StoredResponse(record.getStatus(), record.getContentType(), record.getLocation(), body));
+    }
+}
@@ -0,0 +1,97 @@
+package com.tradebyte.todo.filter;
+
+import com.tradebyte.todo.datasource.DataSourceRouting;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gives each client read-your-writes consistency on top of lagging replicas: mutations
+ * and every request of a client within a window after its last mutation are pinned to
+ * the primary. Clients are told apart by the {@value #CLIENT_ID_HEADER} header, or by
+ * their remote address if they do not send one.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    private static final String LOOKUP_PATH_SUFFIX = "/lookup";
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    private final Counter pinnedReadsCounter;
+
+    public ReadYourWritesFilter(long windowMillis, MeterRegistry meterRegistry) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.pinnedReadsCounter = Counter.builder("todo.datasource.read-your-writes.pinned")
+                .description("Reads sent to the primary because the client wrote recently")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String client = clientKey(request);
+        boolean write = !isRead(request);
+        if (!write && !wroteRecently(client)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!write) {
+            pinnedReadsCounter.increment();
+        }
+        try (DataSourceRouting.Pin ignored = DataSourceRouting.pinToPrimary()) {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (write) {
+                recordWrite(client);
+            }
+        }
+    }
+
+    private boolean wroteRecently(String client) {
+        Long lastWrite = lastWrites.get(client);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.nanoTime() - lastWrite < windowNanos) {
+            return true;
+        }
+        lastWrites.remove(client, lastWrite);
+        return false;
+    }
+
+    private void recordWrite(String client) {
+        long now = System.nanoTime();
+        lastWrites.put(client, now);
+        if (lastWrites.size() > PURGE_THRESHOLD) {
+            lastWrites.values().removeIf(lastWrite -> now - lastWrite >= windowNanos);
+        }
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (HttpMethod.POST.matches(method)) {
+            return request.getRequestURI().endsWith(LOOKUP_PATH_SUFFIX);
+        }
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        return clientId != null && !clientId.isBlank() ? clientId : request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,108 @@
+package com.tradebyte.todo.filter;
+
+import com.tradebyte.todo.service.TodoItemsChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized response bodies of hot read endpoints, keyed by request and guarded by a
+ * generation counter.
+ * <p>
+ * The generation is bumped after every committed mutation of todo items, including the
+ * past due sweep, which drops all entries at once. Callers read the generation before
+ * producing a response and store it with the response, so a response computed while a
+ * mutation was committing is never served afterwards.
+ */
+public class ResponseBytesCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseBytesCache.class);
+
+    private final AtomicLong generation = new AtomicLong();
+    private final ConcurrentHashMap<String, CachedResponse> entries = new ConcurrentHashMap<>();
+
+    private final int maxEntries;
+    private final int gzipMinBytes;
+
+    public ResponseBytesCache(int maxEntries, int gzipMinBytes, MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.gzipMinBytes = gzipMinBytes;
+
+        Gauge.builder("todo.response-cache.size", entries, Map::size)
+                .description("Serialized responses currently cached")
+                .register(meterRegistry);
+        Gauge.builder("todo.response-cache.generation", generation, AtomicLong::get)
+                .description("Number of times the response cache was invalidated")
+                .register(meterRegistry);
+    }
+
+    public long currentGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Returns the entry for {@code key} if it was stored in the current generation.
+     */
+    public CachedResponse get(String key) {
+        CachedResponse cached = entries.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.generation() != generation.get()) {
+            entries.remove(key, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Stores a response produced while {@code generation} was current. Responses of an
+     * outdated generation are discarded, as are new keys once the cache is full.
+     */
+    public void put(String key, long generation, String contentType, byte[] body) {
+        if (generation != this.generation.get()) {
+            return;
+        }
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            return;
+        }
+        byte[] gzipBody = body.length >= gzipMinBytes ? gzip(body) : null;
+        entries.put(key, new CachedResponse(generation, contentType, body, gzipBody));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoItemsChanged(TodoItemsChangedEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        long newGeneration = generation.incrementAndGet();
+        entries.clear();
+        logger.trace("Response cache invalidated, generation is now {}", newGeneration);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 2 + 32);
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(compressed)) {
+            gzipStream.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * @param gzipBody gzip-compressed body, or {@code null} if the body is too small to be worth it
+     */
+    public record CachedResponse(long generation, String contentType, byte[] body, byte[] gzipBody) {}
+}
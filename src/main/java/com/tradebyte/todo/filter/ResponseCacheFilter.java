@@ -0,0 +1,150 @@
+package com.tradebyte.todo.filter;
+
+import com.tradebyte.todo.datasource.DataSourceRouting;
+import com.tradebyte.todo.filter.ResponseBytesCache.CachedResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Serves single items and the first pages of the NOT_DONE list from
+ * {@link ResponseBytesCache}, so hits skip the database, the controller and the
+ * serializer. Misses go through the normal chain and successful responses are stored.
+ * Clients accepting gzip get the pre-compressed body where one was stored.
+ * <p>
+ * With read replicas, a body read on a lagging replica may predate the generation it
+ * would be stored under, so only responses read on the primary are stored. Requests
+ * pinned to the primary by {@link ReadYourWritesFilter} skip the lookup, so a client
+ * always sees its own writes.
+ */
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final Pattern ITEM_PATH = Pattern.compile("/v1/todos/\\d+");
+    private static final String LIST_PATH = "/v1/todos";
+
+    private final ResponseBytesCache cache;
+    private final int firstPages;
+    private final boolean replicaReads;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter bypassCounter;
+
+    public ResponseCacheFilter(ResponseBytesCache cache, int firstPages, boolean replicaReads,
+                               MeterRegistry meterRegistry) {
+        this.cache = cache;
+        this.firstPages = firstPages;
+        this.replicaReads = replicaReads;
+
+        this.hitCounter = Counter.builder("todo.response-cache.requests")
+                .description("Cacheable read requests by cache outcome")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("todo.response-cache.requests")
+                .description("Cacheable read requests by cache outcome")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.bypassCounter = Counter.builder("todo.response-cache.requests")
+                .description("Cacheable read requests by cache outcome")
+                .tag("result", "bypass")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!isCacheable(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = cacheKey(request);
+        boolean pinned = DataSourceRouting.isPrimaryRequired();
+        if (pinned) {
+            bypassCounter.increment();
+        } else {
+            CachedResponse cached = cache.get(key);
+            if (cached != null) {
+                hitCounter.increment();
+                write(cached, acceptsGzip(request), response);
+                return;
+            }
+            missCounter.increment();
+        }
+
+        boolean storable = pinned || !replicaReads;
+        long generation = cache.currentGeneration();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+            if (storable && wrapper.getStatus() == HttpStatus.OK.value() && wrapper.getContentType() != null) {
+                cache.put(key, generation, wrapper.getContentType(), wrapper.getContentAsByteArray());
+            }
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private boolean isCacheable(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return false;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (ITEM_PATH.matcher(path).matches()) {
+            return true;
+        }
+        return LIST_PATH.equals(path)
+                && !Boolean.parseBoolean(request.getParameter("includeAll"))
+                && parsePage(request.getParameter("page")) < firstPages;
+    }
+
+    private static int parsePage(String page) {
+        if (page == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(page);
+        } catch (NumberFormatException ex) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * The raw query string and Accept header are part of the key, so every distinct
+     * request maps to the body the controller would have produced for it.
+     */
+    private static String cacheKey(HttpServletRequest request) {
+        return request.getRequestURI()
+                + '?' + (request.getQueryString() == null ? "" : request.getQueryString())
+                + '|' + (request.getHeader(HttpHeaders.ACCEPT) == null ? "" : request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    private static void write(CachedResponse cached, boolean gzip, HttpServletResponse response) throws IOException {
+        byte[] body = gzip && cached.gzipBody() != null ? cached.gzipBody() : cached.body();
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(cached.contentType());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (body == cached.gzipBody()) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
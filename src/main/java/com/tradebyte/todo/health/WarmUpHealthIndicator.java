@@ -0,0 +1,30 @@
+package com.tradebyte.todo.health;
+
+import com.tradebyte.todo.service.ReadPathWarmUp;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports OUT_OF_SERVICE until {@link ReadPathWarmUp} has finished. Part of the
+ * readiness group, so the instance gets no traffic while it is still cold.
+ */
+@Component("warmUpHealthIndicator")
+public class WarmUpHealthIndicator implements HealthIndicator {
+
+    private final ReadPathWarmUp readPathWarmUp;
+
+    public WarmUpHealthIndicator(ReadPathWarmUp readPathWarmUp) {
+        this.readPathWarmUp = readPathWarmUp;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = readPathWarmUp.isComplete() ? Health.up() : Health.outOfService();
+        if (readPathWarmUp.isEnabled()) {
+            builder.withDetail("iterations", readPathWarmUp.getCompletedIterations())
+                    .withDetail("target", readPathWarmUp.getIterations());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,374 @@
+package com.tradebyte.todo.index;
+
+import java.util.Arrays;
+
+/**
+ * Set of non-negative ids stored like a Roaring bitmap. Ids are split into a high part,
+ * which selects a container, and the low 16 bits, which the container holds. A
+ * container is a sorted array while it has at most {@value #ARRAY_MAX} values and a
+ * 65 536 bit bitmap above that, so sparse and dense id ranges both stay compact, and
+ * intersections work container by container without touching single ids where the
+ * bitmaps are dense.
+ * <p>
+ * Not thread-safe.
+ */
+public final class CompressedBitmap {
+
+    static final int ARRAY_MAX = 4096;
+
+    private long[] keys = new long[4];
+    private Container[] containers = new Container[4];
+    private int size;
+
+    public boolean add(long value) {
+        long key = value >>> 16;
+        char low = (char) value;
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index >= 0) {
+            long before = containers[index].cardinality();
+            containers[index] = containers[index].add(low);
+            return containers[index].cardinality() > before;
+        }
+        insert(-index - 1, key, new ArrayContainer().add(low));
+        return true;
+    }
+
+    public boolean remove(long value) {
+        int index = Arrays.binarySearch(keys, 0, size, value >>> 16);
+        if (index < 0) {
+            return false;
+        }
+        Container container = containers[index];
+        long before = container.cardinality();
+        Container updated = container.remove((char) value);
+        if (updated == null) {
+            delete(index);
+            return true;
+        }
+        containers[index] = updated;
+        return updated.cardinality() < before;
+    }
+
+    public boolean contains(long value) {
+        int index = Arrays.binarySearch(keys, 0, size, value >>> 16);
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    public long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return a new bitmap with the ids present in both
+     */
+    public CompressedBitmap and(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container intersection = containers[i].and(other.containers[j]);
+                if (intersection != null) {
+                    result.insert(result.size, keys[i], intersection);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Up to {@code limit} ids in ascending order, starting at the {@code offset}-th. Whole
+     * containers before the offset are skipped by their cardinality.
+     */
+    public long[] page(long offset, int limit) {
+        long[] page = new long[limit];
+        int filled = 0;
+        long skip = offset;
+        for (int i = 0; i < size && filled < limit; i++) {
+            int cardinality = containers[i].cardinality();
+            if (skip >= cardinality) {
+                skip -= cardinality;
+                continue;
+            }
+            filled = containers[i].fill(keys[i] << 16, (int) skip, page, filled);
+            skip = 0;
+        }
+        return filled == limit ? page : Arrays.copyOf(page, filled);
+    }
+
+    /**
+     * @return approximate heap used by the containers and keys
+     */
+    public long sizeInBytes() {
+        long bytes = 16L * keys.length;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    private void insert(int index, long key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void delete(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        containers[--size] = null;
+    }
+
+    /**
+     * The low 16 bits of the ids sharing one high part. Mutations return the container
+     * to use from then on, which is a converted one once the array limit is crossed, or
+     * {@code null} once it is empty.
+     */
+    private abstract static sealed class Container permits ArrayContainer, BitmapContainer {
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        abstract Container and(Container other);
+
+        /**
+         * Writes the values after skipping {@code skip} of them, as {@code high | value},
+         * into {@code target} from {@code position} until it is full.
+         *
+         * @return the position after the last value written
+         */
+        abstract int fill(long high, int skip, long[] target, int position);
+
+        abstract long sizeInBytes();
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            int insertAt = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(cardinality * 2, ARRAY_MAX));
+            }
+            System.arraycopy(values, insertAt, values, insertAt + 1, cardinality - insertAt);
+            values[insertAt] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index < 0) {
+                return this;
+            }
+            System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+            cardinality--;
+            if (cardinality > 0 && cardinality <= values.length / 4) {
+                values = Arrays.copyOf(values, Math.max(4, values.length / 2));
+            }
+            return cardinality == 0 ? null : this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[Math.min(cardinality, other.cardinality())];
+            int count = 0;
+            if (other instanceof ArrayContainer array) {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        result[count++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        result[count++] = values[i];
+                    }
+                }
+            }
+            return count == 0 ? null : new ArrayContainer(result, count);
+        }
+
+        @Override
+        int fill(long high, int skip, long[] target, int position) {
+            for (int i = skip; i < cardinality && position < target.length; i++) {
+                target[position++] = high | values[i];
+            }
+            return position;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + 2L * values.length;
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words = new long[1024];
+        private int cardinality;
+
+        @Override
+        Container add(char value) {
+            long before = words[value >>> 6];
+            words[value >>> 6] = before | (1L << value);
+            if (words[value >>> 6] != before) {
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long before = words[value >>> 6];
+            words[value >>> 6] = before & ~(1L << value);
+            if (words[value >>> 6] != before) {
+                cardinality--;
+            }
+            return cardinality <= ARRAY_MAX ? toArray() : this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            BitmapContainer bitmap = (BitmapContainer) other;
+            BitmapContainer result = new BitmapContainer();
+            for (int i = 0; i < words.length; i++) {
+                result.words[i] = words[i] & bitmap.words[i];
+                result.cardinality += Long.bitCount(result.words[i]);
+            }
+            return result.cardinality <= ARRAY_MAX ? result.toArray() : result;
+        }
+
+        @Override
+        int fill(long high, int skip, long[] target, int position) {
+            int remainingSkip = skip;
+            for (int i = 0; i < words.length && position < target.length; i++) {
+                long word = words[i];
+                int bits = Long.bitCount(word);
+                if (remainingSkip >= bits) {
+                    remainingSkip -= bits;
+                    continue;
+                }
+                while (word != 0 && position < target.length) {
+                    long lowest = word & -word;
+                    if (remainingSkip > 0) {
+                        remainingSkip--;
+                    } else {
+                        target[position++] = high | ((long) i << 6) | Long.numberOfTrailingZeros(lowest);
+                    }
+                    word ^= lowest;
+                }
+            }
+            return position;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + 8L * words.length;
+        }
+
+        /**
+         * @return an array container with the same values, or {@code null} if empty
+         */
+        private Container toArray() {
+            if (cardinality == 0) {
+                return null;
+            }
+            char[] values = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    long lowest = word & -word;
+                    values[count++] = (char) ((i << 6) | Long.numberOfTrailingZeros(lowest));
+                    word ^= lowest;
+                }
+            }
+            return new ArrayContainer(values, count);
+        }
+    }
+}
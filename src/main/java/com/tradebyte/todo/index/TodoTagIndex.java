@@ -0,0 +1,429 @@
+package com.tradebyte.todo.index;
+
+import com.tradebyte.todo.entity.TodoItem;
+import com.tradebyte.todo.service.PastDuePolicy;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * In-memory index from tag and status to the ids of tagged items, kept in
+ * {@link CompressedBitmap}s, so "status X and tag Y and tag Z" is an intersection of a
+ * few bitmaps instead of a join over {@code todo_item_tags} whose cost grows with the
+ * table.
+ * <p>
+ * The index is loaded from the database on startup and kept current by the mutations of
+ * this instance, which stage their changes here; they are applied after their transaction
+ * commits. Not done items move to past due when this instance sweeps them, and in lazy
+ * past due mode as soon as their due date passes. Changes made through other instances
+ * are picked up by a periodic rebuild ({@code todo.tags.index.rebuild-interval-ms}), so
+ * callers re-check the rows they fetch for the ids found here.
+ * <p>
+ * Enabled with {@code todo.tags.index.enabled=true}; when disabled, staging is a no-op
+ * and tag filters are answered by the database.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class TodoTagIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoTagIndex.class);
+
+    private static final String LOAD_SQL = """
+            SELECT i.id, i.status, i.due_datetime, i.version, t.tag
+            FROM todo_items i JOIN todo_item_tags t ON t.todo_item_id = i.id
+            ORDER BY i.id
+            """;
+
+    private final boolean enabled;
+    private final JdbcTemplate jdbcTemplate;
+    private final PastDuePolicy pastDuePolicy;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State();
+    // Changes applied while a rebuild reads the table, replayed onto the rebuilt state
+    private List<Consumer<State>> changesDuringRebuild;
+
+    private final Timer rebuildTimer;
+
+    public TodoTagIndex(@Value("${todo.tags.index.enabled:false}") boolean enabled,
+                        JdbcTemplate jdbcTemplate,
+                        PastDuePolicy pastDuePolicy,
+                        MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.jdbcTemplate = jdbcTemplate;
+        this.pastDuePolicy = pastDuePolicy;
+
+        this.rebuildTimer = Timer.builder("todo.tags.index.rebuild")
+                .description("Time to load the tag index from the database")
+                .register(meterRegistry);
+        gauge(meterRegistry, "todo.tags.index.items", "Tagged todo items in the tag index",
+                state -> state.entries.size());
+        gauge(meterRegistry, "todo.tags.index.tags", "Distinct tags in the tag index",
+                state -> state.byTag.size());
+        gauge(meterRegistry, "todo.tags.index.bytes", "Approximate heap used by the bitmaps of the tag index",
+                State::bitmapBytes);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void load() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${todo.tags.index.rebuild-interval-ms:600000}",
+            fixedDelayString = "${todo.tags.index.rebuild-interval-ms:600000}")
+    public void rebuildScheduled() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception ex) {
+            logger.error("Could not rebuild the tag index, keeping the current one", ex);
+        }
+    }
+
+    /**
+     * Reads all tagged items into a new index and swaps it in. Changes committed while
+     * the table is read are replayed onto the new index, items keep their newest version.
+     */
+    public synchronized void rebuild() {
+        long startedAt = System.nanoTime();
+        withWriteLock(() -> changesDuringRebuild = new ArrayList<>());
+        State rebuilt = new State();
+        try {
+            EntryCollector collector = new EntryCollector(rebuilt);
+            jdbcTemplate.query(LOAD_SQL, collector);
+            collector.finish();
+        } catch (RuntimeException ex) {
+            withWriteLock(() -> changesDuringRebuild = null);
+            throw ex;
+        }
+        withWriteLock(() -> {
+            changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+            changesDuringRebuild = null;
+            state = rebuilt;
+        });
+        rebuildTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        logger.info("Tag index loaded with {} tagged items and {} tags", rebuilt.entries.size(), rebuilt.byTag.size());
+    }
+
+    /**
+     * Indexes the state {@code todoItem} has when the current transaction commits.
+     */
+    public void stage(TodoItem todoItem) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> {
+            Entry entry = Entry.of(todoItem);
+            apply(state -> state.put(entry));
+        });
+    }
+
+    /**
+     * Drops deleted items once the current transaction commits.
+     */
+    public void stageRemoval(Collection<Long> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        List<Long> removed = List.copyOf(ids);
+        afterCommit(() -> apply(state -> removed.forEach(state::remove)));
+    }
+
+    /**
+     * Drops the items that are still in {@code status} once the current transaction
+     * commits, for deletes that re-checked the status in the database.
+     */
+    public void stageRemoval(Collection<Long> ids, TodoItem.Status status) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        List<Long> removed = List.copyOf(ids);
+        afterCommit(() -> apply(state -> removed.forEach(id -> state.removeIfStatus(id, status))));
+    }
+
+    /**
+     * Moves not done items due before {@code now} in the partition to past due once the
+     * current transaction commits, like the sweep did in the database.
+     */
+    public void stagePastDueSweep(LocalDateTime now, int partition, int partitions) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> apply(state -> state.markPastDue(now, partition, partitions)));
+    }
+
+    /**
+     * Ids of items carrying all {@code tags}, in ascending order. {@code status} may be
+     * null; otherwise only items in that status are returned.
+     *
+     * @param offset number of matching ids to skip
+     * @param limit  maximum number of ids to return
+     */
+    public long[] find(Collection<String> tags, TodoItem.Status status, long offset, int limit) {
+        if (pastDuePolicy.isLazy()) {
+            LocalDateTime now = LocalDateTime.now();
+            if (withReadLock(() -> state.hasNotDoneDueBefore(now))) {
+                apply(state -> state.markPastDue(now, 0, 1));
+            }
+        }
+        return withReadLock(() -> {
+            List<CompressedBitmap> bitmaps = new ArrayList<>(tags.size() + 1);
+            for (String tag : tags) {
+                CompressedBitmap bitmap = state.byTag.get(tag);
+                if (bitmap == null) {
+                    return new long[0];
+                }
+                bitmaps.add(bitmap);
+            }
+            if (status != null) {
+                bitmaps.add(state.byStatus.get(status));
+            }
+            // Smallest first, so the intermediate results stay small
+            bitmaps.sort(Comparator.comparingLong(CompressedBitmap::cardinality));
+            CompressedBitmap result = bitmaps.get(0);
+            for (int i = 1; i < bitmaps.size() && !result.isEmpty(); i++) {
+                result = result.and(bitmaps.get(i));
+            }
+            return result.page(offset, limit);
+        });
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private void apply(Consumer<State> change) {
+        withWriteLock(() -> {
+            change.accept(state);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        });
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private <T> T withReadLock(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void gauge(MeterRegistry meterRegistry, String name, String description, ToDoubleFunction<State> value) {
+        Gauge.builder(name, this, index -> index.withReadLock(() -> value.applyAsDouble(index.state)))
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    /**
+     * What the index knows about one tagged item.
+     */
+    private record Entry(long id, long version, TodoItem.Status status, LocalDateTime dueDateTime, Set<String> tags) {
+
+        private static final Comparator<Entry> BY_DUE_DATE =
+                Comparator.comparing(Entry::dueDateTime).thenComparingLong(Entry::id);
+
+        static Entry of(TodoItem todoItem) {
+            return new Entry(todoItem.getId(), todoItem.getVersion() != null ? todoItem.getVersion() : 0,
+                    todoItem.getStatus(), todoItem.getDueDateTime(), Set.copyOf(todoItem.getTags()));
+        }
+
+        Entry withStatus(TodoItem.Status newStatus) {
+            return new Entry(id, version, newStatus, dueDateTime, tags);
+        }
+    }
+
+    /**
+     * The bitmaps and the entries they were built from. Only tagged items are indexed,
+     * so the status bitmaps hold tagged items only.
+     */
+    private static final class State {
+
+        final Map<String, CompressedBitmap> byTag = new HashMap<>();
+        final Map<TodoItem.Status, CompressedBitmap> byStatus = new EnumMap<>(TodoItem.Status.class);
+        final Map<Long, Entry> entries = new HashMap<>();
+        final NavigableSet<Entry> notDoneByDueDate = new TreeSet<>(Entry.BY_DUE_DATE);
+
+        State() {
+            for (TodoItem.Status status : TodoItem.Status.values()) {
+                byStatus.put(status, new CompressedBitmap());
+            }
+        }
+
+        /**
+         * Replaces the entry of the item unless a newer version is indexed already.
+         */
+        void put(Entry entry) {
+            Entry current = entries.get(entry.id());
+            if (current != null) {
+                if (current.version() > entry.version()) {
+                    return;
+                }
+                unindex(current);
+            }
+            if (!entry.tags().isEmpty()) {
+                index(entry);
+            }
+        }
+
+        void remove(long id) {
+            Entry current = entries.get(id);
+            if (current != null) {
+                unindex(current);
+            }
+        }
+
+        void removeIfStatus(long id, TodoItem.Status status) {
+            Entry current = entries.get(id);
+            if (current != null && current.status() == status) {
+                unindex(current);
+            }
+        }
+
+        boolean hasNotDoneDueBefore(LocalDateTime now) {
+            return !notDoneByDueDate.isEmpty() && notDoneByDueDate.first().dueDateTime().isBefore(now);
+        }
+
+        void markPastDue(LocalDateTime now, int partition, int partitions) {
+            Entry bound = new Entry(Long.MIN_VALUE, 0, TodoItem.Status.NOT_DONE, now, Set.of());
+            List<Entry> overdue = new ArrayList<>();
+            for (Entry entry : notDoneByDueDate.headSet(bound, false)) {
+                if (Math.floorMod(entry.id(), partitions) == partition) {
+                    overdue.add(entry);
+                }
+            }
+            for (Entry entry : overdue) {
+                unindex(entry);
+                index(entry.withStatus(TodoItem.Status.PAST_DUE));
+            }
+        }
+
+        double bitmapBytes() {
+            long bytes = 0;
+            for (CompressedBitmap bitmap : byTag.values()) {
+                bytes += bitmap.sizeInBytes();
+            }
+            for (CompressedBitmap bitmap : byStatus.values()) {
+                bytes += bitmap.sizeInBytes();
+            }
+            return bytes;
+        }
+
+        private void index(Entry entry) {
+            entries.put(entry.id(), entry);
+            byStatus.get(entry.status()).add(entry.id());
+            for (String tag : entry.tags()) {
+                byTag.computeIfAbsent(tag, key -> new CompressedBitmap()).add(entry.id());
+            }
+            if (entry.status() == TodoItem.Status.NOT_DONE) {
+                notDoneByDueDate.add(entry);
+            }
+        }
+
+        private void unindex(Entry entry) {
+            entries.remove(entry.id());
+            byStatus.get(entry.status()).remove(entry.id());
+            for (String tag : entry.tags()) {
+                CompressedBitmap bitmap = byTag.get(tag);
+                if (bitmap != null && bitmap.remove(entry.id()) && bitmap.isEmpty()) {
+                    byTag.remove(tag);
+                }
+            }
+            if (entry.status() == TodoItem.Status.NOT_DONE) {
+                notDoneByDueDate.remove(entry);
+            }
+        }
+    }
+
+    /**
+     * Turns the rows of {@link #LOAD_SQL}, one per tag and ordered by item id, into entries.
+     */
+    private static final class EntryCollector implements RowCallbackHandler {
+
+        private final State target;
+        private Entry pending;
+        private Set<String> pendingTags;
+
+        EntryCollector(State target) {
+            this.target = target;
+        }
+
+        @Override
+        public void processRow(ResultSet row) throws SQLException {
+            long id = row.getLong("id");
+            if (pending == null || pending.id() != id) {
+                finish();
+                pendingTags = new HashSet<>();
+                pending = new Entry(id, row.getLong("version"), TodoItem.Status.valueOf(row.getString("status")),
+                        row.getTimestamp("due_datetime").toLocalDateTime(), pendingTags);
+            }
+            pendingTags.add(row.getString("tag"));
+        }
+
+        void finish() {
+            if (pending != null) {
+                target.put(new Entry(pending.id(), pending.version(), pending.status(), pending.dueDateTime(),
+                        Set.copyOf(pendingTags)));
+                pending = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.tradebyte.todo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the volume of one category of log messages, identified by logger name prefixes.
+ * <p>
+ * Each second, the first {@code maxPerSecond} enabled messages at or below
+ * {@code maxLevel} pass. Beyond that, only every {@code sampleEvery}-th message passes
+ * (none with 0), so a burst still leaves a sample in the log. Messages above
+ * {@code maxLevel} (WARN by default) always pass. The decision is made before
+ * the message is formatted, so suppressed messages cost one counter increment.
+ * <p>
+ * Configured in {@code logback-spring.xml}, one instance per category.
+ */
+public class RateLimitingTurboFilter extends TurboFilter {
+
+    private final List<String> loggerPrefixes = new ArrayList<>();
+    private Level maxLevel = Level.WARN;
+    private int maxPerSecond = 100;
+    private int sampleEvery = 100;
+
+    private final AtomicLong window = new AtomicLong();
+    private final LongAdder suppressed = new LongAdder();
+
+    public void addLoggerPrefix(String loggerPrefix) {
+        loggerPrefixes.add(loggerPrefix.trim());
+    }
+
+    public void setMaxLevel(String maxLevel) {
+        this.maxLevel = Level.toLevel(maxLevel, Level.WARN);
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    public void setSampleEvery(int sampleEvery) {
+        this.sampleEvery = sampleEvery;
+    }
+
+    /**
+     * @return messages dropped since startup
+     */
+    public long getSuppressedCount() {
+        return suppressed.sum();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // isXxxEnabled() guards arrive without a format and must not use up the budget
+        if (!isStarted() || format == null || level.toInt() > maxLevel.toInt()) {
+            return FilterReply.NEUTRAL;
+        }
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel()) || !matches(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        long over = countInCurrentWindow(System.currentTimeMillis() / 1000) - maxPerSecond;
+        if (over <= 0 || (sampleEvery > 0 && over % sampleEvery == 0)) {
+            return FilterReply.NEUTRAL;
+        }
+        suppressed.increment();
+        return FilterReply.DENY;
+    }
+
+    private boolean matches(String loggerName) {
+        for (String prefix : loggerPrefixes) {
+            if (loggerName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The window packs the current second into the high bits and the number of messages
+     * seen in it into the low 24 bits, so a single CAS both counts and rolls over.
+     */
+    private long countInCurrentWindow(long second) {
+        while (true) {
+            long current = window.get();
+            long currentSecond = current >>> 24;
+            long count = current & 0xFF_FFFFL;
+            long next = currentSecond == second
+                    ? (second << 24) | Math.min(count + 1, 0xFF_FFFFL)
+                    : (second << 24) | 1;
+            if (window.compareAndSet(current, next)) {
+                return next & 0xFF_FFFFL;
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.tradebyte.todo.profiling;
+
+import jdk.jfr.Recording;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@code /actuator/jfr}: starts, stops and downloads Java Flight Recorder recordings.
+ * <ul>
+ *   <li>{@code GET /actuator/jfr} lists the recordings and the available settings</li>
+ *   <li>{@code POST /actuator/jfr} with {@code {"durationSeconds": 60, "settings": "profile"}} starts one</li>
+ *   <li>{@code GET /actuator/jfr/{id}} streams the data recorded so far as a .jfr file;
+ *       {@code continuous} as id dumps the continuous recording</li>
+ *   <li>{@code POST /actuator/jfr/{id}} stops a recording early and keeps its data</li>
+ *   <li>{@code DELETE /actuator/jfr/{id}} discards it</li>
+ * </ul>
+ */
+@WebEndpoint(id = "jfr")
+public class JfrEndpoint {
+
+    private static final String DEFAULT_SETTINGS = "profile";
+
+    private final JfrRecordings recordings;
+    private final long defaultDurationSeconds;
+
+    public JfrEndpoint(JfrRecordings recordings, long defaultDurationSeconds) {
+        this.recordings = recordings;
+        this.defaultDurationSeconds = defaultDurationSeconds;
+    }
+
+    @ReadOperation
+    public RecordingsDescriptor recordings() {
+        return new RecordingsDescriptor(
+                recordings.list().stream().map(RecordingDescriptor::new).toList(),
+                JfrRecordings.availableSettings());
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> start(@Nullable Long durationSeconds, @Nullable String settings) {
+        try {
+            Recording recording = recordings.start(
+                    Duration.ofSeconds(durationSeconds != null ? durationSeconds : defaultDurationSeconds),
+                    settings != null ? settings : DEFAULT_SETTINGS);
+            return new WebEndpointResponse<>(new RecordingDescriptor(recording), HttpStatus.CREATED.value());
+        } catch (IllegalArgumentException ex) {
+            return new WebEndpointResponse<>(new Failure(ex.getMessage()), WebEndpointResponse.STATUS_BAD_REQUEST);
+        } catch (UnsupportedOperationException ex) {
+            return new WebEndpointResponse<>(new Failure(ex.getMessage()), WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+        } catch (IllegalStateException ex) {
+            return new WebEndpointResponse<>(new Failure(ex.getMessage()), WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        }
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> download(@Selector String recording) throws IOException {
+        Optional<Recording> found = recordings.find(recording);
+        if (found.isEmpty()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(new TemporaryFileResource(recordings.dump(found.get())));
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> stop(@Selector String recording) {
+        Optional<Recording> found = recordings.find(recording);
+        if (found.isEmpty()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (JfrRecordings.isContinuous(found.get())) {
+            return new WebEndpointResponse<>(new Failure("The continuous recording cannot be stopped, dump it instead"),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        recordings.stop(found.get());
+        return new WebEndpointResponse<>(new RecordingDescriptor(found.get()));
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Object> close(@Selector String recording) {
+        Optional<Recording> found = recordings.find(recording);
+        if (found.isEmpty()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (JfrRecordings.isContinuous(found.get())) {
+            return new WebEndpointResponse<>(new Failure("The continuous recording cannot be closed"),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        recordings.close(found.get());
+        return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NO_CONTENT);
+    }
+
+    public record RecordingsDescriptor(List<RecordingDescriptor> recordings, List<String> availableSettings) {
+    }
+
+    /**
+     * @param durationSeconds configured duration, 0 for the continuous recording
+     * @param sizeBytes       data recorded so far
+     */
+    public record RecordingDescriptor(long id, String name, String state, Instant startTime,
+                                      long durationSeconds, long sizeBytes) {
+
+        RecordingDescriptor(Recording recording) {
+            this(recording.getId(), recording.getName(), recording.getState().name(), recording.getStartTime(),
+                    recording.getDuration() != null ? recording.getDuration().toSeconds() : 0,
+                    recording.getSize());
+        }
+    }
+
+    public record Failure(String message) {
+    }
+
+    /**
+     * Dump file that is deleted once it has been streamed.
+     */
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        private TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+
+        @Override
+        public boolean isFile() {
+            // Keeps the response from being sent with a zero-copy transfer that bypasses the stream
+            return false;
+        }
+    }
+}
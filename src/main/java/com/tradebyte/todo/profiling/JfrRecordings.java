@@ -0,0 +1,179 @@
+package com.tradebyte.todo.profiling;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Java Flight Recorder recordings started by this service: on-demand recordings with a
+ * bounded duration, and optionally one continuous recording that keeps the last minutes
+ * on disk like a ring buffer, so it can be dumped after a latency spike.
+ * <p>
+ * Recordings are addressed by their JFR id, the continuous one also by {@link #CONTINUOUS}.
+ * Finished on-demand recordings keep their data until they are closed.
+ */
+public class JfrRecordings {
+
+    private static final Logger logger = LoggerFactory.getLogger(JfrRecordings.class);
+
+    public static final String CONTINUOUS = "continuous";
+
+    private final Duration maxDuration;
+    private final int maxRecordings;
+    private final Map<Long, Recording> onDemand = new ConcurrentHashMap<>();
+    private volatile Recording continuous;
+
+    public JfrRecordings(Duration maxDuration, int maxRecordings) {
+        this.maxDuration = maxDuration;
+        this.maxRecordings = maxRecordings;
+    }
+
+    /**
+     * @return the names of the settings recordings can be started with, e.g. {@code default} and {@code profile}
+     */
+    public static List<String> availableSettings() {
+        return Configuration.getConfigurations().stream().map(Configuration::getName).toList();
+    }
+
+    /**
+     * Starts the continuous recording; it drops data older than {@code maxAge} or beyond {@code maxSizeBytes}.
+     */
+    public synchronized void startContinuous(String settings, Duration maxAge, long maxSizeBytes) {
+        if (continuous != null || !FlightRecorder.isAvailable()) {
+            return;
+        }
+        Recording recording = new Recording(configuration(settings));
+        recording.setName("todo-" + CONTINUOUS);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSizeBytes);
+        recording.start();
+        continuous = recording;
+        logger.info("Started continuous JFR recording {} with '{}' settings, keeping the last {}",
+                recording.getId(), settings, maxAge);
+    }
+
+    /**
+     * Starts an on-demand recording that stops by itself after {@code duration}.
+     *
+     * @throws IllegalArgumentException if the duration or settings are invalid
+     * @throws IllegalStateException    if {@code maxRecordings} recordings have not been closed yet
+     * @throws UnsupportedOperationException if the JVM has no flight recorder
+     */
+    public Recording start(Duration duration, String settings) {
+        if (!FlightRecorder.isAvailable()) {
+            throw new UnsupportedOperationException("Java Flight Recorder is not available in this JVM");
+        }
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            throw new IllegalArgumentException("Duration must be between 1 second and " + maxDuration.toSeconds() + " seconds");
+        }
+        Configuration configuration = configuration(settings);
+        synchronized (this) {
+            if (onDemand.size() >= maxRecordings) {
+                throw new IllegalStateException("There are already " + maxRecordings
+                        + " recordings, close finished ones first");
+            }
+            Recording recording = new Recording(configuration);
+            recording.setName("todo-on-demand");
+            recording.setToDisk(true);
+            recording.setDuration(duration);
+            recording.start();
+            onDemand.put(recording.getId(), recording);
+            logger.info("Started JFR recording {} for {} with '{}' settings", recording.getId(), duration, settings);
+            return recording;
+        }
+    }
+
+    public List<Recording> list() {
+        List<Recording> recordings = new ArrayList<>();
+        if (continuous != null) {
+            recordings.add(continuous);
+        }
+        recordings.addAll(onDemand.values());
+        return recordings;
+    }
+
+    /**
+     * @param recording a recording id or {@link #CONTINUOUS}
+     */
+    public Optional<Recording> find(String recording) {
+        if (CONTINUOUS.equals(recording)) {
+            return Optional.ofNullable(continuous);
+        }
+        try {
+            return Optional.ofNullable(onDemand.get(Long.parseLong(recording)));
+        } catch (NumberFormatException ex) {
+            return Optional.empty();
+        }
+    }
+
+    public static boolean isContinuous(Recording recording) {
+        return recording.getName().equals("todo-" + CONTINUOUS);
+    }
+
+    /**
+     * Writes the data recorded so far to a temporary file. A running recording keeps running.
+     */
+    public Path dump(Recording recording) throws IOException {
+        Path file = Files.createTempFile("todo-" + recording.getId() + "-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(file);
+            throw ex;
+        }
+        return file;
+    }
+
+    /**
+     * Stops an on-demand recording before its duration is over; its data is kept.
+     */
+    public void stop(Recording recording) {
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            logger.info("Stopped JFR recording {}", recording.getId());
+        }
+    }
+
+    /**
+     * Stops an on-demand recording if needed and discards its data.
+     */
+    public void close(Recording recording) {
+        onDemand.remove(recording.getId());
+        recording.close();
+        logger.info("Closed JFR recording {}", recording.getId());
+    }
+
+    @PreDestroy
+    public synchronized void closeAll() {
+        onDemand.values().forEach(Recording::close);
+        onDemand.clear();
+        if (continuous != null) {
+            continuous.close();
+            continuous = null;
+        }
+    }
+
+    private static Configuration configuration(String settings) {
+        try {
+            return Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException ex) {
+            throw new IllegalArgumentException("Unknown JFR settings '" + settings + "', available: " + availableSettings());
+        }
+    }
+}
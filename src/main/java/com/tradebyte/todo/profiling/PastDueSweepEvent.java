@@ -0,0 +1,30 @@
+package com.tradebyte.todo.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One run of the past due sweep on this instance, including acquiring its leases.
+ */
+@Name("com.tradebyte.todo.PastDueSweep")
+@Label("Past Due Sweep")
+@Category({"Todo Service"})
+@Description("Run of the past due sweep, including acquiring its leases")
+@StackTrace(false)
+public class PastDueSweepEvent extends Event {
+
+    @Label("Partitions")
+    @Description("Configured number of id-hash partitions")
+    public int partitions;
+
+    @Label("Lazy")
+    @Description("Whether the run only announced items becoming past due instead of updating them")
+    public boolean lazy;
+
+    @Label("Updated Items")
+    public int updated;
+}
@@ -0,0 +1,62 @@
+package com.tradebyte.todo.profiling;
+
+import com.tradebyte.todo.service.TodoService;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.aop.support.StaticMethodMatcher;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Wraps the public methods of {@link TodoService} in a {@link TodoServiceMethodEvent}.
+ * The advice is placed in front of the transaction advice, so the event covers the
+ * commit as well.
+ */
+public class TodoServiceEventPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    public TodoServiceEventPostProcessor() {
+        StaticMethodMatcher publicServiceMethods = new StaticMethodMatcher() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass() != Object.class;
+            }
+        };
+        this.advisor = new DefaultPointcutAdvisor(
+                new ComposablePointcut(new RootClassFilter(TodoService.class), publicServiceMethods),
+                new EventInterceptor());
+        setBeforeExistingAdvisors(true);
+    }
+
+    private static final class EventInterceptor implements MethodInterceptor {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            TodoServiceMethodEvent event = new TodoServiceMethodEvent();
+            if (!event.isEnabled()) {
+                return invocation.proceed();
+            }
+
+            event.begin();
+            boolean failed = true;
+            try {
+                Object result = invocation.proceed();
+                failed = false;
+                return result;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    Object[] arguments = invocation.getArguments();
+                    event.method = invocation.getMethod().getName();
+                    event.itemId = arguments.length > 0 && arguments[0] instanceof Long id ? id : 0;
+                    event.failed = failed;
+                    event.commit();
+                }
+            }
+        }
+    }
+}
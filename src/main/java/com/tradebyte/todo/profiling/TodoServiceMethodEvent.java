@@ -0,0 +1,30 @@
+package com.tradebyte.todo.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call of a public {@code TodoService} method, including its transaction. Recorded
+ * only while a recording enables it; otherwise creating the event is all it costs.
+ */
+@Name("com.tradebyte.todo.ServiceMethod")
+@Label("Todo Service Method")
+@Category({"Todo Service"})
+@Description("Call of a public TodoService method, including its transaction")
+@StackTrace(false)
+public class TodoServiceMethodEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Item Id")
+    @Description("Id of the item the call works on, 0 if it works on several or none")
+    long itemId;
+
+    @Label("Failed")
+    boolean failed;
+}
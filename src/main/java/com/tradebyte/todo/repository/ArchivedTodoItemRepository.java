@@ -0,0 +1,94 @@
+package com.tradebyte.todo.repository;
+
+import com.tradebyte.todo.entity.ArchivedTodoItem;
+import com.tradebyte.todo.entity.TodoItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedTodoItemRepository extends JpaRepository<ArchivedTodoItem, Long> {
+
+    /**
+     * Ids of archived items in {@code status} that finished before {@code cutoff} and
+     * come after {@code afterId}, in id order, for chunked retention purges.
+     */
+    @Query("""
+        SELECT a.id FROM ArchivedTodoItem a
+        WHERE a.status = :status
+          AND COALESCE(a.doneDateTime, a.dueDateTime) < :cutoff
+          AND a.id > :afterId
+        ORDER BY a.id
+    """)
+    List<Long> findExpiredIds(@Param("status") TodoItem.Status status,
+                              @Param("cutoff") LocalDateTime cutoff,
+                              @Param("afterId") long afterId,
+                              Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ArchivedTodoItem a WHERE a.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Row of {@link #findAcrossTiers(int, long)}, from either the live or the archive table.
+     */
+    interface TieredTodoRow {
+        Long getId();
+        String getDescription();
+        String getStatus();
+        LocalDateTime getCreationDateTime();
+        LocalDateTime getDueDateTime();
+        LocalDateTime getDoneDateTime();
+        boolean isArchived();
+    }
+
+    /**
+     * Pages over live and archived items together, ordered by id.
+     */
+    @Query(value = """
+        SELECT id, description, status,
+               creation_datetime AS creationDateTime,
+               due_datetime AS dueDateTime,
+               done_datetime AS doneDateTime,
+               archived
+        FROM (
+            SELECT id, description, status, creation_datetime, due_datetime, done_datetime, FALSE AS archived
+            FROM todo_items
+            UNION ALL
+            SELECT id, description, status, creation_datetime, due_datetime, done_datetime, TRUE AS archived
+            FROM todo_items_archive
+        ) tiers
+        ORDER BY id
+        LIMIT :limit OFFSET :offset
+    """, nativeQuery = true)
+    List<TieredTodoRow> findAcrossTiers(@Param("limit") int limit, @Param("offset") long offset);
+
+    /**
+     * Tag of a live item, see {@link #findLiveTags(Collection)}.
+     */
+    interface ItemTag {
+        Long getTodoItemId();
+        String getTag();
+    }
+
+    /**
+     * Tags of the live items among {@code ids}, for the rows of a {@link #findAcrossTiers}
+     * page, ordered by item and tag.
+     */
+    @Query(value = """
+        SELECT todo_item_id AS todoItemId, tag
+        FROM todo_item_tags
+        WHERE todo_item_id IN :ids
+        ORDER BY todo_item_id, tag
+    """, nativeQuery = true)
+    List<ItemTag> findLiveTags(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,74 @@
+package com.tradebyte.todo.repository;
+
+import com.tradebyte.todo.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Creates the claim on a key that is not in use. Fails with a constraint violation if
+     * another request claimed it first.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+        INSERT INTO idempotency_keys (idempotency_key, fingerprint, written_at)
+        VALUES (:key, :fingerprint, :now)
+    """, nativeQuery = true)
+    int create(@Param("key") String key,
+               @Param("fingerprint") String fingerprint,
+               @Param("now") LocalDateTime now);
+
+    /**
+     * Claims a key whose entry has expired, or whose claim was abandoned without a response.
+     *
+     * @return 1 if the caller holds the claim afterwards, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE IdempotencyRecord r
+        SET r.fingerprint = :fingerprint, r.status = NULL, r.contentType = NULL,
+            r.location = NULL, r.body = NULL, r.writtenAt = :now
+        WHERE r.key = :key
+          AND (r.writtenAt < :expiredBefore OR (r.status IS NULL AND r.writtenAt < :abandonedBefore))
+    """)
+    int takeOver(@Param("key") String key,
+                 @Param("fingerprint") String fingerprint,
+                 @Param("now") LocalDateTime now,
+                 @Param("expiredBefore") LocalDateTime expiredBefore,
+                 @Param("abandonedBefore") LocalDateTime abandonedBefore);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE IdempotencyRecord r
+        SET r.status = :status, r.contentType = :contentType, r.location = :location,
+            r.body = :body, r.writtenAt = :now
+        WHERE r.key = :key AND r.status IS NULL
+    """)
+    int complete(@Param("key") String key,
+                 @Param("status") int status,
+                 @Param("contentType") String contentType,
+                 @Param("location") String location,
+                 @Param("body") byte[] body,
+                 @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.status IS NULL")
+    int release(@Param("key") String key);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.writtenAt < :before")
+    int deleteWrittenBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,33 @@
+package com.tradebyte.todo.repository;
+
+import com.tradebyte.todo.entity.RecurringTodoTemplate;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RecurringTodoTemplateRepository extends JpaRepository<RecurringTodoTemplate, Long> {
+
+    /**
+     * Ids of templates with an occurrence before {@code horizon} that has not been
+     * generated yet, earliest first. Served by the index on {@code next_occurrence}.
+     */
+    @Query("""
+        SELECT t.id FROM RecurringTodoTemplate t
+        WHERE t.nextOccurrence < :horizon
+        ORDER BY t.nextOccurrence, t.id
+    """)
+    List<Long> findIdsWithOccurrencesBefore(@Param("horizon") LocalDateTime horizon, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM RecurringTodoTemplate t WHERE t.id IN :ids")
+    List<RecurringTodoTemplate> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,59 @@
+package com.tradebyte.todo.repository;
+
+import com.tradebyte.todo.entity.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    /**
+     * Extends the lease if {@code owner} already holds it, or takes it over if it has expired.
+     *
+     * @return 1 if {@code owner} holds the lease afterwards, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE SchedulerLease l
+        SET l.owner = :owner, l.expiresAt = :expiresAt
+        WHERE l.name = :name
+          AND (l.owner = :owner OR l.expiresAt < :now)
+    """)
+    int extendOrTakeOver(@Param("name") String name,
+                         @Param("owner") String owner,
+                         @Param("now") LocalDateTime now,
+                         @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Creates a lease that does not exist yet. Fails with a constraint violation if
+     * another instance created it first.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+        INSERT INTO scheduler_leases (name, owner, expires_at)
+        VALUES (:name, :owner, :expiresAt)
+    """, nativeQuery = true)
+    int create(@Param("name") String name,
+               @Param("owner") String owner,
+               @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SchedulerLease l WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+
+    @Query("""
+        SELECT COUNT(l) FROM SchedulerLease l
+        WHERE l.name LIKE CONCAT(:prefix, '%')
+          AND l.expiresAt >= :now
+    """)
+    long countActive(@Param("prefix") String prefix, @Param("now") LocalDateTime now);
+}
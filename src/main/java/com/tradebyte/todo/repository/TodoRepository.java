@@ -1,19 +1,75 @@
 package com.tradebyte.todo.repository;
 
 import com.tradebyte.todo.entity.TodoItem;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TodoRepository extends JpaRepository<TodoItem, Long> {
 
-    Page<TodoItem> findByStatus(TodoItem.Status status, Pageable pageable);
+    /**
+     * Fetches the tags with the item, so single item reads stay one query.
+     */
+    @Override
+    @EntityGraph(attributePaths = "tags")
+    Optional<TodoItem> findById(Long id);
+
+    /**
+     * Fetches the tags with the items, so lookups stay one query per chunk.
+     */
+    @Override
+    @EntityGraph(attributePaths = "tags")
+    List<TodoItem> findAllById(Iterable<Long> ids);
+
+    /**
+     * One page of items, without the count query {@link #findAll(Pageable)} needs for a {@code Page}.
+     */
+    Slice<TodoItem> findAllBy(Pageable pageable);
+
+    Slice<TodoItem> findByStatus(TodoItem.Status status, Pageable pageable);
+
+    /**
+     * Items with the given persisted status that are not due yet, for lazy past due evaluation.
+     */
+    Slice<TodoItem> findByStatusAndDueDateTimeGreaterThanEqual(TodoItem.Status status,
+                                                               LocalDateTime now,
+                                                               Pageable pageable);
+
+    /**
+     * Items carrying all {@code tags}, in id order, for tag filters without the tag index.
+     * Items must have one of {@code statuses}; not done items must in addition be due in
+     * {@code [notDoneFrom, notDoneBefore)}, which expresses lazy past due evaluation.
+     */
+    @Query("""
+        SELECT t FROM TodoItem t
+        WHERE t.id IN (
+            SELECT i.id FROM TodoItem i JOIN i.tags tag
+            WHERE tag IN :tags
+            GROUP BY i.id
+            HAVING COUNT(tag) = :tagCount)
+          AND t.status IN :statuses
+          AND (t.status <> 'NOT_DONE' OR (t.dueDateTime >= :notDoneFrom AND t.dueDateTime < :notDoneBefore))
+        ORDER BY t.id
+    """)
+    Slice<TodoItem> findByTags(@Param("tags") Collection<String> tags,
+                               @Param("tagCount") long tagCount,
+                               @Param("statuses") Collection<TodoItem.Status> statuses,
+                               @Param("notDoneFrom") LocalDateTime notDoneFrom,
+                               @Param("notDoneBefore") LocalDateTime notDoneBefore,
+                               Pageable pageable);
 
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query("""
@@ -24,4 +80,93 @@ public interface TodoRepository extends JpaRepository<TodoItem, Long> {
     """)
     int markPastDueItems(@Param("now") LocalDateTime now);
 
+    /**
+     * Same as {@link #markPastDueItems(LocalDateTime)}, restricted to the ids that hash
+     * to {@code partition} out of {@code partitions}.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("""
+        UPDATE TodoItem t
+        SET t.status = 'PAST_DUE'
+        WHERE t.status = 'NOT_DONE'
+          AND t.dueDateTime < :now
+          AND MOD(t.id, :partitions) = :partition
+    """)
+    int markPastDueItemsInPartition(@Param("now") LocalDateTime now,
+                                    @Param("partition") int partition,
+                                    @Param("partitions") int partitions);
+
+    @Query("""
+        SELECT COUNT(t) FROM TodoItem t
+        WHERE t.status = 'NOT_DONE'
+          AND t.dueDateTime >= :from
+          AND t.dueDateTime < :to
+    """)
+    long countItemsBecomingPastDue(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Ids of finished items that are old enough to be archived and come after
+     * {@code afterId}, in id order. With {@code includeOverdue}, not done items past their
+     * due date count as finished too, for lazy past due evaluation.
+     */
+    @Query("""
+        SELECT t.id FROM TodoItem t
+        WHERE ((t.status = 'DONE' AND COALESCE(t.doneDateTime, t.dueDateTime) < :cutoff)
+               OR (t.status = 'PAST_DUE' AND t.dueDateTime < :cutoff)
+               OR (:includeOverdue = true AND t.status = 'NOT_DONE' AND t.dueDateTime < :cutoff))
+          AND t.id > :afterId
+        ORDER BY t.id
+    """)
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff,
+                                 @Param("includeOverdue") boolean includeOverdue,
+                                 @Param("afterId") long afterId,
+                                 Pageable pageable);
+
+    /**
+     * Ids of items in {@code status} that finished before {@code cutoff} and come after
+     * {@code afterId}, in id order, for chunked retention purges. With
+     * {@code includeOverdue}, not done items due before {@code cutoff} match too, for
+     * lazy past due evaluation.
+     */
+    @Query("""
+        SELECT t.id FROM TodoItem t
+        WHERE ((t.status = :status AND COALESCE(t.doneDateTime, t.dueDateTime) < :cutoff)
+               OR (:includeOverdue = true AND t.status = 'NOT_DONE' AND t.dueDateTime < :cutoff))
+          AND t.id > :afterId
+        ORDER BY t.id
+    """)
+    List<Long> findExpiredIds(@Param("status") TodoItem.Status status,
+                              @Param("cutoff") LocalDateTime cutoff,
+                              @Param("includeOverdue") boolean includeOverdue,
+                              @Param("afterId") long afterId,
+                              Pageable pageable);
+
+    /**
+     * Deletes the given items if they still match the retention condition of
+     * {@link #findExpiredIds}.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        DELETE FROM TodoItem t
+        WHERE t.id IN :ids
+          AND ((t.status = :status AND COALESCE(t.doneDateTime, t.dueDateTime) < :cutoff)
+               OR (:includeOverdue = true AND t.status = 'NOT_DONE' AND t.dueDateTime < :cutoff))
+    """)
+    int deleteExpired(@Param("ids") Collection<Long> ids,
+                      @Param("status") TodoItem.Status status,
+                      @Param("cutoff") LocalDateTime cutoff,
+                      @Param("includeOverdue") boolean includeOverdue);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM TodoItem t WHERE t.id IN :ids")
+    List<TodoItem> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Reserves the next block of {@link TodoItem#ID_ALLOCATION_SIZE} ids and returns its first id.
+     */
+    @Transactional
+    @Query(value = "SELECT NEXT VALUE FOR todo_items_seq", nativeQuery = true)
+    long reserveIdBlock();
+
 }
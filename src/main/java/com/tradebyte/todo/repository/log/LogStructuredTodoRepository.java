@@ -0,0 +1,740 @@
+package com.tradebyte.todo.repository.log;
+
+import com.tradebyte.todo.entity.TodoItem;
+import com.tradebyte.todo.exception.ValidationException;
+import com.tradebyte.todo.repository.TodoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link TodoRepository} backed by an embedded append-only log instead of the database.
+ * <p>
+ * Every write appends the full item (or a deletion) to memory-mapped segment files, and
+ * all current items are kept in an in-memory index by id, so reads never touch the disk.
+ * A background thread forces the log to disk every {@code fsync-interval-ms}; with
+ * {@code sync-commits}, writers wait for the fsync covering their records, so one fsync
+ * is shared by every commit of the interval. When most of the log is made of
+ * overwritten records, it is compacted into fresh segments.
+ * <p>
+ * Writes inside a Spring transaction are buffered per transaction, visible to its own
+ * reads, checked against the item versions at commit and appended only if it commits.
+ * The past due sweep and the retention delete are the exception: they append to the log
+ * and update the index immediately, and a rollback of the surrounding transaction does
+ * not undo them.
+ * <p>
+ * Tags, the archive tier and asynchronous creates need the JPA engine; tag filters and
+ * listings that include archived items are rejected.
+ * <p>
+ * Enabled with {@code todo.storage.engine=log}.
+ */
+@Repository
+@Primary
+@ConditionalOnProperty(name = "todo.storage.engine", havingValue = "log")
+public class LogStructuredTodoRepository implements TodoRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogStructuredTodoRepository.class);
+
+    private static final long ABSENT = -1;
+
+    private final SegmentLog log;
+    private final boolean syncCommits;
+    private final double compactionGarbageRatio;
+
+    private final ConcurrentSkipListMap<Long, Stored> index = new ConcurrentSkipListMap<>();
+    private final ReentrantLock commitLock = new ReentrantLock();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final ScheduledExecutorService flusher;
+
+    private final Timer compactionTimer;
+
+    private long liveBytes;
+
+    public LogStructuredTodoRepository(MeterRegistry meterRegistry,
+                                       @Value("${todo.storage.log.directory:./data/todo-log}") Path directory,
+                                       @Value("${todo.storage.log.segment-bytes:67108864}") int segmentBytes,
+                                       @Value("${todo.storage.log.fsync-interval-ms:5}") long fsyncIntervalMillis,
+                                       @Value("${todo.storage.log.sync-commits:true}") boolean syncCommits,
+                                       @Value("${todo.storage.log.compaction-garbage-ratio:0.5}") double compactionGarbageRatio,
+                                       @Value("${todo.create.async.enabled:false}") boolean asyncCreates) {
+        if (asyncCreates) {
+            throw new IllegalStateException("todo.create.async.enabled requires todo.storage.engine=jpa");
+        }
+        this.log = new SegmentLog(directory, segmentBytes);
+        this.syncCommits = syncCommits;
+        this.compactionGarbageRatio = compactionGarbageRatio;
+
+        long startedAt = System.nanoTime();
+        log.open(this::replay);
+        logger.info("Opened todo item log in {} with {} items in {} ms", directory, index.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "todo-log-fsync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::sync, fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("todo.storage.log.items", index, Map::size)
+                .description("Todo items in the log index")
+                .register(meterRegistry);
+        Gauge.builder("todo.storage.log.bytes", log, SegmentLog::getTotalBytes)
+                .description("Bytes of records in the todo item log")
+                .register(meterRegistry);
+        Gauge.builder("todo.storage.log.segments", log, SegmentLog::getSegmentCount)
+                .description("Segment files of the todo item log")
+                .register(meterRegistry);
+        this.compactionTimer = Timer.builder("todo.storage.log.compaction")
+                .description("Time to compact the todo item log")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<TodoItem> findById(Long id) {
+        return Optional.ofNullable(current(id)).map(LogStructuredTodoRepository::copy);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return current(id) != null;
+    }
+
+    @Override
+    public List<TodoItem> findAll() {
+        return visible().map(LogStructuredTodoRepository::copy).toList();
+    }
+
+    @Override
+    public List<TodoItem> findAll(Sort sort) {
+        requireUnsorted(sort);
+        return findAll();
+    }
+
+    @Override
+    public Page<TodoItem> findAll(Pageable pageable) {
+        return page(item -> true, pageable);
+    }
+
+    @Override
+    public List<TodoItem> findAllById(Iterable<Long> ids) {
+        return StreamSupport.stream(ids.spliterator(), false)
+                .distinct()
+                .map(this::current)
+                .filter(Objects::nonNull)
+                .map(LogStructuredTodoRepository::copy)
+                .toList();
+    }
+
+    /**
+     * Commits are serialized and checked against item versions, so no row lock is needed.
+     */
+    @Override
+    public List<TodoItem> findAllByIdForUpdate(Collection<Long> ids) {
+        return findAllById(ids);
+    }
+
+    @Override
+    public long count() {
+        return pending() == null ? index.size() : visible().count();
+    }
+
+    @Override
+    public Slice<TodoItem> findAllBy(Pageable pageable) {
+        return slice(item -> true, pageable);
+    }
+
+    @Override
+    public Slice<TodoItem> findByStatus(TodoItem.Status status, Pageable pageable) {
+        return slice(item -> item.getStatus() == status, pageable);
+    }
+
+    @Override
+    public Slice<TodoItem> findByStatusAndDueDateTimeGreaterThanEqual(TodoItem.Status status,
+                                                                      LocalDateTime now,
+                                                                      Pageable pageable) {
+        return slice(item -> item.getStatus() == status && !item.getDueDateTime().isBefore(now), pageable);
+    }
+
+    /**
+     * Tags are only stored by the JPA engine, see {@link #save(TodoItem)}.
+     */
+    @Override
+    public Slice<TodoItem> findByTags(Collection<String> tags,
+                                      long tagCount,
+                                      Collection<TodoItem.Status> statuses,
+                                      LocalDateTime notDoneFrom,
+                                      LocalDateTime notDoneBefore,
+                                      Pageable pageable) {
+        throw new ValidationException("Tags require todo.storage.engine=jpa");
+    }
+
+    @Override
+    public long countItemsBecomingPastDue(LocalDateTime from, LocalDateTime to) {
+        return visible()
+                .filter(item -> item.getStatus() == TodoItem.Status.NOT_DONE)
+                .filter(item -> !item.getDueDateTime().isBefore(from) && item.getDueDateTime().isBefore(to))
+                .count();
+    }
+
+    @Override
+    public List<Long> findArchivableIds(LocalDateTime cutoff, boolean includeOverdue, long afterId,
+                                        Pageable pageable) {
+        return ids(visible().filter(item -> item.getId() > afterId).filter(item -> switch (item.getStatus()) {
+            case DONE -> finishedAt(item).isBefore(cutoff);
+            case PAST_DUE -> item.getDueDateTime().isBefore(cutoff);
+            case NOT_DONE -> includeOverdue && item.getDueDateTime().isBefore(cutoff);
+        }), pageable);
+    }
+
+    @Override
+    public List<Long> findExpiredIds(TodoItem.Status status, LocalDateTime cutoff, boolean includeOverdue,
+                                     long afterId, Pageable pageable) {
+        return ids(visible().filter(item -> item.getId() > afterId && isExpired(item, status, cutoff, includeOverdue)),
+                pageable);
+    }
+
+    /**
+     * Hands out ids from the same counter as {@link #save(TodoItem)}.
+     */
+    @Override
+    public long reserveIdBlock() {
+        return nextId.getAndAdd(TodoItem.ID_ALLOCATION_SIZE);
+    }
+
+    @Override
+    public <S extends TodoItem> S save(S entity) {
+        if (!entity.getTags().isEmpty()) {
+            throw new ValidationException("Tags require todo.storage.engine=jpa");
+        }
+        TodoItem current = entity.getId() == null ? null : current(entity.getId());
+        if (entity.getId() == null) {
+            entity.setId(nextId.getAndIncrement());
+        } else if (entity.getVersion() != null
+                && (current == null || !entity.getVersion().equals(current.getVersion()))) {
+            throw new ObjectOptimisticLockingFailureException(TodoItem.class, entity.getId());
+        }
+
+        TodoItem updated = copy(entity);
+        if (current == null) {
+            updated.setVersion(0L);
+        } else {
+            updated.setVersion(current.getVersion());
+            if (!updated.equals(current)) {
+                updated.setVersion(current.getVersion() + 1);
+            }
+        }
+        entity.setVersion(updated.getVersion());
+
+        write(updated.getId(), updated, current);
+        return entity;
+    }
+
+    @Override
+    public <S extends TodoItem> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+
+    @Override
+    public <S extends TodoItem> S saveAndFlush(S entity) {
+        return save(entity);
+    }
+
+    @Override
+    public <S extends TodoItem> List<S> saveAllAndFlush(Iterable<S> entities) {
+        return saveAll(entities);
+    }
+
+    @Override
+    public void flush() {
+        // Writes are buffered per transaction and appended on commit
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        TodoItem current = current(id);
+        if (current != null) {
+            write(id, null, current);
+        }
+    }
+
+    @Override
+    public void delete(TodoItem entity) {
+        deleteById(entity.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends TodoItem> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        visible().map(TodoItem::getId).toList().forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<TodoItem> entities) {
+        deleteAll(entities);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+
+    @Override
+    public int markPastDueItems(LocalDateTime now) {
+        return updateInPlace(item -> isOverdue(item, now), LogStructuredTodoRepository::pastDue);
+    }
+
+    @Override
+    public int markPastDueItemsInPartition(LocalDateTime now, int partition, int partitions) {
+        return updateInPlace(item -> isOverdue(item, now) && item.getId() % partitions == partition,
+                LogStructuredTodoRepository::pastDue);
+    }
+
+    @Override
+    public int deleteExpired(Collection<Long> ids, TodoItem.Status status, LocalDateTime cutoff,
+                             boolean includeOverdue) {
+        return updateInPlace(item -> ids.contains(item.getId()) && isExpired(item, status, cutoff, includeOverdue),
+                null);
+    }
+
+    @Override
+    public TodoItem getReferenceById(Long id) {
+        return findById(id).orElseThrow(() -> new EntityNotFoundException("Todo item with id: " + id + " not found"));
+    }
+
+    @Override
+    @Deprecated
+    public TodoItem getById(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    @Deprecated
+    public TodoItem getOne(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public <S extends TodoItem> Optional<S> findOne(Example<S> example) {
+        throw queryByExampleUnsupported();
+    }
+
+    @Override
+    public <S extends TodoItem> List<S> findAll(Example<S> example) {
+        throw queryByExampleUnsupported();
+    }
+
+    @Override
+    public <S extends TodoItem> List<S> findAll(Example<S> example, Sort sort) {
+        throw queryByExampleUnsupported();
+    }
+
+    @Override
+    public <S extends TodoItem> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw queryByExampleUnsupported();
+    }
+
+    @Override
+    public <S extends TodoItem> long count(Example<S> example) {
+        throw queryByExampleUnsupported();
+    }
+
+    @Override
+    public <S extends TodoItem> boolean exists(Example<S> example) {
+        throw queryByExampleUnsupported();
+    }
+
+    @Override
+    public <S extends TodoItem, R> R findBy(Example<S> example,
+                                           Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw queryByExampleUnsupported();
+    }
+
+    /**
+     * Rewrites the log into fresh segments once overwritten and deleted records make up
+     * more than {@code compaction-garbage-ratio} of it. Writes wait while it runs.
+     */
+    @Scheduled(fixedDelayString = "${todo.storage.log.compaction-interval-ms:60000}")
+    public void compactIfNeeded() {
+        commitLock.lock();
+        try {
+            long totalBytes = log.getTotalBytes();
+            if (log.getSegmentCount() < 2 || totalBytes - liveBytes < totalBytes * compactionGarbageRatio) {
+                return;
+            }
+            // A deletion of the highest id handed out so far keeps the id counter across restarts
+            long highestId = nextId.get() - 1;
+            Stream<byte[]> highestIdMarker = index.containsKey(highestId)
+                    ? Stream.empty()
+                    : Stream.of(TodoItemCodec.encodeDelete(highestId));
+            compactionTimer.record(() -> log.rewrite(Stream.concat(
+                    index.values().stream().map(stored -> TodoItemCodec.encodePut(stored.item())),
+                    highestIdMarker).iterator()));
+            logger.info("Compacted todo item log from {} to {} bytes", totalBytes, log.getTotalBytes());
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        flusher.shutdown();
+        log.close();
+        logger.info("Closed todo item log with {} items", index.size());
+    }
+
+    /**
+     * Applies one record of the log to the index. Deletions count for the id counter
+     * too, so ids of deleted items are not handed out again.
+     */
+    private void replay(ByteBuffer record) {
+        if (TodoItemCodec.type(record) == TodoItemCodec.DELETE) {
+            long id = TodoItemCodec.deletedId(record);
+            nextId.accumulateAndGet(id + 1, Math::max);
+            Stored removed = index.remove(id);
+            if (removed != null) {
+                liveBytes -= removed.bytes();
+            }
+            return;
+        }
+        TodoItem item = TodoItemCodec.decodePut(record);
+        nextId.accumulateAndGet(item.getId() + 1, Math::max);
+        int bytes = SegmentLog.HEADER_BYTES + record.remaining();
+        Stored replaced = index.put(item.getId(), new Stored(item, bytes));
+        liveBytes += bytes - (replaced == null ? 0 : replaced.bytes());
+    }
+
+    private void sync() {
+        try {
+            log.sync();
+        } catch (RuntimeException ex) {
+            logger.error("Could not sync todo item log", ex);
+        }
+    }
+
+    /**
+     * The item as seen by the current transaction, or {@code null}. Never modify it.
+     */
+    private TodoItem current(Long id) {
+        PendingWrites pending = pending();
+        if (pending != null && pending.items.containsKey(id)) {
+            return pending.items.get(id);
+        }
+        Stored stored = index.get(id);
+        return stored == null ? null : stored.item();
+    }
+
+    /**
+     * All items as seen by the current transaction, in id order. Never modify them.
+     */
+    private Stream<TodoItem> visible() {
+        Stream<TodoItem> committed = index.values().stream().map(Stored::item);
+        PendingWrites pending = pending();
+        if (pending == null || pending.items.isEmpty()) {
+            return committed;
+        }
+        TreeMap<Long, TodoItem> merged = new TreeMap<>();
+        committed.forEach(item -> merged.put(item.getId(), item));
+        pending.items.forEach((id, item) -> {
+            if (item == null) {
+                merged.remove(id);
+            } else {
+                merged.put(id, item);
+            }
+        });
+        return merged.values().stream();
+    }
+
+    /**
+     * Records a new state ({@code null} for a deletion) of {@code id} that was read as
+     * {@code current}, either in the write set of the current transaction or, outside of
+     * transactions, directly in the log.
+     */
+    private void write(Long id, TodoItem item, TodoItem current) {
+        PendingWrites pending = pending();
+        if (pending == null && TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.isActualTransactionActive()) {
+            pending = new PendingWrites();
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+
+        if (pending == null) {
+            Map<Long, TodoItem> items = new HashMap<>(2);
+            items.put(id, item);
+            apply(items, Map.of(id, versionOf(current)));
+            return;
+        }
+        if (!pending.items.containsKey(id)) {
+            pending.expectedVersions.put(id, versionOf(current));
+        }
+        pending.items.put(id, item);
+    }
+
+    /**
+     * Appends a write set to the log if the versions it was based on are still current.
+     */
+    private void apply(Map<Long, TodoItem> items, Map<Long, Long> expectedVersions) {
+        long lastRecord = 0;
+        commitLock.lock();
+        try {
+            expectedVersions.forEach((id, expected) -> {
+                Stored stored = index.get(id);
+                if ((stored == null ? ABSENT : stored.item().getVersion()) != expected) {
+                    throw new ObjectOptimisticLockingFailureException(TodoItem.class, id);
+                }
+            });
+            for (Map.Entry<Long, TodoItem> entry : items.entrySet()) {
+                lastRecord = append(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            commitLock.unlock();
+        }
+        awaitSynced(lastRecord);
+    }
+
+    /**
+     * Applies a bulk change to every matching item right away, without version checks,
+     * the way a SQL bulk update would. Items written by the current transaction are
+     * changed in its write set instead. A {@code null} change deletes the items.
+     */
+    private int updateInPlace(Predicate<TodoItem> filter, UnaryOperator<TodoItem> change) {
+        int updated = 0;
+        PendingWrites pending = pending();
+        if (pending != null) {
+            for (Map.Entry<Long, TodoItem> entry : pending.items.entrySet()) {
+                if (entry.getValue() != null && filter.test(entry.getValue())) {
+                    entry.setValue(change == null ? null : change.apply(entry.getValue()));
+                    updated++;
+                }
+            }
+        }
+
+        long lastRecord = 0;
+        commitLock.lock();
+        try {
+            for (Stored stored : index.values()) {
+                TodoItem item = stored.item();
+                if ((pending == null || !pending.items.containsKey(item.getId())) && filter.test(item)) {
+                    lastRecord = append(item.getId(), change == null ? null : change.apply(item));
+                    updated++;
+                }
+            }
+        } finally {
+            commitLock.unlock();
+        }
+        awaitSynced(lastRecord);
+        return updated;
+    }
+
+    /**
+     * Appends one record and updates the index. Must hold {@link #commitLock}.
+     */
+    private long append(Long id, TodoItem item) {
+        if (item == null) {
+            long record = log.append(TodoItemCodec.encodeDelete(id));
+            Stored removed = index.remove(id);
+            if (removed != null) {
+                liveBytes -= removed.bytes();
+            }
+            return record;
+        }
+        byte[] payload = TodoItemCodec.encodePut(item);
+        long record = log.append(payload);
+        Stored stored = new Stored(copy(item), SegmentLog.HEADER_BYTES + payload.length);
+        Stored replaced = index.put(id, stored);
+        liveBytes += stored.bytes() - (replaced == null ? 0 : replaced.bytes());
+        return record;
+    }
+
+    private void awaitSynced(long record) {
+        if (!syncCommits || record == 0) {
+            return;
+        }
+        try {
+            log.awaitSynced(record);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the todo item log to sync", ex);
+        }
+    }
+
+    private PendingWrites pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingWrites pending && pending.owner() == this) {
+                return pending;
+            }
+        }
+        return null;
+    }
+
+    private Page<TodoItem> page(Predicate<TodoItem> filter, Pageable pageable) {
+        requireUnsorted(pageable.getSort());
+        List<TodoItem> matching = visible().filter(filter).toList();
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(matching.stream().map(LogStructuredTodoRepository::copy).toList());
+        }
+        List<TodoItem> content = matching.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(LogStructuredTodoRepository::copy)
+                .toList();
+        return new PageImpl<>(content, pageable, matching.size());
+    }
+
+    private Slice<TodoItem> slice(Predicate<TodoItem> filter, Pageable pageable) {
+        requireUnsorted(pageable.getSort());
+        Stream<TodoItem> matching = visible().filter(filter);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(matching.map(LogStructuredTodoRepository::copy).toList());
+        }
+        List<TodoItem> content = matching
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1L)
+                .map(LogStructuredTodoRepository::copy)
+                .toList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    private static List<Long> ids(Stream<TodoItem> items, Pageable pageable) {
+        requireUnsorted(pageable.getSort());
+        Stream<Long> ids = items.map(TodoItem::getId);
+        return pageable.isUnpaged() ? ids.toList() : ids.skip(pageable.getOffset()).limit(pageable.getPageSize()).toList();
+    }
+
+    private static void requireUnsorted(Sort sort) {
+        if (sort.isSorted()) {
+            throw new UnsupportedOperationException("The log-structured todo repository only returns items in id order");
+        }
+    }
+
+    private static UnsupportedOperationException queryByExampleUnsupported() {
+        return new UnsupportedOperationException("Query by example is not supported by the log-structured todo repository");
+    }
+
+    private static boolean isOverdue(TodoItem item, LocalDateTime now) {
+        return item.getStatus() == TodoItem.Status.NOT_DONE && item.getDueDateTime().isBefore(now);
+    }
+
+    private static boolean isExpired(TodoItem item, TodoItem.Status status, LocalDateTime cutoff,
+                                     boolean includeOverdue) {
+        if (includeOverdue && item.getStatus() == TodoItem.Status.NOT_DONE) {
+            return item.getDueDateTime().isBefore(cutoff);
+        }
+        return item.getStatus() == status && finishedAt(item).isBefore(cutoff);
+    }
+
+    private static LocalDateTime finishedAt(TodoItem item) {
+        return item.getDoneDateTime() != null ? item.getDoneDateTime() : item.getDueDateTime();
+    }
+
+    private static TodoItem pastDue(TodoItem item) {
+        TodoItem updated = copy(item);
+        updated.setStatus(TodoItem.Status.PAST_DUE);
+        return updated;
+    }
+
+    private static long versionOf(TodoItem item) {
+        return item == null ? ABSENT : item.getVersion();
+    }
+
+    private static TodoItem copy(TodoItem item) {
+        return TodoItem.builder()
+                .id(item.getId())
+                .description(item.getDescription())
+                .status(item.getStatus())
+                .creationDateTime(item.getCreationDateTime())
+                .dueDateTime(item.getDueDateTime())
+                .doneDateTime(item.getDoneDateTime())
+                .version(item.getVersion())
+                .build();
+    }
+
+    private record Stored(TodoItem item, int bytes) {}
+
+    /**
+     * Write set of one transaction. A {@code null} item stands for a deletion. It is
+     * appended in {@link #beforeCommit(boolean)}, so a version conflict still rolls the
+     * transaction back.
+     */
+    private final class PendingWrites implements TransactionSynchronization {
+
+        private final Map<Long, TodoItem> items = new LinkedHashMap<>();
+        private final Map<Long, Long> expectedVersions = new HashMap<>();
+
+        LogStructuredTodoRepository owner() {
+            return LogStructuredTodoRepository.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!items.isEmpty()) {
+                apply(items, expectedVersions);
+            }
+        }
+    }
+}
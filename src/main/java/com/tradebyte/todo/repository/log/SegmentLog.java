@@ -0,0 +1,295 @@
+package com.tradebyte.todo.repository.log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of records in memory-mapped segment files of a fixed size.
+ * <p>
+ * Each record is written as {@code [length][crc32][payload]}; a zero length marks the
+ * end of the data in a segment. Appends only write to the mapping, and {@link #sync()}
+ * forces everything appended so far to disk, so one fsync covers all records written
+ * since the previous one. On {@link #open(Consumer)}, segments are replayed in order
+ * up to the first torn or corrupt record.
+ * <p>
+ * All methods are synchronized, except the disk force in {@link #sync()}.
+ */
+final class SegmentLog implements Closeable {
+
+    static final int HEADER_BYTES = 8;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentBytes;
+
+    private final List<SealedSegment> sealedSegments = new ArrayList<>();
+    private Segment active;
+
+    private long appendedRecords;
+    private long syncedRecords;
+    private long totalBytes;
+    private boolean closed;
+
+    SegmentLog(Path directory, int segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Replays all valid records to {@code consumer} in append order and prepares the
+     * last segment for appends. Each buffer passed to the consumer holds exactly one
+     * payload and is only valid during the call.
+     */
+    synchronized void open(Consumer<ByteBuffer> consumer) {
+        try {
+            Files.createDirectories(directory);
+            List<Path> segments = listSegments();
+            for (int i = 0; i < segments.size(); i++) {
+                boolean last = i == segments.size() - 1;
+                Segment segment = map(segments.get(i));
+                replay(segment.buffer(), consumer);
+                if (last) {
+                    active = segment;
+                } else {
+                    segment.channel().close();
+                    sealedSegments.add(new SealedSegment(segment.path(), segment.buffer().position()));
+                }
+            }
+            if (active == null) {
+                active = map(segmentPath(0));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not open todo item log in " + directory, ex);
+        }
+    }
+
+    /**
+     * Appends one record to the mapping, rolling over to a new segment when the active
+     * one is full.
+     *
+     * @return the sequence number of the record, to be passed to {@link #awaitSynced(long)}
+     */
+    synchronized long append(byte[] payload) {
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes > segmentBytes - Integer.BYTES) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes does not fit into a segment");
+        }
+        if (active.buffer().remaining() < recordBytes + Integer.BYTES) {
+            roll();
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        active.buffer().putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        totalBytes += recordBytes;
+        return ++appendedRecords;
+    }
+
+    /**
+     * Forces all records appended so far to disk and wakes up writers waiting for them.
+     * The force itself runs outside the lock, so appends continue meanwhile.
+     */
+    void sync() {
+        MappedByteBuffer buffer;
+        long records;
+        synchronized (this) {
+            if (closed || syncedRecords == appendedRecords) {
+                return;
+            }
+            buffer = active.buffer();
+            records = appendedRecords;
+        }
+        buffer.force();
+        synchronized (this) {
+            if (records > syncedRecords) {
+                syncedRecords = records;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Blocks until the record with the given sequence number has been forced to disk.
+     */
+    synchronized void awaitSynced(long record) throws InterruptedException {
+        while (syncedRecords < record && !closed) {
+            wait(100);
+        }
+    }
+
+    /**
+     * Rewrites the log so that it only holds {@code liveRecords}: they are appended to
+     * fresh segments, which are forced to disk before the older segments are deleted.
+     * A crash in between leaves both, and replaying them in order gives the same state.
+     */
+    synchronized void rewrite(Iterator<byte[]> liveRecords) {
+        roll();
+        List<Path> obsolete = sealedSegments.stream().map(SealedSegment::path).toList();
+        sealedSegments.clear();
+        totalBytes = 0;
+
+        liveRecords.forEachRemaining(this::append);
+        active.buffer().force();
+        syncedRecords = appendedRecords;
+        notifyAll();
+
+        try {
+            for (Path segment : obsolete) {
+                Files.deleteIfExists(segment);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not delete compacted segments in " + directory, ex);
+        }
+    }
+
+    /**
+     * Seals the active segment and starts a new one.
+     *
+     * @return the number of the new segment; every record appended from now on is in
+     *         this segment or a later one
+     */
+    synchronized long startSegment() {
+        roll();
+        return active.number();
+    }
+
+    /**
+     * Deletes the sealed segments numbered below {@code number}, once their records are
+     * covered by something else, such as a snapshot.
+     */
+    synchronized void deleteSegmentsBefore(long number) {
+        try {
+            Iterator<SealedSegment> segments = sealedSegments.iterator();
+            while (segments.hasNext()) {
+                SealedSegment segment = segments.next();
+                if (segmentNumber(segment.path()) < number) {
+                    Files.deleteIfExists(segment.path());
+                    totalBytes -= segment.bytes();
+                    segments.remove();
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not delete old segments in " + directory, ex);
+        }
+    }
+
+    synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    synchronized int getSegmentCount() {
+        return sealedSegments.size() + 1;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        active.buffer().force();
+        active.channel().close();
+        syncedRecords = appendedRecords;
+        closed = true;
+        notifyAll();
+    }
+
+    private void roll() {
+        try {
+            active.buffer().force();
+            active.channel().close();
+            syncedRecords = appendedRecords;
+            notifyAll();
+
+            sealedSegments.add(new SealedSegment(active.path(), active.buffer().position()));
+            active = map(segmentPath(active.number() + 1));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not roll over todo item log in " + directory, ex);
+        }
+    }
+
+    private void replay(MappedByteBuffer buffer, Consumer<ByteBuffer> consumer) {
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            if (length == 0) {
+                buffer.position(start);
+                return;
+            }
+            int checksum = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                truncate(buffer, start);
+                return;
+            }
+
+            ByteBuffer payload = buffer.slice(buffer.position(), length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                truncate(buffer, start);
+                return;
+            }
+
+            consumer.accept(payload);
+            buffer.position(buffer.position() + length);
+            totalBytes += HEADER_BYTES + length;
+        }
+    }
+
+    /**
+     * Zeroes a torn tail, so records appended later are not followed by leftovers of it.
+     */
+    private void truncate(MappedByteBuffer buffer, int position) {
+        buffer.position(position);
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) 0);
+        }
+        buffer.position(position);
+    }
+
+    private Segment map(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = Math.max(channel.size(), segmentBytes);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        return new Segment(segmentNumber(path), path, channel, buffer);
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    private static long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private record Segment(long number, Path path, FileChannel channel, MappedByteBuffer buffer) {}
+
+    private record SealedSegment(Path path, long bytes) {}
+}
@@ -0,0 +1,146 @@
+package com.tradebyte.todo.repository.log;
+
+import com.tradebyte.todo.entity.TodoItem;
+import com.tradebyte.todo.service.TodoItemsChangedEvent;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Binary encoding of the records in the todo item logs. A record is either the full
+ * state of one item, the deletion of an id or, in the write-ahead log only, a past due
+ * sweep; the latest record for an id wins.
+ * <p>
+ * Item records end with the description unless the item has tags or belongs to a
+ * recurring template; those are appended after it, so records written before they
+ * existed still decode.
+ */
+final class TodoItemCodec {
+
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+    static final byte PAST_DUE_SWEEP = 3;
+
+    private static final TodoItem.Status[] STATUSES = TodoItem.Status.values();
+
+    private TodoItemCodec() {
+    }
+
+    static byte[] encodePut(TodoItem item) {
+        byte[] description = item.getDescription().getBytes(StandardCharsets.UTF_8);
+        boolean extended = item.getRecurringTemplateId() != null || !item.getTags().isEmpty();
+        List<byte[]> tags = new ArrayList<>(item.getTags().size());
+        int tagBytes = 0;
+        for (String tag : item.getTags()) {
+            byte[] encoded = tag.getBytes(StandardCharsets.UTF_8);
+            tags.add(encoded);
+            tagBytes += 4 + encoded.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 8 + 8 + 1 + 3 * 13 + 4 + description.length
+                + (extended ? 1 + 8 + 4 + tagBytes : 0));
+        buffer.put(PUT);
+        buffer.putLong(item.getId());
+        buffer.putLong(item.getVersion());
+        buffer.put((byte) item.getStatus().ordinal());
+        putDateTime(buffer, item.getCreationDateTime());
+        putDateTime(buffer, item.getDueDateTime());
+        putDateTime(buffer, item.getDoneDateTime());
+        buffer.putInt(description.length);
+        buffer.put(description);
+        if (extended) {
+            Long recurringTemplateId = item.getRecurringTemplateId();
+            buffer.put((byte) (recurringTemplateId == null ? 0 : 1));
+            buffer.putLong(recurringTemplateId == null ? 0 : recurringTemplateId);
+            buffer.putInt(tags.size());
+            for (byte[] tag : tags) {
+                buffer.putInt(tag.length);
+                buffer.put(tag);
+            }
+        }
+        return buffer.array();
+    }
+
+    static byte[] encodeDelete(long id) {
+        return ByteBuffer.allocate(1 + 8).put(DELETE).putLong(id).array();
+    }
+
+    static byte[] encodePastDueSweep(TodoItemsChangedEvent.PastDueSweep sweep) {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 13 + 4 + 4);
+        buffer.put(PAST_DUE_SWEEP);
+        putDateTime(buffer, sweep.now());
+        buffer.putInt(sweep.partition()).putInt(sweep.partitions());
+        return buffer.array();
+    }
+
+    static byte type(ByteBuffer record) {
+        return record.get(record.position());
+    }
+
+    static long deletedId(ByteBuffer record) {
+        return record.getLong(record.position() + 1);
+    }
+
+    static TodoItemsChangedEvent.PastDueSweep decodePastDueSweep(ByteBuffer record) {
+        ByteBuffer buffer = record.duplicate();
+        buffer.get();
+        LocalDateTime now = getDateTime(buffer);
+        return new TodoItemsChangedEvent.PastDueSweep(now, buffer.getInt(), buffer.getInt());
+    }
+
+    static TodoItem decodePut(ByteBuffer record) {
+        ByteBuffer buffer = record.duplicate();
+        buffer.get();
+        long id = buffer.getLong();
+        long version = buffer.getLong();
+        TodoItem.Status status = STATUSES[buffer.get()];
+        LocalDateTime creationDateTime = getDateTime(buffer);
+        LocalDateTime dueDateTime = getDateTime(buffer);
+        LocalDateTime doneDateTime = getDateTime(buffer);
+        byte[] description = new byte[buffer.getInt()];
+        buffer.get(description);
+        Long recurringTemplateId = null;
+        Set<String> tags = new HashSet<>();
+        if (buffer.hasRemaining()) {
+            boolean recurring = buffer.get() == 1;
+            long templateId = buffer.getLong();
+            recurringTemplateId = recurring ? templateId : null;
+            for (int i = buffer.getInt(); i > 0; i--) {
+                byte[] tag = new byte[buffer.getInt()];
+                buffer.get(tag);
+                tags.add(new String(tag, StandardCharsets.UTF_8));
+            }
+        }
+        return TodoItem.builder()
+                .id(id)
+                .version(version)
+                .status(status)
+                .creationDateTime(creationDateTime)
+                .dueDateTime(dueDateTime)
+                .doneDateTime(doneDateTime)
+                .description(new String(description, StandardCharsets.UTF_8))
+                .recurringTemplateId(recurringTemplateId)
+                .tags(tags)
+                .build();
+    }
+
+    private static void putDateTime(ByteBuffer buffer, LocalDateTime dateTime) {
+        if (dateTime == null) {
+            buffer.put((byte) 0).putLong(0).putInt(0);
+            return;
+        }
+        buffer.put((byte) 1).putLong(dateTime.toEpochSecond(ZoneOffset.UTC)).putInt(dateTime.getNano());
+    }
+
+    private static LocalDateTime getDateTime(ByteBuffer buffer) {
+        boolean present = buffer.get() == 1;
+        long epochSecond = buffer.getLong();
+        int nano = buffer.getInt();
+        return present ? LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC) : null;
+    }
+}
@@ -0,0 +1,586 @@
+package com.tradebyte.todo.repository.log;
+
+import com.tradebyte.todo.datasource.DataSourceRouting;
+import com.tradebyte.todo.entity.TodoItem;
+import com.tradebyte.todo.service.TodoItemsChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the contents of {@code todo_items} and {@code todo_item_tags} across restarts of
+ * the in-memory database.
+ * <p>
+ * Every committed change published as {@link TodoItemsChangedEvent} is appended to a
+ * write-ahead log: the current row of every changed id with its tags (or its deletion),
+ * and past due sweeps as the sweep itself. Rows are read and appended under one lock, so the last
+ * record of an id is never older than the committed row. Periodically, and on shutdown,
+ * the table is written to a compact binary snapshot split into parts, after which the
+ * log segments it covers are deleted.
+ * <p>
+ * On startup, an empty table is restored by loading the parts of the latest snapshot
+ * in parallel and replaying the log on top.
+ * <p>
+ * Enabled with {@code todo.durability.enabled=true}. The archive table is not covered,
+ * so startup fails if {@code todo.archive.enabled=true} as well: archived items would
+ * be deleted from {@code todo_items} in the log and lost on restart.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@ConditionalOnProperty(name = "todo.durability.enabled", havingValue = "true")
+public class TodoTableDurability {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoTableDurability.class);
+
+    private static final String COLUMNS =
+            "id, description, status, creation_datetime, due_datetime, done_datetime, version, recurring_template_id";
+    /**
+     * One row per item and tag, items without tags once with a null tag.
+     */
+    private static final String SELECT_SQL = """
+            SELECT i.id, i.description, i.status, i.creation_datetime, i.due_datetime, i.done_datetime, i.version,
+                   i.recurring_template_id, t.tag
+            FROM todo_items i LEFT JOIN todo_item_tags t ON t.todo_item_id = i.id
+            """;
+    private static final String INSERT_SQL = "INSERT INTO todo_items (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String MERGE_SQL = "MERGE INTO todo_items (" + COLUMNS + ") KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_SQL = "DELETE FROM todo_items WHERE id = ?";
+    private static final String INSERT_TAG_SQL = "INSERT INTO todo_item_tags (todo_item_id, tag) VALUES (?, ?)";
+    private static final String DELETE_TAGS_SQL = "DELETE FROM todo_item_tags WHERE todo_item_id = ?";
+    private static final String SWEEP_SQL = """
+            UPDATE todo_items SET status = 'PAST_DUE'
+            WHERE status = 'NOT_DONE' AND due_datetime < ? AND MOD(id, ?) = ?
+            """;
+    private static final String NEXT_ID_SQL = """
+            SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'TODO_ITEMS_SEQ'
+            """;
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String PART_PREFIX = "part-";
+    private static final String MANIFEST = "manifest";
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTransaction;
+    private final SegmentLog wal;
+    private final Path snapshotDirectory;
+    private final boolean syncCommits;
+    private final boolean snapshotOnShutdown;
+    private final int loadThreads;
+    private final int rowsPerPart;
+    private final ScheduledExecutorService flusher;
+
+    private final Object walLock = new Object();
+
+    private final Counter walRecordsCounter;
+    private final Timer snapshotTimer;
+
+    private volatile long restoreMillis;
+
+    public TodoTableDurability(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${todo.durability.directory:./data/durability}") Path directory,
+                               @Value("${todo.durability.wal.segment-bytes:67108864}") int segmentBytes,
+                               @Value("${todo.durability.wal.fsync-interval-ms:20}") long fsyncIntervalMillis,
+                               @Value("${todo.durability.wal.sync-commits:false}") boolean syncCommits,
+                               @Value("${todo.durability.snapshot.on-shutdown:true}") boolean snapshotOnShutdown,
+                               @Value("${todo.durability.snapshot.rows-per-part:100000}") int rowsPerPart,
+                               @Value("${todo.durability.restore.threads:4}") int loadThreads,
+                               @Value("${todo.storage.engine:jpa}") String storageEngine,
+                               @Value("${todo.archive.enabled:false}") boolean archiveEnabled) {
+        if (!"jpa".equals(storageEngine)) {
+            throw new IllegalStateException("todo.durability.enabled requires todo.storage.engine=jpa");
+        }
+        if (archiveEnabled) {
+            throw new IllegalStateException("todo.durability.enabled does not cover the archive table, "
+                    + "disable todo.archive.enabled");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+        this.wal = new SegmentLog(directory.resolve("wal"), segmentBytes);
+        this.snapshotDirectory = directory.resolve("snapshots");
+        this.syncCommits = syncCommits;
+        this.snapshotOnShutdown = snapshotOnShutdown;
+        this.rowsPerPart = rowsPerPart;
+        this.loadThreads = loadThreads;
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "todo-wal-fsync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::sync, fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+
+        this.walRecordsCounter = Counter.builder("todo.durability.wal.records")
+                .description("Records appended to the todo item write-ahead log")
+                .register(meterRegistry);
+        this.snapshotTimer = Timer.builder("todo.durability.snapshot")
+                .description("Time to write a snapshot of todo_items")
+                .register(meterRegistry);
+        Gauge.builder("todo.durability.wal.bytes", wal, SegmentLog::getTotalBytes)
+                .description("Bytes in the todo item write-ahead log")
+                .register(meterRegistry);
+        Gauge.builder("todo.durability.restore.duration", this, durability -> durability.restoreMillis)
+                .description("Milliseconds spent restoring todo_items on startup")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Restores an empty table from the latest snapshot and the write-ahead log.
+     */
+    @PostConstruct
+    public void restore() {
+        long startedAt = System.nanoTime();
+        Long existingRows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM todo_items", Long.class);
+        if (existingRows != null && existingRows > 0) {
+            logger.warn("todo_items already holds {} rows, appending to the write-ahead log without restoring",
+                    existingRows);
+            wal.open(record -> {
+            });
+            return;
+        }
+
+        Optional<Path> snapshot = latestSnapshot();
+        long nextId = 1;
+        long loadedRows = 0;
+        if (snapshot.isPresent()) {
+            nextId = readManifest(snapshot.get());
+            loadedRows = loadSnapshot(snapshot.get());
+        }
+
+        WalReplay replay = new WalReplay();
+        wal.open(replay);
+        replay.flush();
+
+        nextId = Math.max(nextId, replay.maxId + 1);
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM todo_items", Long.class);
+        nextId = Math.max(nextId, maxId + 1);
+        jdbcTemplate.execute("ALTER SEQUENCE todo_items_seq RESTART WITH " + nextId);
+
+        restoreMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        logger.info("Restored todo_items in {} ms: {} rows from snapshot, {} log records replayed",
+                restoreMillis, loadedRows, replay.records);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoItemsChanged(TodoItemsChangedEvent event) {
+        long lastRecord;
+        synchronized (walLock) {
+            if (event.pastDueSweep() != null) {
+                lastRecord = wal.append(TodoItemCodec.encodePastDueSweep(event.pastDueSweep()));
+                walRecordsCounter.increment();
+            } else if (!event.ids().isEmpty()) {
+                lastRecord = appendCurrentRows(event.ids());
+            } else {
+                return;
+            }
+        }
+
+        if (syncCommits) {
+            try {
+                wal.awaitSynced(lastRecord);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Writes a snapshot of the table, then deletes the log segments written before it
+     * started. Changes committed while the snapshot is written end up in both, which
+     * is harmless because replaying them again gives the same rows.
+     */
+    @Scheduled(initialDelayString = "${todo.durability.snapshot.interval-ms:300000}",
+            fixedDelayString = "${todo.durability.snapshot.interval-ms:300000}")
+    public synchronized void snapshot() {
+        snapshotTimer.record(() -> {
+            long firstSegment;
+            synchronized (walLock) {
+                firstSegment = wal.startSegment();
+            }
+
+            Path target = snapshotDirectory.resolve(String.format("%s%012d", SNAPSHOT_PREFIX, firstSegment));
+            Path temporary = snapshotDirectory.resolve(target.getFileName() + ".tmp");
+            try {
+                deleteRecursively(temporary);
+                Files.createDirectories(temporary);
+
+                long rows = readOnPrimary(() -> writeSnapshot(temporary));
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+
+                for (Path older : listSnapshots()) {
+                    if (!older.equals(target)) {
+                        deleteRecursively(older);
+                    }
+                }
+                wal.deleteSegmentsBefore(firstSegment);
+                logger.info("Wrote snapshot of {} todo items to {}", rows, target);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not write snapshot to " + target, ex);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        try {
+            if (snapshotOnShutdown) {
+                snapshot();
+            }
+        } catch (RuntimeException ex) {
+            logger.error("Could not write snapshot on shutdown, the write-ahead log still has every change", ex);
+        } finally {
+            flusher.shutdown();
+            wal.close();
+        }
+    }
+
+    /**
+     * Runs {@code read} in its own read-only transaction on the primary, never on a
+     * read replica, so it sees every committed change.
+     */
+    private <T> T readOnPrimary(Supplier<T> read) {
+        try (DataSourceRouting.Pin ignored = DataSourceRouting.pinToPrimary()) {
+            return readTransaction.execute(status -> read.get());
+        }
+    }
+
+    private long appendCurrentRows(List<Long> ids) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, TodoItem> rows = readOnPrimary(() -> findRows(distinctIds));
+
+        long lastRecord = 0;
+        for (Long id : distinctIds) {
+            TodoItem row = rows.get(id);
+            lastRecord = wal.append(row == null ? TodoItemCodec.encodeDelete(id) : TodoItemCodec.encodePut(row));
+        }
+        walRecordsCounter.increment(distinctIds.size());
+        return lastRecord;
+    }
+
+    private Map<Long, TodoItem> findRows(List<Long> ids) {
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Map<Long, TodoItem> rows = new HashMap<>(ids.size() * 2);
+        jdbcTemplate.query(SELECT_SQL + " WHERE i.id IN (" + placeholders + ")", (RowCallbackHandler) rs -> {
+            TodoItem row = rows.get(rs.getLong("id"));
+            if (row == null) {
+                row = mapRow(rs);
+                rows.put(row.getId(), row);
+            }
+            addTag(row, rs);
+        }, ids.toArray());
+        return rows;
+    }
+
+    private long writeSnapshot(Path directory) {
+        Long nextId = jdbcTemplate.queryForObject(NEXT_ID_SQL, Long.class);
+        SnapshotWriter writer = new SnapshotWriter(directory);
+        try {
+            TodoItem[] current = new TodoItem[1];
+            jdbcTemplate.query(SELECT_SQL + " ORDER BY i.id", (RowCallbackHandler) rs -> {
+                if (current[0] == null || current[0].getId() != rs.getLong("id")) {
+                    if (current[0] != null) {
+                        writer.write(TodoItemCodec.encodePut(current[0]));
+                    }
+                    current[0] = mapRow(rs);
+                }
+                addTag(current[0], rs);
+            });
+            if (current[0] != null) {
+                writer.write(TodoItemCodec.encodePut(current[0]));
+            }
+            writer.close();
+            try (DataOutputStream manifest = new DataOutputStream(Files.newOutputStream(directory.resolve(MANIFEST)))) {
+                manifest.writeLong(nextId == null ? 1 : nextId);
+                manifest.writeLong(writer.rows);
+            }
+            return writer.rows;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private long loadSnapshot(Path snapshot) {
+        List<Path> parts;
+        try (Stream<Path> files = Files.list(snapshot)) {
+            parts = files.filter(path -> path.getFileName().toString().startsWith(PART_PREFIX)).sorted().toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not list snapshot " + snapshot, ex);
+        }
+
+        ExecutorService loaders = Executors.newFixedThreadPool(Math.max(1, Math.min(loadThreads, parts.size())));
+        try {
+            List<Future<Long>> loaded = new ArrayList<>();
+            for (Path part : parts) {
+                loaded.add(loaders.submit(() -> loadPart(part)));
+            }
+            long rows = 0;
+            for (Future<Long> part : loaded) {
+                rows += part.get();
+            }
+            return rows;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading snapshot " + snapshot, ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Could not load snapshot " + snapshot, ex.getCause());
+        } finally {
+            loaders.shutdownNow();
+        }
+    }
+
+    private long loadPart(Path part) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(part));
+        List<TodoItem> batch = new ArrayList<>(BATCH_SIZE);
+        long rows = 0;
+        while (buffer.hasRemaining()) {
+            int length = buffer.getInt();
+            batch.add(TodoItemCodec.decodePut(buffer.slice(buffer.position(), length)));
+            buffer.position(buffer.position() + length);
+            if (batch.size() == BATCH_SIZE) {
+                rows += insert(INSERT_SQL, batch, false);
+            }
+        }
+        return rows + insert(INSERT_SQL, batch, false);
+    }
+
+    /**
+     * Writes the items and their tags, replacing tags stored before if {@code replaceTags}.
+     */
+    private int insert(String sql, List<TodoItem> batch, boolean replaceTags) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(sql, batch, batch.size(), (statement, item) -> {
+            statement.setLong(1, item.getId());
+            statement.setString(2, item.getDescription());
+            statement.setString(3, item.getStatus().name());
+            statement.setTimestamp(4, Timestamp.valueOf(item.getCreationDateTime()));
+            statement.setTimestamp(5, Timestamp.valueOf(item.getDueDateTime()));
+            statement.setTimestamp(6, item.getDoneDateTime() == null ? null : Timestamp.valueOf(item.getDoneDateTime()));
+            statement.setLong(7, item.getVersion());
+            statement.setObject(8, item.getRecurringTemplateId());
+        });
+        if (replaceTags) {
+            jdbcTemplate.batchUpdate(DELETE_TAGS_SQL, batch.stream().map(item -> new Object[]{item.getId()}).toList());
+        }
+        List<Object[]> tags = batch.stream()
+                .flatMap(item -> item.getTags().stream().map(tag -> new Object[]{item.getId(), tag}))
+                .toList();
+        if (!tags.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TAG_SQL, tags);
+        }
+        int size = batch.size();
+        batch.clear();
+        return size;
+    }
+
+    private long readManifest(Path snapshot) {
+        try (DataInputStream manifest = new DataInputStream(Files.newInputStream(snapshot.resolve(MANIFEST)))) {
+            return manifest.readLong();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read manifest of snapshot " + snapshot, ex);
+        }
+    }
+
+    private Optional<Path> latestSnapshot() {
+        return listSnapshots().stream().max(Comparator.naturalOrder());
+    }
+
+    private List<Path> listSnapshots() {
+        if (!Files.isDirectory(snapshotDirectory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(snapshotDirectory)) {
+            return files
+                    .filter(path -> path.getFileName().toString().startsWith(SNAPSHOT_PREFIX))
+                    .filter(path -> !path.getFileName().toString().endsWith(".tmp"))
+                    .toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not list snapshots in " + snapshotDirectory, ex);
+        }
+    }
+
+    private void sync() {
+        try {
+            wal.sync();
+        } catch (RuntimeException ex) {
+            logger.error("Could not sync todo item write-ahead log", ex);
+        }
+    }
+
+    private static TodoItem mapRow(ResultSet rs) throws SQLException {
+        Timestamp doneDateTime = rs.getTimestamp("done_datetime");
+        long recurringTemplateId = rs.getLong("recurring_template_id");
+        boolean recurring = !rs.wasNull();
+        return TodoItem.builder()
+                .id(rs.getLong("id"))
+                .description(rs.getString("description"))
+                .status(TodoItem.Status.valueOf(rs.getString("status")))
+                .creationDateTime(rs.getTimestamp("creation_datetime").toLocalDateTime())
+                .dueDateTime(rs.getTimestamp("due_datetime").toLocalDateTime())
+                .doneDateTime(doneDateTime == null ? null : doneDateTime.toLocalDateTime())
+                .version(rs.getLong("version"))
+                .recurringTemplateId(recurring ? recurringTemplateId : null)
+                .build();
+    }
+
+    private static void addTag(TodoItem row, ResultSet rs) throws SQLException {
+        String tag = rs.getString("tag");
+        if (tag != null) {
+            row.getTags().add(tag);
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Writes length-prefixed records into parts of {@code rowsPerPart} rows each.
+     */
+    private final class SnapshotWriter {
+
+        private final Path directory;
+        private DataOutputStream out;
+        private long rows;
+
+        SnapshotWriter(Path directory) {
+            this.directory = directory;
+        }
+
+        void write(byte[] record) {
+            try {
+                if (rows % rowsPerPart == 0) {
+                    close();
+                    Path part = directory.resolve(String.format("%s%06d", PART_PREFIX, rows / rowsPerPart));
+                    out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(part), 1 << 16));
+                }
+                out.writeInt(record.length);
+                out.write(record);
+                rows++;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        void close() throws IOException {
+            if (out != null) {
+                out.close();
+                out = null;
+            }
+        }
+    }
+
+    /**
+     * Applies log records in order, batching consecutive row writes.
+     */
+    private final class WalReplay implements Consumer<ByteBuffer> {
+
+        private final List<TodoItem> puts = new ArrayList<>(BATCH_SIZE);
+        private final List<Object[]> deletes = new ArrayList<>(BATCH_SIZE);
+        private long maxId;
+        private long records;
+
+        @Override
+        public void accept(ByteBuffer record) {
+            records++;
+            switch (TodoItemCodec.type(record)) {
+                case TodoItemCodec.PUT -> {
+                    flushDeletes();
+                    TodoItem item = TodoItemCodec.decodePut(record);
+                    maxId = Math.max(maxId, item.getId());
+                    puts.add(item);
+                    if (puts.size() == BATCH_SIZE) {
+                        insert(MERGE_SQL, puts, true);
+                    }
+                }
+                case TodoItemCodec.DELETE -> {
+                    insert(MERGE_SQL, puts, true);
+                    long id = TodoItemCodec.deletedId(record);
+                    maxId = Math.max(maxId, id);
+                    deletes.add(new Object[]{id});
+                    if (deletes.size() == BATCH_SIZE) {
+                        flushDeletes();
+                    }
+                }
+                case TodoItemCodec.PAST_DUE_SWEEP -> {
+                    flush();
+                    TodoItemsChangedEvent.PastDueSweep sweep = TodoItemCodec.decodePastDueSweep(record);
+                    jdbcTemplate.update(SWEEP_SQL, Timestamp.valueOf(sweep.now()), sweep.partitions(), sweep.partition());
+                }
+                default -> throw new IllegalStateException("Unknown write-ahead log record type " + TodoItemCodec.type(record));
+            }
+        }
+
+        void flush() {
+            insert(MERGE_SQL, puts, true);
+            flushDeletes();
+        }
+
+        private void flushDeletes() {
+            if (!deletes.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_TAGS_SQL, deletes);
+                jdbcTemplate.batchUpdate(DELETE_SQL, deletes);
+                deletes.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.tradebyte.todo.repository.shard;
+
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Local transaction on one shard, joined to the surrounding Spring transaction. The
+ * shard connection is bound like a {@code DataSourceTransactionManager} would bind it,
+ * so a {@code JdbcTemplate} on the same thread uses it. It commits in
+ * {@link #beforeCommit(boolean)}, so a failing shard still rolls back the surrounding
+ * transaction, and rolls back on any other completion. Shards commit one after the
+ * other; a failure between two of them is not undone on the shards already committed.
+ */
+final class ShardTransaction implements TransactionSynchronization {
+
+    private final DataSource dataSource;
+    private final ConnectionHolder connectionHolder;
+    private boolean committed;
+
+    private ShardTransaction(DataSource dataSource, ConnectionHolder connectionHolder) {
+        this.dataSource = dataSource;
+        this.connectionHolder = connectionHolder;
+    }
+
+    /**
+     * Starts a local transaction on {@code dataSource} for the current Spring transaction,
+     * unless there is none, it is read-only or the shard already joined it. Must be called
+     * before the first statement on the shard in the transaction, otherwise that statement
+     * binds a plain auto-commit connection instead.
+     */
+    static void join(DataSource dataSource) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(dataSource)) {
+            return;
+        }
+        try {
+            Connection connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+            ConnectionHolder holder = new ConnectionHolder(connection, true);
+            holder.setSynchronizedWithTransaction(true);
+            TransactionSynchronizationManager.bindResource(dataSource, holder);
+            TransactionSynchronizationManager.registerSynchronization(new ShardTransaction(dataSource, holder));
+        } catch (SQLException ex) {
+            throw new TransactionSystemException("Could not start a transaction on a todo item shard", ex);
+        }
+    }
+
+    static boolean isJoined(DataSource dataSource) {
+        return TransactionSynchronizationManager.hasResource(dataSource);
+    }
+
+    @Override
+    public void suspend() {
+        TransactionSynchronizationManager.unbindResource(dataSource);
+    }
+
+    @Override
+    public void resume() {
+        TransactionSynchronizationManager.bindResource(dataSource, connectionHolder);
+    }
+
+    @Override
+    public void beforeCommit(boolean readOnly) {
+        try {
+            connectionHolder.getConnection().commit();
+            committed = true;
+        } catch (SQLException ex) {
+            throw new TransactionSystemException("Could not commit a todo item shard", ex);
+        }
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(dataSource);
+        Connection connection = connectionHolder.getConnection();
+        try {
+            if (!committed) {
+                connection.rollback();
+            }
+            connection.setAutoCommit(true);
+        } catch (SQLException ignored) {
+            // The connection is closed below and the pool discards it if it is broken
+        } finally {
+            connectionHolder.clear();
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+                // Nothing left to clean up
+            }
+        }
+    }
+}
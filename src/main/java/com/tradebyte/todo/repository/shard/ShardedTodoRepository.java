@@ -0,0 +1,657 @@
+package com.tradebyte.todo.repository.shard;
+
+import com.tradebyte.todo.entity.TodoItem;
+import com.tradebyte.todo.exception.ValidationException;
+import com.tradebyte.todo.repository.TodoRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link TodoRepository} that spreads todo items over several databases.
+ * <p>
+ * Ids encode their shard: an item created on shard {@code s} gets the id
+ * {@code local * MAX_SHARDS + s}, where {@code local} comes from the shard's own
+ * sequence, so single-item reads and writes go straight to one shard. New items are
+ * placed round robin. Queries over all items fan out to every shard in parallel; each
+ * shard returns its first matching rows in id order and the results are merged by id.
+ * The past due sweep runs on all shards concurrently.
+ * <p>
+ * Inside a read-write Spring transaction, the first single-shard access starts a local
+ * transaction on that shard that commits together with the surrounding one, see
+ * {@link ShardTransaction}. Fan-out reads use the transaction's connection on the shards
+ * it joined, so they see its own writes, and pooled connections on all others. The past
+ * due sweep and the retention delete fan out the same way: on joined shards they are
+ * part of the local transaction, on all others they auto-commit per shard, and a
+ * rollback of the surrounding transaction does not undo them there.
+ * <p>
+ * Tags, the archive tier and asynchronous creates need the JPA engine; tag filters and
+ * listings that include archived items are rejected.
+ * <p>
+ * Enabled with {@code todo.storage.engine=sharded}.
+ */
+@Repository
+@Primary
+@ConditionalOnProperty(name = "todo.storage.engine", havingValue = "sharded")
+public class ShardedTodoRepository implements TodoRepository {
+
+    /**
+     * Upper bound for the number of shards. It is part of the id encoding, so it must
+     * never change once items exist; shards can be added up to this number.
+     */
+    static final int MAX_SHARDS = 1024;
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedTodoRepository.class);
+
+    private static final String COLUMNS = "id, description, status, creation_datetime, due_datetime, done_datetime, version";
+    private static final String SELECT_SQL = "SELECT " + COLUMNS + " FROM todo_items";
+    private static final String INSERT_SQL = "INSERT INTO todo_items (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String MERGE_SQL = "MERGE INTO todo_items (" + COLUMNS + ") KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL = """
+            UPDATE todo_items
+            SET description = ?, status = ?, creation_datetime = ?, due_datetime = ?, done_datetime = ?,
+                version = version + 1
+            WHERE id = ? AND version = ?
+            """;
+    private static final String SWEEP_SQL = """
+            UPDATE todo_items SET status = 'PAST_DUE'
+            WHERE status = 'NOT_DONE' AND due_datetime < ?
+            """;
+    private static final String FINISHED_AT = "COALESCE(done_datetime, due_datetime)";
+    /**
+     * Retention condition, with the parameters status, cutoff, includeOverdue and cutoff.
+     */
+    private static final String EXPIRED = "(status = ? AND " + FINISHED_AT + " < ?)"
+            + " OR (? AND status = 'NOT_DONE' AND due_datetime < ?)";
+    private static final List<String> SCHEMA = List.of(
+            """
+            CREATE TABLE IF NOT EXISTS todo_items (
+                id BIGINT PRIMARY KEY,
+                description VARCHAR(255) NOT NULL,
+                status VARCHAR(16) NOT NULL,
+                creation_datetime TIMESTAMP(6) NOT NULL,
+                due_datetime TIMESTAMP(6) NOT NULL,
+                done_datetime TIMESTAMP(6),
+                version BIGINT NOT NULL
+            )
+            """,
+            "CREATE INDEX IF NOT EXISTS todo_items_status_id ON todo_items (status, id)",
+            "CREATE INDEX IF NOT EXISTS todo_items_status_due ON todo_items (status, due_datetime)",
+            "CREATE SEQUENCE IF NOT EXISTS todo_items_seq START WITH 1");
+
+    private final List<Shard> shards;
+    private final ExecutorService fanOutExecutor;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    public ShardedTodoRepository(DataSourceProperties dataSourceProperties,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${todo.storage.sharded.shards:4}") int shardCount,
+                                 @Value("${todo.storage.sharded.url-template:jdbc:h2:mem:todo-shard-%d}") String urlTemplate,
+                                 @Value("${todo.storage.sharded.pool-size:10}") int poolSize,
+                                 @Value("${todo.storage.sharded.fan-out-threads:16}") int fanOutThreads,
+                                 @Value("${todo.create.async.enabled:false}") boolean asyncCreates) {
+        if (asyncCreates) {
+            throw new IllegalStateException("todo.create.async.enabled requires todo.storage.engine=jpa");
+        }
+        if (shardCount < 1 || shardCount > MAX_SHARDS) {
+            throw new IllegalStateException("todo.storage.sharded.shards must be between 1 and " + MAX_SHARDS);
+        }
+        this.meterRegistry = meterRegistry;
+
+        MicrometerMetricsTrackerFactory metricsTrackerFactory = new MicrometerMetricsTrackerFactory(meterRegistry);
+        List<Shard> created = new ArrayList<>(shardCount);
+        for (int index = 0; index < shardCount; index++) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + index);
+            dataSource.setJdbcUrl(String.format(urlTemplate, index));
+            dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            dataSource.setUsername(dataSourceProperties.determineUsername());
+            dataSource.setPassword(dataSourceProperties.determinePassword());
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSource.setMetricsTrackerFactory(metricsTrackerFactory);
+
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            SCHEMA.forEach(jdbcTemplate::execute);
+            created.add(new Shard(index, dataSource, jdbcTemplate));
+        }
+        this.shards = List.copyOf(created);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.fanOutExecutor = Executors.newFixedThreadPool(fanOutThreads, runnable -> {
+            Thread thread = new Thread(runnable, "todo-shard-fan-out-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("Opened {} todo item shards", shardCount);
+    }
+
+    @Override
+    public Optional<TodoItem> findById(Long id) {
+        Shard shard = shardOf(id);
+        if (shard == null) {
+            return Optional.empty();
+        }
+        ShardTransaction.join(shard.dataSource());
+        return shard.jdbcTemplate().query(SELECT_SQL + " WHERE id = ?", ShardedTodoRepository::mapRow, id)
+                .stream().findFirst();
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return findById(id).isPresent();
+    }
+
+    @Override
+    public List<TodoItem> findAll() {
+        return merge(fanOut("findAll", shards, shard ->
+                shard.jdbcTemplate().query(SELECT_SQL + " ORDER BY id", ShardedTodoRepository::mapRow)));
+    }
+
+    @Override
+    public List<TodoItem> findAll(Sort sort) {
+        requireUnsorted(sort);
+        return findAll();
+    }
+
+    @Override
+    public Page<TodoItem> findAll(Pageable pageable) {
+        return page("findAll", "TRUE", List.of(), pageable);
+    }
+
+    @Override
+    public List<TodoItem> findAllById(Iterable<Long> ids) {
+        Map<Shard, List<Long>> idsByShard = groupByShard(ids);
+        return fanOut("findAllById", idsByShard.keySet(), shard -> shard.jdbcTemplate().query(
+                SELECT_SQL + " WHERE id IN (" + placeholders(idsByShard.get(shard)) + ")",
+                ShardedTodoRepository::mapRow, idsByShard.get(shard).toArray()))
+                .stream().flatMap(List::stream).toList();
+    }
+
+    @Override
+    public List<TodoItem> findAllByIdForUpdate(Collection<Long> ids) {
+        List<TodoItem> items = new ArrayList<>();
+        groupByShard(ids).forEach((shard, shardIds) -> {
+            ShardTransaction.join(shard.dataSource());
+            items.addAll(shard.jdbcTemplate().query(
+                    SELECT_SQL + " WHERE id IN (" + placeholders(shardIds) + ") FOR UPDATE",
+                    ShardedTodoRepository::mapRow, shardIds.toArray()));
+        });
+        return items;
+    }
+
+    @Override
+    public long count() {
+        return sum(fanOut("count", shards, shard ->
+                shard.jdbcTemplate().queryForObject("SELECT COUNT(*) FROM todo_items", Long.class)));
+    }
+
+    @Override
+    public Slice<TodoItem> findAllBy(Pageable pageable) {
+        return slice("findAllBy", "TRUE", List.of(), pageable);
+    }
+
+    @Override
+    public Slice<TodoItem> findByStatus(TodoItem.Status status, Pageable pageable) {
+        return slice("findByStatus", "status = ?", List.of(status.name()), pageable);
+    }
+
+    @Override
+    public Slice<TodoItem> findByStatusAndDueDateTimeGreaterThanEqual(TodoItem.Status status,
+                                                                      LocalDateTime now,
+                                                                      Pageable pageable) {
+        return slice("findByStatusAndDueDate", "status = ? AND due_datetime >= ?", List.of(status.name(), now),
+                pageable);
+    }
+
+    /**
+     * Tags are only stored by the JPA engine, see {@link #save(TodoItem)}.
+     */
+    @Override
+    public Slice<TodoItem> findByTags(Collection<String> tags,
+                                      long tagCount,
+                                      Collection<TodoItem.Status> statuses,
+                                      LocalDateTime notDoneFrom,
+                                      LocalDateTime notDoneBefore,
+                                      Pageable pageable) {
+        throw new ValidationException("Tags require todo.storage.engine=jpa");
+    }
+
+    @Override
+    public long countItemsBecomingPastDue(LocalDateTime from, LocalDateTime to) {
+        return sum(fanOut("countItemsBecomingPastDue", shards, shard -> shard.jdbcTemplate().queryForObject("""
+                SELECT COUNT(*) FROM todo_items
+                WHERE status = 'NOT_DONE' AND due_datetime >= ? AND due_datetime < ?
+                """, Long.class, from, to)));
+    }
+
+    @Override
+    public List<Long> findArchivableIds(LocalDateTime cutoff, boolean includeOverdue, long afterId,
+                                        Pageable pageable) {
+        return ids("findArchivableIds", """
+                ((status = 'DONE' AND %s < ?)
+                 OR (status = 'PAST_DUE' AND due_datetime < ?)
+                 OR (? AND status = 'NOT_DONE' AND due_datetime < ?))
+                AND id > ?
+                """.formatted(FINISHED_AT), List.of(cutoff, cutoff, includeOverdue, cutoff, afterId), pageable);
+    }
+
+    @Override
+    public List<Long> findExpiredIds(TodoItem.Status status, LocalDateTime cutoff, boolean includeOverdue,
+                                     long afterId, Pageable pageable) {
+        return ids("findExpiredIds", "(" + EXPIRED + ") AND id > ?",
+                List.of(status.name(), cutoff, includeOverdue, cutoff, afterId), pageable);
+    }
+
+    /**
+     * Ids are allocated per shard, so there are no blocks of consecutive ids to reserve.
+     */
+    @Override
+    public long reserveIdBlock() {
+        throw new UnsupportedOperationException("The sharded todo repository does not hand out id blocks");
+    }
+
+    @Override
+    public <S extends TodoItem> S save(S entity) {
+        if (!entity.getTags().isEmpty()) {
+            throw new ValidationException("Tags require todo.storage.engine=jpa");
+        }
+        if (entity.getId() == null) {
+            Shard shard = shards.get(Math.floorMod(nextShard.getAndIncrement(), shards.size()));
+            ShardTransaction.join(shard.dataSource());
+            Long local = shard.jdbcTemplate().queryForObject("SELECT NEXT VALUE FOR todo_items_seq", Long.class);
+            entity.setId(local * MAX_SHARDS + shard.index());
+            entity.setVersion(0L);
+            shard.jdbcTemplate().update(INSERT_SQL, values(entity));
+            return entity;
+        }
+
+        Shard shard = shardOf(entity.getId());
+        if (shard == null) {
+            throw new IllegalArgumentException("Todo item id " + entity.getId() + " does not belong to any shard");
+        }
+        ShardTransaction.join(shard.dataSource());
+        if (entity.getVersion() == null) {
+            entity.setVersion(0L);
+            shard.jdbcTemplate().update(MERGE_SQL, values(entity));
+            return entity;
+        }
+
+        int updated = shard.jdbcTemplate().update(UPDATE_SQL,
+                entity.getDescription(), entity.getStatus().name(), entity.getCreationDateTime(),
+                entity.getDueDateTime(), entity.getDoneDateTime(), entity.getId(), entity.getVersion());
+        if (updated == 0) {
+            throw new ObjectOptimisticLockingFailureException(TodoItem.class, entity.getId());
+        }
+        entity.setVersion(entity.getVersion() + 1);
+        return entity;
+    }
+
+    @Override
+    public <S extends TodoItem> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+
+    @Override
+    public <S extends TodoItem> S saveAndFlush(S entity) {
+        return save(entity);
+    }
+
+    @Override
+    public <S extends TodoItem> List<S> saveAllAndFlush(Iterable<S> entities) {
+        return saveAll(entities);
+    }
+
+    @Override
+    public void flush() {
+        // Writes are executed right away on the shard's transaction
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        deleteAllById(List.of(id));
+    }
+
+    @Override
+    public void delete(TodoItem entity) {
+        deleteById(entity.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        List<Long> idList = new ArrayList<>();
+        ids.forEach(idList::add);
+        groupByShard(idList).forEach((shard, shardIds) -> {
+            ShardTransaction.join(shard.dataSource());
+            shard.jdbcTemplate().update(
+                    "DELETE FROM todo_items WHERE id IN (" + placeholders(shardIds) + ")", shardIds.toArray());
+        });
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends TodoItem> entities) {
+        deleteAllById(StreamSupport.stream(entities.spliterator(), false).map(TodoItem::getId).toList());
+    }
+
+    @Override
+    public void deleteAll() {
+        for (Shard shard : shards) {
+            ShardTransaction.join(shard.dataSource());
+            shard.jdbcTemplate().update("DELETE FROM todo_items");
+        }
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<TodoItem> entities) {
+        deleteAll(entities);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+
+    @Override
+    public int markPastDueItems(LocalDateTime now) {
+        return (int) sum(fanOut("markPastDueItems", shards, shard ->
+                (long) shard.jdbcTemplate().update(SWEEP_SQL, now)));
+    }
+
+    @Override
+    public int markPastDueItemsInPartition(LocalDateTime now, int partition, int partitions) {
+        return (int) sum(fanOut("markPastDueItems", shards, shard ->
+                (long) shard.jdbcTemplate().update(SWEEP_SQL + " AND MOD(id, ?) = ?", now, partitions, partition)));
+    }
+
+    @Override
+    public int deleteExpired(Collection<Long> ids, TodoItem.Status status, LocalDateTime cutoff,
+                             boolean includeOverdue) {
+        Map<Shard, List<Long>> idsByShard = groupByShard(ids);
+        return (int) sum(fanOut("deleteExpired", idsByShard.keySet(), shard -> {
+            List<Object> args = new ArrayList<>(idsByShard.get(shard));
+            args.addAll(List.of(status.name(), cutoff, includeOverdue, cutoff));
+            return (long) shard.jdbcTemplate().update(
+                    "DELETE FROM todo_items WHERE id IN (" + placeholders(idsByShard.get(shard)) + ")"
+                            + " AND (" + EXPIRED + ")", args.toArray());
+        }));
+    }
+
+    @Override
+    public TodoItem getReferenceById(Long id) {
+        return findById(id).orElseThrow(() -> new EntityNotFoundException("Todo item with id: " + id + " not found"));
+    }
+
+    @Override
+    @Deprecated
+    public TodoItem getById(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    @Deprecated
+    public TodoItem getOne(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public <S extends TodoItem> Optional<S> findOne(Example<S> example) {
+        throw queryByExampleUnsupported();
+    }
+
+    @Override
+    public <S extends TodoItem> List<S> findAll(Example<S> example) {
+        throw queryByExampleUnsupported();
+    }
+
+    @Override
+    public <S extends TodoItem> List<S> findAll(Example<S> example, Sort sort) {
+        throw queryByExampleUnsupported();
+    }
+
+    @Override
+    public <S extends TodoItem> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw queryByExampleUnsupported();
+    }
+
+    @Override
+    public <S extends TodoItem> long count(Example<S> example) {
+        throw queryByExampleUnsupported();
+    }
+
+    @Override
+    public <S extends TodoItem> boolean exists(Example<S> example) {
+        throw queryByExampleUnsupported();
+    }
+
+    @Override
+    public <S extends TodoItem, R> R findBy(Example<S> example,
+                                           Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw queryByExampleUnsupported();
+    }
+
+    @PreDestroy
+    public void close() {
+        fanOutExecutor.shutdownNow();
+        shards.forEach(shard -> shard.dataSource().close());
+        logger.info("Closed {} todo item shards", shards.size());
+    }
+
+    /**
+     * Runs {@code query} on every shard in {@code targets} and returns the results in
+     * shard order. Shards the current transaction wrote to are queried on the calling
+     * thread, on the transaction's connection; all others in parallel.
+     */
+    private <T> List<T> fanOut(String operation, Collection<Shard> targets, Function<Shard, T> query) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            List<Shard> shardList = List.copyOf(targets);
+            List<Future<T>> results = new ArrayList<>(Collections.nCopies(shardList.size(), null));
+            for (int i = 0; i < shardList.size(); i++) {
+                Shard shard = shardList.get(i);
+                if (!ShardTransaction.isJoined(shard.dataSource())) {
+                    results.set(i, fanOutExecutor.submit(() -> query.apply(shard)));
+                }
+            }
+            for (int i = 0; i < shardList.size(); i++) {
+                if (results.get(i) == null) {
+                    results.set(i, CompletableFuture.completedFuture(query.apply(shardList.get(i))));
+                }
+            }
+
+            List<T> values = new ArrayList<>(results.size());
+            for (Future<T> result : results) {
+                values.add(result.get());
+            }
+            return values;
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Todo item shard query failed", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying todo item shards", ex);
+        } finally {
+            sample.stop(Timer.builder("todo.storage.shard.fan-out")
+                    .description("Time to run one query on all involved shards")
+                    .tag("operation", operation)
+                    .register(meterRegistry));
+        }
+    }
+
+    private Page<TodoItem> page(String operation, String condition, List<Object> args, Pageable pageable) {
+        requireUnsorted(pageable.getSort());
+        String where = " WHERE " + condition;
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(merge(fanOut(operation, shards, shard -> shard.jdbcTemplate().query(
+                    SELECT_SQL + where + " ORDER BY id", ShardedTodoRepository::mapRow, args.toArray()))));
+        }
+
+        long limit = pageable.getOffset() + pageable.getPageSize();
+        List<Object> limitedArgs = new ArrayList<>(args);
+        limitedArgs.add(limit);
+        List<ShardPage> shardPages = fanOut(operation, shards, shard -> new ShardPage(
+                shard.jdbcTemplate().query(SELECT_SQL + where + " ORDER BY id LIMIT ?",
+                        ShardedTodoRepository::mapRow, limitedArgs.toArray()),
+                shard.jdbcTemplate().queryForObject("SELECT COUNT(*) FROM todo_items" + where, Long.class,
+                        args.toArray())));
+
+        List<TodoItem> content = merge(shardPages.stream().map(ShardPage::items).toList()).stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+        return new PageImpl<>(content, pageable, sum(shardPages.stream().map(ShardPage::total).toList()));
+    }
+
+    /**
+     * Like {@link #page}, but reads one row more per shard instead of counting.
+     */
+    private Slice<TodoItem> slice(String operation, String condition, List<Object> args, Pageable pageable) {
+        requireUnsorted(pageable.getSort());
+        String where = " WHERE " + condition;
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(merge(fanOut(operation, shards, shard -> shard.jdbcTemplate().query(
+                    SELECT_SQL + where + " ORDER BY id", ShardedTodoRepository::mapRow, args.toArray()))));
+        }
+
+        List<Object> limitedArgs = new ArrayList<>(args);
+        limitedArgs.add(pageable.getOffset() + pageable.getPageSize() + 1);
+        List<TodoItem> content = merge(fanOut(operation, shards, shard -> shard.jdbcTemplate().query(
+                SELECT_SQL + where + " ORDER BY id LIMIT ?", ShardedTodoRepository::mapRow, limitedArgs.toArray())))
+                .stream()
+                .skip(pageable.getOffset())
+                .toList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    private List<Long> ids(String operation, String condition, List<Object> args, Pageable pageable) {
+        requireUnsorted(pageable.getSort());
+        String sql = "SELECT id FROM todo_items WHERE " + condition + " ORDER BY id";
+        List<Object> queryArgs = new ArrayList<>(args);
+        if (!pageable.isUnpaged()) {
+            sql += " LIMIT ?";
+            queryArgs.add(pageable.getOffset() + pageable.getPageSize());
+        }
+        String query = sql;
+        List<Long> merged = fanOut(operation, shards, shard ->
+                shard.jdbcTemplate().queryForList(query, Long.class, queryArgs.toArray()))
+                .stream().flatMap(List::stream).sorted().toList();
+        return pageable.isUnpaged()
+                ? merged
+                : merged.stream().skip(pageable.getOffset()).limit(pageable.getPageSize()).toList();
+    }
+
+    private Shard shardOf(Long id) {
+        int index = (int) Math.floorMod(id, (long) MAX_SHARDS);
+        return index < shards.size() ? shards.get(index) : null;
+    }
+
+    /**
+     * Groups ids by their shard, in shard order. Ids of shards that do not exist are dropped.
+     */
+    private Map<Shard, List<Long>> groupByShard(Iterable<? extends Long> ids) {
+        Map<Shard, List<Long>> idsByShard = new TreeMap<>(Comparator.comparingInt(Shard::index));
+        StreamSupport.stream(ids.spliterator(), false).distinct().forEach(id -> {
+            Shard shard = shardOf(id);
+            if (shard != null) {
+                idsByShard.computeIfAbsent(shard, ignored -> new ArrayList<>()).add(id);
+            }
+        });
+        return idsByShard;
+    }
+
+    private static List<TodoItem> merge(List<List<TodoItem>> perShard) {
+        return perShard.stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(TodoItem::getId))
+                .toList();
+    }
+
+    private static long sum(List<Long> values) {
+        return values.stream().mapToLong(Long::longValue).sum();
+    }
+
+    private static String placeholders(List<Long> ids) {
+        return String.join(", ", Collections.nCopies(ids.size(), "?"));
+    }
+
+    private static Object[] values(TodoItem item) {
+        return new Object[]{item.getId(), item.getDescription(), item.getStatus().name(), item.getCreationDateTime(),
+                item.getDueDateTime(), item.getDoneDateTime(), item.getVersion()};
+    }
+
+    private static TodoItem mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+        return TodoItem.builder()
+                .id(resultSet.getLong("id"))
+                .description(resultSet.getString("description"))
+                .status(TodoItem.Status.valueOf(resultSet.getString("status")))
+                .creationDateTime(resultSet.getObject("creation_datetime", LocalDateTime.class))
+                .dueDateTime(resultSet.getObject("due_datetime", LocalDateTime.class))
+                .doneDateTime(resultSet.getObject("done_datetime", LocalDateTime.class))
+                .version(resultSet.getLong("version"))
+                .build();
+    }
+
+    private static void requireUnsorted(Sort sort) {
+        if (sort.isSorted()) {
+            throw new UnsupportedOperationException("The sharded todo repository only returns items in id order");
+        }
+    }
+
+    private static UnsupportedOperationException queryByExampleUnsupported() {
+        return new UnsupportedOperationException("Query by example is not supported by the sharded todo repository");
+    }
+
+    private record Shard(int index, HikariDataSource dataSource, JdbcTemplate jdbcTemplate) {}
+
+    private record ShardPage(List<TodoItem> items, long total) {}
+}
@@ -1,24 +1,68 @@
 package com.tradebyte.todo.scheduler;
 
+import com.tradebyte.todo.profiling.PastDueSweepEvent;
+import com.tradebyte.todo.service.PastDuePolicy;
 import com.tradebyte.todo.service.TodoService;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Periodically marks overdue items as past due.
+ * <p>
+ * With the lease enabled, instances coordinate through {@link SchedulerLeaseManager} so
+ * that only one of them sweeps per interval. With {@code todo.scheduler.partitions} above
+ * one, the table is split into id-hash partitions with one lease each, and every instance
+ * claims a fair share of them based on the number of live instances, so sweeps run on
+ * several instances in parallel without overlapping.
+ * <p>
+ * In lazy past due mode the status is derived at read time, so the sweep only persists
+ * it if {@code todo.past-due.lazy.persist} is set. Otherwise each run just announces
+ * items that became past due since the previous run, which costs a count query on
+ * every instance and no writes.
+ */
 @Component
 public class PastDueScheduler {
 
     private static final Logger logger = LoggerFactory.getLogger(PastDueScheduler.class);
 
+    static final String SWEEP_LEASE = "past-due-sweep";
+    static final String PARTITION_LEASE_PREFIX = "past-due-sweep-partition-";
+    static final String NODE_LEASE_PREFIX = "past-due-node-";
+
     private final TodoService todoService;
+    private final SchedulerLeaseManager leaseManager;
+    private final PastDuePolicy pastDuePolicy;
+
+    private LocalDateTime lastAnnouncedAt = LocalDateTime.now();
 
     @Value("${todo.scheduler.enabled:true}")
     private boolean schedulerEnabled;
 
-    public PastDueScheduler(TodoService todoService) {
+    @Value("${todo.scheduler.lease.enabled:true}")
+    private boolean leaseEnabled;
+
+    @Value("${todo.scheduler.lease.duration-ms:90000}")
+    private long leaseDurationMillis;
+
+    @Value("${todo.scheduler.partitions:1}")
+    private int partitions;
+
+    @Value("${todo.past-due.lazy.persist:false}")
+    private boolean persistLazily;
+
+    public PastDueScheduler(TodoService todoService, SchedulerLeaseManager leaseManager, PastDuePolicy pastDuePolicy) {
         this.todoService = todoService;
+        this.leaseManager = leaseManager;
+        this.pastDuePolicy = pastDuePolicy;
         logger.info("PastDueScheduler bean created");
     }
 
@@ -33,7 +77,7 @@ public class PastDueScheduler {
         try {
             logger.debug("Executing PastDueScheduler bulk update");
 
-            int updatedCount = todoService.updatePastDueItemsBulk();
+            int updatedCount = sweep();
 
             if (updatedCount > 0) {
                 logger.info("Scheduler updated {} past due todo items", updatedCount);
@@ -45,4 +89,105 @@ public class PastDueScheduler {
             logger.error("Error during PastDueScheduler execution", ex);
         }
     }
+
+    /**
+     * Runs one sweep in the configured mode, recorded as a {@link PastDueSweepEvent}.
+     *
+     * @return number of items marked as past due by this instance
+     */
+    public int sweep() {
+        PastDueSweepEvent event = new PastDueSweepEvent();
+        event.begin();
+        int updatedCount = 0;
+        try {
+            updatedCount = sweepPartitions();
+            return updatedCount;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.partitions = partitions;
+                event.lazy = pastDuePolicy.isLazy() && !persistLazily;
+                event.updated = updatedCount;
+                event.commit();
+            }
+        }
+    }
+
+    private int sweepPartitions() {
+        if (pastDuePolicy.isLazy() && !persistLazily) {
+            announceItemsBecomingPastDue();
+            return 0;
+        }
+        if (!leaseEnabled) {
+            return todoService.updatePastDueItemsBulk();
+        }
+        if (partitions <= 1) {
+            if (!leaseManager.tryAcquire(SWEEP_LEASE, leaseDuration())) {
+                logger.debug("Past due sweep is owned by another instance");
+                return 0;
+            }
+            return todoService.updatePastDueItemsBulk();
+        }
+
+        int updatedCount = 0;
+        for (int partition : claimPartitions()) {
+            updatedCount += todoService.updatePastDueItemsBulk(partition, partitions);
+        }
+        return updatedCount;
+    }
+
+    /**
+     * Registers this instance as live, then holds on to at most its fair share of the
+     * partition leases and releases the rest so that newly joined instances can take them.
+     * Each instance walks the partitions from its own offset to spread the first claims.
+     */
+    List<Integer> claimPartitions() {
+        leaseManager.tryAcquire(NODE_LEASE_PREFIX + leaseManager.getNodeId(), leaseDuration());
+        long liveNodes = Math.max(1, leaseManager.countActive(NODE_LEASE_PREFIX));
+        long fairShare = (partitions + liveNodes - 1) / liveNodes;
+
+        int offset = Math.floorMod(leaseManager.getNodeId().hashCode(), partitions);
+        List<Integer> claimed = new ArrayList<>();
+        for (int i = 0; i < partitions; i++) {
+            int partition = (offset + i) % partitions;
+            String lease = PARTITION_LEASE_PREFIX + partition;
+            if (claimed.size() < fairShare && leaseManager.tryAcquire(lease, leaseDuration())) {
+                claimed.add(partition);
+            } else {
+                leaseManager.release(lease);
+            }
+        }
+
+        logger.debug("Claimed past due partitions {} of {} ({} live instances)", claimed, partitions, liveNodes);
+        return claimed;
+    }
+
+    private synchronized void announceItemsBecomingPastDue() {
+        LocalDateTime now = LocalDateTime.now();
+        todoService.announceItemsBecomingPastDue(lastAnnouncedAt, now);
+        lastAnnouncedAt = now;
+    }
+
+    /**
+     * Hands leases back on shutdown so other instances do not wait for them to expire.
+     */
+    @PreDestroy
+    public void releaseLeases() {
+        if (!leaseEnabled) {
+            return;
+        }
+        try {
+            leaseManager.release(SWEEP_LEASE);
+            leaseManager.release(NODE_LEASE_PREFIX + leaseManager.getNodeId());
+            for (int partition = 0; partition < partitions; partition++) {
+                leaseManager.release(PARTITION_LEASE_PREFIX + partition);
+            }
+        } catch (RuntimeException ex) {
+            logger.warn("Could not release scheduler leases on shutdown: {}", ex.getMessage());
+        }
+    }
+
+    private Duration leaseDuration() {
+        return Duration.ofMillis(leaseDurationMillis);
+    }
 }
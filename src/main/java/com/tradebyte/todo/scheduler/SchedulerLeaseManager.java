@@ -0,0 +1,74 @@
+package com.tradebyte.todo.scheduler;
+
+import com.tradebyte.todo.datasource.DataSourceRouting;
+import com.tradebyte.todo.repository.SchedulerLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Acquires and releases {@link com.tradebyte.todo.entity.SchedulerLease}s on behalf of
+ * this instance. Leases are compared against each instance's own clock, so the lease
+ * duration must be well above the expected clock skew between instances.
+ */
+@Component
+public class SchedulerLeaseManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerLeaseManager.class);
+
+    private final SchedulerLeaseRepository leaseRepository;
+    private final String nodeId;
+
+    public SchedulerLeaseManager(SchedulerLeaseRepository leaseRepository,
+                                 @Value("${todo.scheduler.node-id:${random.uuid}}") String nodeId) {
+        this.leaseRepository = leaseRepository;
+        this.nodeId = nodeId;
+        logger.info("Scheduler node id: {}", nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Takes or extends the lease {@code name} for {@code duration}.
+     *
+     * @return whether this instance holds the lease
+     */
+    public boolean tryAcquire(String name, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(duration);
+
+        try (DataSourceRouting.Pin ignored = DataSourceRouting.pinToPrimary()) {
+            if (leaseRepository.extendOrTakeOver(name, nodeId, now, expiresAt) > 0) {
+                return true;
+            }
+            if (leaseRepository.existsById(name)) {
+                return false;
+            }
+            return leaseRepository.create(name, nodeId, expiresAt) > 0;
+        } catch (DataIntegrityViolationException ex) {
+            logger.debug("Lease {} was created by another instance", name);
+            return false;
+        }
+    }
+
+    public void release(String name) {
+        leaseRepository.release(name, nodeId);
+    }
+
+    /**
+     * Counts unexpired leases whose name starts with {@code prefix}. Like every lease
+     * read, this goes to the primary even when read replicas are configured.
+     */
+    public long countActive(String prefix) {
+        try (DataSourceRouting.Pin ignored = DataSourceRouting.pinToPrimary()) {
+            return leaseRepository.countActive(prefix, LocalDateTime.now());
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.tradebyte.todo.service;
+
+import com.tradebyte.todo.dto.TodoResponse;
+import com.tradebyte.todo.dto.UpdateDescriptionRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for description updates.
+ * <p>
+ * The first update of an item is validated against the database like a direct update
+ * (404 for unknown items, 400 for archived and past due items); further updates of the same item within the flush window only
+ * replace the buffered description. Buffered descriptions are written in one transaction
+ * per flush, where the past due check is applied again and stale updates are dropped.
+ * <p>
+ * Reads on this node see buffered descriptions through {@link #overlay(TodoResponse)}.
+ * Status changes flush the item first, and everything is flushed on shutdown. Flushes
+ * take and write their updates under one lock, so an update taken by one flush is
+ * committed before a newer update of the same item can be taken by another.
+ * <p>
+ * Enabled with {@code todo.description.write-behind.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.description.write-behind.enabled", havingValue = "true")
+public class DescriptionWriteBehind implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(DescriptionWriteBehind.class);
+
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final TodoService todoService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final long windowMillis;
+    private final int maxPending;
+
+    /**
+     * Updates waiting for the next flush.
+     */
+    private final ConcurrentHashMap<Long, PendingDescription> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Updates taken by a running flush but not yet committed, still visible to reads.
+     */
+    private final ConcurrentHashMap<Long, PendingDescription> flushing = new ConcurrentHashMap<>();
+
+    private final Object flushLock = new Object();
+
+    private final Counter coalescedCounter;
+    private final Counter flushedCounter;
+    private final Counter rejectedCounter;
+
+    private volatile boolean running;
+
+    public DescriptionWriteBehind(TodoService todoService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${todo.description.write-behind.window-ms:500}") long windowMillis,
+                                  @Value("${todo.description.write-behind.max-pending:10000}") int maxPending) {
+        this.todoService = todoService;
+        this.eventPublisher = eventPublisher;
+        this.windowMillis = windowMillis;
+        this.maxPending = maxPending;
+
+        Gauge.builder("todo.description.write-behind.pending", pending, Map::size)
+                .description("Items with a buffered description update")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("todo.description.write-behind.coalesced")
+                .description("Description updates absorbed by an already buffered update")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("todo.description.write-behind.flushed")
+                .description("Buffered description updates written to the database")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("todo.description.write-behind.rejected")
+                .description("Buffered description updates dropped at flush time")
+                .register(meterRegistry);
+    }
+
+    public TodoResponse updateDescription(Long id, UpdateDescriptionRequest request) {
+        PendingDescription updated = pending.computeIfPresent(id,
+                (key, existing) -> existing.withDescription(request.description()));
+        if (updated != null) {
+            coalescedCounter.increment();
+            eventPublisher.publishEvent(TodoItemsChangedEvent.of(id));
+            return updated.snapshot().withDescription(request.description());
+        }
+
+        if (!running || pending.size() >= maxPending) {
+            return todoService.updateDescription(id, request);
+        }
+
+        TodoResponse snapshot = todoService.getChangeableTodoItem(id);
+
+        PendingDescription buffered = pending.merge(id,
+                new PendingDescription(snapshot, request.description(), System.currentTimeMillis()),
+                (existing, created) -> existing.withDescription(request.description()));
+
+        eventPublisher.publishEvent(TodoItemsChangedEvent.of(id));
+        logger.debug("Buffered description update for todo item id: {}", id);
+        return buffered.snapshot().withDescription(request.description());
+    }
+
+    /**
+     * Returns the response with the buffered description applied, if there is one.
+     */
+    public TodoResponse overlay(TodoResponse response) {
+        PendingDescription buffered = pending.get(response.id());
+        if (buffered == null) {
+            buffered = flushing.get(response.id());
+        }
+        return buffered == null ? response : response.withDescription(buffered.description());
+    }
+
+    /**
+     * Writes the buffered update of one item, if any, before it is changed through another path.
+     */
+    public void flush(Long id) {
+        synchronized (flushLock) {
+            Map<Long, PendingDescription> taken = new HashMap<>(2);
+            take(id, Long.MAX_VALUE, taken);
+            write(taken);
+        }
+    }
+
+    /**
+     * Drops the buffered update of an item that is about to be deleted. Waits for a
+     * running flush, so the delete does not race with its transaction.
+     */
+    public void discard(Long id) {
+        synchronized (flushLock) {
+            pending.remove(id);
+            flushing.remove(id);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${todo.description.write-behind.flush-interval-ms:100}")
+    public void flushExpired() {
+        synchronized (flushLock) {
+            long cutoff = System.currentTimeMillis() - windowMillis;
+            Map<Long, PendingDescription> expired = new HashMap<>();
+            pending.keySet().forEach(id -> take(id, cutoff, expired));
+            write(expired);
+        }
+    }
+
+    public void flushAll() {
+        synchronized (flushLock) {
+            Map<Long, PendingDescription> all = new HashMap<>();
+            pending.keySet().forEach(id -> take(id, Long.MAX_VALUE, all));
+            write(all);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        flushAll();
+        logger.info("Description write-behind buffer flushed on shutdown");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Moves the update of {@code id} from pending to flushing if it was first buffered
+     * at or before {@code cutoff}. Both steps happen atomically for the entry, so reads
+     * always find the update in one of the two maps until it is committed. Called with
+     * {@link #flushLock} held.
+     */
+    private void take(Long id, long cutoff, Map<Long, PendingDescription> taken) {
+        pending.computeIfPresent(id, (key, buffered) -> {
+            if (buffered.firstBufferedAt() > cutoff) {
+                return buffered;
+            }
+            flushing.put(key, buffered);
+            taken.put(key, buffered);
+            return null;
+        });
+    }
+
+    /**
+     * Commits the taken updates in one transaction. If that fails, for example because
+     * one item was deleted meanwhile, every update is retried in its own transaction, so
+     * only the updates that fail again are dropped. Called with {@link #flushLock} held.
+     */
+    private void write(Map<Long, PendingDescription> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<Long, String> descriptions = new HashMap<>(batch.size() * 2);
+        batch.forEach((id, buffered) -> descriptions.put(id, buffered.description()));
+
+        try {
+            record(descriptions.size(), todoService.updateDescriptionsBulk(descriptions));
+        } catch (RuntimeException ex) {
+            logger.warn("Could not write {} buffered description updates together, retrying one by one: {}",
+                    batch.size(), ex.getMessage());
+            descriptions.forEach(this::writeSingle);
+        } finally {
+            batch.forEach(flushing::remove);
+        }
+    }
+
+    private void writeSingle(Long id, String description) {
+        try {
+            record(1, todoService.updateDescriptionsBulk(Map.of(id, description)));
+        } catch (RuntimeException ex) {
+            logger.error("Could not write buffered description update for todo item id: {}", id, ex);
+            rejectedCounter.increment();
+        }
+    }
+
+    private void record(int written, List<Long> rejectedIds) {
+        flushedCounter.increment(written - rejectedIds.size());
+        rejectedCounter.increment(rejectedIds.size());
+    }
+
+    private record PendingDescription(TodoResponse snapshot, String description, long firstBufferedAt) {
+
+        PendingDescription withDescription(String newDescription) {
+            return new PendingDescription(snapshot, newDescription, firstBufferedAt);
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.tradebyte.todo.service;
+
+import com.tradebyte.todo.dto.TodoRequest;
+import com.tradebyte.todo.dto.TodoResponse;
+import com.tradebyte.todo.entity.TodoItem;
+import com.tradebyte.todo.index.TodoTagIndex;
+import com.tradebyte.todo.exception.ServiceUnavailableException;
+import com.tradebyte.todo.repository.TodoRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Asynchronous create path that commits many todo items per transaction.
+ * <p>
+ * Creates are validated, given an id from a pre-reserved block of {@code todo_items_seq}
+ * and put on a bounded buffer. A single writer thread drains the buffer and inserts
+ * everything it finds (up to {@code max-batch-size}) with one JDBC batch in one
+ * transaction, so the commit cost is shared by the whole batch. When the buffer is full, callers are rejected
+ * with 503 instead of queueing without bound.
+ * <p>
+ * Enabled with {@code todo.create.async.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.create.async.enabled", havingValue = "true")
+public class GroupCommitTodoWriter implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitTodoWriter.class);
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO todo_items (id, description, status, creation_datetime, due_datetime, version)
+            VALUES (?, ?, ?, ?, ?, 0)
+            """;
+
+    private static final String INSERT_TAG_SQL = "INSERT INTO todo_item_tags (todo_item_id, tag) VALUES (?, ?)";
+
+    /**
+     * Starts before and stops after the embedded web server, so requests accepted
+     * during graceful shutdown are still committed.
+     */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final TodoRepository todoRepository;
+    private final TodoService todoService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TodoTagIndex tagIndex;
+
+    private final BlockingQueue<PendingCreate> buffer;
+    private final ConcurrentHashMap<Long, CompletableFuture<TodoResponse>> pendingById = new ConcurrentHashMap<>();
+
+    private final int maxBatchSize;
+    private final long offerTimeoutMillis;
+
+    private final Timer batchCommitTimer;
+    private final DistributionSummary batchSizeSummary;
+
+    private final Object idBlockLock = new Object();
+    private long nextId;
+    private long idBlockLimit;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public GroupCommitTodoWriter(TodoRepository todoRepository,
+                                 TodoService todoService,
+                                 JdbcTemplate jdbcTemplate,
+                                 ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager,
+                                 TodoTagIndex tagIndex,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${todo.create.async.buffer-capacity:4096}") int bufferCapacity,
+                                 @Value("${todo.create.async.max-batch-size:256}") int maxBatchSize,
+                                 @Value("${todo.create.async.offer-timeout-ms:50}") long offerTimeoutMillis) {
+        this.todoRepository = todoRepository;
+        this.todoService = todoService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tagIndex = tagIndex;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+
+        Gauge.builder("todo.create.buffer.size", buffer, BlockingQueue::size)
+                .description("Todo items waiting for the group commit writer")
+                .register(meterRegistry);
+        this.batchCommitTimer = Timer.builder("todo.create.batch.commit")
+                .description("Time to insert and commit one batch of todo items")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("todo.create.batch.size")
+                .description("Todo items committed per transaction")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Accepts a create for asynchronous commit. The returned response already carries
+     * the final id; the item becomes visible to reads once its batch is committed.
+     */
+    public TodoResponse enqueue(TodoRequest request) {
+        TodoItem todoItem = new TodoItem(request.description(), request.dueDateTime());
+        todoItem.getTags().addAll(request.tagsOrEmpty());
+        todoItem.setId(nextId());
+
+        PendingCreate pendingCreate = new PendingCreate(todoItem, new CompletableFuture<>());
+        pendingById.put(todoItem.getId(), pendingCreate.committed());
+
+        if (!running || !offer(pendingCreate)) {
+            pendingById.remove(todoItem.getId());
+            throw new ServiceUnavailableException("Too many pending creates, please retry later", 1);
+        }
+
+        logger.debug("Queued todo item with id: {} for group commit", todoItem.getId());
+        return new TodoResponse(todoItem);
+    }
+
+    /**
+     * Waits up to {@code timeout} for a queued item to be committed. Ids that are not
+     * pending are read from the database.
+     *
+     * @return the committed item, or empty if it is still pending after the timeout
+     */
+    public Optional<TodoResponse> awaitCommitted(Long id, Duration timeout) {
+        CompletableFuture<TodoResponse> committed = pendingById.get(id);
+        if (committed == null) {
+            return Optional.of(todoService.getTodoItem(id));
+        }
+
+        try {
+            return Optional.of(committed.get(timeout.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (TimeoutException ex) {
+            return Optional.empty();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Todo item with id: " + id + " could not be committed", ex.getCause());
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        writerThread = new Thread(this::drainLoop, "todo-group-commit");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        logger.info("Group commit writer started (max batch size: {})", maxBatchSize);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (writerThread == null) {
+            return;
+        }
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Group commit writer stopped, {} items left in buffer", buffer.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private long nextId() {
+        synchronized (idBlockLock) {
+            if (nextId == idBlockLimit) {
+                nextId = todoRepository.reserveIdBlock();
+                idBlockLimit = nextId + TodoItem.ID_ALLOCATION_SIZE;
+            }
+            return nextId++;
+        }
+    }
+
+    private boolean offer(PendingCreate pendingCreate) {
+        try {
+            return buffer.offer(pendingCreate, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void drainLoop() {
+        List<PendingCreate> batch = new ArrayList<>(maxBatchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                PendingCreate first = buffer.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, maxBatchSize - 1);
+                commit(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingCreate> batch) {
+        try {
+            batchCommitTimer.record(() -> transactionTemplate.executeWithoutResult(status -> insert(batch)));
+            batchSizeSummary.record(batch.size());
+            batch.forEach(this::complete);
+            logger.debug("Group commit of {} todo items completed", batch.size());
+        } catch (RuntimeException ex) {
+            logger.warn("Group commit of {} todo items failed, retrying one by one: {}", batch.size(), ex.getMessage());
+            batch.forEach(this::commitSingle);
+        }
+    }
+
+    private void commitSingle(PendingCreate pendingCreate) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(List.of(pendingCreate)));
+            complete(pendingCreate);
+        } catch (RuntimeException ex) {
+            logger.error("Could not commit todo item with id: {}", pendingCreate.todoItem().getId(), ex);
+            pendingById.remove(pendingCreate.todoItem().getId());
+            pendingCreate.committed().completeExceptionally(ex);
+        }
+    }
+
+    private void insert(List<PendingCreate> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, pendingCreate) -> {
+            TodoItem todoItem = pendingCreate.todoItem();
+            statement.setLong(1, todoItem.getId());
+            statement.setString(2, todoItem.getDescription());
+            statement.setString(3, todoItem.getStatus().name());
+            statement.setTimestamp(4, Timestamp.valueOf(todoItem.getCreationDateTime()));
+            statement.setTimestamp(5, Timestamp.valueOf(todoItem.getDueDateTime()));
+        });
+        List<Object[]> tags = batch.stream()
+                .flatMap(pendingCreate -> pendingCreate.todoItem().getTags().stream()
+                        .map(tag -> new Object[]{pendingCreate.todoItem().getId(), tag}))
+                .toList();
+        if (!tags.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TAG_SQL, tags);
+        }
+        batch.forEach(pendingCreate -> {
+            pendingCreate.todoItem().setVersion(0L);
+            tagIndex.stage(pendingCreate.todoItem());
+        });
+        eventPublisher.publishEvent(new TodoItemsChangedEvent(
+                batch.stream().map(pendingCreate -> pendingCreate.todoItem().getId()).toList()));
+    }
+
+    private void complete(PendingCreate pendingCreate) {
+        pendingById.remove(pendingCreate.todoItem().getId());
+        pendingCreate.committed().complete(new TodoResponse(pendingCreate.todoItem()));
+    }
+
+    private record PendingCreate(TodoItem todoItem, CompletableFuture<TodoResponse> committed) {}
+}
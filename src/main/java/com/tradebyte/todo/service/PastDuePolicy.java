@@ -0,0 +1,51 @@
+package com.tradebyte.todo.service;
+
+import com.tradebyte.todo.dto.TodoResponse;
+import com.tradebyte.todo.entity.TodoItem;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Decides whether an item is past due.
+ * <p>
+ * By default the persisted status is authoritative and kept current by the past due
+ * sweep. In lazy mode ({@code todo.past-due.lazy.enabled=true}) a not done item whose
+ * due date has passed is treated as past due on read and write, whether or not the sweep
+ * has persisted that yet.
+ */
+@Component
+public class PastDuePolicy {
+
+    private final boolean lazy;
+
+    public PastDuePolicy(@Value("${todo.past-due.lazy.enabled:false}") boolean lazy) {
+        this.lazy = lazy;
+    }
+
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    public TodoItem.Status statusOf(TodoItem todoItem) {
+        return lazy ? todoItem.effectiveStatus(LocalDateTime.now()) : todoItem.getStatus();
+    }
+
+    /**
+     * Same as {@link #statusOf(TodoItem)} for a row that was not loaded as an entity.
+     */
+    public TodoItem.Status statusOf(TodoItem.Status status, LocalDateTime dueDateTime) {
+        return lazy && status == TodoItem.Status.NOT_DONE && dueDateTime.isBefore(LocalDateTime.now())
+                ? TodoItem.Status.PAST_DUE
+                : status;
+    }
+
+    public boolean isImmutable(TodoItem todoItem) {
+        return statusOf(todoItem) == TodoItem.Status.PAST_DUE;
+    }
+
+    public TodoResponse toResponse(TodoItem todoItem) {
+        return lazy ? new TodoResponse(todoItem, statusOf(todoItem)) : new TodoResponse(todoItem);
+    }
+}
@@ -0,0 +1,199 @@
+package com.tradebyte.todo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo.config.BinaryContentConfig;
+import com.tradebyte.todo.dto.TodoResponse;
+import com.tradebyte.todo.dto.TodoSliceResponse;
+import com.tradebyte.todo.entity.TodoItem;
+import com.tradebyte.todo.repository.TodoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exercises the read path before the instance reports ready, so the first real requests
+ * do not run interpreted code against cold query plans and serializers.
+ * <p>
+ * Opt-in via {@code todo.warmup.enabled}. After startup, every iteration runs in its own
+ * short transaction that inserts a scratch dataset, reads single items, list pages and a
+ * bulk lookup through {@link TodoService}, serializes the results as JSON and CBOR, and is
+ * then rolled back. Readiness is reported by {@link #isComplete()}.
+ */
+@Component
+public class ReadPathWarmUp {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadPathWarmUp.class);
+
+    private static final int PAGE_SIZE = 20;
+
+    /**
+     * The NOT_DONE list is read past its last page: the query still runs, but no next page
+     * exists, so the large result set warning meant for clients is not logged.
+     */
+    private static final int BEYOND_LAST_PAGE = 1_000_000;
+
+    private final TodoService todoService;
+    private final TodoRepository todoRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborObjectMapper = BinaryContentConfig.cborObjectMapper();
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int iterations;
+    private final int scratchItems;
+
+    private final AtomicInteger completedIterations = new AtomicInteger();
+    private final AtomicLong firstIterationNanos = new AtomicLong();
+    private final AtomicLong lastIterationNanos = new AtomicLong();
+    private final Timer durationTimer;
+    private final Timer iterationTimer;
+
+    private volatile boolean complete;
+
+    public ReadPathWarmUp(TodoService todoService,
+                          TodoRepository todoRepository,
+                          EntityManager entityManager,
+                          ObjectMapper objectMapper,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${todo.warmup.enabled:false}") boolean enabled,
+                          @Value("${todo.warmup.iterations:200}") int iterations,
+                          @Value("${todo.warmup.scratch-items:100}") int scratchItems) {
+        this.todoService = todoService;
+        this.todoRepository = todoRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.scratchItems = Math.max(scratchItems, 1);
+        this.complete = !enabled || iterations <= 0;
+
+        this.durationTimer = Timer.builder("todo.warmup.duration")
+                .description("Time spent warming up the read path")
+                .register(meterRegistry);
+        this.iterationTimer = Timer.builder("todo.warmup.iteration")
+                .description("Time of one warm-up iteration")
+                .register(meterRegistry);
+        Gauge.builder("todo.warmup.iterations.completed", completedIterations, AtomicInteger::get)
+                .description("Warm-up iterations completed so far")
+                .register(meterRegistry);
+        TimeGauge.builder("todo.warmup.iteration.latency", firstIterationNanos, TimeUnit.NANOSECONDS, AtomicLong::get)
+                .description("Time of the first and last warm-up iteration")
+                .tag("iteration", "first")
+                .register(meterRegistry);
+        TimeGauge.builder("todo.warmup.iteration.latency", lastIterationNanos, TimeUnit.NANOSECONDS, AtomicLong::get)
+                .description("Time of the first and last warm-up iteration")
+                .tag("iteration", "last")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (complete) {
+            return;
+        }
+        Thread warmUpThread = new Thread(this::run, "todo-warmup");
+        warmUpThread.setDaemon(true);
+        warmUpThread.start();
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getCompletedIterations() {
+        return completedIterations.get();
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    void run() {
+        logger.info("Warming up the read path with {} iterations", iterations);
+        long startedAt = System.nanoTime();
+        try {
+            for (int i = 0; i < iterations; i++) {
+                int iteration = i;
+                long iterationStartedAt = System.nanoTime();
+                transactionTemplate.executeWithoutResult(status -> {
+                    status.setRollbackOnly();
+                    runIteration(insertScratchItems(), iteration);
+                });
+                long iterationNanos = System.nanoTime() - iterationStartedAt;
+
+                iterationTimer.record(iterationNanos, TimeUnit.NANOSECONDS);
+                firstIterationNanos.compareAndSet(0, iterationNanos);
+                lastIterationNanos.set(iterationNanos);
+                completedIterations.incrementAndGet();
+            }
+        } catch (RuntimeException ex) {
+            logger.error("Warm-up failed after {} iterations, reporting ready anyway", completedIterations.get(), ex);
+        } finally {
+            long durationNanos = System.nanoTime() - startedAt;
+            durationTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+            complete = true;
+            logger.info("Warm-up completed in {} ms (first iteration: {} us, last iteration: {} us)",
+                    TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                    TimeUnit.NANOSECONDS.toMicros(firstIterationNanos.get()),
+                    TimeUnit.NANOSECONDS.toMicros(lastIterationNanos.get()));
+        }
+    }
+
+    private List<Long> insertScratchItems() {
+        LocalDateTime now = LocalDateTime.now();
+        List<TodoItem> items = new ArrayList<>(scratchItems);
+        for (int i = 0; i < scratchItems; i++) {
+            items.add(new TodoItem("Warm-up item " + i, now.plusDays(1)));
+        }
+        return todoRepository.saveAllAndFlush(items).stream().map(TodoItem::getId).toList();
+    }
+
+    private void runIteration(List<Long> ids, int iteration) {
+        entityManager.clear();
+
+        TodoResponse item = todoService.getTodoItem(ids.get(iteration % ids.size()));
+        Slice<TodoResponse> notDone = todoService.getAllNotDoneItems(false, BEYOND_LAST_PAGE, PAGE_SIZE);
+        Slice<TodoResponse> all = todoService.getAllNotDoneItems(true, 0, PAGE_SIZE);
+        List<Long> lookupIds = ids.subList(0, Math.min(ids.size(), PAGE_SIZE));
+
+        serialize(item);
+        serialize(new TodoSliceResponse<>(notDone.getContent(), notDone.getNumber(), PAGE_SIZE, notDone.hasNext()));
+        serialize(new TodoSliceResponse<>(all.getContent(), all.getNumber(), PAGE_SIZE, all.hasNext()));
+        serialize(todoService.getTodoItems(lookupIds));
+    }
+
+    private void serialize(Object response) {
+        try {
+            objectMapper.writeValueAsBytes(response);
+            cborObjectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize warm-up response", ex);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.tradebyte.todo.service;
+
+import com.tradebyte.todo.entity.RecurringTodoTemplate;
+import com.tradebyte.todo.entity.TodoItem;
+import com.tradebyte.todo.index.TodoTagIndex;
+import com.tradebyte.todo.repository.RecurringTodoTemplateRepository;
+import com.tradebyte.todo.repository.TodoRepository;
+import com.tradebyte.todo.scheduler.SchedulerLeaseManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates the occurrences of {@link RecurringTodoTemplate}s as ordinary todo items,
+ * up to {@code todo.recurring.horizon-days} ahead.
+ * <p>
+ * Each run reads the ids of the templates whose next occurrence falls inside the
+ * horizon, through the index on {@code next_occurrence}, so templates that are already
+ * materialized far enough cost nothing. Those templates are split into chunks that run
+ * in parallel, one short transaction per chunk: the chunk locks its templates, inserts
+ * the new occurrences and their tags with JDBC batches, and moves the templates' next
+ * occurrence past them. Occurrences already in {@code todo_items} are skipped, found
+ * through the index on template and due date while the template is locked, so a run is
+ * idempotent per occurrence even if it overlaps another one. Runs are coordinated
+ * between instances with a lease.
+ * <p>
+ * Only future occurrences are generated and existing items are never updated, so runs
+ * do not touch the rows the past due sweep changes. Occurrences missed while the
+ * materializer was not running are skipped rather than created already past due.
+ * <p>
+ * Enabled with {@code todo.recurring.enabled=true}. Requires the JPA storage engine.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.recurring.enabled", havingValue = "true")
+public class RecurrenceMaterializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecurrenceMaterializer.class);
+
+    static final String RECURRING_LEASE = "todo-recurring";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO todo_items (id, description, status, creation_datetime, due_datetime, version, recurring_template_id)
+            VALUES (?, ?, ?, ?, ?, 0, ?)
+            """;
+
+    private static final String INSERT_TAG_SQL = "INSERT INTO todo_item_tags (todo_item_id, tag) VALUES (?, ?)";
+
+    private final RecurringTodoTemplateRepository templateRepository;
+    private final TodoRepository todoRepository;
+    private final SchedulerLeaseManager leaseManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TodoTagIndex tagIndex;
+    private final ExecutorService executor;
+
+    private final Duration horizon;
+    private final int chunkSize;
+    private final int maxTemplatesPerRun;
+    private final int maxOccurrencesPerTemplate;
+
+    private final Counter occurrenceCounter;
+    private final Timer runTimer;
+
+    public RecurrenceMaterializer(RecurringTodoTemplateRepository templateRepository,
+                                  TodoRepository todoRepository,
+                                  SchedulerLeaseManager leaseManager,
+                                  JdbcTemplate jdbcTemplate,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager,
+                                  TodoTagIndex tagIndex,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${todo.storage.engine:jpa}") String storageEngine,
+                                  @Value("${todo.recurring.horizon-days:14}") long horizonDays,
+                                  @Value("${todo.recurring.chunk-size:100}") int chunkSize,
+                                  @Value("${todo.recurring.parallelism:4}") int parallelism,
+                                  @Value("${todo.recurring.max-templates-per-run:10000}") int maxTemplatesPerRun,
+                                  @Value("${todo.recurring.max-occurrences-per-template:500}") int maxOccurrencesPerTemplate) {
+        if (!"jpa".equals(storageEngine)) {
+            throw new IllegalStateException("todo.recurring.enabled requires todo.storage.engine=jpa");
+        }
+        this.templateRepository = templateRepository;
+        this.todoRepository = todoRepository;
+        this.leaseManager = leaseManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tagIndex = tagIndex;
+        this.horizon = Duration.ofDays(horizonDays);
+        this.chunkSize = chunkSize;
+        this.maxTemplatesPerRun = maxTemplatesPerRun;
+        this.maxOccurrencesPerTemplate = maxOccurrencesPerTemplate;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "todo-recurring-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.occurrenceCounter = Counter.builder("todo.recurring.occurrences")
+                .description("Todo items generated from recurring templates")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("todo.recurring.run")
+                .description("Time to materialize the occurrences of all due templates")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${todo.recurring.interval-ms:60000}",
+            fixedDelayString = "${todo.recurring.interval-ms:60000}")
+    public void materializeScheduled() {
+        if (!leaseManager.tryAcquire(RECURRING_LEASE, Duration.ofMinutes(10))) {
+            logger.debug("Recurring items are materialized by another instance");
+            return;
+        }
+        try {
+            materialize();
+        } catch (Exception ex) {
+            logger.error("Error while materializing recurring todo items", ex);
+        } finally {
+            leaseManager.release(RECURRING_LEASE);
+        }
+    }
+
+    /**
+     * Generates the occurrences inside the horizon that do not exist yet.
+     *
+     * @return number of todo items created
+     */
+    public int materialize() {
+        return runTimer.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime horizonEnd = now.plus(horizon);
+            List<Long> ids = templateRepository.findIdsWithOccurrencesBefore(horizonEnd, Pageable.ofSize(maxTemplatesPerRun));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+
+            List<CompletableFuture<Integer>> chunks = new ArrayList<>();
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                chunks.add(CompletableFuture.supplyAsync(
+                        () -> transactionTemplate.execute(status -> materializeChunk(chunk, now, horizonEnd)), executor));
+            }
+            int created = chunks.stream().mapToInt(CompletableFuture::join).sum();
+
+            if (created > 0) {
+                logger.info("Generated {} occurrences of {} recurring templates until {}", created, ids.size(), horizonEnd);
+            }
+            return created;
+        });
+    }
+
+    private int materializeChunk(List<Long> ids, LocalDateTime now, LocalDateTime horizonEnd) {
+        List<RecurringTodoTemplate> templates = templateRepository.findAllByIdForUpdate(ids).stream()
+                .filter(template -> template.getNextOccurrence() != null
+                        && template.getNextOccurrence().isBefore(horizonEnd))
+                .toList();
+        if (templates.isEmpty()) {
+            return 0;
+        }
+
+        Set<Occurrence> existing = findExistingOccurrences(templates, now);
+        LocalDateTime creationDateTime = LocalDateTime.now();
+        List<TodoItem> occurrences = new ArrayList<>();
+        for (RecurringTodoTemplate template : templates) {
+            CronExpression cron = template.cronExpression();
+            LocalDateTime dueDateTime = template.getNextOccurrence().isAfter(now)
+                    ? template.getNextOccurrence()
+                    : cron.next(now);
+            for (int i = 0; dueDateTime != null && dueDateTime.isBefore(horizonEnd) && i < maxOccurrencesPerTemplate; i++) {
+                if (!existing.contains(new Occurrence(template.getId(), dueDateTime))) {
+                    occurrences.add(TodoItem.builder()
+                            .description(template.getDescription())
+                            .status(TodoItem.Status.NOT_DONE)
+                            .creationDateTime(creationDateTime)
+                            .dueDateTime(dueDateTime)
+                            .recurringTemplateId(template.getId())
+                            .tags(new HashSet<>(template.getTags()))
+                            .build());
+                }
+                dueDateTime = cron.next(dueDateTime);
+            }
+            template.setNextOccurrence(dueDateTime);
+        }
+
+        if (!occurrences.isEmpty()) {
+            insert(occurrences);
+            occurrenceCounter.increment(occurrences.size());
+        }
+        return occurrences.size();
+    }
+
+    /**
+     * Future occurrences of the templates already in {@code todo_items}, from an earlier
+     * run that was interrupted or a template whose next occurrence was moved back.
+     */
+    private Set<Occurrence> findExistingOccurrences(List<RecurringTodoTemplate> templates, LocalDateTime now) {
+        List<Object> args = new ArrayList<>(templates.stream().<Object>map(RecurringTodoTemplate::getId).toList());
+        args.add(Timestamp.valueOf(now));
+        String placeholders = String.join(", ", Collections.nCopies(templates.size(), "?"));
+        return new HashSet<>(jdbcTemplate.query(
+                "SELECT recurring_template_id, due_datetime FROM todo_items "
+                        + "WHERE recurring_template_id IN (" + placeholders + ") AND due_datetime > ?",
+                (rs, rowNum) -> new Occurrence(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime()),
+                args.toArray()));
+    }
+
+    private void insert(List<TodoItem> occurrences) {
+        long nextId = 0;
+        long idBlockLimit = 0;
+        for (TodoItem todoItem : occurrences) {
+            if (nextId == idBlockLimit) {
+                nextId = todoRepository.reserveIdBlock();
+                idBlockLimit = nextId + TodoItem.ID_ALLOCATION_SIZE;
+            }
+            todoItem.setId(nextId++);
+            todoItem.setVersion(0L);
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, occurrences, chunkSize, (statement, todoItem) -> {
+            statement.setLong(1, todoItem.getId());
+            statement.setString(2, todoItem.getDescription());
+            statement.setString(3, todoItem.getStatus().name());
+            statement.setTimestamp(4, Timestamp.valueOf(todoItem.getCreationDateTime()));
+            statement.setTimestamp(5, Timestamp.valueOf(todoItem.getDueDateTime()));
+            statement.setLong(6, todoItem.getRecurringTemplateId());
+        });
+        List<Object[]> tags = occurrences.stream()
+                .flatMap(todoItem -> todoItem.getTags().stream().map(tag -> new Object[]{todoItem.getId(), tag}))
+                .toList();
+        if (!tags.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TAG_SQL, tags);
+        }
+        occurrences.forEach(tagIndex::stage);
+        eventPublisher.publishEvent(new TodoItemsChangedEvent(occurrences.stream().map(TodoItem::getId).toList()));
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private record Occurrence(long templateId, LocalDateTime dueDateTime) {}
+}
@@ -0,0 +1,73 @@
+package com.tradebyte.todo.service;
+
+import com.tradebyte.todo.dto.RecurringTodoRequest;
+import com.tradebyte.todo.dto.RecurringTodoResponse;
+import com.tradebyte.todo.entity.RecurringTodoTemplate;
+import com.tradebyte.todo.exception.ResourceNotFoundException;
+import com.tradebyte.todo.exception.ValidationException;
+import com.tradebyte.todo.repository.RecurringTodoTemplateRepository;
+import lombok.AllArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Manages {@link RecurringTodoTemplate}s. Their occurrences are created by the
+ * {@link RecurrenceMaterializer}; items already generated stay when a template is deleted.
+ * <p>
+ * Templates are not replicated, so reads use read-write transactions, which always go
+ * to the primary.
+ */
+@Service
+@AllArgsConstructor
+@ConditionalOnProperty(name = "todo.recurring.enabled", havingValue = "true")
+public class RecurringTodoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecurringTodoService.class);
+
+    private final RecurringTodoTemplateRepository templateRepository;
+
+    @Transactional
+    public RecurringTodoResponse createTemplate(RecurringTodoRequest request) {
+        if (!CronExpression.isValidExpression(request.cron())) {
+            throw new ValidationException("Invalid cron expression: " + request.cron());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime nextOccurrence = CronExpression.parse(request.cron()).next(now);
+        if (nextOccurrence == null) {
+            throw new ValidationException("Cron expression has no future occurrences: " + request.cron());
+        }
+
+        RecurringTodoTemplate template = RecurringTodoTemplate.builder()
+                .description(request.description())
+                .cron(request.cron())
+                .nextOccurrence(nextOccurrence)
+                .creationDateTime(now)
+                .build();
+        template.getTags().addAll(request.tagsOrEmpty());
+
+        RecurringTodoTemplate savedTemplate = templateRepository.save(template);
+        logger.info("Created recurring template with id: {}", savedTemplate.getId());
+        return new RecurringTodoResponse(savedTemplate);
+    }
+
+    @Transactional
+    public RecurringTodoResponse getTemplate(Long id) {
+        return templateRepository.findById(id)
+                .map(RecurringTodoResponse::new)
+                .orElseThrow(() -> new ResourceNotFoundException("Recurring template not found with id: " + id));
+    }
+
+    @Transactional
+    public void deleteTemplate(Long id) {
+        logger.info("Deleting recurring template with id: {}", id);
+        RecurringTodoTemplate template = templateRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Recurring template not found with id: " + id));
+        templateRepository.delete(template);
+    }
+}
@@ -0,0 +1,203 @@
+package com.tradebyte.todo.service;
+
+import com.tradebyte.todo.entity.TodoItem;
+import com.tradebyte.todo.index.TodoTagIndex;
+import com.tradebyte.todo.repository.ArchivedTodoItemRepository;
+import com.tradebyte.todo.repository.TodoRepository;
+import com.tradebyte.todo.scheduler.SchedulerLeaseManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes DONE items (and optionally PAST_DUE items) once they are older than the
+ * retention period, in the live table and in the archive. With lazy past due
+ * evaluation, overdue items still stored as NOT_DONE count as PAST_DUE.
+ * <p>
+ * Deletes run in id-ordered chunks, one short statement per chunk that re-checks the
+ * retention condition, with a pause between chunks so row locks are held only briefly
+ * and the past due sweep is never blocked for long. Runs are coordinated between
+ * instances with a lease.
+ * <p>
+ * Enabled with {@code todo.retention.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.retention.enabled", havingValue = "true")
+public class RetentionPurger {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetentionPurger.class);
+
+    static final String RETENTION_LEASE = "todo-retention";
+
+    private final TodoRepository todoRepository;
+    private final ArchivedTodoItemRepository archivedTodoItemRepository;
+    private final SchedulerLeaseManager leaseManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TodoTagIndex tagIndex;
+    private final PastDuePolicy pastDuePolicy;
+
+    private final long doneRetentionDays;
+    private final long pastDueRetentionDays;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final long pauseMillis;
+
+    private final Timer runTimer;
+    private final DistributionSummary runPurgedSummary;
+    private final Counter livePurgedCounter;
+    private final Counter archivePurgedCounter;
+
+    public RetentionPurger(TodoRepository todoRepository,
+                           ArchivedTodoItemRepository archivedTodoItemRepository,
+                           SchedulerLeaseManager leaseManager,
+                           ApplicationEventPublisher eventPublisher,
+                           TodoTagIndex tagIndex,
+                           PastDuePolicy pastDuePolicy,
+                           MeterRegistry meterRegistry,
+                           @Value("${todo.retention.done-days:90}") long doneRetentionDays,
+                           @Value("${todo.retention.past-due-days:-1}") long pastDueRetentionDays,
+                           @Value("${todo.retention.chunk-size:500}") int chunkSize,
+                           @Value("${todo.retention.max-chunks-per-run:100}") int maxChunksPerRun,
+                           @Value("${todo.retention.pause-between-chunks-ms:50}") long pauseMillis) {
+        this.todoRepository = todoRepository;
+        this.archivedTodoItemRepository = archivedTodoItemRepository;
+        this.leaseManager = leaseManager;
+        this.eventPublisher = eventPublisher;
+        this.tagIndex = tagIndex;
+        this.pastDuePolicy = pastDuePolicy;
+        this.doneRetentionDays = doneRetentionDays;
+        this.pastDueRetentionDays = pastDueRetentionDays;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.pauseMillis = pauseMillis;
+
+        this.runTimer = Timer.builder("todo.retention.run")
+                .description("Duration of one retention purge run")
+                .register(meterRegistry);
+        this.runPurgedSummary = DistributionSummary.builder("todo.retention.run.purged")
+                .description("Todo items deleted per retention purge run")
+                .register(meterRegistry);
+        this.livePurgedCounter = Counter.builder("todo.retention.purged")
+                .description("Todo items deleted by the retention policy")
+                .tag("tier", "live")
+                .register(meterRegistry);
+        this.archivePurgedCounter = Counter.builder("todo.retention.purged")
+                .description("Todo items deleted by the retention policy")
+                .tag("tier", "archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${todo.retention.interval-ms:3600000}",
+            fixedDelayString = "${todo.retention.interval-ms:3600000}")
+    public void purgeScheduled() {
+        if (!leaseManager.tryAcquire(RETENTION_LEASE, Duration.ofMinutes(10))) {
+            logger.debug("Retention purge is owned by another instance");
+            return;
+        }
+        try {
+            purge();
+        } catch (Exception ex) {
+            logger.error("Error during retention purge", ex);
+        } finally {
+            leaseManager.release(RETENTION_LEASE);
+        }
+    }
+
+    /**
+     * Runs one purge over both tiers.
+     *
+     * @return number of deleted items
+     */
+    public int purge() {
+        long startedAt = System.nanoTime();
+        int purged = purgeStatus(TodoItem.Status.DONE, doneRetentionDays);
+        if (pastDueRetentionDays >= 0) {
+            purged += purgeStatus(TodoItem.Status.PAST_DUE, pastDueRetentionDays);
+        }
+        long durationNanos = System.nanoTime() - startedAt;
+
+        runTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+        runPurgedSummary.record(purged);
+        if (purged > 0) {
+            logger.info("Retention purge deleted {} todo items in {} ms",
+                    purged, TimeUnit.NANOSECONDS.toMillis(durationNanos));
+        }
+        return purged;
+    }
+
+    private int purgeStatus(TodoItem.Status status, long retentionDays) {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        boolean includeOverdue = status == TodoItem.Status.PAST_DUE && pastDuePolicy.isLazy();
+        int purged = 0;
+
+        long afterId = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            List<Long> ids = todoRepository.findExpiredIds(
+                    status, cutoff, includeOverdue, afterId, Pageable.ofSize(chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            int deleted = todoRepository.deleteExpired(ids, status, cutoff, includeOverdue);
+            tagIndex.stageRemoval(ids, status);
+            if (includeOverdue) {
+                tagIndex.stageRemoval(ids, TodoItem.Status.NOT_DONE);
+            }
+            livePurgedCounter.increment(deleted);
+            purged += deleted;
+            publish(ids);
+            afterId = ids.get(ids.size() - 1);
+            if (ids.size() < chunkSize || !pause()) {
+                break;
+            }
+        }
+
+        afterId = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            List<Long> ids = archivedTodoItemRepository.findExpiredIds(status, cutoff, afterId, Pageable.ofSize(chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            int deleted = archivedTodoItemRepository.deleteByIds(ids);
+            archivePurgedCounter.increment(deleted);
+            purged += deleted;
+            publish(ids);
+            afterId = ids.get(ids.size() - 1);
+            if (ids.size() < chunkSize || !pause()) {
+                break;
+            }
+        }
+
+        return purged;
+    }
+
+    private void publish(List<Long> ids) {
+        eventPublisher.publishEvent(new TodoItemsChangedEvent(ids));
+    }
+
+    /**
+     * @return false if the thread was interrupted and the run should stop
+     */
+    private boolean pause() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
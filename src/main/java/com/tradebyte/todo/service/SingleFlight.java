@@ -0,0 +1,95 @@
+package com.tradebyte.todo.service;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into a single execution.
+ * <p>
+ * The first caller for a key runs the loader on its own thread; callers arriving while
+ * that call is in flight wait for it and receive the same result or the same exception.
+ * Nothing is cached: once the call completes, the next caller triggers a fresh load.
+ * <p>
+ * If the executing caller is interrupted, the shared call is cancelled and waiting
+ * callers retry instead of inheriting the interruption. A waiting caller that is
+ * interrupted stops waiting without affecting the shared call.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder joins = new LongAdder();
+
+    public V execute(K key, Supplier<V> loader) {
+        while (true) {
+            CompletableFuture<V> call = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+
+            if (existing == null) {
+                return run(key, call, loader);
+            }
+
+            joins.increment();
+            try {
+                return await(existing);
+            } catch (CancellationException ex) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw ex;
+                }
+                // the executing caller was interrupted, take over the load
+            }
+        }
+    }
+
+    public long executionCount() {
+        return executions.sum();
+    }
+
+    public long joinCount() {
+        return joins.sum();
+    }
+
+    private V run(K key, CompletableFuture<V> call, Supplier<V> loader) {
+        executions.increment();
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            if (Thread.currentThread().isInterrupted()) {
+                call.cancel(false);
+            } else {
+                call.completeExceptionally(ex);
+            }
+            throw ex;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private V await(CompletableFuture<V> call) {
+        try {
+            return call.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            CancellationException cancellation = new CancellationException("Interrupted while waiting for in-flight call");
+            cancellation.initCause(ex);
+            throw cancellation;
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("In-flight call failed", cause);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.tradebyte.todo.service;
+
+import com.tradebyte.todo.entity.ArchivedTodoItem;
+import com.tradebyte.todo.entity.TodoItem;
+import com.tradebyte.todo.index.TodoTagIndex;
+import com.tradebyte.todo.repository.ArchivedTodoItemRepository;
+import com.tradebyte.todo.repository.TodoRepository;
+import com.tradebyte.todo.scheduler.SchedulerLeaseManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves finished items (DONE, PAST_DUE) older than {@code todo.archive.min-age-days}
+ * from {@code todo_items} to {@code todo_items_archive}, so the live table only holds
+ * items that can still change.
+ * <p>
+ * Items are moved in id-ordered chunks, one short transaction per chunk. Each chunk
+ * locks its rows and checks them again before moving, so items reopened in the
+ * meantime stay live. Runs are coordinated between instances with a lease.
+ * <p>
+ * Enabled with {@code todo.archive.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.archive.enabled", havingValue = "true")
+public class TodoArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoArchiver.class);
+
+    static final String ARCHIVE_LEASE = "todo-archive";
+
+    private final TodoRepository todoRepository;
+    private final ArchivedTodoItemRepository archivedTodoItemRepository;
+    private final SchedulerLeaseManager leaseManager;
+    private final PastDuePolicy pastDuePolicy;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TodoTagIndex tagIndex;
+
+    private final Duration minAge;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final long pauseMillis;
+
+    private final Counter archivedCounter;
+
+    public TodoArchiver(TodoRepository todoRepository,
+                        ArchivedTodoItemRepository archivedTodoItemRepository,
+                        SchedulerLeaseManager leaseManager,
+                        PastDuePolicy pastDuePolicy,
+                        ApplicationEventPublisher eventPublisher,
+                        PlatformTransactionManager transactionManager,
+                        TodoTagIndex tagIndex,
+                        MeterRegistry meterRegistry,
+                        @Value("${todo.archive.min-age-days:30}") long minAgeDays,
+                        @Value("${todo.archive.chunk-size:500}") int chunkSize,
+                        @Value("${todo.archive.max-chunks-per-run:100}") int maxChunksPerRun,
+                        @Value("${todo.archive.pause-between-chunks-ms:50}") long pauseMillis) {
+        this.todoRepository = todoRepository;
+        this.archivedTodoItemRepository = archivedTodoItemRepository;
+        this.leaseManager = leaseManager;
+        this.pastDuePolicy = pastDuePolicy;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tagIndex = tagIndex;
+        this.minAge = Duration.ofDays(minAgeDays);
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.pauseMillis = pauseMillis;
+
+        this.archivedCounter = Counter.builder("todo.archive.items")
+                .description("Todo items moved to the archive table")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${todo.archive.interval-ms:3600000}",
+            fixedDelayString = "${todo.archive.interval-ms:3600000}")
+    public void archiveScheduled() {
+        if (!leaseManager.tryAcquire(ARCHIVE_LEASE, Duration.ofMinutes(10))) {
+            logger.debug("Archiving is owned by another instance");
+            return;
+        }
+        try {
+            archive();
+        } catch (Exception ex) {
+            logger.error("Error while archiving todo items", ex);
+        } finally {
+            leaseManager.release(ARCHIVE_LEASE);
+        }
+    }
+
+    /**
+     * Archives finished items older than the minimum age.
+     *
+     * @return number of items moved to the archive
+     */
+    public int archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(minAge);
+        int archived = 0;
+
+        long afterId = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            List<Long> ids = todoRepository.findArchivableIds(
+                    cutoff, pastDuePolicy.isLazy(), afterId, Pageable.ofSize(chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            Integer moved = transactionTemplate.execute(status -> archiveChunk(ids, cutoff));
+            archived += moved == null ? 0 : moved;
+            // Ids skipped by the re-check under lock are not fetched again in this run
+            afterId = ids.get(ids.size() - 1);
+
+            if (ids.size() < chunkSize || !pause()) {
+                break;
+            }
+        }
+
+        if (archived > 0) {
+            logger.info("Archived {} todo items finished before {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    private int archiveChunk(List<Long> ids, LocalDateTime cutoff) {
+        LocalDateTime now = LocalDateTime.now();
+        List<TodoItem> finished = todoRepository.findAllByIdForUpdate(ids).stream()
+                .filter(todoItem -> isArchivable(todoItem, cutoff))
+                .toList();
+        if (finished.isEmpty()) {
+            return 0;
+        }
+
+        archivedTodoItemRepository.saveAll(finished.stream()
+                .map(todoItem -> ArchivedTodoItem.of(todoItem, pastDuePolicy.statusOf(todoItem), now))
+                .toList());
+        todoRepository.deleteAll(finished);
+
+        // Archived items keep no tags
+        List<Long> finishedIds = finished.stream().map(TodoItem::getId).toList();
+        tagIndex.stageRemoval(finishedIds);
+        archivedCounter.increment(finished.size());
+        eventPublisher.publishEvent(new TodoItemsChangedEvent(finishedIds));
+        return finished.size();
+    }
+
+    private boolean isArchivable(TodoItem todoItem, LocalDateTime cutoff) {
+        return switch (pastDuePolicy.statusOf(todoItem)) {
+            case DONE -> (todoItem.getDoneDateTime() != null ? todoItem.getDoneDateTime() : todoItem.getDueDateTime())
+                    .isBefore(cutoff);
+            case PAST_DUE -> todoItem.getDueDateTime().isBefore(cutoff);
+            case NOT_DONE -> false;
+        };
+    }
+
+    /**
+     * @return false if the thread was interrupted and the run should stop
+     */
+    private boolean pause() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
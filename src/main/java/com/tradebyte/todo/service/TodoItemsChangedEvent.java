@@ -0,0 +1,37 @@
+package com.tradebyte.todo.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published whenever todo items are created or modified. Listeners that depend on
+ * committed state should use {@code @TransactionalEventListener}.
+ *
+ * @param ids           ids of the changed items; empty when the change is not tied to known ids,
+ *                      as for bulk updates
+ * @param pastDueSweep  the past due sweep that caused the change, if any
+ */
+public record TodoItemsChangedEvent(List<Long> ids, PastDueSweep pastDueSweep) {
+
+    public TodoItemsChangedEvent(List<Long> ids) {
+        this(ids, null);
+    }
+
+    public static TodoItemsChangedEvent of(Long id) {
+        return new TodoItemsChangedEvent(List.of(id));
+    }
+
+    public static TodoItemsChangedEvent bulk() {
+        return new TodoItemsChangedEvent(List.of());
+    }
+
+    public static TodoItemsChangedEvent pastDueSweep(LocalDateTime now, int partition, int partitions) {
+        return new TodoItemsChangedEvent(List.of(), new PastDueSweep(now, partition, partitions));
+    }
+
+    /**
+     * Not done items due before {@code now} whose id falls into {@code partition} out of
+     * {@code partitions} were marked as past due.
+     */
+    public record PastDueSweep(LocalDateTime now, int partition, int partitions) {}
+}
@@ -0,0 +1,77 @@
+package com.tradebyte.todo.service;
+
+import com.tradebyte.todo.datasource.DataSourceRouting;
+import com.tradebyte.todo.dto.TodoResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight layer in front of the read methods of {@link TodoService}.
+ * <p>
+ * Concurrent requests for the same item or the same list page share one in-flight
+ * transaction and its result, so a burst on a hot id costs one database round trip
+ * and one pooled connection instead of one per request.
+ * <p>
+ * Flights are keyed by a change generation that is bumped after every committed
+ * mutation, so a request never joins a flight that started before a write it may
+ * already have seen committed.
+ */
+@Component
+public class TodoReadCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoReadCoalescer.class);
+
+    private final TodoService todoService;
+
+    private final boolean enabled;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final SingleFlight<ItemKey, TodoResponse> itemFlights = new SingleFlight<>();
+    private final SingleFlight<ListKey, Slice<TodoResponse>> listFlights = new SingleFlight<>();
+
+    public TodoReadCoalescer(TodoService todoService,
+                             @Value("${todo.read.coalescing.enabled:true}") boolean enabled) {
+        this.todoService = todoService;
+        this.enabled = enabled;
+        logger.info("Read coalescing {}", enabled ? "enabled" : "disabled");
+    }
+
+    public TodoResponse getTodoItem(Long id) {
+        if (!shouldCoalesce()) {
+            return todoService.getTodoItem(id);
+        }
+        return itemFlights.execute(new ItemKey(generation.get(), id), () -> todoService.getTodoItem(id));
+    }
+
+    public Slice<TodoResponse> getAllNotDoneItems(boolean includeAll, int page, int size) {
+        if (!shouldCoalesce()) {
+            return todoService.getAllNotDoneItems(includeAll, page, size);
+        }
+        return listFlights.execute(
+                new ListKey(generation.get(), includeAll, page, size),
+                () -> todoService.getAllNotDoneItems(includeAll, page, size)
+        );
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoItemsChanged(TodoItemsChangedEvent event) {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Reads pinned to the primary must not join a flight that may read from a replica.
+     */
+    private boolean shouldCoalesce() {
+        return enabled && !DataSourceRouting.isPrimaryRequired();
+    }
+
+    private record ItemKey(long generation, Long id) {}
+
+    private record ListKey(long generation, boolean includeAll, int page, int size) {}
+}
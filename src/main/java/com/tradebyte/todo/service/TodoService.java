@@ -1,22 +1,43 @@
 package com.tradebyte.todo.service;
 
+import com.tradebyte.todo.dto.TodoBulkDeleteResponse;
+import com.tradebyte.todo.dto.TodoLookupResponse;
 import com.tradebyte.todo.dto.TodoRequest;
 import com.tradebyte.todo.dto.TodoResponse;
 import com.tradebyte.todo.dto.UpdateDescriptionRequest;
+import com.tradebyte.todo.dto.UpdateTagsRequest;
+import com.tradebyte.todo.entity.ArchivedTodoItem;
 import com.tradebyte.todo.entity.TodoItem;
 import com.tradebyte.todo.exception.ResourceNotFoundException;
 import com.tradebyte.todo.exception.ValidationException;
+import com.tradebyte.todo.index.TodoTagIndex;
+import com.tradebyte.todo.repository.ArchivedTodoItemRepository;
 import com.tradebyte.todo.repository.TodoRepository;
 import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
 
 @Service
 @AllArgsConstructor
@@ -24,20 +45,43 @@ public class TodoService {
 
     private static final Logger logger = LoggerFactory.getLogger(TodoService.class);
 
+    /**
+     * Upper bound for the number of ids bound into a single IN clause.
+     * Larger lookups are split into several queries of at most this size.
+     */
+    static final int LOOKUP_CHUNK_SIZE = 500;
+
+    /**
+     * Due date bounds that include every item, for tag queries without a due date condition.
+     */
+    private static final LocalDateTime EARLIEST_DUE = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST_DUE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final TodoRepository todoRepository;
 
+    private final ArchivedTodoItemRepository archivedTodoItemRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final PastDuePolicy pastDuePolicy;
+
+    private final TodoTagIndex tagIndex;
+
     @Transactional
     public TodoResponse createTodoItem(TodoRequest request) {
-        logger.info("Creating new todo item with description: {}", request.description());
+        logger.debug("Creating new todo item");
 
         TodoItem todoItem = new TodoItem(
                 request.description(),
                 request.dueDateTime()
         );
+        todoItem.getTags().addAll(request.tagsOrEmpty());
 
         TodoItem savedItem = todoRepository.save(todoItem);
+        eventPublisher.publishEvent(TodoItemsChangedEvent.of(savedItem.getId()));
+        tagIndex.stage(savedItem);
 
-        logger.debug("Created todo item with id: {}", savedItem.getId());
+        logger.info("Created todo item with id: {}", savedItem.getId());
         return new TodoResponse(savedItem);
     }
 
@@ -45,10 +89,50 @@ public class TodoService {
     public TodoResponse getTodoItem(Long id) {
         logger.debug("Fetching todo item with id: {}", id);
 
-        TodoItem todoItem = findTodoItemOrThrow(id);
-        return new TodoResponse(todoItem);
+        Optional<TodoItem> todoItem = todoRepository.findById(id);
+        if (todoItem.isPresent()) {
+            return pastDuePolicy.toResponse(todoItem.get());
+        }
+        return archivedTodoItemRepository.findById(id)
+                .map(TodoResponse::new)
+                .orElseThrow(() -> {
+                    logger.debug("Todo item not found with id: {}", id);
+                    return new ResourceNotFoundException("Todo item not found with id: " + id);
+                });
     }
 
+    /**
+     * Resolves many todo items in one transaction using IN queries instead of one
+     * {@code findById} per id. Ids missing from the live table are looked up in the
+     * archive. Results follow the order of the requested ids (duplicates collapsed),
+     * ids without a matching item are reported separately.
+     */
+    @Transactional(readOnly = true)
+    public TodoLookupResponse getTodoItems(List<Long> ids) {
+        List<Long> uniqueIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        logger.debug("Looking up {} todo items by id", uniqueIds.size());
+
+        Map<Long, TodoResponse> responsesById = new HashMap<>(uniqueIds.size() * 2);
+        forEachChunk(uniqueIds, chunk -> todoRepository.findAllById(chunk)
+                .forEach(item -> responsesById.put(item.getId(), pastDuePolicy.toResponse(item))));
+
+        List<Long> missing = uniqueIds.stream().filter(id -> !responsesById.containsKey(id)).toList();
+        forEachChunk(missing, chunk -> archivedTodoItemRepository.findAllById(chunk)
+                .forEach(item -> responsesById.put(item.getId(), new TodoResponse(item))));
+
+        List<TodoResponse> items = new ArrayList<>(responsesById.size());
+        List<Long> notFound = new ArrayList<>();
+        for (Long id : uniqueIds) {
+            TodoResponse response = responsesById.get(id);
+            if (response != null) {
+                items.add(response);
+            } else {
+                notFound.add(id);
+            }
+        }
+
+        return new TodoLookupResponse(items, notFound);
+    }
 
     @Transactional(readOnly = true)
     public Slice<TodoResponse> getAllNotDoneItems(
@@ -67,7 +151,13 @@ public class TodoService {
         Slice<TodoItem> slice;
 
         if (includeAll) {
-            slice = todoRepository.findAll(pageable);
+            slice = todoRepository.findAllBy(pageable);
+        } else if (pastDuePolicy.isLazy()) {
+            slice = todoRepository.findByStatusAndDueDateTimeGreaterThanEqual(
+                    TodoItem.Status.NOT_DONE,
+                    LocalDateTime.now(),
+                    pageable
+            );
         } else {
             slice = todoRepository.findByStatus(
                     TodoItem.Status.NOT_DONE,
@@ -79,7 +169,62 @@ public class TodoService {
             logger.warn("Potentially large result set detected for NOT_DONE items");
         }
 
-        return slice.map(TodoResponse::new);
+        return slice.map(pastDuePolicy::toResponse);
+    }
+
+    /**
+     * Items carrying all {@code tags}, in id order. {@code status} may be null; otherwise
+     * only items in that status as seen by the past due policy are returned. Served from the
+     * tag index when it is enabled, otherwise from a join over the tags table.
+     */
+    @Transactional(readOnly = true)
+    public Slice<TodoResponse> getItemsByTags(Set<String> tags, TodoItem.Status status, int page, int size) {
+        int pageSize = Math.min(Math.max(size, 1), 100);
+        int pageNumber = Math.max(page, 0);
+        Pageable pageable = PageRequest.of(pageNumber, pageSize);
+
+        if (!tagIndex.isEnabled()) {
+            return findByTags(tags, status, pageable).map(pastDuePolicy::toResponse);
+        }
+
+        long[] ids = tagIndex.find(tags, status, pageable.getOffset(), pageSize + 1);
+        boolean hasNext = ids.length > pageSize;
+        // The index can lag behind changes made through other instances, so the rows are checked again
+        List<TodoResponse> items = todoRepository.findAllById(LongStream.of(ids).limit(pageSize).boxed().toList())
+                .stream()
+                .filter(item -> item.getTags().containsAll(tags)
+                        && (status == null || pastDuePolicy.statusOf(item) == status))
+                .sorted(Comparator.comparing(TodoItem::getId))
+                .map(pastDuePolicy::toResponse)
+                .toList();
+        return new SliceImpl<>(items, pageable, hasNext);
+    }
+
+    /**
+     * Pages over live and archived items together, ordered by id.
+     */
+    @Transactional(readOnly = true)
+    public Slice<TodoResponse> getAllItemsIncludingArchived(int page, int size) {
+        int pageSize = Math.min(Math.max(size, 1), 100);
+        int pageNumber = Math.max(page, 0);
+
+        List<ArchivedTodoItemRepository.TieredTodoRow> rows =
+                archivedTodoItemRepository.findAcrossTiers(pageSize + 1, (long) pageNumber * pageSize);
+        boolean hasNext = rows.size() > pageSize;
+        List<ArchivedTodoItemRepository.TieredTodoRow> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+
+        Map<Long, List<String>> tagsById = liveTags(pageRows);
+        List<TodoResponse> items = pageRows.stream()
+                .map(row -> new TodoResponse(
+                        row.getId(),
+                        row.getDescription(),
+                        statusOf(row).getValue(),
+                        row.getCreationDateTime(),
+                        row.getDueDateTime(),
+                        row.getDoneDateTime(),
+                        tagsById.get(row.getId())))
+                .toList();
+        return new SliceImpl<>(items, PageRequest.of(pageNumber, pageSize), hasNext);
     }
 
     @Transactional
@@ -88,17 +233,139 @@ public class TodoService {
 
         TodoItem todoItem = findTodoItemOrThrow(id);
 
-        if (todoItem.isImmutable()) {
+        if (pastDuePolicy.isImmutable(todoItem)) {
             throw new ValidationException("Cannot update a past due item");
         }
 
         todoItem.setDescription(request.description());
         TodoItem updatedItem = todoRepository.save(todoItem);
+        eventPublisher.publishEvent(TodoItemsChangedEvent.of(id));
 
         logger.debug("Updated description for todo item id: {}", id);
         return new TodoResponse(updatedItem);
     }
 
+    /**
+     * Returns an item that the update methods would accept: 404 for unknown items,
+     * 400 for archived and past due items.
+     */
+    @Transactional(readOnly = true)
+    public TodoResponse getChangeableTodoItem(Long id) {
+        TodoItem todoItem = findTodoItemOrThrow(id);
+
+        if (pastDuePolicy.isImmutable(todoItem)) {
+            throw new ValidationException("Cannot update a past due item");
+        }
+        return pastDuePolicy.toResponse(todoItem);
+    }
+
+    /**
+     * Replaces the tags of an item.
+     */
+    @Transactional
+    public TodoResponse updateTags(Long id, UpdateTagsRequest request) {
+        logger.info("Updating tags for todo item id: {}", id);
+
+        TodoItem todoItem = findTodoItemOrThrow(id);
+
+        if (pastDuePolicy.isImmutable(todoItem)) {
+            throw new ValidationException("Cannot update a past due item");
+        }
+
+        todoItem.getTags().clear();
+        todoItem.getTags().addAll(request.tags());
+        TodoItem updatedItem = todoRepository.save(todoItem);
+        eventPublisher.publishEvent(TodoItemsChangedEvent.of(id));
+        tagIndex.stage(updatedItem);
+
+        logger.debug("Updated tags for todo item id: {}", id);
+        return pastDuePolicy.toResponse(updatedItem);
+    }
+
+    /**
+     * Applies several description updates in one transaction. Items that became
+     * immutable or no longer exist are skipped.
+     *
+     * @return ids whose description was not applied
+     */
+    @Transactional
+    public List<Long> updateDescriptionsBulk(Map<Long, String> descriptions) {
+        logger.debug("Applying {} buffered description updates", descriptions.size());
+
+        List<TodoItem> updatedItems = new ArrayList<>(descriptions.size());
+        Set<Long> rejectedIds = new LinkedHashSet<>(descriptions.keySet());
+
+        for (TodoItem todoItem : todoRepository.findAllById(descriptions.keySet())) {
+            if (pastDuePolicy.isImmutable(todoItem)) {
+                continue;
+            }
+            todoItem.setDescription(descriptions.get(todoItem.getId()));
+            updatedItems.add(todoItem);
+            rejectedIds.remove(todoItem.getId());
+        }
+
+        todoRepository.saveAll(updatedItems);
+        if (!updatedItems.isEmpty()) {
+            eventPublisher.publishEvent(new TodoItemsChangedEvent(
+                    updatedItems.stream().map(TodoItem::getId).toList()));
+        }
+
+        if (!rejectedIds.isEmpty()) {
+            logger.warn("Skipped buffered description updates for past due or missing items: {}", rejectedIds);
+        }
+        return List.copyOf(rejectedIds);
+    }
+
+    @Transactional
+    public void deleteTodoItem(Long id) {
+        logger.info("Deleting todo item with id: {}", id);
+
+        Optional<TodoItem> todoItem = todoRepository.findById(id);
+        if (todoItem.isPresent()) {
+            todoRepository.delete(todoItem.get());
+            tagIndex.stageRemoval(List.of(id));
+        } else if (archivedTodoItemRepository.existsById(id)) {
+            archivedTodoItemRepository.deleteById(id);
+        } else {
+            logger.debug("Todo item not found with id: {}", id);
+            throw new ResourceNotFoundException("Todo item not found with id: " + id);
+        }
+
+        eventPublisher.publishEvent(TodoItemsChangedEvent.of(id));
+    }
+
+    /**
+     * Deletes many live or archived items in one transaction, with one IN query per
+     * chunk and table. Unknown ids are reported instead of failing the request.
+     */
+    @Transactional
+    public TodoBulkDeleteResponse deleteTodoItems(List<Long> ids) {
+        List<Long> uniqueIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        logger.info("Deleting {} todo items", uniqueIds.size());
+
+        Set<Long> deleted = new HashSet<>(uniqueIds.size() * 2);
+        forEachChunk(uniqueIds, chunk -> {
+            List<TodoItem> items = todoRepository.findAllById(chunk);
+            todoRepository.deleteAllInBatch(items);
+            tagIndex.stageRemoval(items.stream().map(TodoItem::getId).toList());
+            items.forEach(item -> deleted.add(item.getId()));
+        });
+
+        List<Long> missing = uniqueIds.stream().filter(id -> !deleted.contains(id)).toList();
+        forEachChunk(missing, chunk -> {
+            List<ArchivedTodoItem> items = archivedTodoItemRepository.findAllById(chunk);
+            archivedTodoItemRepository.deleteAllInBatch(items);
+            items.forEach(item -> deleted.add(item.getId()));
+        });
+
+        List<Long> deletedIds = uniqueIds.stream().filter(deleted::contains).toList();
+        List<Long> notFound = uniqueIds.stream().filter(id -> !deleted.contains(id)).toList();
+        if (!deletedIds.isEmpty()) {
+            eventPublisher.publishEvent(new TodoItemsChangedEvent(deletedIds));
+        }
+        return new TodoBulkDeleteResponse(deletedIds, notFound);
+    }
+
     @Transactional
     public TodoResponse markAsDone(Long id) {
         return updateStatus(id, TodoItem.Status.DONE);
@@ -119,6 +386,8 @@ public class TodoService {
         int updatedCount = todoRepository.markPastDueItems(now);
 
         if (updatedCount > 0) {
+            eventPublisher.publishEvent(TodoItemsChangedEvent.pastDueSweep(now, 0, 1));
+            tagIndex.stagePastDueSweep(now, 0, 1);
             logger.info("Bulk update completed: {} todo items marked as PAST_DUE", updatedCount);
         } else {
             logger.debug("No past due todo items found to update");
@@ -127,12 +396,49 @@ public class TodoService {
         return updatedCount;
     }
 
+    /**
+     * Marks past due items whose id falls into {@code partition} out of {@code partitions},
+     * so several instances can sweep disjoint parts of the table.
+     */
+    @Transactional
+    public int updatePastDueItemsBulk(int partition, int partitions) {
+
+        LocalDateTime now = LocalDateTime.now();
+
+        int updatedCount = todoRepository.markPastDueItemsInPartition(now, partition, partitions);
+
+        if (updatedCount > 0) {
+            eventPublisher.publishEvent(TodoItemsChangedEvent.pastDueSweep(now, partition, partitions));
+            tagIndex.stagePastDueSweep(now, partition, partitions);
+            logger.info("Bulk update of partition {}/{} completed: {} todo items marked as PAST_DUE",
+                    partition, partitions, updatedCount);
+        }
+
+        return updatedCount;
+    }
+
+    /**
+     * In lazy past due mode nothing is written when items become past due, so this
+     * announces items whose due date passed in {@code [from, to)} as changed instead.
+     *
+     * @return number of items that became past due in the interval
+     */
+    @Transactional(readOnly = true)
+    public long announceItemsBecomingPastDue(LocalDateTime from, LocalDateTime to) {
+        long count = todoRepository.countItemsBecomingPastDue(from, to);
+        if (count > 0) {
+            eventPublisher.publishEvent(TodoItemsChangedEvent.bulk());
+            logger.debug("{} todo items became past due between {} and {}", count, from, to);
+        }
+        return count;
+    }
+
     private TodoResponse updateStatus(Long id, TodoItem.Status newStatus) {
         logger.info("Updating todo item status, id: {}, newStatus: {}", id, newStatus);
 
         TodoItem todoItem = findTodoItemOrThrow(id);
 
-        if (todoItem.isImmutable()) {
+        if (pastDuePolicy.isImmutable(todoItem)) {
             throw new ValidationException(
                     "Cannot change status of a past due item (id: " + id + ")"
             );
@@ -140,22 +446,83 @@ public class TodoService {
 
         if (todoItem.getStatus() == newStatus) {
             logger.info("Item {} is already marked as {}", id, newStatus);
-            return new TodoResponse(todoItem);
+            return pastDuePolicy.toResponse(todoItem);
         }
 
         todoItem.setStatus(newStatus);
         todoItem.setDoneDateTime(newStatus == TodoItem.Status.DONE ? LocalDateTime.now() : null);
 
         TodoItem updatedItem = todoRepository.save(todoItem);
+        eventPublisher.publishEvent(TodoItemsChangedEvent.of(id));
+        tagIndex.stage(updatedItem);
 
         logger.debug("Updated todo item id: {} to status {}", id, newStatus);
-        return new TodoResponse(updatedItem);
+        return pastDuePolicy.toResponse(updatedItem);
+    }
+
+    /**
+     * Tag query without the index, {@code status} may be null. In lazy past due mode, not
+     * done items are split by their due date: not yet due ones are not done, overdue ones
+     * are past due.
+     */
+    private Slice<TodoItem> findByTags(Set<String> tags, TodoItem.Status status, Pageable pageable) {
+        boolean lazy = pastDuePolicy.isLazy();
+        LocalDateTime now = LocalDateTime.now();
+
+        Collection<TodoItem.Status> statuses;
+        if (status == null) {
+            statuses = EnumSet.allOf(TodoItem.Status.class);
+        } else if (lazy && status == TodoItem.Status.PAST_DUE) {
+            statuses = EnumSet.of(TodoItem.Status.PAST_DUE, TodoItem.Status.NOT_DONE);
+        } else {
+            statuses = EnumSet.of(status);
+        }
+        LocalDateTime notDoneFrom = lazy && status == TodoItem.Status.NOT_DONE ? now : EARLIEST_DUE;
+        LocalDateTime notDoneBefore = lazy && status == TodoItem.Status.PAST_DUE ? now : LATEST_DUE;
+
+        return todoRepository.findByTags(tags, tags.size(), statuses, notDoneFrom, notDoneBefore, pageable);
+    }
+
+    /**
+     * Archived rows keep their stored status; live rows are read like entities, so lazy
+     * mode reports overdue not done items as past due.
+     */
+    private TodoItem.Status statusOf(ArchivedTodoItemRepository.TieredTodoRow row) {
+        TodoItem.Status status = TodoItem.Status.valueOf(row.getStatus());
+        return row.isArchived() ? status : pastDuePolicy.statusOf(status, row.getDueDateTime());
+    }
+
+    /**
+     * Sorted tags of the live rows of a page, with one query; archived items have none.
+     */
+    private Map<Long, List<String>> liveTags(List<ArchivedTodoItemRepository.TieredTodoRow> rows) {
+        List<Long> liveIds = rows.stream()
+                .filter(row -> !row.isArchived())
+                .map(ArchivedTodoItemRepository.TieredTodoRow::getId)
+                .toList();
+        if (liveIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, List<String>> tagsById = new HashMap<>();
+        for (ArchivedTodoItemRepository.ItemTag itemTag : archivedTodoItemRepository.findLiveTags(liveIds)) {
+            tagsById.computeIfAbsent(itemTag.getTodoItemId(), id -> new ArrayList<>()).add(itemTag.getTag());
+        }
+        return tagsById;
+    }
+
+    private static void forEachChunk(List<Long> ids, Consumer<List<Long>> action) {
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK_SIZE) {
+            action.accept(ids.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, ids.size())));
+        }
     }
 
     private TodoItem findTodoItemOrThrow(Long id) {
         return todoRepository.findById(id)
                 .orElseThrow(() -> {
-                    logger.warn("Todo item not found with id: {}", id);
+                    if (archivedTodoItemRepository.existsById(id)) {
+                        return new ValidationException("Cannot change an archived item (id: " + id + ")");
+                    }
+                    logger.debug("Todo item not found with id: {}", id);
                     return new ResourceNotFoundException("Todo item not found with id: " + id);
                 });
     }
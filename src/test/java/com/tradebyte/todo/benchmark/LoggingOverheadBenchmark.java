@@ -0,0 +1,211 @@
+package com.tradebyte.todo.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.JsonEncoder;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.tradebyte.todo.logging.RateLimitingTurboFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replays the log statements of a create / not-found read mix from many threads and
+ * reports the logging time per request: once with the previous setup (synchronous
+ * pattern output, INFO per request in controller and service, errors for 404s) and once
+ * with the current one (asynchronous JSON output, rate limits from
+ * {@code logback-spring.xml}, request logs at DEBUG). Output goes to a file, which is
+ * cheaper than a terminal, so the difference is a lower bound.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Logging Overhead Benchmark")
+class LoggingOverheadBenchmark {
+
+    private static final int THREADS = 8;
+    private static final int REQUESTS_PER_THREAD = 20_000;
+    private static final int WARM_UP_REQUESTS_PER_THREAD = 2_000;
+    private static final String DESCRIPTION = "Prepare the quarterly report for the review meeting with all figures";
+
+    @TempDir
+    Path logDir;
+
+    @Test
+    @DisplayName("Given the request path log statements, when logging asynchronously with rate limits, then cost less per request")
+    void givenRequestPathLogStatements_whenAsyncWithRateLimits_thenLessOverheadPerRequest() throws Exception {
+        Result before = measure("before", false);
+        Result after = measure("after", true);
+
+        System.out.printf("%-8s %12s %12s %12s%n", "setup", "requests", "ns/request", "log bytes");
+        System.out.printf("%-8s %12d %12d %12d%n", "before", before.requests, before.nanosPerRequest, before.bytes);
+        System.out.printf("%-8s %12d %12d %12d%n", "after", after.requests, after.nanosPerRequest, after.bytes);
+
+        assertThat(after.nanosPerRequest).isLessThan(before.nanosPerRequest);
+    }
+
+    private Result measure(String name, boolean current) throws Exception {
+        Path logFile = logDir.resolve(name + ".log");
+        LoggerContext context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        if (current) {
+            currentSetup(context, logFile);
+        } else {
+            previousSetup(context, logFile);
+        }
+        try {
+            Loggers loggers = new Loggers(context);
+            run(loggers, current, WARM_UP_REQUESTS_PER_THREAD);
+            long nanos = run(loggers, current, REQUESTS_PER_THREAD);
+            int requests = THREADS * REQUESTS_PER_THREAD;
+            context.stop();
+            return new Result(requests, nanos / requests * THREADS, Files.size(logFile));
+        } finally {
+            context.stop();
+        }
+    }
+
+    private long run(Loggers loggers, boolean current, int requestsPerThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (long id = 0; id < requestsPerThread; id++) {
+                        if (id % 4 == 3) {
+                            notFound(loggers, current, id);
+                        } else {
+                            create(loggers, current, id);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(5, TimeUnit.MINUTES);
+            }
+            return System.nanoTime() - startedAt;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void create(Loggers loggers, boolean current, long id) {
+        if (current) {
+            loggers.controller.debug("Received request to create todo item");
+            loggers.service.debug("Creating new todo item");
+            loggers.service.info("Created todo item with id: {}", id);
+        } else {
+            loggers.controller.info("Received request to create todo item");
+            loggers.service.info("Creating new todo item with description: {}", DESCRIPTION);
+            loggers.service.debug("Created todo item with id: {}", id);
+        }
+    }
+
+    private static void notFound(Loggers loggers, boolean current, long id) {
+        loggers.controller.debug("Received request to get todo item with id: {}", id);
+        loggers.service.debug("Fetching todo item with id: {}", id);
+        if (current) {
+            loggers.service.debug("Todo item not found with id: {}", id);
+            loggers.handler.debug("Resource not found: {}", "Todo item not found with id: " + id);
+        } else {
+            loggers.service.warn("Todo item not found with id: {}", id);
+            loggers.handler.error("Resource not found: {}", "Todo item not found with id: " + id);
+        }
+    }
+
+    private static void previousSetup(LoggerContext context, Path logFile) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%n");
+        encoder.start();
+
+        attachToRoot(context, fileAppender(context, logFile, encoder));
+    }
+
+    private static void currentSetup(LoggerContext context, Path logFile) {
+        context.addTurboFilter(rateLimit(context, "requests", 100,
+                "com.tradebyte.todo.controller", "com.tradebyte.todo.filter", "com.tradebyte.todo.exception"));
+        context.addTurboFilter(rateLimit(context, "service", 200, "com.tradebyte.todo.service"));
+
+        JsonEncoder encoder = new JsonEncoder();
+        encoder.setContext(context);
+        encoder.start();
+
+        AsyncAppender asyncAppender = new AsyncAppender();
+        asyncAppender.setContext(context);
+        asyncAppender.setName("ASYNC");
+        asyncAppender.setQueueSize(8192);
+        asyncAppender.setDiscardingThreshold(0);
+        asyncAppender.setNeverBlock(true);
+        asyncAppender.addAppender(fileAppender(context, logFile, encoder));
+        asyncAppender.start();
+
+        attachToRoot(context, asyncAppender);
+    }
+
+    private static RateLimitingTurboFilter rateLimit(LoggerContext context, String name, int maxPerSecond,
+                                                     String... loggerPrefixes) {
+        RateLimitingTurboFilter filter = new RateLimitingTurboFilter();
+        filter.setContext(context);
+        filter.setName(name);
+        for (String loggerPrefix : loggerPrefixes) {
+            filter.addLoggerPrefix(loggerPrefix);
+        }
+        filter.setMaxPerSecond(maxPerSecond);
+        filter.setSampleEvery(100);
+        filter.start();
+        return filter;
+    }
+
+    private static FileAppender<ILoggingEvent> fileAppender(LoggerContext context, Path logFile,
+                                                            Encoder<ILoggingEvent> encoder) {
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setName("FILE");
+        appender.setFile(logFile.toString());
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+
+    private static void attachToRoot(LoggerContext context, Appender<ILoggingEvent> appender) {
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+    }
+
+    private record Loggers(Logger controller, Logger service, Logger handler) {
+
+        private Loggers(LoggerContext context) {
+            this(context.getLogger("com.tradebyte.todo.controller.TodoController"),
+                    context.getLogger("com.tradebyte.todo.service.TodoService"),
+                    context.getLogger("com.tradebyte.todo.exception.GlobalExceptionHandler"));
+        }
+    }
+
+    private record Result(int requests, long nanosPerRequest, long bytes) {}
+}
@@ -0,0 +1,82 @@
+package com.tradebyte.todo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo.config.BinaryContentConfig;
+import com.tradebyte.todo.dto.TodoResponse;
+import com.tradebyte.todo.dto.TodoSliceResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares payload size and serialization time of a full list page in JSON and CBOR,
+ * using the same object mapper setup as the running service.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Payload Encoding Benchmark")
+class PayloadEncodingBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 50_000;
+
+    @Test
+    @DisplayName("Given a full list page, when encoding as CBOR, then the payload is smaller than JSON")
+    void givenFullListPage_whenEncodingAsCbor_thenPayloadSmallerThanJson() throws Exception {
+        TodoSliceResponse<TodoResponse> page = samplePage();
+
+        ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper cborMapper = BinaryContentConfig.cborObjectMapper();
+
+        Result json = measure(jsonMapper, page);
+        Result cbor = measure(cborMapper, page);
+
+        System.out.printf("%-6s %10s %14s%n", "format", "bytes", "micros/page");
+        System.out.printf("%-6s %10d %14.1f%n", "json", json.bytes, json.microsPerPage);
+        System.out.printf("%-6s %10d %14.1f%n", "cbor", cbor.bytes, cbor.microsPerPage);
+
+        assertThat(cbor.bytes).isLessThan(json.bytes);
+    }
+
+    private Result measure(ObjectMapper mapper, TodoSliceResponse<TodoResponse> page) throws Exception {
+        int bytes = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            bytes = mapper.writeValueAsBytes(page).length;
+        }
+
+        long startedAt = System.nanoTime();
+        long sink = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink += mapper.writeValueAsBytes(page).length;
+        }
+        double micros = (System.nanoTime() - startedAt) / 1_000.0 / MEASURED_ITERATIONS;
+
+        assertThat(sink).isPositive();
+        return new Result(bytes, micros);
+    }
+
+    private TodoSliceResponse<TodoResponse> samplePage() {
+        LocalDateTime now = LocalDateTime.now();
+        List<TodoResponse> items = IntStream.range(0, PAGE_SIZE)
+                .mapToObj(i -> TodoResponse.builder()
+                        .id((long) i)
+                        .description("Prepare release notes for sprint " + i)
+                        .status(i % 3 == 0 ? "done" : "not done")
+                        .creationDateTime(now.minusDays(i))
+                        .dueDateTime(now.plusDays(i))
+                        .doneDateTime(i % 3 == 0 ? now : null)
+                        .build())
+                .toList();
+        return new TodoSliceResponse<>(items, 0, PAGE_SIZE, true);
+    }
+
+    private record Result(int bytes, double microsPerPage) {}
+}
@@ -0,0 +1,93 @@
+package com.tradebyte.todo.benchmark;
+
+import com.tradebyte.todo.dto.TodoResponse;
+import com.tradebyte.todo.service.TodoReadCoalescer;
+import com.tradebyte.todo.service.TodoService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hammers a handful of hot ids from many threads and counts how many lookups reach
+ * {@link TodoService}, once with and once without read coalescing.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Read Coalescing Benchmark")
+class ReadCoalescingBenchmark {
+
+    private static final int THREADS = 64;
+    private static final int REQUESTS_PER_THREAD = 200;
+    private static final int HOT_IDS = 4;
+    private static final long DB_LATENCY_MICROS = 500;
+
+    @Test
+    @DisplayName("Given bursty reads of hot ids, when coalescing is enabled, then far fewer lookups reach the database")
+    void givenBurstyReadsOfHotIds_whenCoalescingEnabled_thenFewerDatabaseCalls() throws Exception {
+        Result uncoalesced = run(false);
+        Result coalesced = run(true);
+
+        System.out.printf("%-12s %10s %12s %10s%n", "mode", "requests", "db calls", "millis");
+        System.out.printf("%-12s %10d %12d %10d%n", "direct", uncoalesced.requests, uncoalesced.dbCalls, uncoalesced.millis);
+        System.out.printf("%-12s %10d %12d %10d%n", "coalesced", coalesced.requests, coalesced.dbCalls, coalesced.millis);
+
+        assertThat(uncoalesced.dbCalls).isEqualTo(uncoalesced.requests);
+        assertThat(coalesced.dbCalls).isLessThan(uncoalesced.dbCalls / 4);
+    }
+
+    private Result run(boolean coalescing) throws Exception {
+        AtomicInteger dbCalls = new AtomicInteger();
+        TodoService todoService = mock(TodoService.class);
+        when(todoService.getTodoItem(anyLong())).thenAnswer(invocation -> {
+            dbCalls.incrementAndGet();
+            TimeUnit.MICROSECONDS.sleep(DB_LATENCY_MICROS);
+            Long id = invocation.getArgument(0);
+            return TodoResponse.builder().id(id).description("Hot item " + id).status("not done").build();
+        });
+
+        TodoReadCoalescer coalescer = new TodoReadCoalescer(todoService, coalescing);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t;
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                        coalescer.getTodoItem((long) ((offset + i) % HOT_IDS));
+                    }
+                    return null;
+                }));
+            }
+
+            long startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(2, TimeUnit.MINUTES);
+            }
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+            return new Result(THREADS * REQUESTS_PER_THREAD, dbCalls.get(), millis);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private record Result(int requests, int dbCalls, long millis) {}
+}
@@ -0,0 +1,133 @@
+package com.tradebyte.todo.benchmark;
+
+import com.tradebyte.todo.TodoServiceApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the service in fresh JVMs and measures the time until the actuator health
+ * endpoint reports UP, with the default and the prod profile. When the classes were
+ * AOT-processed ({@code mvn package -Pfast-startup}), the AOT mode is measured as well.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Startup Time Benchmark")
+class StartupTimeBenchmark {
+
+    private static final int RUNS = 3;
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(2);
+    private static final String AOT_INITIALIZER =
+            TodoServiceApplication.class.getName() + "__ApplicationContextInitializer";
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    @Test
+    @DisplayName("Given a fresh JVM, when starting with each startup mode, then report time to ready")
+    void givenFreshJvm_whenStartingWithEachMode_thenReportTimeToReady() throws Exception {
+        List<Mode> modes = new ArrayList<>(List.of(
+                new Mode("default", "default", false),
+                new Mode("prod", "prod", false)));
+        if (isAotProcessed()) {
+            modes.add(new Mode("prod + aot", "prod", true));
+        }
+
+        System.out.printf("%-12s %12s %12s%n", "mode", "best millis", "avg millis");
+        for (Mode mode : modes) {
+            long best = Long.MAX_VALUE;
+            long total = 0;
+            for (int run = 0; run < RUNS; run++) {
+                long millis = timeToReady(mode);
+                best = Math.min(best, millis);
+                total += millis;
+            }
+            System.out.printf("%-12s %12d %12d%n", mode.name(), best, total / RUNS);
+            assertThat(best).isLessThan(READY_TIMEOUT.toMillis());
+        }
+    }
+
+    private long timeToReady(Mode mode) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(List.of(
+                ProcessHandle.current().info().command().orElse("java"),
+                "-cp", System.getProperty("java.class.path")));
+        if (mode.aot()) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.addAll(List.of(
+                TodoServiceApplication.class.getName(),
+                "--server.port=" + port,
+                "--spring.profiles.active=" + mode.profile(),
+                "--spring.datasource.url=jdbc:h2:mem:startup-" + port,
+                "--todo.scheduler.enabled=false"));
+
+        long startedAt = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(new File(System.getProperty("java.io.tmpdir"), "startup-benchmark-" + port + ".log"))
+                .start();
+        try {
+            URI health = URI.create("http://localhost:" + port + "/api/actuator/health");
+            long deadline = startedAt + READY_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Service exited with code " + process.exitValue());
+                }
+                if (isUp(health)) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+                }
+                TimeUnit.MILLISECONDS.sleep(20);
+            }
+            throw new IllegalStateException("Service did not become ready within " + READY_TIMEOUT);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private boolean isUp(URI health) throws InterruptedException {
+        try {
+            HttpResponse<String> response = httpClient.send(
+                    HttpRequest.newBuilder(health).timeout(Duration.ofSeconds(1)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            return response.statusCode() == 200 && response.body().contains("\"UP\"");
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private static boolean isAotProcessed() {
+        try {
+            Class.forName(AOT_INITIALIZER);
+            return true;
+        } catch (ClassNotFoundException ex) {
+            return false;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Mode(String name, String profile, boolean aot) {}
+}
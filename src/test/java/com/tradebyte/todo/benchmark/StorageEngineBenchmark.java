@@ -0,0 +1,133 @@
+package com.tradebyte.todo.benchmark;
+
+import com.tradebyte.todo.TodoServiceApplication;
+import com.tradebyte.todo.dto.TodoRequest;
+import com.tradebyte.todo.dto.UpdateDescriptionRequest;
+import com.tradebyte.todo.service.TodoService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the same create / read / update workload through {@link TodoService} against the
+ * in-memory H2 database, a file-based H2 database and the log-structured repository,
+ * and reports throughput and latency percentiles per operation.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Storage Engine Benchmark")
+class StorageEngineBenchmark {
+
+    private static final int THREADS = 8;
+    private static final int ITEMS_PER_THREAD = 1_000;
+    private static final int WARM_UP_ITEMS_PER_THREAD = 200;
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    @DisplayName("Given each storage engine, when running the same workload, then report throughput and latency")
+    void givenEachStorageEngine_whenRunningSameWorkload_thenReportThroughputAndLatency() throws Exception {
+        List<Engine> engines = List.of(
+                new Engine("h2 mem"),
+                new Engine("h2 file",
+                        "--spring.datasource.url=jdbc:h2:file:" + dataDir.resolve("h2/todo")),
+                new Engine("log",
+                        "--todo.storage.engine=log",
+                        "--todo.storage.log.directory=" + dataDir.resolve("log")));
+
+        System.out.printf("%-8s %-7s %10s %10s %10s%n", "engine", "op", "ops/s", "p50 us", "p99 us");
+        for (Engine engine : engines) {
+            try (ConfigurableApplicationContext context = start(engine)) {
+                TodoService todoService = context.getBean(TodoService.class);
+                run(todoService, WARM_UP_ITEMS_PER_THREAD);
+                List<Result> results = run(todoService, ITEMS_PER_THREAD);
+                for (Result result : results) {
+                    System.out.printf("%-8s %-7s %10d %10d %10d%n", engine.name(), result.operation(),
+                            result.opsPerSecond(), result.percentileMicros(0.5), result.percentileMicros(0.99));
+                    assertThat(result.latencies()).hasSize(THREADS * ITEMS_PER_THREAD);
+                }
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext start(Engine engine) {
+        List<String> args = new ArrayList<>(List.of(
+                "--todo.scheduler.enabled=false",
+                "--todo.warmup.enabled=false",
+                "--todo.read.coalescing.enabled=false"));
+        args.addAll(Arrays.asList(engine.args()));
+        return new SpringApplicationBuilder(TodoServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+    }
+
+    private List<Result> run(TodoService todoService, int itemsPerThread) throws Exception {
+        long[][] ids = new long[THREADS][itemsPerThread];
+        Result create = measure("create", itemsPerThread, (thread, i) -> ids[thread][i] = todoService.createTodoItem(
+                new TodoRequest("Benchmark item " + i, LocalDateTime.now().plusDays(1))).id());
+        Result read = measure("read", itemsPerThread, (thread, i) -> todoService.getTodoItem(ids[thread][i]));
+        Result update = measure("update", itemsPerThread, (thread, i) -> todoService.updateDescription(
+                ids[thread][i], new UpdateDescriptionRequest("Updated benchmark item " + i)));
+        return List.of(create, read, update);
+    }
+
+    private Result measure(String operation, int itemsPerThread, Operation body) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long[] latencies = new long[THREADS * itemsPerThread];
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            long startedAt = System.nanoTime();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < itemsPerThread; i++) {
+                        long opStartedAt = System.nanoTime();
+                        body.run(thread, i);
+                        latencies[thread * itemsPerThread + i] = System.nanoTime() - opStartedAt;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get(5, TimeUnit.MINUTES);
+            }
+            long elapsedNanos = System.nanoTime() - startedAt;
+            Arrays.sort(latencies);
+            return new Result(operation, latencies, latencies.length * TimeUnit.SECONDS.toNanos(1) / elapsedNanos);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run(int thread, int i);
+    }
+
+    private record Engine(String name, String... args) {}
+
+    private record Result(String operation, long[] latencies, long opsPerSecond) {
+
+        long percentileMicros(double percentile) {
+            int index = Math.min(latencies.length - 1, (int) (latencies.length * percentile));
+            return TimeUnit.NANOSECONDS.toMicros(latencies[index]);
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package com.tradebyte.todo.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo.config.BinaryContentConfig;
+import com.tradebyte.todo.dto.TodoBulkDeleteRequest;
+import com.tradebyte.todo.dto.TodoBulkDeleteResponse;
+import com.tradebyte.todo.dto.TodoLookupRequest;
+import com.tradebyte.todo.dto.TodoLookupResponse;
 import com.tradebyte.todo.dto.TodoRequest;
 import com.tradebyte.todo.dto.TodoResponse;
 import com.tradebyte.todo.dto.UpdateDescriptionRequest;
 import com.tradebyte.todo.exception.ResourceNotFoundException;
 import com.tradebyte.todo.exception.ValidationException;
+import com.tradebyte.todo.service.TodoReadCoalescer;
 import com.tradebyte.todo.service.TodoService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,18 +21,25 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TodoController.class)
+@Import(TodoReadCoalescer.class)
 @DisplayName("Todo Controller Tests")
 class TodoControllerTest {
 
@@ -159,6 +173,37 @@ class TodoControllerTest {
                     .andExpect(status().isNotFound())
                     .andExpect(jsonPath("$.message").value("Todo item not found with id: 999"));
         }
+
+        @Test
+        @DisplayName("Given CBOR accept header, when getting todo item, then return CBOR body with epoch millis timestamps")
+        void givenCborAcceptHeader_whenGetTodoItem_thenReturnCborWithEpochMillis() throws Exception {
+            // Given
+            Long todoId = 1L;
+            TodoResponse response = TodoResponse.builder()
+                    .id(todoId)
+                    .description("Review pull requests")
+                    .status("not done")
+                    .dueDateTime(futureDateTime)
+                    .build();
+
+            when(todoService.getTodoItem(todoId)).thenReturn(response);
+
+            // When
+            byte[] body = mockMvc.perform(get("/v1/todos/{id}", todoId)
+                            .accept(MediaType.APPLICATION_CBOR))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsByteArray();
+
+            // Then
+            JsonNode decoded = BinaryContentConfig.cborObjectMapper().readTree(body);
+            assertThat(decoded.get("description").asText()).isEqualTo("Review pull requests");
+            assertThat(decoded.get("dueDateTime").isIntegralNumber()).isTrue();
+            assertThat(decoded.get("dueDateTime").asLong())
+                    .isEqualTo(futureDateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
     }
 
     @Nested
@@ -211,6 +256,44 @@ class TodoControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("POST /v1/todos/lookup - Get Todo Items By Ids")
+    class LookupTodoItemsTests {
+
+        @Test
+        @DisplayName("Given list of ids, when looking up todo items, then return 200 OK with items and misses")
+        void givenListOfIds_whenLookupTodoItems_thenReturnOk() throws Exception {
+            // Given
+            TodoResponse item = TodoResponse.builder()
+                    .id(1L)
+                    .description("Complete project documentation")
+                    .status("not done")
+                    .build();
+
+            when(todoService.getTodoItems(List.of(1L, 999L)))
+                    .thenReturn(new TodoLookupResponse(List.of(item), List.of(999L)));
+
+            // When & Then
+            mockMvc.perform(post("/v1/todos/lookup")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new TodoLookupRequest(List.of(1L, 999L)))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[0].id").value(1L))
+                    .andExpect(jsonPath("$.notFound[0]").value(999L));
+        }
+
+        @Test
+        @DisplayName("Given empty list of ids, when looking up todo items, then return 400 BAD_REQUEST")
+        void givenEmptyListOfIds_whenLookupTodoItems_thenReturnBadRequest() throws Exception {
+            // When & Then
+            mockMvc.perform(post("/v1/todos/lookup")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new TodoLookupRequest(List.of()))))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.details.ids").exists());
+        }
+    }
+
     @Nested
     @DisplayName("PATCH /v1/todos/{id}/done - Mark Todo as Done")
     class MarkAsDoneTests {
@@ -277,4 +360,47 @@ class TodoControllerTest {
                     .andExpect(jsonPath("$.status").value("not done"));
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Delete Todo Items")
+    class DeleteTodoItemTests {
+
+        @Test
+        @DisplayName("Given existing todo item, when deleting it, then return 204 No Content")
+        void givenExistingTodoItem_whenDelete_thenReturnNoContent() throws Exception {
+            // When & Then
+            mockMvc.perform(delete("/v1/todos/{id}", 1L))
+                    .andExpect(status().isNoContent());
+
+            verify(todoService).deleteTodoItem(1L);
+        }
+
+        @Test
+        @DisplayName("Given non-existing todo item, when deleting it, then return 404 Not Found")
+        void givenNonExistingTodoItem_whenDelete_thenReturnNotFound() throws Exception {
+            // Given
+            doThrow(new ResourceNotFoundException("Todo item not found with id: 999"))
+                    .when(todoService).deleteTodoItem(999L);
+
+            // When & Then
+            mockMvc.perform(delete("/v1/todos/{id}", 999L))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("Given known and unknown ids, when bulk deleting, then return deleted and not found ids")
+        void givenKnownAndUnknownIds_whenBulkDelete_thenReturnDeletedAndNotFound() throws Exception {
+            // Given
+            when(todoService.deleteTodoItems(List.of(1L, 2L, 99L)))
+                    .thenReturn(new TodoBulkDeleteResponse(List.of(1L, 2L), List.of(99L)));
+
+            // When & Then
+            mockMvc.perform(post("/v1/todos/bulk-delete")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new TodoBulkDeleteRequest(List.of(1L, 2L, 99L)))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.deleted.length()").value(2))
+                    .andExpect(jsonPath("$.notFound[0]").value(99));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.tradebyte.todo.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Read Write Routing Data Source Tests")
+class ReadWriteRoutingDataSourceTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<ReadWriteRoutingDataSource> dataSources = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        dataSources.forEach(ReadWriteRoutingDataSource::close);
+    }
+
+    @Test
+    @DisplayName("Given a read-only transaction, when fetching connections, then take them from the replicas in turn")
+    void givenReadOnlyTransaction_whenFetchingConnections_thenUseReplicasInTurn() throws SQLException {
+        // Given
+        ReadWriteRoutingDataSource routing = routing(h2("replica-1"), h2("replica-2"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When
+        List<String> urls = List.of(url(routing), url(routing), url(routing), url(routing));
+
+        // Then
+        assertThat(urls).filteredOn(url -> url.contains("replica-1")).hasSize(2);
+        assertThat(urls).filteredOn(url -> url.contains("replica-2")).hasSize(2);
+        assertThat(routed("primary")).isZero();
+    }
+
+    @Test
+    @DisplayName("Given a read-write transaction, when fetching a connection, then take it from the primary")
+    void givenReadWriteTransaction_whenFetchingConnection_thenUsePrimary() throws SQLException {
+        // Given
+        ReadWriteRoutingDataSource routing = routing(h2("replica-1"));
+
+        // When & Then
+        assertThat(url(routing)).contains("primary");
+        assertThat(routed("primary")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given a thread pinned to the primary, when fetching a connection for a read, then take it from the primary")
+    void givenPinnedThread_whenFetchingConnectionForRead_thenUsePrimary() throws SQLException {
+        // Given
+        ReadWriteRoutingDataSource routing = routing(h2("replica-1"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When
+        String url;
+        try (DataSourceRouting.Pin ignored = DataSourceRouting.pinToPrimary()) {
+            url = url(routing);
+        }
+
+        // Then
+        assertThat(url).contains("primary");
+        assertThat(DataSourceRouting.isPrimaryRequired()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Given a replica failing its health check, when fetching connections for reads, then skip it")
+    void givenUnhealthyReplica_whenFetchingConnectionsForReads_thenSkipIt() throws SQLException {
+        // Given
+        HikariDataSource broken = new HikariDataSource();
+        broken.setPoolName("replica-2");
+        broken.setJdbcUrl("jdbc:h2:tcp://localhost:1/unreachable");
+        broken.setConnectionTimeout(250);
+        ReadWriteRoutingDataSource routing = routing(h2("replica-1"), broken);
+
+        // When
+        routing.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        List<String> urls = List.of(url(routing), url(routing), url(routing));
+
+        // Then
+        assertThat(routing.isHealthy("replica-1")).isTrue();
+        assertThat(routing.isHealthy("replica-2")).isFalse();
+        assertThat(urls).allMatch(url -> url.contains("replica-1"));
+        assertThat(meterRegistry.get("todo.datasource.replica.healthy").tag("pool", "replica-2").gauge().value())
+                .isZero();
+    }
+
+    private ReadWriteRoutingDataSource routing(HikariDataSource... replicas) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+                h2("primary"), List.of(replicas), 60_000, 1, meterRegistry);
+        dataSources.add(routing);
+        return routing;
+    }
+
+    private static HikariDataSource h2(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID());
+        dataSource.setMaximumPoolSize(2);
+        return dataSource;
+    }
+
+    private static String url(ReadWriteRoutingDataSource routing) throws SQLException {
+        try (Connection connection = routing.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+
+    private double routed(String pool) {
+        return meterRegistry.get("todo.datasource.routed").tag("pool", pool).counter().count();
+    }
+}
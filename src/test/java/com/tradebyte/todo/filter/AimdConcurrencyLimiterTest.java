@@ -0,0 +1,74 @@
+package com.tradebyte.todo.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AIMD Concurrency Limiter Tests")
+class AimdConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    @DisplayName("Given limit reached, when acquiring, then reject until a permit is released")
+    void givenLimitReached_whenAcquire_thenRejectUntilReleased() {
+        // Given
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(2, 4, 100, 0.5);
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+
+        // When & Then
+        assertThat(limiter.tryAcquire()).isFalse();
+        limiter.release(FAST);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Given slow responses, when releasing, then shrink the limit down to the minimum")
+    void givenSlowResponses_whenRelease_thenShrinkLimitToMinimum() {
+        // Given
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(2, 100, 100, 0.5);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(SLOW);
+        }
+
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Given fast responses at high utilisation, when releasing, then grow the limit up to the maximum")
+    void givenFastResponsesAtHighUtilisation_whenRelease_thenGrowLimitToMaximum() {
+        // Given
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(2, 10, 100, 0.5);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            while (limiter.tryAcquire()) {
+                // saturate the limiter
+            }
+            limiter.release(FAST);
+        }
+
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Given request paths, when classifying requests, then pick the matching request class")
+    void givenRequestPaths_whenClassify_thenPickRequestClass() {
+        assertThat(ConcurrencyLimitFilter.classify("POST", "/v1/todos/lookup"))
+                .isEqualTo(ConcurrencyLimitFilter.RequestClass.BULK);
+        assertThat(ConcurrencyLimitFilter.classify("GET", "/v1/todos/1"))
+                .isEqualTo(ConcurrencyLimitFilter.RequestClass.READ);
+        assertThat(ConcurrencyLimitFilter.classify("PATCH", "/v1/todos/1/done"))
+                .isEqualTo(ConcurrencyLimitFilter.RequestClass.WRITE);
+    }
+}
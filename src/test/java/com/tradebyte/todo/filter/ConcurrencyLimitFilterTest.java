@@ -0,0 +1,109 @@
+package com.tradebyte.todo.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo.filter.ConcurrencyLimitFilter.RequestClass;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Concurrency Limit Filter Tests")
+class ConcurrencyLimitFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private SimpleMeterRegistry meterRegistry;
+    private AimdConcurrencyLimiter readLimiter;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        readLimiter = new AimdConcurrencyLimiter(1, 1, 100, 0.5);
+        filter = new ConcurrencyLimitFilter(Map.of(
+                RequestClass.READ, readLimiter,
+                RequestClass.WRITE, new AimdConcurrencyLimiter(1, 1, 100, 0.5),
+                RequestClass.BULK, new AimdConcurrencyLimiter(1, 1, 100, 0.5)
+        ), objectMapper, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Given the read limit is saturated, when a read arrives, then reject it with 503 and Retry-After")
+    void givenReadLimitSaturated_whenReadArrives_thenRejectWith503() throws Exception {
+        // Given
+        assertThat(readLimiter.tryAcquire()).isTrue();
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(read("/api/v1/todos/1"), response, chain);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertThat(body.get("status").asInt()).isEqualTo(503);
+        assertThat(body.get("message").asText()).isEqualTo("Service is overloaded, please retry later");
+        assertThat(body.get("path").asText()).isEqualTo("uri=/api/v1/todos/1");
+        assertThat(chain.getRequest()).isNull();
+        assertThat(meterRegistry.get("todo.concurrency.rejected").tag("class", "read").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("todo.concurrency.rejected").tag("class", "write").counter().count())
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("Given the request fails downstream, when it completes, then release its capacity")
+    void givenRequestFailsDownstream_whenCompletes_thenReleaseCapacity() throws Exception {
+        // Given
+        FilterChain failingChain = (request, response) -> {
+            throw new IllegalStateException("Downstream failure");
+        };
+
+        // When
+        assertThatThrownBy(() -> filter.doFilter(read("/api/v1/todos/1"), new MockHttpServletResponse(), failingChain))
+                .isInstanceOf(IllegalStateException.class);
+
+        // Then
+        assertThat(readLimiter.getInFlight()).isZero();
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(read("/api/v1/todos/1"), response, chain);
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Given the read limit is saturated, when waiting for a commit, then let the long poll through")
+    void givenReadLimitSaturated_whenWaitingForCommit_thenLetLongPollThrough() throws Exception {
+        // Given
+        assertThat(readLimiter.tryAcquire()).isTrue();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(read("/api/v1/todos/1/committed"), new MockHttpServletResponse(), chain);
+
+        // Then
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(meterRegistry.get("todo.concurrency.rejected").tag("class", "read").counter().count()).isZero();
+    }
+
+    private static MockHttpServletRequest read(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setContextPath("/api");
+        return request;
+    }
+}
@@ -0,0 +1,214 @@
+package com.tradebyte.todo.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo.dto.TodoRequest;
+import com.tradebyte.todo.dto.TodoResponse;
+import com.tradebyte.todo.dto.UpdateDescriptionRequest;
+import com.tradebyte.todo.repository.IdempotencyRecordRepository;
+import com.tradebyte.todo.repository.TodoRepository;
+import com.tradebyte.todo.service.TodoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "todo.idempotency.store=jdbc",
+        "todo.scheduler.enabled=false"
+})
+@AutoConfigureMockMvc
+@DisplayName("Idempotency Filter Tests")
+class IdempotencyFilterTest {
+
+    private static final String CLIENT_ADDRESS = "192.0.2.10";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private String createBody;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        todoRepository.deleteAll();
+        idempotencyRecordRepository.deleteAll();
+        createBody = objectMapper.writeValueAsString(
+                new TodoRequest("Idempotent description", LocalDateTime.now().plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Given a created item, when the create is retried with the same key, then replay the first response")
+    void givenCreatedItem_whenRetriedWithSameKey_thenReplayFirstResponse() throws Exception {
+        // Given
+        MvcResult first = create("create-once").andExpect(status().isCreated()).andReturn();
+        TodoResponse created = readResponse(first.getResponse().getContentAsString());
+
+        // When & Then
+        create("create-once")
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.id").value(created.id()));
+        assertThat(todoRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given a used key, when it is sent with a different body, then reject with 422")
+    void givenUsedKey_whenSentWithDifferentBody_thenReject() throws Exception {
+        // Given
+        TodoResponse item = todoService.createTodoItem(new TodoRequest("Original", LocalDateTime.now().plusDays(1)));
+        updateDescription(item.id(), "first-update", "First").andExpect(status().isOk());
+
+        // When & Then
+        updateDescription(item.id(), "first-update", "Second").andExpect(status().isUnprocessableEntity());
+        assertThat(todoService.getTodoItem(item.id()).description()).isEqualTo("First");
+    }
+
+    @Test
+    @DisplayName("Given concurrent duplicates of a create, when they run, then create a single item")
+    void givenConcurrentDuplicates_whenRun_thenCreateSingleItem() throws Exception {
+        // Given
+        int duplicates = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(duplicates);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<MvcResult>> results = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < duplicates; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return create("concurrent-create").andReturn();
+                }));
+            }
+            start.countDown();
+
+            // Then
+            List<Long> ids = new ArrayList<>();
+            for (Future<MvcResult> result : results) {
+                MvcResult mvcResult = result.get();
+                assertThat(mvcResult.getResponse().getStatus()).isEqualTo(201);
+                ids.add(readResponse(mvcResult.getResponse().getContentAsString()).id());
+            }
+            assertThat(ids).containsOnly(ids.get(0));
+            assertThat(todoRepository.count()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Given a claim abandoned by a crashed instance, when the create is retried, then execute it")
+    void givenAbandonedClaim_whenRetried_thenExecute() throws Exception {
+        // Given
+        MockHttpServletRequest lostRequest = new MockHttpServletRequest("POST", "/v1/todos");
+        lostRequest.setRemoteAddr(CLIENT_ADDRESS);
+        idempotencyRecordRepository.create(IdempotencyFilter.storeKey(lostRequest, "/v1/todos", "abandoned-create"),
+                "fingerprint of the lost request", LocalDateTime.now().minusHours(1));
+
+        // When & Then
+        create("abandoned-create")
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+        assertThat(todoRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given a key used by one client, when another client sends the same key, then execute it for that client")
+    void givenKeyUsedByOneClient_whenAnotherClientSendsIt_thenExecute() throws Exception {
+        // Given
+        MvcResult first = mockMvc.perform(createRequest("shared-key")
+                        .header(ReadYourWritesFilter.CLIENT_ID_HEADER, "client-a"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        TodoResponse created = readResponse(first.getResponse().getContentAsString());
+
+        // When & Then
+        MvcResult second = mockMvc.perform(createRequest("shared-key")
+                        .header(ReadYourWritesFilter.CLIENT_ID_HEADER, "client-b"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn();
+        assertThat(readResponse(second.getResponse().getContentAsString()).id()).isNotEqualTo(created.id());
+        assertThat(todoRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Given a response stored as CBOR, when the retry accepts JSON, then do not replay the CBOR body")
+    void givenResponseStoredAsCbor_whenRetryAcceptsJson_thenDoNotReplayCbor() throws Exception {
+        // Given
+        mockMvc.perform(createRequest("cbor-create").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+
+        // When & Then
+        mockMvc.perform(createRequest("cbor-create").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        mockMvc.perform(createRequest("cbor-create").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+    }
+
+    private ResultActions create(String idempotencyKey) throws Exception {
+        return mockMvc.perform(createRequest(idempotencyKey));
+    }
+
+    private MockHttpServletRequestBuilder createRequest(String idempotencyKey) {
+        return post("/v1/todos")
+                .with(request -> {
+                    request.setRemoteAddr(CLIENT_ADDRESS);
+                    return request;
+                })
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(createBody);
+    }
+
+    private ResultActions updateDescription(Long id, String idempotencyKey,
+                                                                                 String description) throws Exception {
+        return mockMvc.perform(patch("/v1/todos/{id}/description", id)
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UpdateDescriptionRequest(description))));
+    }
+
+    private TodoResponse readResponse(String body) throws Exception {
+        return objectMapper.readValue(body, TodoResponse.class);
+    }
+}
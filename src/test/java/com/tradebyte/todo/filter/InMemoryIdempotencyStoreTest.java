@@ -0,0 +1,49 @@
+package com.tradebyte.todo.filter;
+
+import com.tradebyte.todo.filter.IdempotencyStore.StoredResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("In-Memory Idempotency Store Tests")
+class InMemoryIdempotencyStoreTest {
+
+    private static final StoredResponse CREATED = new StoredResponse(201, "application/json", null, new byte[]{'{', '}'});
+
+    @Test
+    @DisplayName("Given a completed key, when it expires, then the next claim executes again")
+    void givenCompletedKey_whenExpired_thenClaimAgain() throws InterruptedException {
+        // Given
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(50, 1000, 10, new SimpleMeterRegistry());
+        assertThat(store.claim("key", "fingerprint")).isNull();
+        store.complete("key", CREATED);
+        assertThat(store.claim("key", "fingerprint").response()).isEqualTo(CREATED);
+
+        // When
+        Thread.sleep(100);
+
+        // Then
+        assertThat(store.claim("key", "fingerprint")).isNull();
+    }
+
+    @Test
+    @DisplayName("Given a full store, when a new key is claimed, then evict the oldest key")
+    void givenFullStore_whenNewKeyClaimed_thenEvictOldest() {
+        // Given
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(60_000, 1000, 2, new SimpleMeterRegistry());
+        store.claim("first", "fingerprint");
+        store.complete("first", CREATED);
+        store.claim("second", "fingerprint");
+        store.complete("second", CREATED);
+
+        // When
+        store.claim("third", "fingerprint");
+
+        // Then
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.claim("second", "fingerprint").isInFlight()).isFalse();
+        assertThat(store.claim("first", "fingerprint")).isNull();
+    }
+}
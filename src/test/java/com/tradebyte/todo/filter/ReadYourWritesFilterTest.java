@@ -0,0 +1,140 @@
+package com.tradebyte.todo.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo.datasource.StandInReplicator;
+import com.tradebyte.todo.dto.TodoRequest;
+import com.tradebyte.todo.dto.TodoResponse;
+import com.tradebyte.todo.dto.UpdateDescriptionRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs against a primary and a replica, two in-memory H2 databases kept in sync by the
+ * {@link StandInReplicator} with an artificial lag.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:read-your-writes-primary",
+        "todo.datasource.routing.enabled=true",
+        "todo.datasource.routing.replica-urls=jdbc:h2:mem:read-your-writes-replica",
+        "todo.datasource.routing.read-your-writes-ms=60000",
+        "todo.datasource.routing.stand-in-replicator.enabled=true",
+        "todo.datasource.routing.stand-in-replicator.delay-ms=1000",
+        "todo.response-cache.enabled=true",
+        "todo.scheduler.enabled=false",
+        "todo.warmup.enabled=false"
+})
+@AutoConfigureMockMvc
+@DisplayName("Read Your Writes Filter Tests")
+class ReadYourWritesFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StandInReplicator replicator;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Given a client that just created an item, when it reads the item before replication, then serve it from the primary")
+    void givenClientThatJustCreatedItem_whenReadingBeforeReplication_thenServeFromPrimary() throws Exception {
+        // Given
+        TodoResponse created = create("writer-1");
+        double pinnedBefore = pinnedReads();
+
+        // When & Then
+        mockMvc.perform(get("/v1/todos/{id}", created.id()).header(ReadYourWritesFilter.CLIENT_ID_HEADER, "writer-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Replicated item"));
+        assertThat(pinnedReads()).isEqualTo(pinnedBefore + 1);
+    }
+
+    @Test
+    @DisplayName("Given an item created by another client, when reading it, then serve the replica once it caught up")
+    void givenItemCreatedByAnotherClient_whenReading_thenServeReplicaOnceCaughtUp() throws Exception {
+        // Given
+        TodoResponse created = create("writer-2");
+
+        // When & Then
+        mockMvc.perform(get("/v1/todos/{id}", created.id()).header(ReadYourWritesFilter.CLIENT_ID_HEADER, "reader"))
+                .andExpect(status().isNotFound());
+
+        awaitReplication();
+        mockMvc.perform(get("/v1/todos/{id}", created.id()).header(ReadYourWritesFilter.CLIENT_ID_HEADER, "reader"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Replicated item"));
+        assertThat(meterRegistry.get("todo.datasource.routed").tag("pool", "replica-1").counter().count())
+                .isPositive();
+    }
+
+    @Test
+    @DisplayName("Given a cached item, when a lagging replica is read after an update, then neither cache nor serve the stale body to the writer")
+    void givenCachedItem_whenLaggingReplicaReadAfterUpdate_thenDoNotCacheStaleBody() throws Exception {
+        // Given
+        TodoResponse created = create("writer-3");
+        awaitReplication();
+        mockMvc.perform(get("/v1/todos/{id}", created.id()).header(ReadYourWritesFilter.CLIENT_ID_HEADER, "writer-3"))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/v1/todos/{id}/description", created.id())
+                        .header(ReadYourWritesFilter.CLIENT_ID_HEADER, "writer-3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpdateDescriptionRequest("Updated item"))))
+                .andExpect(status().isOk());
+
+        // When
+        mockMvc.perform(get("/v1/todos/{id}", created.id()).header(ReadYourWritesFilter.CLIENT_ID_HEADER, "reader"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Replicated item"));
+
+        // Then
+        mockMvc.perform(get("/v1/todos/{id}", created.id()).header(ReadYourWritesFilter.CLIENT_ID_HEADER, "writer-3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Updated item"));
+        awaitReplication();
+        mockMvc.perform(get("/v1/todos/{id}", created.id()).header(ReadYourWritesFilter.CLIENT_ID_HEADER, "reader"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Updated item"));
+    }
+
+    private TodoResponse create(String client) throws Exception {
+        String body = mockMvc.perform(post("/v1/todos")
+                        .header(ReadYourWritesFilter.CLIENT_ID_HEADER, client)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TodoRequest("Replicated item", LocalDateTime.now().plusDays(1)))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, TodoResponse.class);
+    }
+
+    private void awaitReplication() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (replicator.getPending() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(replicator.getPending()).isZero();
+    }
+
+    private double pinnedReads() {
+        return meterRegistry.get("todo.datasource.read-your-writes.pinned").counter().count();
+    }
+}
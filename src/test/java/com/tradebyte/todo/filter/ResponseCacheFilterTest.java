@@ -0,0 +1,165 @@
+package com.tradebyte.todo.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo.dto.TodoRequest;
+import com.tradebyte.todo.dto.TodoResponse;
+import com.tradebyte.todo.dto.UpdateDescriptionRequest;
+import com.tradebyte.todo.entity.TodoItem;
+import com.tradebyte.todo.repository.TodoRepository;
+import com.tradebyte.todo.service.TodoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "todo.response-cache.enabled=true",
+        "todo.response-cache.gzip-min-bytes=1",
+        "todo.scheduler.enabled=false"
+})
+@AutoConfigureMockMvc
+@DisplayName("Response Cache Filter Tests")
+class ResponseCacheFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private ResponseBytesCache responseBytesCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TodoResponse savedItem;
+
+    @BeforeEach
+    void setUp() {
+        todoRepository.deleteAll();
+        responseBytesCache.invalidateAll();
+        savedItem = todoService.createTodoItem(new TodoRequest("Cached description", LocalDateTime.now().plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Given a read item, when reading it again, then serve it from the cache")
+    void givenReadItem_whenReadAgain_thenServeFromCache() throws Exception {
+        // Given
+        mockMvc.perform(get("/v1/todos/{id}", savedItem.id())).andExpect(status().isOk());
+        double hitsBefore = hits();
+
+        // When & Then
+        mockMvc.perform(get("/v1/todos/{id}", savedItem.id()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Cached description"));
+        assertThat(hits()).isEqualTo(hitsBefore + 1);
+    }
+
+    @Test
+    @DisplayName("Given a cached item, when its description is updated, then serve the new description")
+    void givenCachedItem_whenDescriptionUpdated_thenServeNewDescription() throws Exception {
+        // Given
+        mockMvc.perform(get("/v1/todos/{id}", savedItem.id())).andExpect(status().isOk());
+
+        // When
+        mockMvc.perform(patch("/v1/todos/{id}/description", savedItem.id())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpdateDescriptionRequest("Updated description"))))
+                .andExpect(status().isOk());
+
+        // Then
+        mockMvc.perform(get("/v1/todos/{id}", savedItem.id()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Updated description"));
+    }
+
+    @Test
+    @DisplayName("Given a cached first list page, when the past due sweep marks an item, then drop it from the page")
+    void givenCachedFirstPage_whenPastDueSweepRuns_thenDropItemFromPage() throws Exception {
+        // Given
+        TodoItem overdueItem = todoRepository.save(TodoItem.builder()
+                .description("Overdue")
+                .creationDateTime(LocalDateTime.now().minusDays(2))
+                .dueDateTime(LocalDateTime.now().minusDays(1))
+                .status(TodoItem.Status.NOT_DONE)
+                .build());
+        responseBytesCache.invalidateAll();
+        mockMvc.perform(get("/v1/todos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2));
+
+        // When
+        todoService.updatePastDueItemsBulk();
+
+        // Then
+        mockMvc.perform(get("/v1/todos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(savedItem.id()));
+        assertThat(todoRepository.findById(overdueItem.getId()).orElseThrow().getStatus())
+                .isEqualTo(TodoItem.Status.PAST_DUE);
+    }
+
+    @Test
+    @DisplayName("Given a cached item, when the client accepts gzip, then serve the pre-compressed body")
+    void givenCachedItem_whenClientAcceptsGzip_thenServeCompressedBody() throws Exception {
+        // Given
+        mockMvc.perform(get("/v1/todos/{id}", savedItem.id())).andExpect(status().isOk());
+
+        // When
+        MvcResult result = mockMvc.perform(get("/v1/todos/{id}", savedItem.id())
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        // Then
+        try (GZIPInputStream gzipStream = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            String body = new String(gzipStream.readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(objectMapper.readValue(body, TodoResponse.class).description()).isEqualTo("Cached description");
+        }
+    }
+
+    @Test
+    @DisplayName("Given an unknown item, when reading it twice, then never cache the error")
+    void givenUnknownItem_whenReadTwice_thenDoNotCacheError() throws Exception {
+        // Given
+        double hitsBefore = hits();
+
+        // When & Then
+        mockMvc.perform(get("/v1/todos/{id}", 999_999L)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/v1/todos/{id}", 999_999L)).andExpect(status().isNotFound());
+        assertThat(hits()).isEqualTo(hitsBefore);
+    }
+
+    private double hits() {
+        return meterRegistry.get("todo.response-cache.requests").tag("result", "hit").counter().count();
+    }
+}
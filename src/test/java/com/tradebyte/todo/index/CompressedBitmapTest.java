@@ -0,0 +1,123 @@
+package com.tradebyte.todo.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Compressed Bitmap Tests")
+class CompressedBitmapTest {
+
+    @Test
+    @DisplayName("Given random sparse and dense ids, when adding and removing, then match a sorted set")
+    void givenRandomIds_whenAddingAndRemoving_thenMatchSortedSet() {
+        // Given
+        Random random = new Random(49);
+        CompressedBitmap bitmap = new CompressedBitmap();
+        NavigableSet<Long> expected = new TreeSet<>();
+
+        // When
+        for (int i = 0; i < 50_000; i++) {
+            // Dense around the first containers so they turn into bitmaps, sparse far away
+            long id = random.nextInt(4) == 0 ? random.nextLong(1L << 40) : random.nextInt(200_000);
+            if (random.nextInt(3) == 0) {
+                assertThat(bitmap.remove(id)).isEqualTo(expected.remove(id));
+            } else {
+                assertThat(bitmap.add(id)).isEqualTo(expected.add(id));
+            }
+        }
+
+        // Then
+        assertThat(bitmap.cardinality()).isEqualTo(expected.size());
+        assertThat(bitmap.page(0, expected.size())).containsExactly(toArray(expected));
+        assertThat(bitmap.contains(expected.first())).isTrue();
+        assertThat(bitmap.contains(-1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Given two bitmaps with array and bitmap containers, when intersecting, then match a set intersection")
+    void givenTwoBitmaps_whenIntersecting_thenMatchSetIntersection() {
+        // Given
+        Random random = new Random(7);
+        CompressedBitmap everyThird = new CompressedBitmap();
+        CompressedBitmap sparse = new CompressedBitmap();
+        NavigableSet<Long> expected = new TreeSet<>();
+        for (long id = 0; id < 300_000; id += 3) {
+            everyThird.add(id);
+        }
+        for (int i = 0; i < 5_000; i++) {
+            long id = random.nextInt(600_000);
+            sparse.add(id);
+            if (id < 300_000 && id % 3 == 0) {
+                expected.add(id);
+            }
+        }
+
+        // When
+        CompressedBitmap intersection = everyThird.and(sparse);
+        CompressedBitmap dense = everyThird.and(everyThird);
+
+        // Then
+        assertThat(intersection.page(0, 10_000)).containsExactly(toArray(expected));
+        assertThat(sparse.and(everyThird).page(0, 10_000)).containsExactly(toArray(expected));
+        assertThat(dense.cardinality()).isEqualTo(everyThird.cardinality());
+    }
+
+    @Test
+    @DisplayName("Given a bitmap spanning many containers, when paging, then pages follow id order without gaps")
+    void givenManyContainers_whenPaging_thenPagesFollowIdOrder() {
+        // Given
+        CompressedBitmap bitmap = new CompressedBitmap();
+        NavigableSet<Long> expected = new TreeSet<>();
+        for (long id = 1; id < 1_000_000; id += 7) {
+            bitmap.add(id);
+            expected.add(id);
+        }
+        List<Long> ids = List.copyOf(expected);
+
+        // When
+        long[] first = bitmap.page(0, 100);
+        long[] middle = bitmap.page(70_000, 100);
+        long[] last = bitmap.page(ids.size() - 10, 100);
+
+        // Then
+        assertThat(first).containsExactly(toArray(ids.subList(0, 100)));
+        assertThat(middle).containsExactly(toArray(ids.subList(70_000, 70_100)));
+        assertThat(last).containsExactly(toArray(ids.subList(ids.size() - 10, ids.size())));
+        assertThat(bitmap.page(ids.size(), 100)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given a dense container, when removing most ids, then it shrinks back to an array")
+    void givenDenseContainer_whenRemovingMostIds_thenShrinks() {
+        // Given
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (long id = 0; id < 65_536; id++) {
+            bitmap.add(id);
+        }
+        long denseBytes = bitmap.sizeInBytes();
+
+        // When
+        for (long id = 0; id < 65_536; id++) {
+            if (id % 100 != 0) {
+                bitmap.remove(id);
+            }
+        }
+
+        // Then
+        assertThat(bitmap.cardinality()).isEqualTo(656);
+        assertThat(bitmap.sizeInBytes()).isLessThan(denseBytes);
+        assertThat(bitmap.contains(6_500)).isTrue();
+        assertThat(bitmap.contains(6_501)).isFalse();
+    }
+
+    private static long[] toArray(Collection<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,205 @@
+package com.tradebyte.todo.index;
+
+import com.tradebyte.todo.dto.TodoRequest;
+import com.tradebyte.todo.dto.TodoResponse;
+import com.tradebyte.todo.entity.TodoItem;
+import com.tradebyte.todo.repository.TodoRepository;
+import com.tradebyte.todo.service.RetentionPurger;
+import com.tradebyte.todo.service.TodoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "todo.tags.index.enabled=true",
+        "todo.scheduler.enabled=false",
+        "todo.retention.enabled=true"
+})
+@AutoConfigureMockMvc
+@DisplayName("Todo Tag Index Tests")
+class TodoTagIndexTest {
+
+    private static final List<String> TAGS = List.of("home", "work", "urgent", "later");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoTagIndex tagIndex;
+
+    @Autowired
+    private RetentionPurger retentionPurger;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        todoRepository.deleteAll();
+        tagIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("Given randomly tagged items in every status, when filtering through the index, then match the SQL query")
+    void givenTaggedItemsInEveryStatus_whenFilteringThroughIndex_thenMatchSqlQuery() {
+        // Given
+        Random random = new Random(49);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 300; i++) {
+            Set<String> tags = new TreeSet<>();
+            TAGS.stream().filter(tag -> random.nextBoolean()).forEach(tags::add);
+            LocalDateTime dueDateTime = random.nextInt(4) == 0 ? now.minusHours(1) : now.plusDays(1);
+            Long id = todoService.createTodoItem(new TodoRequest("Tagged " + i, dueDateTime, tags)).id();
+            if (dueDateTime.isAfter(now) && random.nextInt(3) == 0) {
+                todoService.markAsDone(id);
+            }
+        }
+        todoService.updatePastDueItemsBulk();
+
+        // When / Then
+        for (Set<String> filter : List.of(Set.of("home"), Set.of("home", "work"), Set.of("urgent", "later", "work"))) {
+            for (TodoItem.Status status : TodoItem.Status.values()) {
+                assertThat(idsFromIndex(filter, status))
+                        .as("%s in %s", filter, status)
+                        .isNotEmpty()
+                        .isEqualTo(idsFromSql(filter, EnumSet.of(status)));
+            }
+            assertThat(idsFromIndex(filter, null)).isEqualTo(idsFromSql(filter, EnumSet.allOf(TodoItem.Status.class)));
+        }
+        assertThat(idsFromIndex(Set.of("unknown"), null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given tagged items, when retagging, finishing and deleting through the API, then list filters follow")
+    void givenTaggedItems_whenChangedThroughApi_thenListFiltersFollow() throws Exception {
+        // Given
+        Long first = todoService.createTodoItem(request("First", "work", "urgent")).id();
+        Long second = todoService.createTodoItem(request("Second", "work")).id();
+        Long third = todoService.createTodoItem(request("Third", "home")).id();
+
+        // When
+        mockMvc.perform(put("/v1/todos/{id}/tags", second)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tags\": [\"work\", \"urgent\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tags[0]").value("urgent"))
+                .andExpect(jsonPath("$.tags[1]").value("work"));
+        todoService.markAsDone(first);
+        mockMvc.perform(post("/v1/todos/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [" + third + "]}"))
+                .andExpect(status().isOk());
+
+        // Then
+        mockMvc.perform(get("/v1/todos").param("tag", "work", "urgent"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].id").value(first))
+                .andExpect(jsonPath("$.content[1].id").value(second));
+        mockMvc.perform(get("/v1/todos").param("tag", "urgent").param("status", "NOT_DONE"))
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(second));
+        mockMvc.perform(get("/v1/todos").param("tag", "home"))
+                .andExpect(jsonPath("$.content.length()").value(0));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM todo_item_tags WHERE todo_item_id = ?",
+                Long.class, third)).isZero();
+    }
+
+    @Test
+    @DisplayName("Given invalid tag filters or tags, when calling the API, then 400 is returned")
+    void givenInvalidFiltersOrTags_whenCallingApi_thenBadRequest() throws Exception {
+        // Given
+        Long id = todoService.createTodoItem(request("Item", "work")).id();
+
+        // When / Then
+        mockMvc.perform(get("/v1/todos").param("status", "DONE"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("requires at least one tag")));
+        mockMvc.perform(get("/v1/todos").param("tag", "work").param("status", "FINISHED"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Unknown status")));
+        mockMvc.perform(put("/v1/todos/{id}/tags", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tags\": [\"Not A Tag\"]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Given tags written by another instance and an expired tagged item, when rebuilding and purging, then the index follows the table")
+    void givenOutsideChanges_whenRebuildingAndPurging_thenIndexFollowsTable() {
+        // Given
+        Long id = todoService.createTodoItem(request("Item", "work")).id();
+        TodoItem expired = todoRepository.save(TodoItem.builder()
+                .description("Expired")
+                .status(TodoItem.Status.DONE)
+                .creationDateTime(LocalDateTime.now().minusDays(200))
+                .dueDateTime(LocalDateTime.now().minusDays(150))
+                .doneDateTime(LocalDateTime.now().minusDays(120))
+                .tags(Set.of("work"))
+                .build());
+        jdbcTemplate.update("INSERT INTO todo_item_tags (todo_item_id, tag) VALUES (?, 'remote')", id);
+
+        // When
+        tagIndex.rebuild();
+        List<Long> beforePurge = idsFromIndex(Set.of("work"), null);
+        retentionPurger.purge();
+
+        // Then
+        assertThat(idsFromIndex(Set.of("remote", "work"), TodoItem.Status.NOT_DONE)).containsExactly(id);
+        assertThat(beforePurge).containsExactly(id, expired.getId());
+        assertThat(idsFromIndex(Set.of("work"), null)).containsExactly(id);
+    }
+
+    private static TodoRequest request(String description, String... tags) {
+        return new TodoRequest(description, LocalDateTime.now().plusDays(1), Set.of(tags));
+    }
+
+    private List<Long> idsFromIndex(Set<String> tags, TodoItem.Status status) {
+        List<Long> ids = new ArrayList<>();
+        int page = 0;
+        Slice<TodoResponse> slice;
+        do {
+            slice = todoService.getItemsByTags(tags, status, page++, 7);
+            slice.getContent().forEach(item -> ids.add(item.id()));
+        } while (slice.hasNext());
+        return ids;
+    }
+
+    private List<Long> idsFromSql(Set<String> tags, Set<TodoItem.Status> statuses) {
+        return todoRepository.findByTags(tags, tags.size(), statuses,
+                        LocalDateTime.of(1000, 1, 1, 0, 0), LocalDateTime.of(9999, 12, 31, 0, 0),
+                        Pageable.ofSize(1000))
+                .map(TodoItem::getId)
+                .getContent();
+    }
+}
@@ -0,0 +1,80 @@
+package com.tradebyte.todo.loadtest;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parameters of a load test run, read from {@code loadtest.*} system properties so a
+ * run can be tuned from the command line, e.g.
+ * {@code mvn test -Ploadtest -Dloadtest.items=5000000 -Dloadtest.rate=2000}.
+ *
+ * @param items            number of todo items seeded before the run
+ * @param seed             seed of the item generator and of the request sequence
+ * @param rate             requests per second, started on schedule regardless of responses
+ * @param warmUpSeconds    leading part of the run that is not recorded
+ * @param durationSeconds  recorded part of the run
+ * @param maxInFlight      worker threads sending requests; requests beyond wait in a queue
+ * @param mix              relative weight of each operation
+ * @param maxErrorRatio    share of failed requests above which the run fails
+ * @param applicationArgs  extra arguments for the service, e.g. {@code --todo.response-cache.enabled=true}
+ */
+record LoadTestSettings(long items,
+                        long seed,
+                        int rate,
+                        int warmUpSeconds,
+                        int durationSeconds,
+                        int maxInFlight,
+                        Map<Operation, Integer> mix,
+                        double maxErrorRatio,
+                        List<String> applicationArgs) {
+
+    enum Operation {
+        /** {@code GET /v1/todos/{id}} of a seeded item */
+        READ,
+        /** {@code GET /v1/todos?page=n} of the not-done list */
+        LIST,
+        /** {@code POST /v1/todos} */
+        WRITE,
+        /** {@code PATCH /v1/todos/{id}/done} or {@code /not-done} of a seeded item that is not past due */
+        FLIP
+    }
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Long.getLong("loadtest.items", 1_000_000),
+                Long.getLong("loadtest.seed", 42),
+                Integer.getInteger("loadtest.rate", 500),
+                Integer.getInteger("loadtest.warm-up-seconds", 10),
+                Integer.getInteger("loadtest.duration-seconds", 60),
+                Integer.getInteger("loadtest.max-in-flight", 256),
+                parseMix(System.getProperty("loadtest.mix", "read=60,list=15,write=15,flip=10")),
+                Double.parseDouble(System.getProperty("loadtest.max-error-ratio", "0.01")),
+                Arrays.stream(System.getProperty("loadtest.app-args", "").split(","))
+                        .map(String::trim)
+                        .filter(arg -> !arg.isEmpty())
+                        .toList());
+    }
+
+    /**
+     * Parses {@code read=60,list=15,...}; operations left out get no traffic.
+     */
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix has no operation with a positive weight");
+        }
+        return weights;
+    }
+}
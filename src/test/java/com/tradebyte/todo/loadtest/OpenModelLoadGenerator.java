@@ -0,0 +1,265 @@
+package com.tradebyte.todo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo.dto.TodoRequest;
+import com.tradebyte.todo.entity.TodoItem;
+import com.tradebyte.todo.loadtest.LoadTestSettings.Operation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Sends requests at a fixed arrival rate, independent of how fast the service answers
+ * (open model). Each request has an intended start time on a fixed schedule, and its
+ * latency is measured from that time, not from when a worker got around to sending
+ * it. A slow service therefore shows up as queueing delay in the percentiles instead
+ * of silently lowering the request rate (coordinated omission).
+ * <p>
+ * Which operation and item each request uses is drawn from a random sequence seeded
+ * with the settings' seed, so two runs send the same requests in the same order.
+ * <p>
+ * {@link #run()} sends the warm-up and the recorded part of the settings. For long runs,
+ * {@link #runUntilStopped()} records everything and {@link #drain()} hands out the
+ * results per window, which also keeps the recorded latencies bounded.
+ */
+final class OpenModelLoadGenerator {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final URI baseUri;
+    private final LoadTestSettings settings;
+    private final ObjectMapper objectMapper;
+    private final long firstItemId;
+
+    private final Operation[] schedule;
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private volatile boolean stopped;
+
+    OpenModelLoadGenerator(HttpClient httpClient, URI baseUri, LoadTestSettings settings, ObjectMapper objectMapper,
+                           long firstItemId) {
+        this.httpClient = httpClient;
+        this.baseUri = baseUri;
+        this.settings = settings;
+        this.objectMapper = objectMapper;
+        this.firstItemId = firstItemId;
+        this.schedule = settings.mix().entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(Operation[]::new);
+        settings.mix().keySet().forEach(operation -> recorders.put(operation, new Recorder()));
+    }
+
+    static HttpClient newHttpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Runs the warm-up and the recorded part and returns the results of the recorded part.
+     */
+    Map<Operation, Result> run() throws InterruptedException {
+        long warmUpRequests = (long) settings.warmUpSeconds() * settings.rate();
+        drive(warmUpRequests + (long) settings.durationSeconds() * settings.rate(), warmUpRequests);
+        return results(settings.durationSeconds());
+    }
+
+    /**
+     * Sends requests at the settings' rate and records all of them until {@link #stop()}
+     * is called, then waits for the requests still in flight.
+     */
+    void runUntilStopped() throws InterruptedException {
+        drive(Long.MAX_VALUE, 0);
+    }
+
+    void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Returns the results recorded since the previous call, or since the start, and
+     * starts a new window.
+     */
+    Map<Operation, Result> drain() {
+        long now = System.nanoTime();
+        Map<Operation, Result> results = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> results.put(operation, recorder.drain(now)));
+        return results;
+    }
+
+    private void drive(long totalRequests, long warmUpRequests) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(settings.maxInFlight(), runnable -> {
+            Thread thread = new Thread(runnable, "loadtest-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        SplittableRandom random = new SplittableRandom(settings.seed());
+        long startedAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+        recorders.values().forEach(recorder -> recorder.drain(startedAt));
+
+        try {
+            for (long i = 0; i < totalRequests && !stopped; i++) {
+                long intendedStart = startedAt + i * TimeUnit.SECONDS.toNanos(1) / settings.rate();
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation operation = schedule[random.nextInt(schedule.length)];
+                HttpRequest request = nextRequest(operation, random, i);
+                boolean recorded = i >= warmUpRequests;
+                workers.execute(() -> send(operation, request, intendedStart, recorded));
+            }
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(REQUEST_TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS);
+        }
+    }
+
+    private Map<Operation, Result> results(int durationSeconds) {
+        Map<Operation, Result> results = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> results.put(operation, recorder.result(durationSeconds)));
+        return results;
+    }
+
+    private HttpRequest nextRequest(Operation operation, SplittableRandom random, long sequence) {
+        return switch (operation) {
+            case READ -> HttpRequest.newBuilder(uri("/v1/todos/" + randomItem(random)))
+                    .timeout(REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+            case LIST -> HttpRequest.newBuilder(uri("/v1/todos?size=20&page=" + random.nextInt(100)))
+                    .timeout(REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+            case WRITE -> HttpRequest.newBuilder(uri("/v1/todos"))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json(new TodoRequest(
+                            "Load test item " + sequence, LocalDateTime.now().plusDays(1 + random.nextInt(365))))))
+                    .build();
+            case FLIP -> HttpRequest.newBuilder(uri("/v1/todos/" + randomFlippableItem(random)
+                            + (random.nextBoolean() ? "/done" : "/not-done")))
+                    .timeout(REQUEST_TIMEOUT)
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                    .build();
+        };
+    }
+
+    private long randomItem(SplittableRandom random) {
+        return firstItemId + random.nextLong(settings.items());
+    }
+
+    private long randomFlippableItem(SplittableRandom random) {
+        while (true) {
+            long id = randomItem(random);
+            if (TodoItemSeeder.statusOf(settings.seed(), id) != TodoItem.Status.PAST_DUE) {
+                return id;
+            }
+        }
+    }
+
+    private void send(Operation operation, HttpRequest request, long intendedStart, boolean recorded) {
+        int status;
+        try {
+            status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException ex) {
+            status = 0;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (recorded) {
+            recorders.get(operation).record(System.nanoTime() - intendedStart, status);
+        }
+    }
+
+    private URI uri(String path) {
+        return baseUri.resolve(baseUri.getPath() + path);
+    }
+
+    private String json(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * @param statuses responses per HTTP status, 0 for requests that got no response
+     */
+    record Result(long requests, long errors, double throughput, long p50Micros, long p99Micros, long p999Micros,
+                  long maxMicros, Map<Integer, Long> statuses) {
+    }
+
+    /**
+     * Keeps every latency of the recorded part. Even at thousands of requests per second
+     * that stays in the tens of megabytes, and percentiles are exact.
+     */
+    private static final class Recorder {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private long windowStartedAt;
+        private final LongAdder errors = new LongAdder();
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        synchronized void record(long nanos, int status) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+            if (status == 0 || status >= 400) {
+                errors.increment();
+            }
+            statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        }
+
+        synchronized Result drain(long now) {
+            Result result = result((now - windowStartedAt) / 1e9);
+            latencies = new long[1024];
+            size = 0;
+            errors.reset();
+            statuses.clear();
+            windowStartedAt = now;
+            return result;
+        }
+
+        synchronized Result result(double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            Map<Integer, Long> counts = new TreeMap<>();
+            statuses.forEach((status, count) -> counts.put(status, count.sum()));
+            return new Result(size, errors.sum(), seconds > 0 ? size / seconds : 0,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    sorted.length == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(sorted[sorted.length - 1]), counts);
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+            return TimeUnit.NANOSECONDS.toMicros(sorted[Math.max(index, 0)]);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.tradebyte.todo.loadtest;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the largest persistence context seen when an entity is loaded. A context that
+ * outlives its request or transaction keeps every loaded entity, so its size grows with
+ * the run instead of staying at roughly one page of items.
+ */
+final class PersistenceContextProbe implements PostLoadEventListener {
+
+    private final AtomicInteger largest = new AtomicInteger();
+
+    static PersistenceContextProbe register(EntityManagerFactory entityManagerFactory) {
+        PersistenceContextProbe probe = new PersistenceContextProbe();
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, probe);
+        return probe;
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        int managed = event.getSession().getPersistenceContextInternal().getNumberOfManagedEntities();
+        largest.accumulateAndGet(managed, Math::max);
+    }
+
+    /**
+     * @return the largest persistence context since the previous call
+     */
+    int drain() {
+        return largest.getAndSet(0);
+    }
+}
@@ -0,0 +1,91 @@
+package com.tradebyte.todo.loadtest;
+
+import com.tradebyte.todo.TodoServiceApplication;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The service started in-process on a random port with the JPA storage engine and
+ * seeded by {@link TodoItemSeeder}, as used by the load and soak tests.
+ */
+final class SeededService implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+    private final long firstItemId;
+
+    private SeededService(ConfigurableApplicationContext context, long firstItemId) {
+        this.context = context;
+        this.firstItemId = firstItemId;
+    }
+
+    /**
+     * Starts the service on {@code jdbcUrl}, waits until it is ready and seeds it.
+     *
+     * @param args extra arguments for the service; they override the defaults here
+     */
+    static SeededService start(LoadTestSettings settings, String jdbcUrl, List<String> args) throws Exception {
+        List<String> allArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.hikari.maximum-pool-size=" + Integer.getInteger("loadtest.pool-size", 20),
+                "--todo.storage.engine=jpa"));
+        allArgs.addAll(args);
+        allArgs.addAll(settings.applicationArgs());
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TodoServiceApplication.class)
+                .run(allArgs.toArray(String[]::new));
+        try {
+            awaitReadiness(context);
+            long seedingStartedAt = System.nanoTime();
+            long firstItemId = new TodoItemSeeder(context.getBean(DataSource.class), settings.seed())
+                    .seed(settings.items());
+            System.out.printf("Seeded %,d items in %,d ms%n", settings.items(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedingStartedAt));
+            return new SeededService(context, firstItemId);
+        } catch (Exception | Error ex) {
+            context.close();
+            throw ex;
+        }
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    long firstItemId() {
+        return firstItemId;
+    }
+
+    URI baseUri() {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        return URI.create("http://localhost:" + port + "/api");
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    /**
+     * Waits for the read path warm-up, so it neither competes with seeding nor with the run.
+     */
+    private static void awaitReadiness(ConfigurableApplicationContext context) throws InterruptedException {
+        ApplicationAvailability availability = context.getBean(ApplicationAvailability.class);
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+        while (availability.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Service did not become ready");
+            }
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+    }
+}
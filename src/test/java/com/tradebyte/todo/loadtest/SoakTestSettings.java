@@ -0,0 +1,47 @@
+package com.tradebyte.todo.loadtest;
+
+import java.nio.file.Path;
+
+/**
+ * Parameters of a soak test run, read from {@code soak.*} system properties. Traffic
+ * (items, rate, mix) comes from {@link LoadTestSettings}. Every sample is compared with
+ * the baseline, the first sample after the warm-up, and the run fails once a value has
+ * been beyond its threshold for {@code consecutiveBreaches} samples in a row, so a
+ * single slow window or late collection does not fail it.
+ *
+ * @param durationMinutes            length of the run after the warm-up
+ * @param warmUpMinutes              leading part of the run before the baseline is taken
+ * @param sampleIntervalSeconds      time between two samples
+ * @param schedulerRateMillis        rate of {@code PastDueScheduler} during the run
+ * @param maxHeapGrowthMb            growth of the heap after a full GC over the baseline
+ * @param maxOldGenGrowthMb          growth of the old generation after a full GC over the baseline
+ * @param maxPersistenceContextRatio largest persistence context of a window relative to the baseline
+ * @param maxP99Ratio                p99 latency of an operation relative to its baseline
+ * @param consecutiveBreaches        samples in a row beyond a threshold that fail the run
+ * @param reportDirectory            where samples and, on failure, heap histograms are written
+ */
+record SoakTestSettings(int durationMinutes,
+                        int warmUpMinutes,
+                        int sampleIntervalSeconds,
+                        long schedulerRateMillis,
+                        long maxHeapGrowthMb,
+                        long maxOldGenGrowthMb,
+                        double maxPersistenceContextRatio,
+                        double maxP99Ratio,
+                        int consecutiveBreaches,
+                        Path reportDirectory) {
+
+    static SoakTestSettings fromSystemProperties() {
+        return new SoakTestSettings(
+                Integer.getInteger("soak.duration-minutes", 240),
+                Integer.getInteger("soak.warm-up-minutes", 5),
+                Integer.getInteger("soak.sample-interval-seconds", 60),
+                Long.getLong("soak.scheduler-rate-ms", 1000),
+                Long.getLong("soak.max-heap-growth-mb", 64),
+                Long.getLong("soak.max-old-gen-growth-mb", 64),
+                Double.parseDouble(System.getProperty("soak.max-persistence-context-ratio", "2")),
+                Double.parseDouble(System.getProperty("soak.max-p99-ratio", "3")),
+                Integer.getInteger("soak.consecutive-breaches", 3),
+                Path.of(System.getProperty("soak.report-dir", "target/soak")));
+    }
+}
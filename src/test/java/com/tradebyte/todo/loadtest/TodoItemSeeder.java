@@ -0,0 +1,131 @@
+package com.tradebyte.todo.loadtest;
+
+import com.tradebyte.todo.entity.TodoItem;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fills {@code todo_items} with a block of consecutive ids taken from
+ * {@code todo_items_seq}, bypassing JPA so millions of rows load in seconds. Every column is derived from the seed and the id alone, so the same
+ * settings always produce the same table, and the load generator can tell the status
+ * of any seeded id without querying it. Only the JPA storage engine is supported.
+ */
+final class TodoItemSeeder {
+
+    private static final int BATCH_SIZE = 5_000;
+    private static final String INSERT_SQL = """
+            INSERT INTO todo_items (id, description, status, creation_datetime, due_datetime, done_datetime, version)
+            VALUES (?, ?, ?, ?, ?, ?, 0)
+            """;
+    private static final String[] WORDS = {
+            "review", "prepare", "call", "write", "plan", "fix", "order", "book", "check", "send",
+            "report", "invoice", "meeting", "release", "backlog", "contract", "budget", "ticket", "draft", "team"
+    };
+
+    private final DataSource dataSource;
+    private final long seed;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    TodoItemSeeder(DataSource dataSource, long seed) {
+        this.dataSource = dataSource;
+        this.seed = seed;
+    }
+
+    /**
+     * Status of the seeded item {@code id}: 70% not done, 20% done, 10% past due.
+     */
+    static TodoItem.Status statusOf(long seed, long id) {
+        long bucket = Math.floorMod(mix(seed, id), 10L);
+        return bucket < 7 ? TodoItem.Status.NOT_DONE : bucket < 9 ? TodoItem.Status.DONE : TodoItem.Status.PAST_DUE;
+    }
+
+    /**
+     * @return the first seeded id; the others follow without gaps
+     */
+    long seed(long items) throws Exception {
+        long firstId;
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            ResultSet next = statement.executeQuery("SELECT NEXT VALUE FOR todo_items_seq");
+            next.next();
+            firstId = next.getLong(1);
+        }
+
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        long perThread = (items + threads - 1) / threads;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> parts = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long from = firstId + t * perThread;
+                long to = Math.min(firstId + items - 1, from + perThread - 1);
+                parts.add(executor.submit(() -> {
+                    insert(from, to);
+                    return null;
+                }));
+            }
+            for (Future<?> part : parts) {
+                part.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("ALTER SEQUENCE todo_items_seq RESTART WITH " + (firstId + items));
+        }
+        return firstId;
+    }
+
+    private void insert(long from, long to) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+            connection.setAutoCommit(false);
+            for (long id = from; id <= to; id++) {
+                bind(insert, id);
+                insert.addBatch();
+                if ((id - from + 1) % BATCH_SIZE == 0 || id == to) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private void bind(PreparedStatement insert, long id) throws SQLException {
+        long hash = mix(seed, id);
+        TodoItem.Status status = statusOf(seed, id);
+        int days = (int) Math.floorMod(hash >>> 8, 365L) + 1;
+        LocalDateTime due = status == TodoItem.Status.NOT_DONE ? now.plusDays(days) : now.minusDays(days);
+
+        insert.setLong(1, id);
+        insert.setString(2, WORDS[(int) Math.floorMod(hash >>> 16, (long) WORDS.length)] + " "
+                + WORDS[(int) Math.floorMod(hash >>> 24, (long) WORDS.length)] + " #" + id);
+        insert.setString(3, status.name());
+        insert.setTimestamp(4, Timestamp.valueOf(due.minusDays(30)));
+        insert.setTimestamp(5, Timestamp.valueOf(due));
+        insert.setTimestamp(6, status == TodoItem.Status.DONE ? Timestamp.valueOf(due.minusDays(1)) : null);
+    }
+
+    /**
+     * SplitMix64 finalizer over seed and id.
+     */
+    private static long mix(long seed, long id) {
+        long z = seed + id * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
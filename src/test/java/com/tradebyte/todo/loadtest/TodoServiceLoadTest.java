@@ -0,0 +1,121 @@
+package com.tradebyte.todo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo.loadtest.LoadTestSettings.Operation;
+import com.tradebyte.todo.loadtest.OpenModelLoadGenerator.Result;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the service on a random port, seeds a deterministic dataset and drives the
+ * operation mix of {@link LoadTestSettings} at a fixed arrival rate. Reports throughput
+ * and latency percentiles per operation, connection pool usage and GC activity during
+ * the recorded part, and fails if too many requests failed.
+ * Run with {@code mvn test -Ploadtest}, settings as {@code -Dloadtest.*} properties.
+ */
+@Tag("loadtest")
+@DisplayName("Todo Service Load Test")
+class TodoServiceLoadTest {
+
+    @Test
+    @DisplayName("Given a seeded service, when driving the operation mix at a fixed rate, then report latencies and stay below the error budget")
+    void givenSeededService_whenDrivingMixAtFixedRate_thenReportAndStayBelowErrorBudget() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        String jdbcUrl = "jdbc:h2:mem:loadtest-" + UUID.randomUUID() + ";LOCK_TIMEOUT=60000";
+
+        try (SeededService service = SeededService.start(settings, jdbcUrl, List.of())) {
+            OpenModelLoadGenerator generator = new OpenModelLoadGenerator(OpenModelLoadGenerator.newHttpClient(),
+                    service.baseUri(), settings, service.getBean(ObjectMapper.class), service.firstItemId());
+
+            MeterRegistry meterRegistry = service.getBean(MeterRegistry.class);
+            PoolSampler poolSampler = new PoolSampler(meterRegistry);
+            GcSnapshot gcBefore = GcSnapshot.take();
+            Map<Operation, Result> results;
+            try {
+                results = generator.run();
+            } finally {
+                poolSampler.stop();
+            }
+            GcSnapshot gcAfter = GcSnapshot.take();
+
+            report(settings, results, poolSampler, meterRegistry, gcBefore, gcAfter);
+
+            long requests = results.values().stream().mapToLong(Result::requests).sum();
+            long errors = results.values().stream().mapToLong(Result::errors).sum();
+            assertThat(requests).isPositive();
+            assertThat((double) errors / requests).isLessThanOrEqualTo(settings.maxErrorRatio());
+        }
+    }
+
+    private static void report(LoadTestSettings settings, Map<Operation, Result> results, PoolSampler poolSampler,
+                               MeterRegistry meterRegistry, GcSnapshot gcBefore, GcSnapshot gcAfter) {
+        System.out.printf("%nTarget rate %,d req/s for %d s after %d s warm-up, mix %s%n",
+                settings.rate(), settings.durationSeconds(), settings.warmUpSeconds(), settings.mix());
+        System.out.printf("%-6s %10s %8s %10s %10s %10s %10s %10s  %s%n",
+                "op", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "statuses");
+        results.forEach((operation, result) -> System.out.printf("%-6s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f  %s%n",
+                operation, result.requests(), result.errors(), result.throughput(),
+                result.p50Micros() / 1000.0, result.p99Micros() / 1000.0, result.p999Micros() / 1000.0,
+                result.maxMicros() / 1000.0, result.statuses()));
+
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").timer();
+        System.out.printf("%nDB pool: max active %d, max pending %d, acquire mean %.2f ms, acquire max %.2f ms%n",
+                poolSampler.maxActive.get(), poolSampler.maxPending.get(),
+                acquire == null ? 0 : acquire.mean(TimeUnit.MILLISECONDS),
+                acquire == null ? 0 : acquire.max(TimeUnit.MILLISECONDS));
+        System.out.printf("GC: %d collections, %d ms total, heap used %,d MB%n",
+                gcAfter.collections - gcBefore.collections, gcAfter.millis - gcBefore.millis,
+                ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / (1024 * 1024));
+    }
+
+    /**
+     * Samples the Hikari gauges every 100 ms, since they only show the current value.
+     */
+    private static final class PoolSampler {
+
+        private final AtomicLong maxActive = new AtomicLong();
+        private final AtomicLong maxPending = new AtomicLong();
+        private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+
+        private PoolSampler(MeterRegistry meterRegistry) {
+            sampler.scheduleAtFixedRate(() -> {
+                meterRegistry.find("hikaricp.connections.active").gauges()
+                        .forEach(gauge -> maxActive.accumulateAndGet((long) gauge.value(), Math::max));
+                meterRegistry.find("hikaricp.connections.pending").gauges()
+                        .forEach(gauge -> maxPending.accumulateAndGet((long) gauge.value(), Math::max));
+            }, 0, 100, TimeUnit.MILLISECONDS);
+        }
+
+        private void stop() {
+            sampler.shutdownNow();
+        }
+    }
+
+    private record GcSnapshot(long collections, long millis) {
+
+        private static GcSnapshot take() {
+            long collections = 0;
+            long millis = 0;
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                collections += Math.max(collector.getCollectionCount(), 0);
+                millis += Math.max(collector.getCollectionTime(), 0);
+            }
+            return new GcSnapshot(collections, millis);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.tradebyte.todo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo.loadtest.LoadTestSettings.Operation;
+import com.tradebyte.todo.loadtest.OpenModelLoadGenerator.Result;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Runs the service for hours under the steady operation mix of {@link LoadTestSettings}
+ * while {@code PastDueScheduler} sweeps at a fast rate, and watches for slow drift: heap
+ * and old generation after a full GC, the largest persistence context and the p99
+ * latency per operation. Every sample is appended to {@code samples.csv}; when a value
+ * stays beyond its {@link SoakTestSettings threshold}, class histograms of the heap at
+ * the baseline and at the failure are written next to it and the run fails.
+ * <p>
+ * The database is a file so that items written during the run stay out of the heap.
+ * Run with {@code mvn test -Psoak}, settings as {@code -Dsoak.*} and {@code -Dloadtest.*}
+ * properties.
+ */
+@Tag("soak")
+@DisplayName("Todo Service Soak Test")
+class TodoServiceSoakTest {
+
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    @DisplayName("Given a seeded service under steady traffic, when running for hours, then heap, persistence contexts and p99 latency do not drift")
+    void givenSeededServiceUnderSteadyTraffic_whenRunningForHours_thenNothingDrifts() throws Exception {
+        LoadTestSettings load = LoadTestSettings.fromSystemProperties();
+        SoakTestSettings soak = SoakTestSettings.fromSystemProperties();
+        Files.createDirectories(soak.reportDirectory());
+        Path samples = soak.reportDirectory().resolve("samples.csv");
+        Files.writeString(samples, Sample.CSV_HEADER + System.lineSeparator());
+
+        Path database = Files.createTempDirectory("todo-soak");
+        String jdbcUrl = "jdbc:h2:file:" + database.resolve("todo").toAbsolutePath() + ";LOCK_TIMEOUT=60000";
+        List<String> args = List.of(
+                "--todo.scheduler.enabled=true",
+                "--todo.scheduler.fixed-rate=" + soak.schedulerRateMillis());
+
+        try (SeededService service = SeededService.start(load, jdbcUrl, args)) {
+            PersistenceContextProbe probe = PersistenceContextProbe.register(service.getBean(EntityManagerFactory.class));
+            OpenModelLoadGenerator generator = new OpenModelLoadGenerator(OpenModelLoadGenerator.newHttpClient(),
+                    service.baseUri(), load, service.getBean(ObjectMapper.class), service.firstItemId());
+            Thread traffic = new Thread(() -> {
+                try {
+                    generator.runUntilStopped();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "soak-traffic");
+            traffic.start();
+
+            try {
+                TimeUnit.MINUTES.sleep(soak.warmUpMinutes());
+                generator.drain();
+                probe.drain();
+                monitor(soak, generator, probe, samples);
+            } finally {
+                generator.stop();
+                traffic.join();
+            }
+        } finally {
+            FileSystemUtils.deleteRecursively(database);
+        }
+    }
+
+    private static void monitor(SoakTestSettings soak, OpenModelLoadGenerator generator,
+                                PersistenceContextProbe probe, Path samples) throws Exception {
+        long startedAt = System.nanoTime();
+        long endsAt = startedAt + TimeUnit.MINUTES.toNanos(soak.durationMinutes());
+        Sample baseline = null;
+        String baselineHistogram = null;
+        Map<String, Integer> breaches = new LinkedHashMap<>();
+
+        while (System.nanoTime() < endsAt) {
+            TimeUnit.SECONDS.sleep(soak.sampleIntervalSeconds());
+            Sample sample = Sample.take(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedAt),
+                    generator.drain(), probe.drain());
+            Files.writeString(samples, sample.toCsv() + System.lineSeparator(), StandardOpenOption.APPEND);
+            System.out.println("Soak sample: " + sample);
+
+            if (baseline == null) {
+                baseline = sample;
+                baselineHistogram = heapHistogram();
+                continue;
+            }
+
+            List<String> drifted = sample.driftFrom(baseline, soak);
+            breaches.keySet().retainAll(drifted);
+            drifted.forEach(value -> breaches.merge(value, 1, Integer::sum));
+            List<String> failed = breaches.entrySet().stream()
+                    .filter(breach -> breach.getValue() >= soak.consecutiveBreaches())
+                    .map(Map.Entry::getKey)
+                    .toList();
+            if (!failed.isEmpty()) {
+                Files.writeString(soak.reportDirectory().resolve("heap-histogram-baseline.txt"), baselineHistogram);
+                Files.writeString(soak.reportDirectory().resolve("heap-histogram-failure.txt"), heapHistogram());
+                fail("Drifted for %d samples in a row after %d s: %s%nBaseline: %s%nLast sample: %s%nHistograms in %s",
+                        soak.consecutiveBreaches(), sample.elapsedSeconds(), failed, baseline, sample,
+                        soak.reportDirectory().toAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * Class histogram of the live heap, as {@code jcmd <pid> GC.class_histogram} prints it.
+     */
+    private static String heapHistogram() {
+        try {
+            return (String) ManagementFactory.getPlatformMBeanServer().invoke(
+                    new ObjectName("com.sun.management:type=DiagnosticCommand"), "gcClassHistogram",
+                    new Object[]{new String[0]}, new String[]{String[].class.getName()});
+        } catch (Exception ex) {
+            return "Heap histogram not available: " + ex;
+        }
+    }
+
+    /**
+     * @param heapAfterGcMb      heap in use right after a full GC
+     * @param oldGenAfterGcMb    old generation in use right after a full GC, -1 if the collector has none
+     * @param persistenceContext largest persistence context of the window
+     * @param p99Micros          p99 latency of the window per operation
+     */
+    private record Sample(long elapsedSeconds, long heapAfterGcMb, long oldGenAfterGcMb, int persistenceContext,
+                          Map<Operation, Long> p99Micros, long requests, long errors) {
+
+        private static final String CSV_HEADER = "elapsed_s,heap_after_gc_mb,old_gen_after_gc_mb,persistence_context,"
+                + "requests,errors," + Arrays.stream(Operation.values())
+                .map(operation -> operation.name().toLowerCase() + "_p99_us")
+                .collect(Collectors.joining(","));
+
+        private static Sample take(long elapsedSeconds, Map<Operation, Result> results, int persistenceContext) {
+            System.gc();
+            long heap = 0;
+            long oldGen = -1;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                MemoryUsage afterGc = pool.getCollectionUsage();
+                if (pool.getType() != MemoryType.HEAP || afterGc == null) {
+                    continue;
+                }
+                heap += afterGc.getUsed();
+                if (pool.getName().contains("Old") || pool.getName().contains("Tenured")) {
+                    oldGen = afterGc.getUsed() / MB;
+                }
+            }
+
+            Map<Operation, Long> p99Micros = new EnumMap<>(Operation.class);
+            results.forEach((operation, result) -> {
+                if (result.requests() > 0) {
+                    p99Micros.put(operation, result.p99Micros());
+                }
+            });
+            return new Sample(elapsedSeconds, heap / MB, oldGen, persistenceContext, p99Micros,
+                    results.values().stream().mapToLong(Result::requests).sum(),
+                    results.values().stream().mapToLong(Result::errors).sum());
+        }
+
+        /**
+         * @return the values beyond their threshold relative to {@code baseline}
+         */
+        private List<String> driftFrom(Sample baseline, SoakTestSettings soak) {
+            List<String> drifted = new ArrayList<>();
+            if (heapAfterGcMb - baseline.heapAfterGcMb > soak.maxHeapGrowthMb()) {
+                drifted.add("heap after GC");
+            }
+            if (oldGenAfterGcMb >= 0 && oldGenAfterGcMb - baseline.oldGenAfterGcMb > soak.maxOldGenGrowthMb()) {
+                drifted.add("old generation after GC");
+            }
+            if (persistenceContext > Math.max(baseline.persistenceContext, 1) * soak.maxPersistenceContextRatio()) {
+                drifted.add("persistence context size");
+            }
+            p99Micros.forEach((operation, p99) -> {
+                Long baselineP99 = baseline.p99Micros.get(operation);
+                if (baselineP99 != null && p99 > Math.max(baselineP99, 1) * soak.maxP99Ratio()) {
+                    drifted.add(operation + " p99 latency");
+                }
+            });
+            return drifted;
+        }
+
+        private String toCsv() {
+            return elapsedSeconds + "," + heapAfterGcMb + "," + oldGenAfterGcMb + "," + persistenceContext + ","
+                    + requests + "," + errors + ","
+                    + Arrays.stream(Operation.values())
+                    .map(operation -> String.valueOf(p99Micros.getOrDefault(operation, 0L)))
+                    .collect(Collectors.joining(","));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.tradebyte.todo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Rate Limiting Turbo Filter Tests")
+class RateLimitingTurboFilterTest {
+
+    private RateLimitingTurboFilter filter;
+    private Logger controllerLogger;
+    private Logger otherLogger;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        LoggerContext context = new LoggerContext();
+        filter = new RateLimitingTurboFilter();
+        filter.setContext(context);
+        filter.addLoggerPrefix("com.tradebyte.todo.controller");
+        filter.setMaxPerSecond(10);
+        filter.setSampleEvery(5);
+        filter.start();
+
+        controllerLogger = context.getLogger("com.tradebyte.todo.controller.TodoController");
+        otherLogger = context.getLogger("com.tradebyte.todo.scheduler.PastDueScheduler");
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+
+        // keep each test within one rate limit window
+        while (System.currentTimeMillis() % 1000 > 500) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    @DisplayName("Given a burst above the limit, when logging, then pass the limit plus a sample and count the rest")
+    void givenBurstAboveLimit_whenLogging_thenPassLimitPlusSample() {
+        // When
+        int passed = 0;
+        for (int i = 0; i < 110; i++) {
+            if (decide(controllerLogger, Level.INFO) == FilterReply.NEUTRAL) {
+                passed++;
+            }
+        }
+
+        // Then
+        assertThat(passed).isEqualTo(10 + 20);
+        assertThat(filter.getSuppressedCount()).isEqualTo(80);
+    }
+
+    @Test
+    @DisplayName("Given the limit is used up, when logging errors, disabled levels or other categories, then never deny")
+    void givenLimitUsedUp_whenLoggingOutsidePolicy_thenNeverDeny() {
+        // Given
+        for (int i = 0; i < 10; i++) {
+            decide(controllerLogger, Level.WARN);
+        }
+
+        // When & Then
+        assertThat(decide(controllerLogger, Level.ERROR)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(decide(controllerLogger, Level.DEBUG)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(decide(otherLogger, Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(filter.decide(null, controllerLogger, Level.INFO, null, null, null)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(decide(controllerLogger, Level.INFO)).isEqualTo(FilterReply.DENY);
+        assertThat(filter.getSuppressedCount()).isEqualTo(1);
+    }
+
+    private FilterReply decide(Logger logger, Level level) {
+        return filter.decide(null, logger, level, "Received request for todo item id: {}", new Object[]{1L}, null);
+    }
+}
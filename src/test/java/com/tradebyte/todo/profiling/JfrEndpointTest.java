@@ -0,0 +1,133 @@
+package com.tradebyte.todo.profiling;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo.dto.TodoRequest;
+import com.tradebyte.todo.scheduler.PastDueScheduler;
+import com.tradebyte.todo.service.TodoService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "todo.scheduler.enabled=false",
+        "management.endpoints.web.exposure.include=health,jfr",
+        "todo.jfr.continuous.enabled=true"
+})
+@AutoConfigureMockMvc
+@DisplayName("JFR Endpoint Tests")
+class JfrEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private PastDueScheduler pastDueScheduler;
+
+    @Test
+    @DisplayName("Given the continuous recording, when dumping it after service calls and a sweep, then it contains their events")
+    void givenContinuousRecording_whenDumpedAfterCallsAndSweep_thenContainsTheirEvents() throws Exception {
+        // Given
+        Long id = todoService.createTodoItem(new TodoRequest("Profiled item", LocalDateTime.now().plusDays(1))).id();
+        todoService.getTodoItem(id);
+        pastDueScheduler.sweep();
+
+        // When
+        byte[] dump = mockMvc.perform(get("/actuator/jfr/continuous"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        List<RecordedEvent> events = readEvents(dump);
+        assertThat(events)
+                .filteredOn(event -> event.getEventType().getName().equals("com.tradebyte.todo.ServiceMethod"))
+                .anySatisfy(event -> {
+                    assertThat(event.getString("method")).isEqualTo("getTodoItem");
+                    assertThat(event.getLong("itemId")).isEqualTo(id);
+                    assertThat(event.getBoolean("failed")).isFalse();
+                });
+        assertThat(events)
+                .anyMatch(event -> event.getEventType().getName().equals("com.tradebyte.todo.PastDueSweep"));
+    }
+
+    @Test
+    @DisplayName("Given an on-demand recording, when stopping, downloading and deleting it, then its file is streamed and it is gone")
+    void givenOnDemandRecording_whenStoppedDownloadedAndDeleted_thenStreamedAndGone() throws Exception {
+        // Given
+        String started = mockMvc.perform(post("/actuator/jfr")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"durationSeconds\": 60, \"settings\": \"default\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.state").value("RUNNING"))
+                .andReturn().getResponse().getContentAsString();
+        long recordingId = objectMapper.readTree(started).get("id").asLong();
+        todoService.getAllNotDoneItems(false, 0, 20);
+
+        // When
+        mockMvc.perform(post("/actuator/jfr/" + recordingId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("STOPPED"));
+        byte[] dump = mockMvc.perform(get("/actuator/jfr/" + recordingId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        mockMvc.perform(delete("/actuator/jfr/" + recordingId))
+                .andExpect(status().isNoContent());
+
+        // Then
+        assertThat(readEvents(dump))
+                .anyMatch(event -> event.getEventType().getName().equals("com.tradebyte.todo.ServiceMethod")
+                        && event.getString("method").equals("getAllNotDoneItems"));
+        mockMvc.perform(get("/actuator/jfr/" + recordingId))
+                .andExpect(status().isNotFound());
+        JsonNode recordings = objectMapper.readTree(mockMvc.perform(get("/actuator/jfr"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("recordings");
+        assertThat(recordings.findValuesAsText("name")).containsExactly("todo-continuous");
+    }
+
+    @Test
+    @DisplayName("Given unknown settings, when starting a recording, then 400 is returned")
+    void givenUnknownSettings_whenStartingRecording_thenBadRequest() throws Exception {
+        // When / Then
+        mockMvc.perform(post("/actuator/jfr")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"settings\": \"everything\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("profile")));
+    }
+
+    private static List<RecordedEvent> readEvents(byte[] dump) throws Exception {
+        Path file = Files.createTempFile("jfr-endpoint-test-", ".jfr");
+        try {
+            Files.write(file, dump);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
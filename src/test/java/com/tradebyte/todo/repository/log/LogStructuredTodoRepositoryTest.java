@@ -0,0 +1,145 @@
+package com.tradebyte.todo.repository.log;
+
+import com.tradebyte.todo.entity.TodoItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Log-Structured Todo Repository Tests")
+class LogStructuredTodoRepositoryTest {
+
+    private static final int SEGMENT_BYTES = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    private final List<LogStructuredTodoRepository> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (LogStructuredTodoRepository repository : opened) {
+            repository.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Given saved, updated and deleted items, when reopening the log, then restore the latest state")
+    void givenSavedUpdatedAndDeletedItems_whenReopening_thenRestoreLatestState() throws IOException {
+        // Given
+        LogStructuredTodoRepository repository = open();
+        TodoItem kept = repository.save(new TodoItem("Kept", LocalDateTime.now().plusDays(1)));
+        TodoItem deleted = repository.save(new TodoItem("Deleted", LocalDateTime.now().plusDays(1)));
+        kept.setStatus(TodoItem.Status.DONE);
+        kept.setDoneDateTime(LocalDateTime.now());
+        repository.save(kept);
+        repository.deleteById(deleted.getId());
+        repository.close();
+
+        // When
+        LogStructuredTodoRepository reopened = open();
+
+        // Then
+        assertThat(reopened.findAll()).containsExactly(kept);
+        assertThat(reopened.findById(kept.getId()).orElseThrow().getVersion()).isEqualTo(1L);
+        assertThat(reopened.save(new TodoItem("Next", LocalDateTime.now())).getId()).isGreaterThan(deleted.getId());
+    }
+
+    @Test
+    @DisplayName("Given a stale version, when saving, then reject the write")
+    void givenStaleVersion_whenSaving_thenRejectWrite() {
+        // Given
+        LogStructuredTodoRepository repository = open();
+        TodoItem saved = repository.save(new TodoItem("Original", LocalDateTime.now().plusDays(1)));
+        TodoItem stale = repository.findById(saved.getId()).orElseThrow();
+        saved.setDescription("Changed");
+        repository.save(saved);
+
+        // When & Then
+        stale.setDescription("Lost update");
+        assertThatThrownBy(() -> repository.save(stale)).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(repository.findById(saved.getId()).orElseThrow().getDescription()).isEqualTo("Changed");
+    }
+
+    @Test
+    @DisplayName("Given a torn record at the end of the log, when reopening, then keep every complete record")
+    void givenTornRecordAtEndOfLog_whenReopening_thenKeepCompleteRecords() throws IOException {
+        // Given
+        LogStructuredTodoRepository repository = open();
+        TodoItem first = repository.save(new TodoItem("First", LocalDateTime.now().plusDays(1)));
+        TodoItem second = repository.save(new TodoItem("Second", LocalDateTime.now().plusDays(1)));
+        repository.close();
+        corruptLastRecord();
+
+        // When
+        LogStructuredTodoRepository reopened = open();
+
+        // Then
+        assertThat(reopened.findAll()).containsExactly(first);
+        TodoItem third = reopened.save(new TodoItem("Third", LocalDateTime.now().plusDays(1)));
+        reopened.close();
+        assertThat(open().findAll()).containsExactly(first, third);
+    }
+
+    @Test
+    @DisplayName("Given a log made mostly of overwritten records, when compacting, then shrink it and keep the items")
+    void givenMostlyOverwrittenLog_whenCompacting_thenShrinkAndKeepItems() throws IOException {
+        // Given
+        LogStructuredTodoRepository repository = open();
+        TodoItem item = repository.save(new TodoItem("Rewritten", LocalDateTime.now().plusDays(1)));
+        for (int i = 0; i < 2_000; i++) {
+            item.setDescription("Rewritten " + i);
+            repository.save(item);
+        }
+        long segmentsBefore = segmentFiles();
+
+        // When
+        repository.compactIfNeeded();
+        repository.close();
+
+        // Then
+        assertThat(segmentsBefore).isGreaterThan(1);
+        assertThat(segmentFiles()).isEqualTo(1);
+        assertThat(open().findAll()).containsExactly(item);
+    }
+
+    private LogStructuredTodoRepository open() {
+        LogStructuredTodoRepository repository = new LogStructuredTodoRepository(
+                new SimpleMeterRegistry(), directory, SEGMENT_BYTES, 1, true, 0.5, false);
+        opened.add(repository);
+        return repository;
+    }
+
+    /**
+     * Flips the last written byte of the log, which belongs to the last record.
+     */
+    private void corruptLastRecord() throws IOException {
+        Path segment = directory.resolve("segment-000000000000.log");
+        byte[] content = Files.readAllBytes(segment);
+        int last = content.length - 1;
+        while (content[last] == 0) {
+            last--;
+        }
+        content[last] ^= (byte) 0xFF;
+        Files.write(segment, content);
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.tradebyte.todo.repository.log;
+
+import com.tradebyte.todo.TodoServiceApplication;
+import com.tradebyte.todo.dto.TodoRequest;
+import com.tradebyte.todo.dto.UpdateDescriptionRequest;
+import com.tradebyte.todo.dto.UpdateTagsRequest;
+import com.tradebyte.todo.entity.TodoItem;
+import com.tradebyte.todo.repository.TodoRepository;
+import com.tradebyte.todo.service.TodoItemsChangedEvent;
+import com.tradebyte.todo.service.TodoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Restarts the service on a fresh in-memory database and checks that the contents of
+ * {@code todo_items} come back from the snapshot and the write-ahead log.
+ */
+@DisplayName("Todo Table Durability Tests")
+class TodoTableDurabilityTest {
+
+    @TempDir
+    Path durabilityDir;
+
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    @DisplayName("Given a snapshot and later changes in the log, when restarting on an empty database, then restore every item")
+    void givenSnapshotAndLaterChanges_whenRestarting_thenRestoreEveryItem() {
+        // Given
+        ConfigurableApplicationContext first = start();
+        TodoService todoService = first.getBean(TodoService.class);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(todoService.createTodoItem(new TodoRequest("Item " + i, LocalDateTime.now().plusDays(1))).id());
+        }
+        Long overdueId = todoService.createTodoItem(new TodoRequest("Overdue", LocalDateTime.now().minusDays(1))).id();
+        todoService.markAsDone(ids.get(0));
+
+        first.getBean(TodoTableDurability.class).snapshot();
+
+        todoService.updateDescription(ids.get(1), new UpdateDescriptionRequest("Changed after snapshot"));
+        todoService.deleteTodoItem(ids.get(2));
+        todoService.updatePastDueItemsBulk();
+        todoService.createTodoItem(new TodoRequest("Created after snapshot", LocalDateTime.now().plusDays(2)));
+
+        List<TodoItem> expected = allItems(first);
+        long highestId = expected.get(expected.size() - 1).getId();
+        first.close();
+
+        // When
+        ConfigurableApplicationContext restarted = start();
+
+        // Then
+        assertThat(allItems(restarted)).isEqualTo(expected);
+        assertThat(restarted.getBean(TodoRepository.class).findById(overdueId).orElseThrow().getStatus())
+                .isEqualTo(TodoItem.Status.PAST_DUE);
+        assertThat(restarted.getBean(TodoRepository.class).findById(ids.get(2))).isEmpty();
+        assertThat(restarted.getBean(TodoService.class)
+                .createTodoItem(new TodoRequest("After restart", LocalDateTime.now().plusDays(1))).id())
+                .isGreaterThan(highestId);
+    }
+
+    @Test
+    @DisplayName("Given tagged and recurring items in the snapshot and the log, when restarting, then restore tags and templates")
+    void givenTaggedAndRecurringItems_whenRestarting_thenRestoreTagsAndTemplates() {
+        // Given
+        ConfigurableApplicationContext first = start();
+        TodoService todoService = first.getBean(TodoService.class);
+        Long inSnapshot = todoService.createTodoItem(
+                new TodoRequest("In snapshot", LocalDateTime.now().plusDays(1), Set.of("home", "urgent"))).id();
+        Long retagged = todoService.createTodoItem(
+                new TodoRequest("Retagged", LocalDateTime.now().plusDays(1), Set.of("work"))).id();
+        TodoItem occurrence = first.getBean(TodoRepository.class).save(TodoItem.builder()
+                .description("Occurrence")
+                .status(TodoItem.Status.NOT_DONE)
+                .creationDateTime(LocalDateTime.now())
+                .dueDateTime(LocalDateTime.now().plusDays(1))
+                .recurringTemplateId(42L)
+                .tags(Set.of("routine"))
+                .build());
+        first.publishEvent(TodoItemsChangedEvent.of(occurrence.getId()));
+
+        first.getBean(TodoTableDurability.class).snapshot();
+
+        todoService.updateTags(retagged, new UpdateTagsRequest(Set.of("later")));
+        Long inLog = todoService.createTodoItem(
+                new TodoRequest("In log", LocalDateTime.now().plusDays(1), Set.of("work"))).id();
+        first.close();
+
+        // When
+        ConfigurableApplicationContext restarted = start();
+
+        // Then
+        TodoService restartedService = restarted.getBean(TodoService.class);
+        assertThat(restartedService.getTodoItem(inSnapshot).tags()).containsExactly("home", "urgent");
+        assertThat(restartedService.getTodoItem(retagged).tags()).containsExactly("later");
+        assertThat(restartedService.getTodoItem(inLog).tags()).containsExactly("work");
+        assertThat(restartedService.getTodoItem(occurrence.getId()).tags()).containsExactly("routine");
+        assertThat(restarted.getBean(JdbcTemplate.class).queryForObject(
+                "SELECT recurring_template_id FROM todo_items WHERE id = ?", Long.class, occurrence.getId()))
+                .isEqualTo(42L);
+        assertThat(restarted.getBean(JdbcTemplate.class).queryForObject(
+                "SELECT COUNT(*) FROM todo_item_tags", Long.class)).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Given deletes in the log, when restarting, then items deleted before and after the snapshot stay deleted")
+    void givenDeletesInLog_whenRestarting_thenDeletedItemsStayDeleted() {
+        // Given
+        ConfigurableApplicationContext first = start();
+        TodoService todoService = first.getBean(TodoService.class);
+        Long kept = todoService.createTodoItem(new TodoRequest("Kept", LocalDateTime.now().plusDays(1))).id();
+        Long deletedFromSnapshot = todoService.createTodoItem(
+                new TodoRequest("Deleted from snapshot", LocalDateTime.now().plusDays(1))).id();
+
+        first.getBean(TodoTableDurability.class).snapshot();
+
+        todoService.deleteTodoItem(deletedFromSnapshot);
+        Long createdAndDeleted = todoService.createTodoItem(
+                new TodoRequest("Created and deleted", LocalDateTime.now().plusDays(1), Set.of("gone"))).id();
+        todoService.deleteTodoItem(createdAndDeleted);
+        first.close();
+
+        // When
+        ConfigurableApplicationContext restarted = start();
+
+        // Then
+        assertThat(allItems(restarted)).extracting(TodoItem::getId).containsExactly(kept);
+        assertThat(restarted.getBean(JdbcTemplate.class).queryForObject(
+                "SELECT COUNT(*) FROM todo_item_tags", Long.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("Given past due sweeps in the log, when restarting, then only items overdue at the sweep become past due")
+    void givenPastDueSweepsInLog_whenRestarting_thenOnlyOverdueItemsBecomePastDue() {
+        // Given
+        ConfigurableApplicationContext first = start();
+        TodoService todoService = first.getBean(TodoService.class);
+        Long overdueInSnapshot = todoService.createTodoItem(
+                new TodoRequest("Overdue in snapshot", LocalDateTime.now().minusDays(1))).id();
+        Long doneAndOverdue = todoService.createTodoItem(
+                new TodoRequest("Done and overdue", LocalDateTime.now().plusDays(1))).id();
+        todoService.markAsDone(doneAndOverdue);
+        first.getBean(JdbcTemplate.class).update(
+                "UPDATE todo_items SET due_datetime = ? WHERE id = ?", LocalDateTime.now().minusDays(1), doneAndOverdue);
+        Long notYetDue = todoService.createTodoItem(new TodoRequest("Not yet due", LocalDateTime.now().plusDays(1))).id();
+
+        first.getBean(TodoTableDurability.class).snapshot();
+
+        Long overdueInLog = todoService.createTodoItem(
+                new TodoRequest("Overdue in log", LocalDateTime.now().minusHours(1))).id();
+        todoService.updatePastDueItemsBulk();
+        first.close();
+
+        // When
+        ConfigurableApplicationContext restarted = start();
+
+        // Then
+        TodoRepository repository = restarted.getBean(TodoRepository.class);
+        assertThat(repository.findById(overdueInSnapshot).orElseThrow().getStatus()).isEqualTo(TodoItem.Status.PAST_DUE);
+        assertThat(repository.findById(overdueInLog).orElseThrow().getStatus()).isEqualTo(TodoItem.Status.PAST_DUE);
+        assertThat(repository.findById(doneAndOverdue).orElseThrow().getStatus()).isEqualTo(TodoItem.Status.DONE);
+        assertThat(repository.findById(notYetDue).orElseThrow().getStatus()).isEqualTo(TodoItem.Status.NOT_DONE);
+    }
+
+    @Test
+    @DisplayName("Given a torn final record in the log, when restarting, then restore every earlier change and keep appending")
+    void givenTornFinalRecord_whenRestarting_thenRestoreEarlierChangesAndKeepAppending() throws IOException {
+        // Given
+        ConfigurableApplicationContext first = start();
+        TodoService todoService = first.getBean(TodoService.class);
+        Long firstId = todoService.createTodoItem(new TodoRequest("First", LocalDateTime.now().plusDays(1))).id();
+        Long secondId = todoService.createTodoItem(new TodoRequest("Second", LocalDateTime.now().plusDays(1))).id();
+        todoService.createTodoItem(new TodoRequest("Torn", LocalDateTime.now().plusDays(1)));
+        first.close();
+        tearLastRecord();
+
+        // When
+        ConfigurableApplicationContext restarted = start();
+        Long afterRestart = restarted.getBean(TodoService.class)
+                .createTodoItem(new TodoRequest("After restart", LocalDateTime.now().plusDays(1))).id();
+        restarted.close();
+        ConfigurableApplicationContext restartedAgain = start();
+
+        // Then
+        assertThat(allItems(restartedAgain)).extracting(TodoItem::getId, TodoItem::getDescription)
+                .containsExactly(tuple(firstId, "First"), tuple(secondId, "Second"), tuple(afterRestart, "After restart"));
+    }
+
+    @Test
+    @DisplayName("Given archiving enabled, when starting with durability, then refuse to start")
+    void givenArchivingEnabled_whenStarting_thenRefuseToStart() {
+        // When & Then
+        assertThatThrownBy(() -> start("--todo.archive.enabled=true"))
+                .rootCause()
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("todo.archive.enabled");
+    }
+
+    /**
+     * Corrupts the payload of the last record in the only log segment, like a write that
+     * was cut off by a crash before it reached the disk completely.
+     */
+    private void tearLastRecord() throws IOException {
+        Path segment;
+        try (Stream<Path> segments = Files.list(durabilityDir.resolve("wal"))) {
+            segment = segments.max(Comparator.naturalOrder()).orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int lastRecord = -1;
+            while (buffer.remaining() >= SegmentLog.HEADER_BYTES) {
+                int start = buffer.position();
+                int length = buffer.getInt();
+                if (length == 0) {
+                    break;
+                }
+                lastRecord = start;
+                buffer.position(start + SegmentLog.HEADER_BYTES + length);
+            }
+            assertThat(lastRecord).isNotNegative();
+            int payloadStart = lastRecord + SegmentLog.HEADER_BYTES;
+            buffer.put(payloadStart, (byte) ~buffer.get(payloadStart));
+        }
+    }
+
+    private ConfigurableApplicationContext start(String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:durability-" + UUID.randomUUID(),
+                "--todo.durability.enabled=true",
+                "--todo.durability.directory=" + durabilityDir,
+                "--todo.durability.wal.segment-bytes=1048576",
+                "--todo.durability.snapshot.on-shutdown=false",
+                "--todo.scheduler.enabled=false",
+                "--todo.warmup.enabled=false"));
+        args.addAll(List.of(extraArgs));
+        ConfigurableApplicationContext node = new SpringApplicationBuilder(TodoServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+        nodes.add(node);
+        return node;
+    }
+
+    private static List<TodoItem> allItems(ConfigurableApplicationContext node) {
+        return node.getBean(TodoRepository.class).findAll().stream()
+                .sorted(Comparator.comparing(TodoItem::getId))
+                .toList();
+    }
+}
@@ -0,0 +1,143 @@
+package com.tradebyte.todo.repository.shard;
+
+import com.tradebyte.todo.TodoServiceApplication;
+import com.tradebyte.todo.dto.TodoRequest;
+import com.tradebyte.todo.dto.TodoResponse;
+import com.tradebyte.todo.entity.TodoItem;
+import com.tradebyte.todo.repository.TodoRepository;
+import com.tradebyte.todo.service.TodoService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Sharded Todo Repository Tests")
+class ShardedTodoRepositoryTest {
+
+    private static final int SHARDS = 3;
+
+    private static ConfigurableApplicationContext context;
+
+    private TodoService todoService;
+    private TodoRepository todoRepository;
+
+    @BeforeAll
+    static void startContext() {
+        context = new SpringApplicationBuilder(TodoServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--todo.storage.engine=sharded",
+                        "--todo.storage.sharded.shards=" + SHARDS,
+                        "--todo.storage.sharded.url-template=jdbc:h2:mem:shard-test-" + UUID.randomUUID() + "-%d",
+                        "--todo.scheduler.enabled=false",
+                        "--todo.warmup.enabled=false",
+                        "--todo.read.coalescing.enabled=false");
+    }
+
+    @AfterAll
+    static void stopContext() {
+        context.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        todoService = context.getBean(TodoService.class);
+        todoRepository = context.getBean(TodoRepository.class);
+        todoRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Given new items, when creating them, then spread them over all shards with the shard in the id")
+    void givenNewItems_whenCreating_thenSpreadOverShardsWithShardInId() {
+        // Given & When
+        List<TodoResponse> created = createItems(6, LocalDateTime.now().plusDays(1));
+
+        // Then
+        assertThat(created).extracting(item -> item.id() % ShardedTodoRepository.MAX_SHARDS)
+                .containsOnly(0L, 1L, 2L)
+                .contains(0L, 1L, 2L);
+        assertThat(created).allSatisfy(item ->
+                assertThat(todoService.getTodoItem(item.id()).description()).isEqualTo(item.description()));
+        assertThat(todoRepository.count()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Given items on every shard, when paging through the list, then merge the shards in id order")
+    void givenItemsOnEveryShard_whenPaging_thenMergeShardsInIdOrder() {
+        // Given
+        List<Long> ids = createItems(7, LocalDateTime.now().plusDays(1)).stream()
+                .map(TodoResponse::id)
+                .sorted()
+                .toList();
+
+        // When
+        List<Long> secondPage = todoService.getAllNotDoneItems(false, 1, 3).getContent().stream()
+                .map(TodoResponse::id)
+                .toList();
+
+        // Then
+        assertThat(secondPage).isEqualTo(ids.subList(3, 6));
+        assertThat(todoRepository.findAll(PageRequest.of(0, 2)).getTotalElements()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Given overdue items on every shard, when sweeping, then mark them past due on all shards")
+    void givenOverdueItemsOnEveryShard_whenSweeping_thenMarkThemOnAllShards() {
+        // Given
+        List<TodoResponse> overdue = createItems(SHARDS * 2, LocalDateTime.now().minusHours(1));
+        createItems(2, LocalDateTime.now().plusDays(1));
+
+        // When
+        int updated = todoService.updatePastDueItemsBulk();
+
+        // Then
+        assertThat(updated).isEqualTo(overdue.size());
+        assertThat(overdue).allSatisfy(item ->
+                assertThat(todoRepository.findById(item.id()).orElseThrow().getStatus())
+                        .isEqualTo(TodoItem.Status.PAST_DUE));
+    }
+
+    @Test
+    @DisplayName("Given a transaction writing to several shards, when it rolls back, then undo the writes on every shard")
+    void givenTransactionWritingToSeveralShards_whenRolledBack_thenUndoWritesOnEveryShard() {
+        // Given
+        List<TodoResponse> existing = createItems(SHARDS, LocalDateTime.now().plusDays(1));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        // When
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            existing.forEach(item -> todoService.markAsDone(item.id()));
+            todoService.createTodoItem(new TodoRequest("Rolled back", LocalDateTime.now().plusDays(1)));
+            throw new IllegalStateException("Roll back");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // Then
+        assertThat(todoRepository.count()).isEqualTo(SHARDS);
+        assertThat(existing).allSatisfy(item ->
+                assertThat(todoRepository.findById(item.id()).orElseThrow().getStatus())
+                        .isEqualTo(TodoItem.Status.NOT_DONE));
+    }
+
+    private List<TodoResponse> createItems(int count, LocalDateTime dueDateTime) {
+        List<TodoResponse> created = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            created.add(todoService.createTodoItem(new TodoRequest("Item " + i, dueDateTime)));
+        }
+        return created;
+    }
+}
@@ -0,0 +1,120 @@
+package com.tradebyte.todo.scheduler;
+
+import com.tradebyte.todo.TodoServiceApplication;
+import com.tradebyte.todo.entity.SchedulerLease;
+import com.tradebyte.todo.entity.TodoItem;
+import com.tradebyte.todo.repository.SchedulerLeaseRepository;
+import com.tradebyte.todo.repository.TodoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs two application contexts against one file-based H2 database, the way two
+ * replicas share one database.
+ */
+@DisplayName("Past Due Scheduler Cluster Tests")
+class PastDueSchedulerClusterTest {
+
+    @TempDir
+    Path databaseDir;
+
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    @DisplayName("Given two nodes, when both sweep, then only the lease owner marks past due items")
+    void givenTwoNodes_whenBothSweep_thenOnlyLeaseOwnerMarksItems() {
+        // Given
+        ConfigurableApplicationContext nodeA = startNode("node-a", 1);
+        ConfigurableApplicationContext nodeB = startNode("node-b", 1);
+        nodeA.getBean(PastDueScheduler.class).sweep();
+        savePastDueItems(nodeA, 3);
+
+        // When
+        int updatedByB = nodeB.getBean(PastDueScheduler.class).sweep();
+        int updatedByA = nodeA.getBean(PastDueScheduler.class).sweep();
+
+        // Then
+        assertThat(updatedByB).isZero();
+        assertThat(updatedByA).isEqualTo(3);
+        assertThat(nodeB.getBean(SchedulerLeaseRepository.class).findById(PastDueScheduler.SWEEP_LEASE))
+                .map(SchedulerLease::getOwner)
+                .contains("node-a");
+    }
+
+    @Test
+    @DisplayName("Given partitioned mode, when a second node joins, then partitions are split evenly and every item is swept once")
+    void givenPartitionedMode_whenSecondNodeJoins_thenSplitPartitionsAndSweepEveryItem() {
+        // Given
+        ConfigurableApplicationContext nodeA = startNode("node-a", 4);
+        ConfigurableApplicationContext nodeB = startNode("node-b", 4);
+        PastDueScheduler schedulerA = nodeA.getBean(PastDueScheduler.class);
+        PastDueScheduler schedulerB = nodeB.getBean(PastDueScheduler.class);
+
+        assertThat(schedulerA.claimPartitions()).hasSize(4);
+        assertThat(schedulerB.claimPartitions()).isEmpty();
+        List<Integer> partitionsOfA = schedulerA.claimPartitions();
+        List<Integer> partitionsOfB = schedulerB.claimPartitions();
+        savePastDueItems(nodeA, 8);
+
+        // When
+        int updatedByA = schedulerA.sweep();
+        int updatedByB = schedulerB.sweep();
+
+        // Then
+        assertThat(partitionsOfA).hasSize(2).doesNotContainAnyElementsOf(partitionsOfB);
+        assertThat(partitionsOfB).hasSize(2);
+        assertThat(updatedByA + updatedByB).isEqualTo(8);
+        assertThat(updatedByA).isPositive();
+        assertThat(updatedByB).isPositive();
+
+        Map<String, Long> partitionLeasesByOwner = nodeA.getBean(SchedulerLeaseRepository.class).findAll().stream()
+                .filter(lease -> lease.getName().startsWith(PastDueScheduler.PARTITION_LEASE_PREFIX))
+                .collect(Collectors.groupingBy(SchedulerLease::getOwner, Collectors.counting()));
+        assertThat(partitionLeasesByOwner).containsEntry("node-a", 2L).containsEntry("node-b", 2L);
+    }
+
+    private ConfigurableApplicationContext startNode(String nodeId, int partitions) {
+        ConfigurableApplicationContext node = new SpringApplicationBuilder(TodoServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:file:" + databaseDir.resolve("todo") + ";DB_CLOSE_DELAY=-1",
+                        "--todo.scheduler.enabled=false",
+                        "--todo.scheduler.node-id=" + nodeId,
+                        "--todo.scheduler.partitions=" + partitions,
+                        "--todo.warmup.enabled=false");
+        nodes.add(node);
+        return node;
+    }
+
+    private void savePastDueItems(ConfigurableApplicationContext node, int count) {
+        List<TodoItem> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(TodoItem.builder()
+                    .description("Overdue " + i)
+                    .creationDateTime(LocalDateTime.now().minusDays(2))
+                    .dueDateTime(LocalDateTime.now().minusDays(1))
+                    .status(TodoItem.Status.NOT_DONE)
+                    .build());
+        }
+        node.getBean(TodoRepository.class).saveAll(items);
+    }
+}
@@ -0,0 +1,258 @@
+package com.tradebyte.todo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo.dto.UpdateDescriptionRequest;
+import com.tradebyte.todo.entity.ArchivedTodoItem;
+import com.tradebyte.todo.entity.TodoItem;
+import com.tradebyte.todo.repository.ArchivedTodoItemRepository;
+import com.tradebyte.todo.repository.TodoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "todo.description.write-behind.enabled=true",
+        "todo.description.write-behind.window-ms=600000"
+})
+@AutoConfigureMockMvc
+@DisplayName("Description Write-Behind Tests")
+class DescriptionWriteBehindTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private ArchivedTodoItemRepository archivedTodoItemRepository;
+
+    @Autowired
+    private DescriptionWriteBehind descriptionWriteBehind;
+
+    @Autowired
+    private FlushBarrier flushBarrier;
+
+    private TodoItem savedItem;
+
+    @BeforeEach
+    void setUp() {
+        todoRepository.deleteAll();
+        archivedTodoItemRepository.deleteAll();
+        savedItem = todoRepository.save(TodoItem.builder()
+                .description("Original description")
+                .creationDateTime(LocalDateTime.now())
+                .dueDateTime(LocalDateTime.now().plusDays(1))
+                .status(TodoItem.Status.NOT_DONE)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Given rapid description updates, when reading before flush, then return latest description and write it once on flush")
+    void givenRapidDescriptionUpdates_whenReadBeforeFlush_thenReturnLatestAndWriteOnFlush() throws Exception {
+        // Given
+        patchDescription("Draft 1");
+        patchDescription("Draft 2");
+        patchDescription("Final draft");
+
+        // When & Then
+        mockMvc.perform(get("/v1/todos/{id}", savedItem.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Final draft"));
+        assertThat(todoRepository.findById(savedItem.getId()).orElseThrow().getDescription())
+                .isEqualTo("Original description");
+
+        descriptionWriteBehind.flushAll();
+
+        TodoItem flushedItem = todoRepository.findById(savedItem.getId()).orElseThrow();
+        assertThat(flushedItem.getDescription()).isEqualTo("Final draft");
+        assertThat(flushedItem.getVersion()).isEqualTo(savedItem.getVersion() + 1);
+    }
+
+    @Test
+    @DisplayName("Given buffered update, when item becomes past due before flush, then drop the update")
+    void givenBufferedUpdate_whenItemBecomesPastDueBeforeFlush_thenDropUpdate() throws Exception {
+        // Given
+        patchDescription("Too late");
+
+        TodoItem pastDueItem = todoRepository.findById(savedItem.getId()).orElseThrow();
+        pastDueItem.setStatus(TodoItem.Status.PAST_DUE);
+        todoRepository.save(pastDueItem);
+
+        // When
+        descriptionWriteBehind.flushAll();
+
+        // Then
+        assertThat(todoRepository.findById(savedItem.getId()).orElseThrow().getDescription())
+                .isEqualTo("Original description");
+    }
+
+    @Test
+    @DisplayName("Given a flush in progress, when an update is buffered and flushed by two more flushes, then the latest update is committed")
+    void givenFlushInProgress_whenUpdateFlushedTwiceMeanwhile_thenLatestUpdateCommitted() throws Exception {
+        // Given
+        TodoItem otherItem = todoRepository.save(TodoItem.builder()
+                .description("Other")
+                .creationDateTime(LocalDateTime.now())
+                .dueDateTime(LocalDateTime.now().plusDays(1))
+                .status(TodoItem.Status.NOT_DONE)
+                .build());
+        mockMvc.perform(patch("/v1/todos/{id}/description", otherItem.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpdateDescriptionRequest("Other draft"))))
+                .andExpect(status().isOk());
+        flushBarrier.arm();
+        CompletableFuture<Void> blockingFlush = CompletableFuture.runAsync(() -> {
+            flushBarrier.block(Thread.currentThread());
+            descriptionWriteBehind.flush(otherItem.getId());
+        });
+        assertThat(flushBarrier.awaitStarted()).isTrue();
+
+        // When
+        patchDescription("Older");
+        // Stands in for the scheduled flush, which would take the entry once the window is over
+        CompletableFuture<Void> scheduledFlush = CompletableFuture.runAsync(descriptionWriteBehind::flushAll);
+        Thread.sleep(200);
+        patchDescription("Newer");
+        CompletableFuture<Void> statusChangeFlush = CompletableFuture.runAsync(
+                () -> descriptionWriteBehind.flush(savedItem.getId()));
+        Thread.sleep(200);
+        flushBarrier.release();
+        CompletableFuture.allOf(blockingFlush, scheduledFlush, statusChangeFlush).get(10, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(todoRepository.findById(savedItem.getId()).orElseThrow().getDescription()).isEqualTo("Newer");
+        assertThat(todoRepository.findById(otherItem.getId()).orElseThrow().getDescription()).isEqualTo("Other draft");
+        mockMvc.perform(get("/v1/todos/{id}", savedItem.getId()))
+                .andExpect(jsonPath("$.description").value("Newer"));
+    }
+
+    @Test
+    @DisplayName("Given an item deleted while its flush is in progress, when the flush commits, then still write the other updates")
+    void givenItemDeletedDuringFlush_whenFlushCommits_thenWriteOtherUpdates() throws Exception {
+        // Given
+        TodoItem deletedItem = todoRepository.save(TodoItem.builder()
+                .description("Deleted meanwhile")
+                .creationDateTime(LocalDateTime.now())
+                .dueDateTime(LocalDateTime.now().plusDays(1))
+                .status(TodoItem.Status.NOT_DONE)
+                .build());
+        patchDescription("Survives");
+        mockMvc.perform(patch("/v1/todos/{id}/description", deletedItem.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpdateDescriptionRequest("Lost"))))
+                .andExpect(status().isOk());
+        flushBarrier.arm();
+        CompletableFuture<Void> flush = CompletableFuture.runAsync(() -> {
+            flushBarrier.block(Thread.currentThread());
+            descriptionWriteBehind.flushAll();
+        });
+        assertThat(flushBarrier.awaitStarted()).isTrue();
+
+        // When
+        todoRepository.deleteById(deletedItem.getId());
+        flushBarrier.release();
+        flush.get(10, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(todoRepository.findById(savedItem.getId()).orElseThrow().getDescription()).isEqualTo("Survives");
+        assertThat(todoRepository.findById(deletedItem.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given an archived item, when updating its description, then return 400 without buffering")
+    void givenArchivedItem_whenUpdatingDescription_thenBadRequest() throws Exception {
+        // Given
+        TodoItem doneItem = todoRepository.findById(savedItem.getId()).orElseThrow();
+        archivedTodoItemRepository.save(ArchivedTodoItem.of(doneItem, TodoItem.Status.DONE, LocalDateTime.now()));
+        todoRepository.delete(doneItem);
+
+        // When & Then
+        mockMvc.perform(patch("/v1/todos/{id}/description", savedItem.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpdateDescriptionRequest("Too late"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("archived")));
+        mockMvc.perform(get("/v1/todos/{id}", savedItem.getId()))
+                .andExpect(jsonPath("$.description").value("Original description"));
+    }
+
+    private void patchDescription(String description) throws Exception {
+        mockMvc.perform(patch("/v1/todos/{id}/description", savedItem.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpdateDescriptionRequest(description))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value(description));
+    }
+
+    /**
+     * Holds one thread inside the transaction of its flush until released.
+     */
+    static class FlushBarrier {
+
+        private volatile CountDownLatch started = new CountDownLatch(1);
+        private volatile CountDownLatch released = new CountDownLatch(1);
+        private volatile Thread blockedThread;
+
+        /**
+         * Resets the barrier; called by the test thread before the flush thread starts.
+         */
+        void arm() {
+            blockedThread = null;
+            started = new CountDownLatch(1);
+            released = new CountDownLatch(1);
+        }
+
+        void block(Thread thread) {
+            blockedThread = thread;
+        }
+
+        boolean awaitStarted() throws InterruptedException {
+            return started.await(10, TimeUnit.SECONDS);
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        @EventListener
+        public void onTodoItemsChanged(TodoItemsChangedEvent event) throws InterruptedException {
+            if (Thread.currentThread() == blockedThread) {
+                started.countDown();
+                released.await(10, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class FlushBarrierConfig {
+
+        @Bean
+        FlushBarrier flushBarrier() {
+            return new FlushBarrier();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.tradebyte.todo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo.dto.TodoRequest;
+import com.tradebyte.todo.dto.TodoResponse;
+import com.tradebyte.todo.repository.TodoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "todo.create.async.enabled=true",
+        "todo.create.async.buffer-capacity=4",
+        "todo.create.async.offer-timeout-ms=1000"
+})
+@AutoConfigureMockMvc
+@DisplayName("Group Commit Todo Writer Tests")
+class GroupCommitTodoWriterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CommitBarrier commitBarrier;
+
+    @Autowired
+    private GroupCommitTodoWriter groupCommitTodoWriter;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @BeforeEach
+    void setUp() {
+        todoRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        commitBarrier.release();
+    }
+
+    @Test
+    @DisplayName("Given concurrent creates, when queued for group commit, then assign ids disjoint from synchronous creates and commit every item")
+    void givenConcurrentCreates_whenQueued_thenAssignUniqueIdsAndCommitEveryItem() throws Exception {
+        // Given
+        int creates = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<TodoResponse>> accepted = new ArrayList<>();
+            for (int i = 0; i < creates; i++) {
+                TodoRequest request = TodoRequest.builder()
+                        .description("Queued task " + i)
+                        .dueDateTime(LocalDateTime.now().plusDays(1))
+                        .build();
+                accepted.add(executor.submit(() -> groupCommitTodoWriter.enqueue(request)));
+            }
+
+            // When
+            List<Long> ids = new ArrayList<>();
+            for (Future<TodoResponse> response : accepted) {
+                ids.add(response.get(5, TimeUnit.SECONDS).id());
+            }
+            for (Long id : ids) {
+                Optional<TodoResponse> committed = groupCommitTodoWriter.awaitCommitted(id, Duration.ofSeconds(5));
+                assertThat(committed).isPresent();
+            }
+
+            ids.add(todoService.createTodoItem(TodoRequest.builder()
+                    .description("Synchronous task")
+                    .dueDateTime(LocalDateTime.now().plusDays(1))
+                    .build()).id());
+
+            // Then
+            assertThat(ids).doesNotHaveDuplicates();
+            assertThat(todoRepository.findAllById(ids)).hasSize(creates + 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Given the writer is busy and the buffer is full, when creating, then accept queued items with 202 and reject the overflow with 503")
+    void givenBufferFull_whenCreating_thenAcceptQueuedItemsAndRejectOverflow() throws Exception {
+        // Given
+        commitBarrier.arm();
+        TodoResponse inFlight = create("In flight");
+        commitBarrier.awaitBlocked();
+        for (int i = 0; i < 4; i++) {
+            create("Buffered " + i);
+        }
+
+        // When & Then
+        mockMvc.perform(post("/v1/todos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(createBody("Overflow")))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.status").value(503));
+
+        commitBarrier.release();
+        assertThat(groupCommitTodoWriter.awaitCommitted(inFlight.id(), Duration.ofSeconds(5))).isPresent();
+    }
+
+    @Test
+    @DisplayName("Given an item waiting for its batch, when awaiting its commit, then return 202 until the timeout and 200 once committed")
+    void givenItemWaitingForBatch_whenAwaitingCommit_thenReturn202UntilCommitted() throws Exception {
+        // Given
+        commitBarrier.arm();
+        create("In flight");
+        commitBarrier.awaitBlocked();
+        TodoResponse waiting = create("Waiting");
+
+        // When & Then
+        mockMvc.perform(get("/v1/todos/{id}/committed", waiting.id()).param("timeoutMs", "100"))
+                .andExpect(status().isAccepted());
+
+        commitBarrier.release();
+        mockMvc.perform(get("/v1/todos/{id}/committed", waiting.id()).param("timeoutMs", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Waiting"));
+    }
+
+    @Test
+    @DisplayName("Given a batch with an item that cannot be inserted, when committing, then retry one by one and commit the others")
+    void givenBatchWithFailingItem_whenCommitting_thenRetryOneByOneAndCommitOthers() throws Exception {
+        // Given
+        commitBarrier.arm();
+        TodoResponse inFlight = create("In flight");
+        commitBarrier.awaitBlocked();
+        TodoResponse conflicting = create("Conflicting");
+        TodoResponse healthy = create("Healthy");
+        jdbcTemplate.update("""
+                INSERT INTO todo_items (id, description, status, creation_datetime, due_datetime, version)
+                VALUES (?, 'Inserted elsewhere', 'NOT_DONE', ?, ?, 0)
+                """, conflicting.id(), LocalDateTime.now(), LocalDateTime.now().plusDays(1));
+
+        // When
+        commitBarrier.release();
+
+        // Then
+        assertThat(groupCommitTodoWriter.awaitCommitted(healthy.id(), Duration.ofSeconds(5)))
+                .map(TodoResponse::description)
+                .contains("Healthy");
+        assertThat(groupCommitTodoWriter.awaitCommitted(inFlight.id(), Duration.ofSeconds(5))).isPresent();
+        assertThat(todoRepository.findById(conflicting.id()).orElseThrow().getDescription())
+                .isEqualTo("Inserted elsewhere");
+        assertThat(todoRepository.count()).isEqualTo(3);
+    }
+
+    private TodoResponse create(String description) throws Exception {
+        MvcResult result = mockMvc.perform(post("/v1/todos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(createBody(description)))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), TodoResponse.class);
+    }
+
+    private String createBody(String description) throws Exception {
+        return objectMapper.writeValueAsString(new TodoRequest(description, LocalDateTime.now().plusDays(1)));
+    }
+
+    /**
+     * Holds the group commit writer inside its transaction, so further creates stay in the buffer.
+     */
+    static class CommitBarrier {
+
+        private volatile CountDownLatch blocked = new CountDownLatch(1);
+        private volatile CountDownLatch released = new CountDownLatch(0);
+
+        void arm() {
+            blocked = new CountDownLatch(1);
+            released = new CountDownLatch(1);
+        }
+
+        void awaitBlocked() throws InterruptedException {
+            assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        @EventListener
+        public void onTodoItemsChanged(TodoItemsChangedEvent event) throws InterruptedException {
+            if ("todo-group-commit".equals(Thread.currentThread().getName())) {
+                blocked.countDown();
+                released.await(10, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class CommitBarrierConfig {
+
+        @Bean
+        CommitBarrier commitBarrier() {
+            return new CommitBarrier();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.tradebyte.todo.service;
+
+import com.tradebyte.todo.repository.TodoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "todo.warmup.enabled=true",
+        "todo.warmup.iterations=20",
+        "todo.warmup.scratch-items=30"
+})
+@AutoConfigureMockMvc
+@DisplayName("Read Path Warm-Up Tests")
+class ReadPathWarmUpTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReadPathWarmUp readPathWarmUp;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Given a started application, when warm-up completes, then report ready and record its metrics")
+    void givenStartedApplication_whenWarmUpCompletes_thenReportReadyAndRecordMetrics() throws Exception {
+        // When
+        awaitWarmUp();
+
+        // Then
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+        assertThat(readPathWarmUp.getCompletedIterations()).isEqualTo(20);
+        assertThat(meterRegistry.get("todo.warmup.duration").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("todo.warmup.iteration").timer().count()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Given a completed warm-up, when reading items, then no scratch item is left behind")
+    void givenCompletedWarmUp_whenReadingItems_thenNoScratchItemLeftBehind() throws Exception {
+        // Given
+        awaitWarmUp();
+
+        // When & Then
+        assertThat(todoRepository.findAll())
+                .noneMatch(item -> item.getDescription().startsWith("Warm-up item"));
+    }
+
+    private void awaitWarmUp() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!readPathWarmUp.isComplete() && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        assertThat(readPathWarmUp.isComplete()).isTrue();
+    }
+}
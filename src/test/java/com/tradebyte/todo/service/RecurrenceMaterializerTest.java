@@ -0,0 +1,143 @@
+package com.tradebyte.todo.service;
+
+import com.tradebyte.todo.dto.RecurringTodoRequest;
+import com.tradebyte.todo.entity.RecurringTodoTemplate;
+import com.tradebyte.todo.entity.TodoItem;
+import com.tradebyte.todo.repository.RecurringTodoTemplateRepository;
+import com.tradebyte.todo.repository.TodoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "todo.recurring.enabled=true",
+        "todo.recurring.interval-ms=3600000",
+        "todo.recurring.horizon-days=14",
+        "todo.recurring.chunk-size=3",
+        "todo.recurring.parallelism=4",
+        "todo.scheduler.enabled=false"
+})
+@AutoConfigureMockMvc
+@DisplayName("Recurrence Materializer Tests")
+class RecurrenceMaterializerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RecurrenceMaterializer materializer;
+
+    @Autowired
+    private RecurringTodoService recurringTodoService;
+
+    @Autowired
+    private RecurringTodoTemplateRepository templateRepository;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        todoRepository.deleteAll();
+        templateRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Given daily and weekly templates in several chunks, when materializing twice, then create each occurrence once with tags")
+    void givenTemplatesInSeveralChunks_whenMaterializingTwice_thenCreateEachOccurrenceOnce() {
+        // Given
+        for (int i = 0; i < 10; i++) {
+            recurringTodoService.createTemplate(new RecurringTodoRequest(
+                    "Daily " + i, "@daily", Set.of("routine")));
+        }
+        recurringTodoService.createTemplate(new RecurringTodoRequest(
+                "Weekly", "@weekly", null));
+
+        // When
+        int first = materializer.materialize();
+        int second = materializer.materialize();
+
+        // Then
+        List<TodoItem> items = todoRepository.findAll();
+        long weekly = items.stream().filter(item -> item.getDescription().equals("Weekly")).count();
+        assertThat(first).isEqualTo(items.size()).isEqualTo(10 * 14 + (int) weekly);
+        assertThat(weekly).isBetween(2L, 3L);
+        assertThat(second).isZero();
+        assertThat(items).allSatisfy(item -> {
+            assertThat(item.getStatus()).isEqualTo(TodoItem.Status.NOT_DONE);
+            assertThat(item.getDueDateTime()).isAfter(LocalDateTime.now())
+                    .isBefore(LocalDateTime.now().plusDays(14));
+            assertThat(item.getRecurringTemplateId()).isNotNull();
+        });
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM todo_item_tags WHERE tag = 'routine'", Long.class))
+                .isEqualTo(140);
+        assertThat(templateRepository.findAll()).allSatisfy(template ->
+                assertThat(template.getNextOccurrence()).isAfterOrEqualTo(LocalDateTime.now().plusDays(13)));
+    }
+
+    @Test
+    @DisplayName("Given a template moved back after materializing, when materializing again, then skip the existing occurrences")
+    void givenTemplateMovedBack_whenMaterializingAgain_thenSkipExistingOccurrences() {
+        // Given
+        Long id = recurringTodoService.createTemplate(new RecurringTodoRequest(
+                "Hourly", "0 0 * * * *", null)).id();
+        int created = materializer.materialize();
+        RecurringTodoTemplate template = templateRepository.findById(id).orElseThrow();
+        LocalDateTime exhausted = template.getNextOccurrence();
+        template.setNextOccurrence(LocalDateTime.now().minusDays(3));
+        templateRepository.save(template);
+
+        // When
+        int again = materializer.materialize();
+
+        // Then
+        assertThat(created).isBetween(14 * 24 - 1, 14 * 24);
+        assertThat(again).isZero();
+        assertThat(todoRepository.count()).isEqualTo(created);
+        assertThat(templateRepository.findById(id).orElseThrow().getNextOccurrence()).isEqualTo(exhausted);
+    }
+
+    @Test
+    @DisplayName("Given invalid or deleted templates, when calling the API, then 400 and 404 are returned")
+    void givenInvalidOrDeletedTemplates_whenCallingApi_thenBadRequestAndNotFound() throws Exception {
+        // Given
+        Long id = recurringTodoService.createTemplate(new RecurringTodoRequest(
+                "Weekly", "@weekly", Set.of("home"))).id();
+
+        // When / Then
+        mockMvc.perform(post("/v1/recurring-todos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\": \"Broken\", \"cron\": \"every day\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Invalid cron expression")));
+        mockMvc.perform(get("/v1/recurring-todos/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cron").value("@weekly"))
+                .andExpect(jsonPath("$.tags[0]").value("home"));
+        mockMvc.perform(delete("/v1/recurring-todos/{id}", id))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/v1/recurring-todos/{id}", id))
+                .andExpect(status().isNotFound());
+    }
+}
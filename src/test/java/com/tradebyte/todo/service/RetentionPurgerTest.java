@@ -0,0 +1,165 @@
+package com.tradebyte.todo.service;
+
+import com.tradebyte.todo.entity.ArchivedTodoItem;
+import com.tradebyte.todo.entity.TodoItem;
+import com.tradebyte.todo.index.TodoTagIndex;
+import com.tradebyte.todo.repository.ArchivedTodoItemRepository;
+import com.tradebyte.todo.repository.TodoRepository;
+import com.tradebyte.todo.scheduler.SchedulerLeaseManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "todo.retention.enabled=true",
+        "todo.retention.done-days=90",
+        "todo.retention.chunk-size=2",
+        "todo.retention.pause-between-chunks-ms=0"
+})
+@DisplayName("Retention Purger Tests")
+class RetentionPurgerTest {
+
+    @Autowired
+    private RetentionPurger retentionPurger;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private ArchivedTodoItemRepository archivedTodoItemRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SchedulerLeaseManager leaseManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TodoTagIndex tagIndex;
+
+    @BeforeEach
+    void setUp() {
+        todoRepository.deleteAll();
+        archivedTodoItemRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Given expired and recent items in both tiers, when purging, then delete only expired done items in chunks")
+    void givenExpiredAndRecentItems_whenPurging_thenDeleteOnlyExpiredDoneItems() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            saveLive("Expired done " + i, TodoItem.Status.DONE, now.minusDays(100));
+        }
+        TodoItem recentDone = saveLive("Recent done", TodoItem.Status.DONE, now.minusDays(10));
+        TodoItem oldPastDue = saveLive("Old past due", TodoItem.Status.PAST_DUE, null);
+        archivedTodoItemRepository.save(ArchivedTodoItem.builder()
+                .id(1_000_000L)
+                .description("Archived expired")
+                .status(TodoItem.Status.DONE)
+                .creationDateTime(now.minusDays(200))
+                .dueDateTime(now.minusDays(150))
+                .doneDateTime(now.minusDays(120))
+                .archivedDateTime(now.minusDays(60))
+                .build());
+
+        // When
+        int purged = retentionPurger.purge();
+
+        // Then
+        assertThat(purged).isEqualTo(6);
+        assertThat(todoRepository.findAll()).extracting(TodoItem::getId)
+                .containsExactlyInAnyOrder(recentDone.getId(), oldPastDue.getId());
+        assertThat(archivedTodoItemRepository.count()).isZero();
+        assertThat(meterRegistry.get("todo.retention.purged").tag("tier", "live").counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("todo.retention.run").timer().count()).isEqualTo(1);
+    }
+
+    @Nested
+    @DisplayName("Past due retention")
+    class PastDueRetentionTests {
+
+        @Test
+        @DisplayName("Given past due items of different ages, when purging, then delete only the expired ones")
+        void givenPastDueItems_whenPurging_thenDeleteOnlyExpiredOnes() {
+            // Given
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < 3; i++) {
+                saveLive("Expired past due " + i, TodoItem.Status.PAST_DUE, null);
+            }
+            TodoItem recentPastDue = saveLive("Recent past due", TodoItem.Status.PAST_DUE, null, now.minusDays(5));
+            TodoItem overdueNotDone = saveLive("Overdue, not swept", TodoItem.Status.NOT_DONE, null);
+
+            // When
+            int purged = pastDuePurger(new PastDuePolicy(false)).purge();
+
+            // Then
+            assertThat(purged).isEqualTo(3);
+            assertThat(todoRepository.findAll()).extracting(TodoItem::getId)
+                    .containsExactlyInAnyOrder(recentPastDue.getId(), overdueNotDone.getId());
+        }
+    }
+
+    @Nested
+    @DisplayName("Past due retention with lazy past due evaluation")
+    class LazyPastDueRetentionTests {
+
+        @Test
+        @DisplayName("Given overdue items still stored as not done, when purging, then delete the expired ones as past due")
+        void givenOverdueNotDoneItems_whenPurging_thenDeleteExpiredOnesAsPastDue() {
+            // Given
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < 3; i++) {
+                saveLive("Expired overdue " + i, TodoItem.Status.NOT_DONE, null);
+            }
+            TodoItem persistedPastDue = saveLive("Persisted past due", TodoItem.Status.PAST_DUE, null);
+            TodoItem recentlyOverdue = saveLive("Recently overdue", TodoItem.Status.NOT_DONE, null, now.minusDays(5));
+            TodoItem notYetDue = saveLive("Not yet due", TodoItem.Status.NOT_DONE, null, now.plusDays(5));
+
+            // When
+            int purged = pastDuePurger(new PastDuePolicy(true)).purge();
+
+            // Then
+            assertThat(purged).isEqualTo(4);
+            assertThat(todoRepository.findAll()).extracting(TodoItem::getId)
+                    .containsExactlyInAnyOrder(recentlyOverdue.getId(), notYetDue.getId())
+                    .doesNotContain(persistedPastDue.getId());
+        }
+    }
+
+    /**
+     * A purger that also deletes past due items after 30 days, with its own meters.
+     */
+    private RetentionPurger pastDuePurger(PastDuePolicy pastDuePolicy) {
+        return new RetentionPurger(todoRepository, archivedTodoItemRepository, leaseManager, eventPublisher, tagIndex,
+                pastDuePolicy, new SimpleMeterRegistry(), 90, 30, 2, 100, 0);
+    }
+
+    private TodoItem saveLive(String description, TodoItem.Status status, LocalDateTime doneDateTime) {
+        return saveLive(description, status, doneDateTime, LocalDateTime.now().minusDays(200));
+    }
+
+    private TodoItem saveLive(String description, TodoItem.Status status, LocalDateTime doneDateTime,
+                              LocalDateTime dueDateTime) {
+        return todoRepository.save(TodoItem.builder()
+                .description(description)
+                .status(status)
+                .creationDateTime(dueDateTime.minusDays(1))
+                .dueDateTime(dueDateTime)
+                .doneDateTime(doneDateTime)
+                .build());
+    }
+}
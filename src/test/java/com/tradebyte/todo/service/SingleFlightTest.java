@@ -0,0 +1,152 @@
+package com.tradebyte.todo.service;
+
+import com.tradebyte.todo.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Single Flight Tests")
+class SingleFlightTest {
+
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    @DisplayName("Given concurrent calls for the same key, when executing, then run the loader once and share the result")
+    void givenConcurrentCallsForSameKey_whenExecute_thenRunLoaderOnce() throws Exception {
+        // Given
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+                    loads.incrementAndGet();
+                    awaitQuietly(release);
+                    return "value";
+                })));
+            }
+
+            // When
+            waitUntil(() -> singleFlight.joinCount() == callers - 1);
+            release.countDown();
+
+            // Then
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+            }
+            assertThat(loads.get()).isEqualTo(1);
+            assertThat(singleFlight.executionCount()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Given failing loader, when waiting callers join, then every caller receives the same exception")
+    void givenFailingLoader_whenCallersJoin_thenPropagateSameException() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+                awaitQuietly(release);
+                throw new ResourceNotFoundException("Todo item not found with id: 1");
+            }));
+            waitUntil(() -> singleFlight.executionCount() == 1);
+
+            Future<String> follower = executor.submit(() -> singleFlight.execute(1L, () -> "unused"));
+            waitUntil(() -> singleFlight.joinCount() == 1);
+
+            // When
+            release.countDown();
+
+            // Then
+            assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(ResourceNotFoundException.class);
+            assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(ResourceNotFoundException.class);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Given interrupted leader, when a caller is waiting, then the waiting caller retries the load")
+    void givenInterruptedLeader_whenCallerWaiting_thenWaitingCallerRetries() throws Exception {
+        // Given
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+                leaderStarted.countDown();
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted", ex);
+                }
+                return "stale";
+            }));
+            leaderStarted.await(5, TimeUnit.SECONDS);
+
+            Future<String> follower = executor.submit(() -> singleFlight.execute(1L, () -> "fresh"));
+            waitUntil(() -> singleFlight.joinCount() == 1);
+
+            // When
+            leader.cancel(true);
+
+            // Then
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("fresh");
+            assertThat(singleFlight.executionCount()).isEqualTo(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Given completed call, when executing again, then load again instead of caching the result")
+    void givenCompletedCall_whenExecuteAgain_thenLoadAgain() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        singleFlight.execute(1L, () -> "first " + loads.incrementAndGet());
+        String second = singleFlight.execute(1L, () -> "second " + loads.incrementAndGet());
+
+        // Then
+        assertThat(second).isEqualTo("second 2");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,153 @@
+package com.tradebyte.todo.service;
+
+import com.tradebyte.todo.entity.TodoItem;
+import com.tradebyte.todo.repository.ArchivedTodoItemRepository;
+import com.tradebyte.todo.repository.TodoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "todo.archive.enabled=true",
+        "todo.archive.min-age-days=30",
+        "todo.archive.chunk-size=2",
+        "todo.archive.pause-between-chunks-ms=0"
+})
+@AutoConfigureMockMvc
+@Transactional
+@DisplayName("Todo Archiver Tests")
+class TodoArchiverTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoArchiver todoArchiver;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private ArchivedTodoItemRepository archivedTodoItemRepository;
+
+    private TodoItem oldDoneItem;
+    private TodoItem recentDoneItem;
+    private TodoItem openItem;
+
+    @BeforeEach
+    void setUp() {
+        todoRepository.deleteAll();
+        archivedTodoItemRepository.deleteAll();
+
+        LocalDateTime now = LocalDateTime.now();
+        oldDoneItem = save("Old done", TodoItem.Status.DONE, now.minusDays(70), now.minusDays(60));
+        save("Old past due", TodoItem.Status.PAST_DUE, now.minusDays(70), null);
+        save("Another old done", TodoItem.Status.DONE, now.minusDays(70), now.minusDays(45));
+        recentDoneItem = save("Recently done", TodoItem.Status.DONE, now.minusDays(5), now.minusDays(1));
+        openItem = save("Still open", TodoItem.Status.NOT_DONE, now.plusDays(1), null);
+    }
+
+    @Test
+    @DisplayName("Given finished items of different ages, when archiving, then move only old finished items in chunks")
+    void givenFinishedItemsOfDifferentAges_whenArchiving_thenMoveOnlyOldFinishedItems() {
+        // When
+        int archived = todoArchiver.archive();
+
+        // Then
+        assertThat(archived).isEqualTo(3);
+        assertThat(todoRepository.findAll()).extracting(TodoItem::getId)
+                .containsExactlyInAnyOrder(recentDoneItem.getId(), openItem.getId());
+        assertThat(archivedTodoItemRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Given an archived item, when reading it by id or across tiers, then return it from the archive")
+    void givenArchivedItem_whenReading_thenReturnFromArchive() throws Exception {
+        // Given
+        todoArchiver.archive();
+
+        // When & Then
+        mockMvc.perform(get("/v1/todos/{id}", oldDoneItem.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Old done"))
+                .andExpect(jsonPath("$.status").value("done"));
+
+        mockMvc.perform(get("/v1/todos").param("includeAll", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2));
+
+        mockMvc.perform(get("/v1/todos").param("includeAll", "true").param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(5))
+                .andExpect(jsonPath("$.content[0].id").value(oldDoneItem.getId()));
+    }
+
+    @Test
+    @DisplayName("Given a tagged live item, when listing across tiers, then include its tags")
+    void givenTaggedLiveItem_whenListingAcrossTiers_thenIncludeTags() throws Exception {
+        // Given
+        todoArchiver.archive();
+        openItem.getTags().addAll(List.of("work", "home"));
+        todoRepository.save(openItem);
+
+        // When & Then
+        mockMvc.perform(get("/v1/todos").param("includeAll", "true").param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].tags").doesNotExist())
+                .andExpect(jsonPath("$.content[4].id").value(openItem.getId()))
+                .andExpect(jsonPath("$.content[4].tags.length()").value(2))
+                .andExpect(jsonPath("$.content[4].tags[0]").value("home"))
+                .andExpect(jsonPath("$.content[4].tags[1]").value("work"));
+    }
+
+    @Test
+    @DisplayName("Given an archived item, when changing it, then return bad request")
+    void givenArchivedItem_whenChangingIt_thenReturnBadRequest() throws Exception {
+        // Given
+        todoArchiver.archive();
+
+        // When & Then
+        mockMvc.perform(patch("/v1/todos/{id}/not-done", oldDoneItem.getId()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Given a cursor, when finding archivable ids, then return only ids after it")
+    void givenCursor_whenFindingArchivableIds_thenReturnOnlyIdsAfterIt() {
+        // Given
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
+        List<Long> all = todoRepository.findArchivableIds(cutoff, false, 0, Pageable.ofSize(10));
+
+        // When
+        List<Long> afterFirst = todoRepository.findArchivableIds(cutoff, false, all.get(0), Pageable.ofSize(10));
+
+        // Then
+        assertThat(all).hasSize(3).startsWith(oldDoneItem.getId());
+        assertThat(afterFirst).containsExactlyElementsOf(all.subList(1, all.size()));
+    }
+
+    private TodoItem save(String description, TodoItem.Status status, LocalDateTime dueDateTime, LocalDateTime doneDateTime) {
+        return todoRepository.save(TodoItem.builder()
+                .description(description)
+                .status(status)
+                .creationDateTime(dueDateTime.minusDays(10))
+                .dueDateTime(dueDateTime)
+                .doneDateTime(doneDateTime)
+                .build());
+    }
+}
@@ -1,14 +1,18 @@
 package com.tradebyte.todo.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo.dto.TodoLookupRequest;
 import com.tradebyte.todo.dto.TodoRequest;
 import com.tradebyte.todo.dto.UpdateDescriptionRequest;
+import com.tradebyte.todo.dto.UpdateTagsRequest;
 import com.tradebyte.todo.entity.TodoItem;
 import com.tradebyte.todo.repository.TodoRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -17,7 +21,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -216,6 +222,45 @@ class TodoIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("Todo Item Lookup")
+    class TodoItemLookupTests {
+
+        @Test
+        @DisplayName("Given existing todo items, when looking up by ids, then return items in request order and list unknown ids")
+        void givenExistingTodoItems_whenLookupByIds_thenReturnItemsInRequestOrder() throws Exception {
+            // Given
+            TodoItem first = todoRepository.save(TodoItem.builder()
+                    .description("First task")
+                    .creationDateTime(LocalDateTime.now())
+                    .dueDateTime(currentDateTime.plusDays(1))
+                    .status(TodoItem.Status.NOT_DONE)
+                    .build());
+
+            TodoItem second = todoRepository.save(TodoItem.builder()
+                    .description("Second task")
+                    .creationDateTime(LocalDateTime.now())
+                    .dueDateTime(currentDateTime.plusDays(1))
+                    .status(TodoItem.Status.DONE)
+                    .doneDateTime(currentDateTime)
+                    .build());
+
+            TodoLookupRequest lookupRequest = TodoLookupRequest.builder()
+                    .ids(List.of(second.getId(), 999_999L, first.getId()))
+                    .build();
+
+            // When & Then
+            mockMvc.perform(post("/v1/todos/lookup")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(lookupRequest)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items.length()").value(2))
+                    .andExpect(jsonPath("$.items[0].description").value("Second task"))
+                    .andExpect(jsonPath("$.items[1].description").value("First task"))
+                    .andExpect(jsonPath("$.notFound[0]").value(999_999L));
+        }
+    }
+
     @Nested
     @DisplayName("Business Rules Validation")
     class BusinessRulesValidationTests {
@@ -265,6 +310,115 @@ class TodoIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("Tags")
+    @DisabledIfSystemProperty(named = "todo.storage.engine", matches = "log|sharded",
+            disabledReason = "Tags are only stored by the JPA engine")
+    class TagTests {
+
+        @Test
+        @DisplayName("Given a tagged item, when replacing its tags, then return and store the new tags sorted")
+        void givenTaggedItem_whenReplacingTags_thenReturnAndStoreNewTags() throws Exception {
+            // Given
+            TodoItem savedItem = saveTagged("Tagged", currentDateTime.plusDays(1), "work");
+
+            // When & Then
+            mockMvc.perform(put("/v1/todos/{id}/tags", savedItem.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new UpdateTagsRequest(Set.of("urgent", "home")))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.tags.length()").value(2))
+                    .andExpect(jsonPath("$.tags[0]").value("home"))
+                    .andExpect(jsonPath("$.tags[1]").value("urgent"));
+
+            mockMvc.perform(get("/v1/todos/{id}", savedItem.getId()))
+                    .andExpect(jsonPath("$.tags[0]").value("home"))
+                    .andExpect(jsonPath("$.tags[1]").value("urgent"));
+            mockMvc.perform(put("/v1/todos/{id}/tags", 999L)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"tags\": [\"home\"]}"))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("Given items with overlapping tags, when filtering by several tags, then return only items carrying all of them")
+        void givenOverlappingTags_whenFilteringBySeveralTags_thenReturnItemsCarryingAll() throws Exception {
+            // Given
+            TodoItem both = saveTagged("Both", currentDateTime.plusDays(1), "work", "urgent");
+            saveTagged("Work only", currentDateTime.plusDays(1), "work");
+            TodoItem bothAndMore = saveTagged("Both and more", currentDateTime.plusDays(2), "work", "urgent", "home");
+            saveTagged("Untagged", currentDateTime.plusDays(1));
+
+            // When & Then
+            mockMvc.perform(get("/v1/todos").param("tag", "work", "urgent"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content.length()").value(2))
+                    .andExpect(jsonPath("$.content[0].id").value(both.getId()))
+                    .andExpect(jsonPath("$.content[1].id").value(bothAndMore.getId()));
+            mockMvc.perform(get("/v1/todos").param("tag", "work").param("size", "2"))
+                    .andExpect(jsonPath("$.content.length()").value(2))
+                    .andExpect(jsonPath("$.hasNext").value(true));
+        }
+
+        @Test
+        @DisplayName("Given tagged items in every status, when filtering by tag and status without the index, then use due dates for past due")
+        void givenTaggedItemsInEveryStatus_whenFilteringByStatus_thenMatchStatus() throws Exception {
+            // Given
+            TodoItem open = saveTagged("Open", currentDateTime.plusDays(1), "work");
+            TodoItem done = saveTagged("Done", currentDateTime.plusDays(1), "work");
+            TodoItem pastDue = saveTagged("Past due", currentDateTime.minusDays(1), "work");
+            pastDue.setStatus(TodoItem.Status.PAST_DUE);
+            todoRepository.save(pastDue);
+            mockMvc.perform(patch("/v1/todos/{id}/done", done.getId())).andExpect(status().isOk());
+
+            // When & Then
+            mockMvc.perform(get("/v1/todos").param("tag", "work").param("status", "NOT_DONE"))
+                    .andExpect(jsonPath("$.content.length()").value(1))
+                    .andExpect(jsonPath("$.content[0].id").value(open.getId()));
+            mockMvc.perform(get("/v1/todos").param("tag", "work").param("status", "DONE"))
+                    .andExpect(jsonPath("$.content.length()").value(1))
+                    .andExpect(jsonPath("$.content[0].id").value(done.getId()));
+            mockMvc.perform(get("/v1/todos").param("tag", "work").param("status", "PAST_DUE"))
+                    .andExpect(jsonPath("$.content.length()").value(1))
+                    .andExpect(jsonPath("$.content[0].id").value(pastDue.getId()));
+        }
+
+        private TodoItem saveTagged(String description, LocalDateTime dueDateTime, String... tags) {
+            return todoRepository.save(TodoItem.builder()
+                    .description(description)
+                    .creationDateTime(currentDateTime)
+                    .dueDateTime(dueDateTime)
+                    .status(TodoItem.Status.NOT_DONE)
+                    .tags(new HashSet<>(Set.of(tags)))
+                    .build());
+        }
+    }
+
+    @Nested
+    @DisplayName("JPA Only Features")
+    @EnabledIfSystemProperty(named = "todo.storage.engine", matches = "log|sharded",
+            disabledReason = "Tags and archived items need the JPA engine")
+    class JpaOnlyFeatureTests {
+
+        @Test
+        @DisplayName("Given a storage engine without tags, when filtering by tag, then return bad request")
+        void givenEngineWithoutTags_whenFilteringByTag_thenReturnBadRequest() throws Exception {
+            // When & Then
+            mockMvc.perform(get("/v1/todos").param("tag", "work"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Tag filters require todo.storage.engine=jpa"));
+        }
+
+        @Test
+        @DisplayName("Given a storage engine without an archive tier, when listing archived items, then return bad request")
+        void givenEngineWithoutArchiveTier_whenListingArchivedItems_thenReturnBadRequest() throws Exception {
+            // When & Then
+            mockMvc.perform(get("/v1/todos").param("includeAll", "true").param("includeArchived", "true"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Archived items require todo.storage.engine=jpa"));
+        }
+    }
+
     @Nested
     @DisplayName("Error Handling")
     class ErrorHandlingTests {
@@ -0,0 +1,287 @@
+package com.tradebyte.todo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo.dto.TodoLookupRequest;
+import com.tradebyte.todo.dto.TodoRequest;
+import com.tradebyte.todo.dto.UpdateDescriptionRequest;
+import com.tradebyte.todo.entity.ArchivedTodoItem;
+import com.tradebyte.todo.entity.TodoItem;
+import com.tradebyte.todo.repository.ArchivedTodoItemRepository;
+import com.tradebyte.todo.repository.TodoRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the number of SQL statements per service call and per endpoint, so an extra
+ * SELECT, an N+1 or a COUNT shows up as a test failure, plus coarse latency budgets on
+ * a seeded table. Statements are counted with Hibernate statistics, so background jobs
+ * that would issue statements of their own are switched off.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "todo.scheduler.enabled=false",
+        "todo.warmup.enabled=false"
+})
+@AutoConfigureMockMvc
+@DisplayName("Todo Query Budget Tests")
+class TodoQueryBudgetTest {
+
+    private static final int SEEDED_ITEMS = 5_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private ArchivedTodoItemRepository archivedTodoItemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        todoRepository.deleteAll();
+        archivedTodoItemRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Nested
+    @DisplayName("Service Calls")
+    class ServiceCallTests {
+
+        @Test
+        @DisplayName("Given a live item, when getting it, then run one query")
+        void givenLiveItem_whenGetTodoItem_thenOneQuery() throws Exception {
+            // Given
+            List<Long> ids = seed(1);
+
+            // When & Then
+            assertThat(statements(() -> todoService.getTodoItem(ids.get(0)))).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Given an archived item, when getting it, then run one query per tier")
+        void givenArchivedItem_whenGetTodoItem_thenOneQueryPerTier() throws Exception {
+            // Given
+            Long id = archive(seed(1).get(0));
+
+            // When & Then
+            assertThat(statements(() -> todoService.getTodoItem(id))).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Given more items than fit on a page, when listing a page, then run one query for the page, one for its tags and no count")
+        void givenMoreItemsThanPage_whenListing_thenPageAndTagQueriesWithoutCount() throws Exception {
+            // Given
+            seed(30);
+
+            // When & Then
+            assertThat(statements(() -> todoService.getAllNotDoneItems(false, 0, 10))).isEqualTo(2);
+            assertThat(statements(() -> todoService.getAllNotDoneItems(true, 1, 10))).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Given many live items, when looking them up, then run one query for all of them")
+        void givenManyLiveItems_whenLookingUp_thenOneQuery() throws Exception {
+            // Given
+            List<Long> ids = seed(100);
+
+            // When & Then
+            assertThat(statements(() -> todoService.getTodoItems(ids))).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Given 50 creates in a row, when creating, then run one insert each and one sequence call")
+        void givenFiftyCreates_whenCreating_thenOneInsertEachAndOneSequenceCall() throws Exception {
+            // Given
+            TodoRequest request = new TodoRequest("Budgeted create", LocalDateTime.now().plusDays(1));
+
+            // When & Then
+            assertThat(statements(() -> {
+                for (int i = 0; i < TodoItem.ID_ALLOCATION_SIZE; i++) {
+                    todoService.createTodoItem(request);
+                }
+            })).isEqualTo(TodoItem.ID_ALLOCATION_SIZE + 1);
+        }
+
+        @Test
+        @DisplayName("Given a live item, when updating it, then run one select and one update")
+        void givenLiveItem_whenUpdating_thenSelectAndUpdate() throws Exception {
+            // Given
+            Long id = seed(1).get(0);
+
+            // When & Then
+            assertThat(statements(() -> todoService.updateDescription(id, new UpdateDescriptionRequest("Changed"))))
+                    .isEqualTo(2);
+            assertThat(statements(() -> todoService.markAsDone(id))).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Given overdue items, when sweeping, then run a single bulk update")
+        void givenOverdueItems_whenSweeping_thenSingleBulkUpdate() throws Exception {
+            // Given
+            seed(20);
+            todoRepository.saveAll(List.of(overdue(), overdue()));
+
+            // When & Then
+            assertThat(statements(() -> todoService.updatePastDueItemsBulk())).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Endpoints")
+    class EndpointTests {
+
+        @Test
+        @DisplayName("Given a live item, when calling the read endpoints, then run one query each and one more for the tags of a page")
+        void givenLiveItem_whenCallingReadEndpoints_thenOneQueryEachPlusPageTags() throws Exception {
+            // Given
+            List<Long> ids = seed(30);
+
+            // When & Then
+            assertThat(statements(() -> perform(get("/v1/todos/{id}", ids.get(0))))).isEqualTo(1);
+            assertThat(statements(() -> perform(get("/v1/todos").param("size", "10")))).isEqualTo(2);
+            assertThat(statements(() -> perform(post("/v1/todos/lookup")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new TodoLookupRequest(ids)))))).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Given a live item, when calling the write endpoints, then stay within the service budgets")
+        void givenLiveItem_whenCallingWriteEndpoints_thenStayWithinServiceBudgets() throws Exception {
+            // Given
+            Long id = seed(1).get(0);
+
+            // When & Then
+            assertThat(statements(() -> perform(patch("/v1/todos/{id}/description", id)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new UpdateDescriptionRequest("Changed")))))).isEqualTo(2);
+            assertThat(statements(() -> perform(patch("/v1/todos/{id}/done", id)))).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Latency")
+    class LatencyTests {
+
+        @Test
+        @DisplayName("Given a seeded table, when reading, listing and looking up, then stay within coarse latency budgets")
+        void givenSeededTable_whenReading_thenStayWithinLatencyBudgets() {
+            // Given
+            List<Long> ids = seed(SEEDED_ITEMS);
+            List<Long> lookupIds = ids.subList(ids.size() / 2, ids.size() / 2 + 100);
+
+            // When & Then
+            assertThat(p95Millis(i -> todoService.getTodoItem(ids.get(i * 37 % ids.size())))).isLessThan(25);
+            assertThat(p95Millis(i -> todoService.getAllNotDoneItems(false, i % 50, 100))).isLessThan(50);
+            assertThat(p95Millis(i -> todoService.getTodoItems(lookupIds))).isLessThan(50);
+            assertThat(p95Millis(i -> todoService.createTodoItem(
+                    new TodoRequest("Timed create " + i, LocalDateTime.now().plusDays(1))))).isLessThan(25);
+        }
+    }
+
+    private long statements(ThrowingRunnable call) throws Exception {
+        long before = statistics.getPrepareStatementCount();
+        call.run();
+        return statistics.getPrepareStatementCount() - before;
+    }
+
+    private void perform(RequestBuilder request) throws Exception {
+        mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+    }
+
+    /**
+     * Runs {@code call} 50 times to warm up and 200 times measured, and returns the 95th
+     * percentile of the measured durations.
+     */
+    private long p95Millis(IntConsumer call) {
+        for (int i = 0; i < 50; i++) {
+            call.accept(i);
+        }
+        long[] nanos = new long[200];
+        for (int i = 0; i < nanos.length; i++) {
+            long startedAt = System.nanoTime();
+            call.accept(i);
+            nanos[i] = System.nanoTime() - startedAt;
+        }
+        Arrays.sort(nanos);
+        return TimeUnit.NANOSECONDS.toMillis(nanos[(int) (nanos.length * 0.95)]);
+    }
+
+    private List<Long> seed(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LocalDateTime dueDateTime = LocalDateTime.now().plusDays(7);
+        for (int from = 0; from < count; from += 1_000) {
+            int chunk = Math.min(1_000, count - from);
+            transaction.executeWithoutResult(status -> LongStream.range(0, chunk)
+                    .mapToObj(i -> new TodoItem("Seeded item " + i, dueDateTime))
+                    .map(todoRepository::save)
+                    .forEach(item -> ids.add(item.getId())));
+        }
+        return ids;
+    }
+
+    private Long archive(Long id) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            TodoItem item = todoRepository.findById(id).orElseThrow();
+            archivedTodoItemRepository.save(ArchivedTodoItem.of(item, TodoItem.Status.DONE, LocalDateTime.now()));
+            todoRepository.delete(item);
+            return id;
+        });
+    }
+
+    private static TodoItem overdue() {
+        return TodoItem.builder()
+                .description("Overdue")
+                .creationDateTime(LocalDateTime.now().minusDays(2))
+                .dueDateTime(LocalDateTime.now().minusDays(1))
+                .status(TodoItem.Status.NOT_DONE)
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,64 @@
+package com.tradebyte.todo.service;
+
+import com.tradebyte.todo.dto.TodoResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Todo Read Coalescer Tests")
+class TodoReadCoalescerTest {
+
+    private final TodoService todoService = mock(TodoService.class);
+    private final TodoReadCoalescer coalescer = new TodoReadCoalescer(todoService, true);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Given a read in flight, when an item changes, then later reads do not join the older flight")
+    void givenReadInFlight_whenItemChanges_thenLaterReadsDoNotJoinOlderFlight() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(todoService.getTodoItem(1L))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return response("Before");
+                })
+                .thenReturn(response("After"));
+        Future<TodoResponse> inFlight = executor.submit(() -> coalescer.getTodoItem(1L));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        coalescer.onTodoItemsChanged(TodoItemsChangedEvent.of(1L));
+        TodoResponse afterChange = coalescer.getTodoItem(1L);
+
+        // Then
+        assertThat(afterChange.description()).isEqualTo("After");
+        release.countDown();
+        assertThat(inFlight.get(5, TimeUnit.SECONDS).description()).isEqualTo("Before");
+        verify(todoService, times(2)).getTodoItem(1L);
+    }
+
+    private static TodoResponse response(String description) {
+        LocalDateTime now = LocalDateTime.now();
+        return new TodoResponse(1L, description, "not done", now, now.plusDays(1), null);
+    }
+}
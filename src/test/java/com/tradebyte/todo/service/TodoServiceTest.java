@@ -1,11 +1,16 @@
 package com.tradebyte.todo.service;
 
+import com.tradebyte.todo.dto.TodoBulkDeleteResponse;
+import com.tradebyte.todo.dto.TodoLookupResponse;
 import com.tradebyte.todo.dto.TodoRequest;
 import com.tradebyte.todo.dto.TodoResponse;
 import com.tradebyte.todo.dto.UpdateDescriptionRequest;
+import com.tradebyte.todo.entity.ArchivedTodoItem;
 import com.tradebyte.todo.entity.TodoItem;
 import com.tradebyte.todo.exception.ResourceNotFoundException;
 import com.tradebyte.todo.exception.ValidationException;
+import com.tradebyte.todo.index.TodoTagIndex;
+import com.tradebyte.todo.repository.ArchivedTodoItemRepository;
 import com.tradebyte.todo.repository.TodoRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,18 +19,25 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +47,18 @@ class TodoServiceTest {
     @Mock
     private TodoRepository todoRepository;
 
+    @Mock
+    private ArchivedTodoItemRepository archivedTodoItemRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private PastDuePolicy pastDuePolicy = new PastDuePolicy(false);
+
+    @Mock
+    private TodoTagIndex tagIndex;
+
     @InjectMocks
     private TodoService todoService;
 
@@ -149,6 +173,76 @@ class TodoServiceTest {
 
             verify(todoRepository).findById(nonExistingId);
         }
+
+        @Test
+        @DisplayName("Given an archived todo item id, when getting todo item, then return it from the archive")
+        void givenArchivedTodoItemId_whenGetTodoItem_thenReturnFromArchive() {
+            // Given
+            Long archivedId = 7L;
+            when(todoRepository.findById(archivedId)).thenReturn(Optional.empty());
+            when(archivedTodoItemRepository.findById(archivedId)).thenReturn(Optional.of(ArchivedTodoItem.builder()
+                    .id(archivedId)
+                    .description("Archived task")
+                    .status(TodoItem.Status.DONE)
+                    .creationDateTime(currentDateTime.minusDays(60))
+                    .dueDateTime(currentDateTime.minusDays(50))
+                    .doneDateTime(currentDateTime.minusDays(55))
+                    .archivedDateTime(currentDateTime)
+                    .build()));
+
+            // When
+            TodoResponse response = todoService.getTodoItem(archivedId);
+
+            // Then
+            assertThat(response.id()).isEqualTo(archivedId);
+            assertThat(response.status()).isEqualTo("done");
+        }
+    }
+
+    @Nested
+    @DisplayName("Get Todo Items By Ids")
+    class GetTodoItemsByIdsTests {
+
+        @Test
+        @DisplayName("Given known and unknown ids, when looking up todo items, then return items in request order and report misses")
+        void givenKnownAndUnknownIds_whenGetTodoItems_thenReturnItemsInRequestOrderAndMisses() {
+            // Given
+            TodoItem secondItem = TodoItem.builder()
+                    .id(2L)
+                    .description("Second task")
+                    .status(TodoItem.Status.DONE)
+                    .build();
+
+            when(todoRepository.findAllById(List.of(2L, 999L, 1L)))
+                    .thenReturn(List.of(sampleTodoItem, secondItem));
+
+            // When
+            TodoLookupResponse response = todoService.getTodoItems(List.of(2L, 999L, 1L, 2L));
+
+            // Then
+            assertThat(response.items()).extracting(TodoResponse::id).containsExactly(2L, 1L);
+            assertThat(response.notFound()).containsExactly(999L);
+
+            verify(todoRepository).findAllById(List.of(2L, 999L, 1L));
+        }
+
+        @Test
+        @DisplayName("Given more ids than one chunk, when looking up todo items, then split the lookup into several queries")
+        void givenMoreIdsThanOneChunk_whenGetTodoItems_thenQueryInChunks() {
+            // Given
+            List<Long> ids = LongStream.rangeClosed(1, TodoService.LOOKUP_CHUNK_SIZE + 1).boxed().toList();
+            when(todoRepository.findAllById(anyList())).thenReturn(List.of());
+
+            // When
+            TodoLookupResponse response = todoService.getTodoItems(ids);
+
+            // Then
+            assertThat(response.items()).isEmpty();
+            assertThat(response.notFound()).hasSize(ids.size());
+
+            verify(todoRepository).findAllById(ids.subList(0, TodoService.LOOKUP_CHUNK_SIZE));
+            verify(todoRepository).findAllById(List.of((long) TodoService.LOOKUP_CHUNK_SIZE + 1));
+        }
     }
 
     @Nested
@@ -201,6 +295,39 @@ class TodoServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Update Descriptions Bulk")
+    class UpdateDescriptionsBulkTests {
+
+        @Test
+        @DisplayName("Given buffered descriptions for mutable, past due and missing items, when applying, then update only mutable items")
+        void givenBufferedDescriptions_whenUpdateDescriptionsBulk_thenUpdateOnlyMutableItems() {
+            // Given
+            TodoItem pastDueItem = TodoItem.builder()
+                    .id(2L)
+                    .description("Overdue task")
+                    .status(TodoItem.Status.PAST_DUE)
+                    .build();
+
+            Map<Long, String> descriptions = new LinkedHashMap<>();
+            descriptions.put(1L, "Buffered update");
+            descriptions.put(2L, "Too late");
+            descriptions.put(3L, "Deleted meanwhile");
+
+            when(todoRepository.findAllById(descriptions.keySet())).thenReturn(List.of(sampleTodoItem, pastDueItem));
+
+            // When
+            List<Long> rejectedIds = todoService.updateDescriptionsBulk(descriptions);
+
+            // Then
+            assertThat(rejectedIds).containsExactly(2L, 3L);
+            assertThat(sampleTodoItem.getDescription()).isEqualTo("Buffered update");
+            assertThat(pastDueItem.getDescription()).isEqualTo("Overdue task");
+
+            verify(todoRepository).saveAll(List.of(sampleTodoItem));
+        }
+    }
+
     @Nested
     @DisplayName("Mark as Done")
     class MarkAsDoneTests {
@@ -274,7 +401,7 @@ class TodoServiceTest {
                     .status(TodoItem.Status.DONE)
                     .build();
 
-            when(todoRepository.findAll(any(Pageable.class)))
+            when(todoRepository.findAllBy(any(Pageable.class)))
                     .thenReturn(new PageImpl<>(List.of(sampleTodoItem, doneItem)));
 
             // When
@@ -285,7 +412,7 @@ class TodoServiceTest {
             assertThat(responses.getContent()).extracting("status")
                     .containsExactlyInAnyOrder("not done", "done");
 
-            verify(todoRepository).findAll(any(Pageable.class));
+            verify(todoRepository).findAllBy(any(Pageable.class));
         }
     }
 
@@ -322,5 +449,189 @@ class TodoServiceTest {
             assertThat(updatedCount).isEqualTo(0);
             verify(todoRepository).markPastDueItems(any(LocalDateTime.class));
         }
+
+        @Test
+        @DisplayName("Given a partition, when updating past due items, then only sweep that partition")
+        void givenPartition_whenUpdatePastDueItems_thenOnlySweepThatPartition() {
+            // Given
+            when(todoRepository.markPastDueItemsInPartition(any(LocalDateTime.class), eq(2), eq(4)))
+                    .thenReturn(3);
+
+            // When
+            int updatedCount = todoService.updatePastDueItemsBulk(2, 4);
+
+            // Then
+            assertThat(updatedCount).isEqualTo(3);
+            verify(todoRepository, never()).markPastDueItems(any(LocalDateTime.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Delete Todo Items")
+    class DeleteTodoItemTests {
+
+        @Test
+        @DisplayName("Given existing todo item, when deleting it, then remove it and publish a change")
+        void givenExistingTodoItem_whenDelete_thenRemoveAndPublishChange() {
+            // Given
+            when(todoRepository.findById(1L)).thenReturn(Optional.of(sampleTodoItem));
+
+            // When
+            todoService.deleteTodoItem(1L);
+
+            // Then
+            verify(todoRepository).delete(sampleTodoItem);
+            verify(eventPublisher).publishEvent(TodoItemsChangedEvent.of(1L));
+        }
+
+        @Test
+        @DisplayName("Given unknown todo item, when deleting it, then throw ResourceNotFoundException")
+        void givenUnknownTodoItem_whenDelete_thenThrowResourceNotFoundException() {
+            // Given
+            when(todoRepository.findById(999L)).thenReturn(Optional.empty());
+            when(archivedTodoItemRepository.existsById(999L)).thenReturn(false);
+
+            // When & Then
+            assertThatThrownBy(() -> todoService.deleteTodoItem(999L))
+                    .isInstanceOf(ResourceNotFoundException.class);
+            verify(todoRepository, never()).delete(any(TodoItem.class));
+        }
+
+        @Test
+        @DisplayName("Given live, archived and unknown ids, when bulk deleting, then delete from both tiers and report unknown ids")
+        void givenLiveArchivedAndUnknownIds_whenBulkDelete_thenDeleteFromBothTiers() {
+            // Given
+            ArchivedTodoItem archivedItem = ArchivedTodoItem.builder().id(5L).build();
+            when(todoRepository.findAllById(List.of(1L, 5L, 9L))).thenReturn(List.of(sampleTodoItem));
+            when(archivedTodoItemRepository.findAllById(List.of(5L, 9L))).thenReturn(List.of(archivedItem));
+
+            // When
+            TodoBulkDeleteResponse response = todoService.deleteTodoItems(List.of(1L, 5L, 9L, 1L));
+
+            // Then
+            assertThat(response.deleted()).containsExactly(1L, 5L);
+            assertThat(response.notFound()).containsExactly(9L);
+            verify(todoRepository).deleteAllInBatch(List.of(sampleTodoItem));
+            verify(archivedTodoItemRepository).deleteAllInBatch(List.of(archivedItem));
+        }
+    }
+
+    @Nested
+    @DisplayName("Lazy Past Due Evaluation")
+    class LazyPastDueTests {
+
+        private TodoService lazyTodoService;
+        private TodoItem overdueItem;
+
+        @BeforeEach
+        void setUp() {
+            lazyTodoService = new TodoService(todoRepository, archivedTodoItemRepository, eventPublisher,
+                    new PastDuePolicy(true), tagIndex);
+            overdueItem = TodoItem.builder()
+                    .id(3L)
+                    .description("Overdue task")
+                    .status(TodoItem.Status.NOT_DONE)
+                    .creationDateTime(currentDateTime.minusDays(2))
+                    .dueDateTime(currentDateTime.minusMinutes(1))
+                    .build();
+        }
+
+        @Test
+        @DisplayName("Given an overdue item not yet swept, when getting it, then report it as past due")
+        void givenOverdueItemNotYetSwept_whenGetTodoItem_thenReportPastDue() {
+            // Given
+            when(todoRepository.findById(3L)).thenReturn(Optional.of(overdueItem));
+
+            // When
+            TodoResponse response = lazyTodoService.getTodoItem(3L);
+
+            // Then
+            assertThat(response.status()).isEqualTo("past due");
+            assertThat(overdueItem.getStatus()).isEqualTo(TodoItem.Status.NOT_DONE);
+        }
+
+        @Test
+        @DisplayName("Given an overdue item not yet swept, when updating its description, then throw validation exception")
+        void givenOverdueItemNotYetSwept_whenUpdateDescription_thenThrowValidationException() {
+            // Given
+            when(todoRepository.findById(3L)).thenReturn(Optional.of(overdueItem));
+
+            // When & Then
+            assertThatThrownBy(() -> lazyTodoService.updateDescription(3L, new UpdateDescriptionRequest("Too late")))
+                    .isInstanceOf(ValidationException.class);
+            verify(todoRepository, never()).save(any(TodoItem.class));
+        }
+
+        @Test
+        @DisplayName("Given lazy mode, when listing not done items, then exclude overdue items in the query")
+        void givenLazyMode_whenGetNotDoneItems_thenExcludeOverdueItemsInQuery() {
+            // Given
+            when(todoRepository.findByStatusAndDueDateTimeGreaterThanEqual(
+                    eq(TodoItem.Status.NOT_DONE), any(LocalDateTime.class), any(Pageable.class)))
+                    .thenReturn(new PageImpl<>(List.of(sampleTodoItem)));
+
+            // When
+            Slice<TodoResponse> responses = lazyTodoService.getAllNotDoneItems(false, 0, 10);
+
+            // Then
+            assertThat(responses.getContent()).extracting("status").containsExactly("not done");
+            verify(todoRepository, never()).findByStatus(any(), any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("Given an overdue live item not yet swept, when listing across tiers, then report it as past due")
+        void givenOverdueLiveItemNotYetSwept_whenListingAcrossTiers_thenReportPastDue() {
+            // Given
+            when(archivedTodoItemRepository.findAcrossTiers(11, 0L)).thenReturn(List.of(
+                    tieredRow(2L, TodoItem.Status.DONE, currentDateTime.minusDays(40), true),
+                    tieredRow(3L, TodoItem.Status.NOT_DONE, currentDateTime.minusMinutes(1), false),
+                    tieredRow(4L, TodoItem.Status.NOT_DONE, currentDateTime.plusDays(1), false)));
+
+            // When
+            Slice<TodoResponse> responses = lazyTodoService.getAllItemsIncludingArchived(0, 10);
+
+            // Then
+            assertThat(responses.getContent()).extracting("status").containsExactly("done", "past due", "not done");
+        }
+
+        private ArchivedTodoItemRepository.TieredTodoRow tieredRow(Long id, TodoItem.Status status,
+                                                                   LocalDateTime dueDateTime, boolean archived) {
+            return new ArchivedTodoItemRepository.TieredTodoRow() {
+                @Override
+                public Long getId() {
+                    return id;
+                }
+
+                @Override
+                public String getDescription() {
+                    return "Task " + id;
+                }
+
+                @Override
+                public String getStatus() {
+                    return status.name();
+                }
+
+                @Override
+                public LocalDateTime getCreationDateTime() {
+                    return dueDateTime.minusDays(1);
+                }
+
+                @Override
+                public LocalDateTime getDueDateTime() {
+                    return dueDateTime;
+                }
+
+                @Override
+                public LocalDateTime getDoneDateTime() {
+                    return null;
+                }
+
+                @Override
+                public boolean isArchived() {
+                    return archived;
+                }
+            };
+        }
     }
-}
\ No newline at end of file
+}